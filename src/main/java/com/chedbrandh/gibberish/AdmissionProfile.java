@@ -0,0 +1,175 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.primitives.Ints;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Cheap checks that input must pass to possibly be a phrase of a
+ * {@link PhraseTranslator}, used for rejecting hostile input before it is
+ * decoded.
+ *
+ * The profile holds the minimum and maximum lengths of phrases, in chars
+ * and in UTF-8 bytes, so that input of any other length is rejected in
+ * constant time. It also holds the set of chars, and of UTF-8 bytes, found
+ * in the words and the separators, as bitmaps over all char and
+ * byte values, so that input containing other chars is rejected in a single
+ * pass with no lookups other than the bitmap.
+ *
+ * All words of the word providers are profiled, including words at indices
+ * greater than the bits of their position allow, so that phrases with such
+ * words still fail with a {@link
+ * com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException}.
+ *
+ * Passing the checks does not mean that input is a phrase.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class AdmissionProfile {
+
+    private final int minChars;
+    private final int maxChars;
+    private final int minBytes;
+    private final int maxBytes;
+
+    // bitmaps of the chars and the UTF-8 bytes that phrases may contain
+    private final long[] chars = new long[(Character.MAX_VALUE + 1) / Long.SIZE];
+    private final long[] bytes = new long[256 / Long.SIZE];
+
+    /**
+     * Creates the admission profile of phrases.
+     *
+     * @param separators        Separators used for constructing phrases.
+     * @param wordProviders     Word providers used for constructing phrases.
+     */
+    public AdmissionProfile(SeparatorsPhraseConstructor separators,
+                            List<WordProvider> wordProviders) {
+        long minChars = separators.separatorsLength();
+        long maxChars = separators.separatorsLength();
+        long minBytes = separators.utf8SeparatorsLength();
+        long maxBytes = separators.utf8SeparatorsLength();
+        for (int i = 0; i <= wordProviders.size(); i++) {
+            add(separators.getSeparator(i));
+        }
+        for (int i = 0; i < wordProviders.size(); i++) {
+            WordProvider provider = wordProviders.get(i);
+            int positionMinChars = Integer.MAX_VALUE;
+            int positionMaxChars = 0;
+            int positionMinBytes = Integer.MAX_VALUE;
+            int positionMaxBytes = 0;
+            int numWords = provider.size();
+            for (int index = 0; index < numWords; index++) {
+                add(provider.get(index));
+                positionMinChars = Math.min(positionMinChars, provider.get(index).length());
+                positionMaxChars = Math.max(positionMaxChars, provider.get(index).length());
+                positionMinBytes = Math.min(positionMinBytes, provider.getUtf8(index).length);
+                positionMaxBytes = Math.max(positionMaxBytes, provider.getUtf8(index).length);
+            }
+            minChars += positionMinChars;
+            maxChars += positionMaxChars;
+            minBytes += positionMinBytes;
+            maxBytes += positionMaxBytes;
+        }
+        this.minChars = Ints.saturatedCast(minChars);
+        this.maxChars = Ints.saturatedCast(maxChars);
+        this.minBytes = Ints.saturatedCast(minBytes);
+        this.maxBytes = Ints.saturatedCast(maxBytes);
+    }
+
+    /**
+     * Returns true if a phrase may have some number of chars.
+     *
+     * @param length    Number of chars.
+     * @return          True if the length is within the bounds of phrases.
+     */
+    public boolean admitsLength(int length) {
+        return minChars <= length && length <= maxChars;
+    }
+
+    /**
+     * Returns true if a phrase may have some number of UTF-8 bytes.
+     *
+     * @param length    Number of bytes.
+     * @return          True if the length is within the bounds of phrases.
+     */
+    public boolean admitsUtf8Length(int length) {
+        return minBytes <= length && length <= maxBytes;
+    }
+
+    /**
+     * Returns true if a region of a CharSequence has the length of a phrase
+     * and only contains chars found in phrases.
+     *
+     * @param phrase    CharSequence containing the phrase.
+     * @param start     Index of the first char of the phrase, inclusive.
+     * @param end       Index of the last char of the phrase, exclusive.
+     * @return          True if the region passes the checks.
+     */
+    public boolean admits(CharSequence phrase, int start, int end) {
+        if (!admitsLength(end - start)) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = phrase.charAt(i);
+            if ((chars[c >>> 6] & 1L << c) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if a region of a ByteBuffer has the length of a UTF-8
+     * encoded phrase and only contains bytes found in encoded phrases.
+     *
+     * @param phrase    ByteBuffer containing the UTF-8 encoded phrase.
+     * @param start     Absolute index of the first byte of the phrase, inclusive.
+     * @param end       Absolute index of the last byte of the phrase, exclusive.
+     * @return          True if the region passes the checks.
+     */
+    public boolean admitsUtf8(ByteBuffer phrase, int start, int end) {
+        if (!admitsUtf8Length(end - start)) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            int b = phrase.get(i) & 0xFF;
+            if ((bytes[b >>> 6] & 1L << b) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getMinChars() {
+        return minChars;
+    }
+
+    public int getMaxChars() {
+        return maxChars;
+    }
+
+    public int getMinBytes() {
+        return minBytes;
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Add the chars, and the UTF-8 bytes, of a String to the bitmaps.
+     */
+    private void add(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            chars[c >>> 6] |= 1L << c;
+        }
+        for (byte b : string.getBytes(StandardCharsets.UTF_8)) {
+            int unsigned = b & 0xFF;
+            bytes[unsigned >>> 6] |= 1L << unsigned;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
+import com.google.common.base.Preconditions;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes and decodes the named fields of a {@link BitFieldLayout} as the
+ * phrases of a {@link PhraseTranslator}.
+ *
+ * The layout is compiled, when the codec is created, into a plan of which
+ * bits of which fields each word index is made of, so that field values are
+ * moved straight between word indices and fields, with no intermediate byte
+ * array or long. Layouts may therefore cover more bits than a long holds.
+ *
+ * Field values can be given as an array, in the order of the fields, or as
+ * the fields of an object, which are matched to the fields of the layout by
+ * name. Object fields must be of type long or int.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class BitFieldCodec {
+
+    private static final String MISSING_FIELD_FORMAT =
+            "Class %s has no field '%s' of type long or int.";
+
+    private final PhraseTranslator phraseTranslator;
+    private final BitFieldLayout layout;
+    private final List<BitFieldLayout.Field> fields;
+
+    // plan of the segments of fields making up the index of each word, where
+    // segment j of word i moves the bits of segmentMasks[i][j] from bit
+    // fieldShifts[i][j] of field segmentFields[i][j] to bit indexShifts[i][j]
+    private final int[][] segmentFields;
+    private final int[][] fieldShifts;
+    private final int[][] indexShifts;
+    private final long[][] segmentMasks;
+
+    // object fields of each class, in the order of the layout
+    private final Map<Class<?>, Field[]> classFields = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a codec of a layout for a phrase translator.
+     *
+     * @param phraseTranslator  Phrase translator to encode and decode phrases of.
+     * @param layout            Layout of the fields in the bits of the phrase translator.
+     */
+    public BitFieldCodec(PhraseTranslator phraseTranslator, BitFieldLayout layout) {
+        List<Integer> bitDistribution = phraseTranslator.getIndexTranslator().bitDistribution();
+        Preconditions.checkArgument(
+                phraseTranslator.getIndexTranslator().bitCoverage() == layout.getNumBits(),
+                "Number of bits of layout must equal that of the phrase translator.");
+        this.phraseTranslator = phraseTranslator;
+        this.layout = layout;
+        this.fields = layout.getFields();
+
+        int numWords = bitDistribution.size();
+        segmentFields = new int[numWords][];
+        fieldShifts = new int[numWords][];
+        indexShifts = new int[numWords][];
+        segmentMasks = new long[numWords][];
+        for (int i = 0; i < numWords; i++) {
+            int wordOffset = phraseTranslator.getIndexTranslator().bitOffset(i);
+            compileWord(i, wordOffset, wordOffset + bitDistribution.get(i));
+        }
+    }
+
+    /**
+     * Encode field values as a phrase.
+     *
+     * @param values                    Values of the fields, in the order of the layout.
+     * @return                          The phrase.
+     * @throws IllegalArgumentException If a value is not within the range of its field.
+     */
+    public String encode(long... values) {
+        Preconditions.checkArgument(values.length == fields.size(),
+                "Number of values does not match the number of fields.");
+        long[] bits = new long[values.length];
+        for (int f = 0; f < values.length; f++) {
+            bits[f] = fields.get(f).toBits(values[f]);
+        }
+        int[] indices = new int[segmentFields.length];
+        for (int i = 0; i < indices.length; i++) {
+            long index = 0;
+            for (int j = 0; j < segmentFields[i].length; j++) {
+                index |= (bits[segmentFields[i][j]] >>> fieldShifts[i][j] & segmentMasks[i][j])
+                        << indexShifts[i][j];
+            }
+            indices[i] = (int) index;
+        }
+        return phraseTranslator.fromIndices(indices);
+    }
+
+    /**
+     * Encode the fields of an object as a phrase.
+     *
+     * @param object                    Object with a long or int field per field of the layout.
+     * @return                          The phrase.
+     * @throws IllegalArgumentException If a value is not within the range of its field,
+     *                                  or the object lacks a field.
+     */
+    public String encodeObject(Object object) {
+        Field[] objectFields = getClassFields(object.getClass());
+        long[] values = new long[objectFields.length];
+        try {
+            for (int f = 0; f < values.length; f++) {
+                values[f] = objectFields[f].getLong(object);
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return encode(values);
+    }
+
+    /**
+     * Decode a phrase into field values.
+     *
+     * @param phrase                    Phrase to decode.
+     * @return                          Values of the fields, in the order of the layout.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     * @throws IllegalArgumentException If a value is not within the range of its field.
+     */
+    public long[] decode(CharSequence phrase)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        long[] values = new long[fields.size()];
+        decode(phrase, values);
+        return values;
+    }
+
+    /**
+     * Decode a phrase into field values, placed in an array.
+     *
+     * @param phrase                    Phrase to decode.
+     * @param values                    Array to place the values of the fields in,
+     *                                  in the order of the layout.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     * @throws IllegalArgumentException If a value is not within the range of its field.
+     */
+    public void decode(CharSequence phrase, long[] values)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        Preconditions.checkArgument(values.length == fields.size(),
+                "Number of values does not match the number of fields.");
+        TranslationResult result = new TranslationResult();
+        phraseTranslator.tryToIndices(phrase, result);
+        result.check();
+        int[] indices = result.indices();
+        long[] bits = new long[values.length];
+        for (int i = 0; i < indices.length; i++) {
+            for (int j = 0; j < segmentFields[i].length; j++) {
+                bits[segmentFields[i][j]] |=
+                        (indices[i] >>> indexShifts[i][j] & segmentMasks[i][j])
+                        << fieldShifts[i][j];
+            }
+        }
+        for (int f = 0; f < values.length; f++) {
+            values[f] = fields.get(f).fromBits(bits[f]);
+        }
+    }
+
+    /**
+     * Decode a single field of a phrase, only translating the words holding
+     * the bits of the field. See {@link PhraseTranslator#decodeBits}.
+     *
+     * @param phrase                    Phrase to decode a field of.
+     * @param name                      Name of the field.
+     * @return                          Value of the field.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     * @throws IllegalArgumentException If there is no such field, or the value
+     *                                  is not within the range of the field.
+     */
+    public long decodeField(CharSequence phrase, String name)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        int position = layout.indexOf(name);
+        Preconditions.checkArgument(position != -1, "No field named '%s'.", name);
+        int offset = 0;
+        for (int f = 0; f < position; f++) {
+            offset += fields.get(f).getBits();
+        }
+        BitFieldLayout.Field field = fields.get(position);
+        return field.fromBits(
+                phraseTranslator.decodeBits(phrase, offset, offset + field.getBits()));
+    }
+
+    /**
+     * Decode a phrase into the fields of an object.
+     *
+     * @param phrase                    Phrase to decode.
+     * @param object                    Object with a long or int field per field of the layout.
+     * @param <T>                       Type of the object.
+     * @return                          The object.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     * @throws IllegalArgumentException If a value is not within the range of its field,
+     *                                  or the object lacks a field.
+     */
+    public <T> T decodeObject(CharSequence phrase, T object)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        Field[] objectFields = getClassFields(object.getClass());
+        long[] values = decode(phrase);
+        try {
+            for (int f = 0; f < values.length; f++) {
+                if (objectFields[f].getType() == long.class) {
+                    objectFields[f].setLong(object, values[f]);
+                } else {
+                    objectFields[f].setInt(object, Math.toIntExact(values[f]));
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        return object;
+    }
+
+    public BitFieldLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Compile the segments of the fields that overlap the bits of a word.
+     */
+    private void compileWord(int position, int wordOffset, int wordEnd) {
+        int numSegments = 0;
+        int[] segmentFields = new int[fields.size()];
+        int[] fieldShifts = new int[fields.size()];
+        int[] indexShifts = new int[fields.size()];
+        long[] segmentMasks = new long[fields.size()];
+        int fieldOffset = 0;
+        for (int f = 0; f < fields.size(); f++) {
+            int fieldEnd = fieldOffset + fields.get(f).getBits();
+            int start = Math.max(fieldOffset, wordOffset);
+            int end = Math.min(fieldEnd, wordEnd);
+            if (start < end) {
+                segmentFields[numSegments] = f;
+                fieldShifts[numSegments] = start - fieldOffset;
+                indexShifts[numSegments] = start - wordOffset;
+                segmentMasks[numSegments] = (1L << end - start) - 1;
+                numSegments++;
+            }
+            fieldOffset = fieldEnd;
+        }
+        this.segmentFields[position] = Arrays.copyOf(segmentFields, numSegments);
+        this.fieldShifts[position] = Arrays.copyOf(fieldShifts, numSegments);
+        this.indexShifts[position] = Arrays.copyOf(indexShifts, numSegments);
+        this.segmentMasks[position] = Arrays.copyOf(segmentMasks, numSegments);
+    }
+
+    /**
+     * Get the object fields of a class matching the fields of the layout.
+     */
+    private Field[] getClassFields(Class<?> type) {
+        return classFields.computeIfAbsent(type, this::findClassFields);
+    }
+
+    private Field[] findClassFields(Class<?> type) {
+        Field[] objectFields = new Field[fields.size()];
+        for (int f = 0; f < objectFields.length; f++) {
+            String name = fields.get(f).getName();
+            try {
+                objectFields[f] = type.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalArgumentException(
+                        String.format(MISSING_FIELD_FORMAT, type.getName(), name));
+            }
+            Class<?> fieldType = objectFields[f].getType();
+            if (fieldType != long.class && fieldType != int.class) {
+                throw new IllegalArgumentException(
+                        String.format(MISSING_FIELD_FORMAT, type.getName(), name));
+            }
+            objectFields[f].setAccessible(true);
+        }
+        return objectFields;
+    }
+}
@@ -0,0 +1,171 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Layout of named fields in a sequence of bits.
+ *
+ * Fields are laid out in order, starting with the least significant bit,
+ * like the indices of an {@link IndexTranslator}. For example fields
+ * [shard: 6, type: 4, id: 30] place the shard in bits 0 to 5, the type in
+ * bits 6 to 9 and the id in bits 10 to 39.
+ *
+ * A field may have a range of values. The bits of the field hold the value
+ * minus the minimum of the range, so that for example a year between 2000
+ * and 2063 only needs 6 bits.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class BitFieldLayout {
+
+    private static final String VALUE_OUT_OF_RANGE_FORMAT =
+            "Value %s of field '%s' is not within [%s, %s].";
+
+    private final ImmutableList<Field> fields;
+    private final int numBits;
+
+    /**
+     * Creates a layout of fields.
+     *
+     * @param fields    Fields, in order from the least significant bit.
+     */
+    public BitFieldLayout(List<Field> fields) {
+        Preconditions.checkArgument(!fields.isEmpty(), "Must provide at least one field.");
+        Set<String> names = Sets.newHashSet();
+        int numBits = 0;
+        for (Field field : fields) {
+            Preconditions.checkArgument(names.add(field.getName()),
+                    "Field names must be unique.");
+            numBits += field.getBits();
+        }
+        this.fields = ImmutableList.copyOf(fields);
+        this.numBits = numBits;
+    }
+
+    /**
+     * Get the fields of the layout.
+     *
+     * @return  Fields, in order from the least significant bit.
+     */
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * Get the position of a field in the layout.
+     *
+     * @param name  Name of the field.
+     * @return      Position of the field, or -1 if there is no such field.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the total number of bits of the fields.
+     *
+     * @return  The number of bits.
+     */
+    public int getNumBits() {
+        return numBits;
+    }
+
+    /**
+     * A named field of some number of bits, holding values within a range.
+     */
+    public static class Field {
+
+        private final String name;
+        private final int bits;
+        private final long min;
+        private final long max;
+
+        /**
+         * Creates a field holding any value of its bits.
+         *
+         * @param name  Name of the field.
+         * @param bits  Number of bits of the field.
+         */
+        public Field(String name, int bits) {
+            this(name, bits, 0, (1L << bits) - 1);
+        }
+
+        /**
+         * Creates a field holding values within a range.
+         *
+         * @param name  Name of the field.
+         * @param bits  Number of bits of the field.
+         * @param min   Minimum value, inclusive.
+         * @param max   Maximum value, inclusive.
+         */
+        public Field(String name, int bits, long min, long max) {
+            Preconditions.checkNotNull(name, "Field name must not be null.");
+            Preconditions.checkArgument(0 < bits && bits < Long.SIZE,
+                    "Number of bits of a field must be between 1 and 63.");
+            Preconditions.checkArgument(min <= max, "Field minimum must not exceed maximum.");
+            Preconditions.checkArgument(Long.compareUnsigned(max - min, (1L << bits) - 1) <= 0,
+                    "Range of field '%s' does not fit in %s bits.", name, bits);
+            this.name = name;
+            this.bits = bits;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Get the bits that a value is held by.
+         *
+         * @param value                     Value of the field.
+         * @return                          Bits of the field.
+         * @throws IllegalArgumentException If the value is not within the range.
+         */
+        public long toBits(long value) {
+            if (value < min || value > max) {
+                throw new IllegalArgumentException(
+                        String.format(VALUE_OUT_OF_RANGE_FORMAT, value, name, min, max));
+            }
+            return value - min;
+        }
+
+        /**
+         * Get the value held by some bits.
+         *
+         * @param bits                      Bits of the field.
+         * @return                          Value of the field.
+         * @throws IllegalArgumentException If the value is not within the range.
+         */
+        public long fromBits(long bits) {
+            if (Long.compareUnsigned(bits, max - min) > 0) {
+                throw new IllegalArgumentException(String.format(
+                        VALUE_OUT_OF_RANGE_FORMAT, min + bits, name, min, max));
+            }
+            return min + bits;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getBits() {
+            return bits;
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+    }
+}
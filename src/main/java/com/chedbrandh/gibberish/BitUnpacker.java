@@ -0,0 +1,78 @@
+package com.chedbrandh.gibberish;
+
+import java.util.List;
+
+/**
+ * Unpacks batches of values into the indices of each position of an
+ * {@link IndexTranslator}, a position at a time.
+ *
+ * The shift and mask of each position are computed once, so that unpacking
+ * an index is a shift and an and. Created by {@link BitUnpackers}, which may
+ * provide a faster subclass.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+class BitUnpacker {
+
+    private final int numBits;
+    // shift and mask of the bits of each position
+    final int[] shifts;
+    final long[] masks;
+
+    BitUnpacker(IndexTranslator indexTranslator) {
+        List<Integer> bitDistribution = indexTranslator.bitDistribution();
+        this.numBits = indexTranslator.bitCoverage();
+        this.shifts = new int[bitDistribution.size()];
+        this.masks = new long[bitDistribution.size()];
+        for (int i = 0; i < shifts.length; i++) {
+            shifts[i] = indexTranslator.bitOffset(i);
+            masks[i] = (1L << bitDistribution.get(i)) - 1;
+        }
+    }
+
+    /**
+     * Unpack a block of values into the indices of each position.
+     *
+     * @param values    Values to unpack.
+     * @param from      Index of the first value to unpack.
+     * @param count     Number of values to unpack.
+     * @param indices   Arrays to place the indices of each position in,
+     *                  starting at index zero.
+     * @return          Index of a value not within the bits of the index
+     *                  translator, or -1 if all values are.
+     */
+    int unpack(long[] values, int from, int count, int[][] indices) {
+        int invalid = findInvalid(values, from, count);
+        if (invalid != -1) {
+            return invalid;
+        }
+        for (int i = 0; i < indices.length; i++) {
+            int shift = shifts[i];
+            long mask = masks[i];
+            int[] column = indices[i];
+            for (int r = 0; r < count; r++) {
+                column[r] = (int) (values[from + r] >>> shift & mask);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of a value not within the bits of the index translator.
+     *
+     * @return  The index of the value, or -1 if all values are within the bits.
+     */
+    int findInvalid(long[] values, int from, int count) {
+        for (int r = from; r < from + count; r++) {
+            if (values[r] >>> numBits != 0) {
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    int getNumBits() {
+        return numBits;
+    }
+}
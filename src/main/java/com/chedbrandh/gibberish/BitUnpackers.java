@@ -0,0 +1,27 @@
+package com.chedbrandh.gibberish;
+
+/**
+ * Creates the {@link BitUnpacker} of an {@link IndexTranslator}.
+ *
+ * This class is replaced in multi-release jars, on Java 17 and later, by one
+ * creating an unpacker using the Vector API when the jdk.incubator.vector
+ * module is available.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+final class BitUnpackers {
+
+    private BitUnpackers() {
+    }
+
+    /**
+     * Create an unpacker of the bits of an index translator.
+     *
+     * @param indexTranslator   Index translator of the positions to unpack.
+     * @return                  The unpacker.
+     */
+    static BitUnpacker create(IndexTranslator indexTranslator) {
+        return new BitUnpacker(indexTranslator);
+    }
+}
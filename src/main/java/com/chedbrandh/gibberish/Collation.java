@@ -0,0 +1,120 @@
+package com.chedbrandh.gibberish;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders in which phrases of order-preserving translators sort like the
+ * values they encode. See {@link PhraseTranslator#orderPreserving}.
+ *
+ * UTF16 is the order of Strings in Java, comparing chars. UTF8 is the order
+ * of UTF-8 encoded bytes, compared as unsigned, which is the order of the
+ * code points of the Strings. The two only differ for characters outside of
+ * the Basic Multilingual Plane.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public enum Collation {
+
+    UTF16,
+    UTF8;
+
+    private static final String UNORDERED_WORDS_FORMAT =
+            "Phrases with words '%s' and '%s' at position %s do not sort like their indices.";
+
+    /**
+     * Get a comparator of Strings by this collation.
+     *
+     * @return  The comparator.
+     */
+    public Comparator<String> comparator() {
+        return (s1, s2) -> compare(units(s1), 0, units(s2), 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Verify that phrases constructed from reachable words sort like the
+     * indices of their words, where the first index is the most significant.
+     *
+     * Phrases that first differ at some position sort like the words at that
+     * position, unless one word is a prefix of the other. The rest of the
+     * longer word is then compared to the separator following the shorter
+     * word, which must be smaller without either being a prefix of the other,
+     * since what follows varies. Comparing consecutive reachable words is
+     * enough, since the order of phrases is transitive.
+     *
+     * @param separators                Separators of the phrases.
+     * @param wordProviders             Word providers, ordered by this collation.
+     * @param bitDistribution           Number of bits of each position.
+     * @throws IllegalArgumentException If some phrases do not sort like their indices.
+     */
+    void verifyOrder(SeparatorsPhraseConstructor separators, List<WordProvider> wordProviders,
+                     List<Integer> bitDistribution) {
+        for (int position = 0; position < wordProviders.size(); position++) {
+            WordProvider provider = wordProviders.get(position);
+            boolean last = position == wordProviders.size() - 1;
+            int[] separator = units(separators.getSeparator(position + 1));
+            int[] previous = units(provider.get(0));
+            for (int index = 1; index < 1 << bitDistribution.get(position); index++) {
+                int[] word = units(provider.get(index));
+                if (!isOrdered(previous, word, separator, last)) {
+                    throw new IllegalArgumentException(String.format(UNORDERED_WORDS_FORMAT,
+                            provider.get(index - 1), provider.get(index), position));
+                }
+                previous = word;
+            }
+        }
+    }
+
+    /**
+     * Returns true if phrases with a word always sort before phrases with a
+     * following word, at a position followed by a separator.
+     */
+    private static boolean isOrdered(int[] word1, int[] word2, int[] separator, boolean last) {
+        int length = Math.min(word1.length, word2.length);
+        int prefixCompare = compare(word1, 0, word2, 0, length);
+        if (prefixCompare != 0 || word1.length == word2.length) {
+            return prefixCompare < 0;
+        }
+        if (word1.length > word2.length) {
+            return false;
+        }
+        // word1 is a prefix of word2, so its separator is compared to the rest of word2
+        int restLength = word2.length - word1.length;
+        if (last) {
+            // nothing follows the trailing separator
+            for (int i = 0; i < separator.length + restLength; i++) {
+                int unit1 = i < separator.length ? separator[i] : -1;
+                int unit2 = i < restLength ? word2[word1.length + i] : separator[i - restLength];
+                if (unit1 != unit2) {
+                    return unit1 < unit2;
+                }
+            }
+            return false;
+        }
+        return compare(separator, 0, word2, word1.length,
+                Math.min(separator.length, restLength)) < 0;
+    }
+
+    /**
+     * Compare up to some number of units of two arrays from some offsets.
+     * Returns zero if one array runs out of units before a difference.
+     */
+    private static int compare(int[] units1, int offset1, int[] units2, int offset2, int length) {
+        int end = Math.min(length, Math.min(units1.length - offset1, units2.length - offset2));
+        for (int i = 0; i < end; i++) {
+            if (units1[offset1 + i] != units2[offset2 + i]) {
+                return Integer.compare(units1[offset1 + i], units2[offset2 + i]);
+            }
+        }
+        return length == Integer.MAX_VALUE
+                ? Integer.compare(units1.length - offset1, units2.length - offset2) : 0;
+    }
+
+    /**
+     * Get the units of a String compared by this collation.
+     */
+    private int[] units(String s) {
+        return this == UTF16 ? s.chars().toArray() : s.codePoints().toArray();
+    }
+}
@@ -1,5 +1,7 @@
 package com.chedbrandh.gibberish;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
 import java.util.List;
 
 /**
@@ -8,10 +10,72 @@ import java.util.List;
  * Words here actually mean any {@link String}, even ones that include
  * non-alphanumeric characters.
  *
+ * Phrases can also be written directly to a sink. The default
+ * implementations construct the phrase as a String first and then copy it.
+ *
  * @author Christofer Hedbrandh (chedbrandh@gmail.com)
  * @since 1.0
  */
 public interface IPhraseConstructor {
     String construct(List<String> words);
-}
 
+    /**
+     * Constructs a phrase from words, appending it to a StringBuilder.
+     *
+     * @param words         Parts used to construct a phrase.
+     * @param stringBuilder StringBuilder to append the phrase to.
+     */
+    default void construct(List<String> words, StringBuilder stringBuilder) {
+        stringBuilder.append(construct(words));
+    }
+
+    /**
+     * Constructs a phrase from words, appending it to an Appendable.
+     *
+     * @param words         Parts used to construct a phrase.
+     * @param appendable    Appendable to append the phrase to.
+     * @throws IOException  If the Appendable fails to append.
+     */
+    default void construct(List<String> words, Appendable appendable) throws IOException {
+        appendable.append(construct(words));
+    }
+
+    /**
+     * Constructs a phrase from words, putting it at the position of a
+     * CharBuffer.
+     *
+     * @param words         Parts used to construct a phrase.
+     * @param charBuffer    CharBuffer to put the phrase in.
+     */
+    default void construct(List<String> words, CharBuffer charBuffer) {
+        charBuffer.put(construct(words));
+    }
+
+    /**
+     * Constructs a phrase from words, writing it to a char array.
+     *
+     * @param words     Parts used to construct a phrase.
+     * @param chars     Char array to write the phrase to.
+     * @param offset    Index in the char array to write the first char to.
+     * @return          The number of chars written.
+     */
+    default int construct(List<String> words, char[] chars, int offset) {
+        String phrase = construct(words);
+        phrase.getChars(0, phrase.length(), chars, offset);
+        return phrase.length();
+    }
+
+    /**
+     * Get the number of characters that constructing a phrase adds to the
+     * characters of the words. I.e. the length of a phrase minus the total
+     * length of its words.
+     *
+     * The default implementation returns -1, meaning that the number is not
+     * known. Phrase lengths can then not be computed from word lengths.
+     *
+     * @return  The number of characters added to the words, or -1 if unknown.
+     */
+    default int separatorsLength() {
+        return -1;
+    }
+}
@@ -1,5 +1,6 @@
 package com.chedbrandh.gibberish;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
 
@@ -18,6 +19,12 @@ import java.util.List;
  * sequence 0b011011 into the bit subsequences [0b01, 0b1, 0b011]. These bit
  * subsequences then are interpreted as little-endian integers [2, 1, 6].
  *
+ * The bit subsequences can instead be taken starting with the most
+ * significant bits, so that the first index holds the most significant bits
+ * of the bit sequence. With the bit distribution [2, 1, 3] the bit sequence
+ * 0b011011 is then divided into [0b011, 0b0, 0b11], interpreted as [6, 0, 3].
+ * Comparing lists of indices in order then compares bit sequences by value.
+ *
  * @author Christofer Hedbrandh (chedbrandh@gmail.com)
  * @since 1.0
  */
@@ -34,6 +41,12 @@ public class IndexTranslator {
     // number of bits that the bit distribution covers
     private final int bitCoverage;
 
+    // index of the first bit of each index in a bit sequence
+    private final int[] bitOffsets;
+
+    // whether the first index holds the most significant bits
+    private final boolean mostSignificantFirst;
+
     /**
      * Creates an IndexTranslator for a given bit distribution.
      *
@@ -42,14 +55,35 @@ public class IndexTranslator {
      *                          subsequences determined by this distribution.
      */
     public IndexTranslator(Iterable<Integer> bitDistribution) {
+        this(bitDistribution, false);
+    }
+
+    /**
+     * Creates an IndexTranslator for a given bit distribution, optionally
+     * taking bit subsequences starting with the most significant bits.
+     *
+     * @param bitDistribution       Bit distribution to use for translating
+     *                              indices.
+     * @param mostSignificantFirst  If true the first index holds the most
+     *                              significant bits of bit sequences.
+     */
+    public IndexTranslator(Iterable<Integer> bitDistribution, boolean mostSignificantFirst) {
         this.bitDistribution = ImmutableList.copyOf(bitDistribution);
+        this.mostSignificantFirst = mostSignificantFirst;
 
-        // set bit coverage
+        // set bit coverage and bit offsets
+        bitOffsets = new int[this.bitDistribution.size()];
         int bitSum = 0;
-        for (int bits : bitDistribution) {
-            bitSum += bits;
+        for (int i = 0; i < bitOffsets.length; i++) {
+            bitOffsets[i] = bitSum;
+            bitSum += this.bitDistribution.get(i);
         }
         bitCoverage = bitSum;
+        if (mostSignificantFirst) {
+            for (int i = 0; i < bitOffsets.length; i++) {
+                bitOffsets[i] = bitCoverage - bitOffsets[i] - this.bitDistribution.get(i);
+            }
+        }
     }
 
     /**
@@ -68,14 +102,49 @@ public class IndexTranslator {
         verifyBitIndices(bytes, fromBitIndex, toBitIndex);
         BitSetWithLongs bitSet = BitSetWithLongs.valueOf(bytes, fromBitIndex, toBitIndex);
         ImmutableList.Builder<Integer> builder = ImmutableList.builder();
-        int bitIndex = fromBitIndex;
-        for (int numBits : bitDistribution) {
+        for (int i = 0; i < bitOffsets.length; i++) {
+            int bitIndex = fromBitIndex + bitOffsets[i];
+            int numBits = bitDistribution.get(i);
             builder.add(Ints.checkedCast(bitSet.getLong(bitIndex, bitIndex + numBits)));
-            bitIndex += numBits;
         }
         return builder.build();
     }
 
+    /**
+     * Reads the index at some position from the bits of a long, as if the
+     * long had been written to a byte array and read with
+     * {@link #fromBytes(byte[], int, int)}.
+     *
+     * @param l         Long to read bits from.
+     * @param position  Position of the index in the bit distribution.
+     * @return          The little-endian integer at the position.
+     */
+    public int fromLong(long l, int position) {
+        Preconditions.checkState(bitCoverage <= Long.SIZE,
+                "Longs can not provide the number of bits required.");
+        int numBits = bitDistribution.get(position);
+        if (numBits == 0) {
+            return 0;
+        }
+        return (int) ((l >>> bitOffsets[position]) & (-1L >>> (Long.SIZE - numBits)));
+    }
+
+    /**
+     * Places an index at some position among the bits of a long. The
+     * inverse of {@link #fromLong(long, int)}. Indices at different positions
+     * can be combined with bitwise or.
+     *
+     * @param index     Index to place. Must fit in the number of bits of the
+     *                  position.
+     * @param position  Position of the index in the bit distribution.
+     * @return          A long with the bits of the index at the position.
+     */
+    public long toLong(int index, int position) {
+        Preconditions.checkState(bitCoverage <= Long.SIZE,
+                "Longs can not provide the number of bits required.");
+        return (long) index << bitOffsets[position];
+    }
+
     /**
      * Writes bits to a byte array interpreting them as little-endian integers.
      *
@@ -87,12 +156,11 @@ public class IndexTranslator {
     public void toBytes(byte[] bytes, List<Integer> indices, int fromBitIndex, int toBitIndex) {
         verifyBitIndices(bytes, fromBitIndex, toBitIndex);
         BitSetWithLongs bitSet = new BitSetWithLongs();
-        int subFromBitIndex = fromBitIndex;
         for (int i = 0; i < indices.size(); i++) {
+            int subFromBitIndex = fromBitIndex + bitOffsets[i];
             int numBits = bitDistribution.get(i);
             int index = indices.get(i);
             bitSet.setLong(subFromBitIndex, subFromBitIndex + numBits, index);
-            subFromBitIndex += numBits;
         }
         bitSet.toByteArray(bytes, fromBitIndex, toBitIndex);
     }
@@ -106,6 +174,26 @@ public class IndexTranslator {
         return bitCoverage;
     }
 
+    /**
+     * Get the index of the first bit of the index at some position, in a bit
+     * sequence.
+     *
+     * @param position  Position of the index in the bit distribution.
+     * @return          The sum of the bits of the preceding positions.
+     */
+    public int bitOffset(int position) {
+        return bitOffsets[position];
+    }
+
+    /**
+     * Returns true if the first index holds the most significant bits.
+     *
+     * @return  True if bit subsequences start with the most significant bits.
+     */
+    public boolean isMostSignificantFirst() {
+        return mostSignificantFirst;
+    }
+
     /**
      * Get the bit distribution used by this IndexTranslator.
      *
@@ -0,0 +1,279 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lenient decoder for phrases typed by people rather than copied.
+ *
+ * Phrases are folded before they are decoded: they are normalized to NFC,
+ * case is folded and runs of whitespace are collapsed to a single space.
+ * Whitespace at the beginning of the phrase, and whitespace and punctuation
+ * at the end of the phrase, are removed. E.g. " Sad  Squid Snuggles. " is
+ * decoded like "sad squid snuggles".
+ *
+ * The words and separators of the translator are folded the same way when
+ * the decoder is created, and compiled into a decoder for folded phrases.
+ * Folding must not make two words in a word provider equal, since the
+ * folded word could then not be decoded.
+ *
+ * Only phrase translators that deconstruct phrases with a
+ * {@link SeparatorsPhraseConstructor}, and translate no more than 63 bits,
+ * can be decoded leniently.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class LenientPhraseDecoder {
+
+    private static final String FOLDING_COLLISION_FORMAT =
+            "Words '%s' and '%s' in word provider '%s' are equal when folded.";
+
+    // punctuation removed from the end of phrases
+    private static final String TRAILING_PUNCTUATION = ".,;:!?";
+
+    private final List<WordProvider> wordProviders;
+    private final List<Integer> bitDistribution;
+    private final SeparatorsPhraseConstructor foldedSeparators;
+    private final PhraseDecoder decoder;
+
+    // map from folded word to index, per position, for reporting errors
+    private final List<Map<String, Integer>> foldedIndices = Lists.newArrayList();
+
+    /**
+     * Creates a lenient decoder for a phrase translator.
+     *
+     * @param phraseTranslator  Phrase translator to decode phrases for.
+     * @throws IllegalArgumentException If the phrase translator can't be
+     *                                  decoded leniently, or if two words in
+     *                                  a word provider are equal when folded.
+     */
+    public LenientPhraseDecoder(PhraseTranslator phraseTranslator) {
+        Preconditions.checkArgument(
+                phraseTranslator.getPhraseDeconstructor() instanceof SeparatorsPhraseConstructor,
+                "Phrase deconstructor must be a SeparatorsPhraseConstructor.");
+        SeparatorsPhraseConstructor separators =
+                (SeparatorsPhraseConstructor) phraseTranslator.getPhraseDeconstructor();
+        this.wordProviders = phraseTranslator.getWordProviderSequence().getWordProviders();
+        this.bitDistribution = phraseTranslator.getIndexTranslator().bitDistribution();
+
+        // fold separators, trimming the leading and trailing ones like phrases
+        int numWords = wordProviders.size();
+        List<String> folded = Lists.newArrayList();
+        for (int i = 0; i <= numWords; i++) {
+            folded.add(fold(separators.getSeparator(i)));
+        }
+        folded.set(0, trimStart(folded.get(0)));
+        folded.set(numWords, trimEnd(folded.get(numWords)));
+        this.foldedSeparators = new SeparatorsPhraseConstructor(folded);
+
+        // fold words, trimming them too if they begin or end a phrase
+        List<List<String>> foldedWords = Lists.newArrayList();
+        for (int i = 0; i < numWords; i++) {
+            boolean first = i == 0 && folded.get(0).isEmpty();
+            boolean last = i == numWords - 1 && folded.get(numWords).isEmpty();
+            List<String> positionWords = foldWords(wordProviders.get(i), first, last);
+            Map<String, Integer> positionIndices = Maps.newHashMap();
+            for (int index = 0; index < positionWords.size(); index++) {
+                positionIndices.put(positionWords.get(index), index);
+            }
+            foldedWords.add(positionWords);
+            foldedIndices.add(positionIndices);
+        }
+        this.decoder = new PhraseDecoder(
+                foldedSeparators, foldedWords, phraseTranslator.getIndexTranslator());
+    }
+
+    /**
+     * Translates a phrase, after folding it, to a sequence of bits
+     * interpreted as a long.
+     *
+     * @param phrase                    Phrase to translate into a long.
+     * @return                          Translated long.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long toLong(CharSequence phrase)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        return toLong(phrase, new StringBuilder(phrase.length()));
+    }
+
+    /**
+     * Translates a phrase, after folding it into a buffer, to a sequence of
+     * bits interpreted as a long. The buffer is cleared first, so reusing it
+     * for many phrases saves allocating one per phrase. Phrases of only ASCII
+     * chars are then folded without allocating.
+     *
+     * @param phrase                    Phrase to translate into a long.
+     * @param buffer                    Buffer to fold the phrase into.
+     * @return                          Translated long.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long toLong(CharSequence phrase, StringBuilder buffer)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        buffer.setLength(0);
+        StringBuilder folded = fold(phrase, buffer);
+        int start = 0;
+        while (start < folded.length() && folded.charAt(start) == ' ') {
+            start++;
+        }
+        int end = folded.length();
+        while (end > start && isTrimmedFromEnd(folded.charAt(end - 1))) {
+            end--;
+        }
+        int wordsStart = foldedSeparators.wordsStart(folded, start, end);
+        int wordsEnd = foldedSeparators.wordsEnd(folded, wordsStart, end);
+        long result = decoder.decode(folded, wordsStart, wordsEnd);
+        if (result != -1) {
+            return result;
+        }
+        throw explainFailure(folded, start, end);
+    }
+
+    /**
+     * Find out why a folded phrase could not be decoded. Throws the
+     * exception describing why, or returns it if the phrase is illegal only
+     * as a whole.
+     */
+    private IllegalPhraseException explainFailure(CharSequence folded, int start, int end)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        int[] wordBounds = new int[2 * wordProviders.size()];
+        foldedSeparators.deconstruct(folded, start, end, wordBounds);
+        for (int i = 0; i < wordProviders.size(); i++) {
+            String word = folded.subSequence(wordBounds[2 * i], wordBounds[2 * i + 1]).toString();
+            Integer index = foldedIndices.get(i).get(word);
+            if (index == null) {
+                throw new IllegalWordException(word, wordProviders.get(i));
+            }
+            WordIndexOutOfBoundsException.verifyIndexLegality(ImmutableList.of(index),
+                    ImmutableList.of(word), ImmutableList.of(bitDistribution.get(i)));
+        }
+        // words were found, but only by splitting the phrase at the wrong separators
+        return new IllegalPhraseException(folded.subSequence(start, end).toString(),
+                "Could not decode phrase.");
+    }
+
+    /**
+     * Folds a phrase or a word. The result is normalized to NFC, has its
+     * case folded, and has runs of whitespace replaced by a single space.
+     *
+     * @param chars     Chars to fold.
+     * @return          The folded chars.
+     */
+    public static String fold(CharSequence chars) {
+        return fold(chars, new StringBuilder(chars.length())).toString();
+    }
+
+    /**
+     * Folds chars, appending them to a StringBuilder.
+     *
+     * NFC leaves ASCII chars as they are, and never combines them with the
+     * chars before them, so only runs of non-ASCII chars, together with the
+     * char before them, are normalized. Runs already normalized are not copied.
+     */
+    private static StringBuilder fold(CharSequence chars, StringBuilder folded) {
+        boolean whitespace = false;
+        int i = 0;
+        while (i < chars.length()) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                whitespace = fold(c, whitespace, folded);
+                i++;
+                continue;
+            }
+
+            // a non-whitespace ASCII char before the run was folded to a single char
+            int start = i;
+            if (i > 0 && !whitespace) {
+                start--;
+                folded.setLength(folded.length() - 1);
+            }
+            while (i < chars.length() && chars.charAt(i) >= 0x80) {
+                i++;
+            }
+            CharSequence run = chars.subSequence(start, i);
+            if (!Normalizer.isNormalized(run, Normalizer.Form.NFC)) {
+                run = Normalizer.normalize(run, Normalizer.Form.NFC);
+            }
+            for (int j = 0; j < run.length(); ) {
+                int codePoint = Character.codePointAt(run, j);
+                j += Character.charCount(codePoint);
+                whitespace = fold(codePoint, whitespace, folded);
+            }
+        }
+        return folded;
+    }
+
+    /**
+     * Folds a normalized code point, appending it to a StringBuilder unless
+     * it is whitespace following whitespace. Returns true if it is whitespace.
+     */
+    private static boolean fold(int codePoint, boolean whitespace, StringBuilder folded) {
+        if (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint)) {
+            if (!whitespace) {
+                folded.append(' ');
+            }
+            return true;
+        }
+        folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+        return false;
+    }
+
+    /**
+     * Fold the words of a word provider, in index order. Throws runtime
+     * exception if two words are equal when folded.
+     */
+    private static List<String> foldWords(WordProvider wordProvider, boolean first, boolean last) {
+        List<String> foldedWords = Lists.newArrayListWithCapacity(wordProvider.size());
+        Map<String, String> originalWords = Maps.newHashMap();
+        for (String word : wordProvider) {
+            String folded = fold(word);
+            folded = first ? trimStart(folded) : folded;
+            folded = last ? trimEnd(folded) : folded;
+            String collision = originalWords.put(folded, word);
+            if (collision != null) {
+                throw new IllegalArgumentException(String.format(
+                        FOLDING_COLLISION_FORMAT, collision, word, wordProvider.getName()));
+            }
+            foldedWords.add(folded);
+        }
+        return foldedWords;
+    }
+
+    /**
+     * Remove leading whitespace from folded chars.
+     */
+    private static String trimStart(String folded) {
+        return folded.startsWith(" ") ? folded.substring(1) : folded;
+    }
+
+    /**
+     * Remove trailing whitespace and punctuation from folded chars.
+     */
+    private static String trimEnd(String folded) {
+        int end = folded.length();
+        while (end > 0 && isTrimmedFromEnd(folded.charAt(end - 1))) {
+            end--;
+        }
+        return folded.substring(0, end);
+    }
+
+    /**
+     * Returns true if a char is removed from the end of folded phrases.
+     */
+    private static boolean isTrimmedFromEnd(char c) {
+        return c == ' ' || TRAILING_PUNCTUATION.indexOf(c) != -1;
+    }
+}
@@ -0,0 +1,436 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Table of every phrase of a small {@link PhraseTranslator}, for translating
+ * values and phrases by lookups rather than by words.
+ *
+ * Phrases are kept UTF-8 encoded and back to back in blocks of consecutive
+ * values, each block with the offsets of its phrases. Blocks are rendered
+ * when first used, or all at once by {@link #materialize()}, so that
+ * translating a value is an offset lookup and a copy.
+ *
+ * Phrases are decoded by a single hash table from whole phrases to values,
+ * built when first used. Phrases that are not in the table, or that more
+ * than one value translates to, are translated by the phrase translator, so
+ * that values, statuses and exceptions are the same as those of the phrase
+ * translator.
+ *
+ * Only phrase translators that construct and deconstruct phrases with the
+ * same {@link SeparatorsPhraseConstructor}, and translate no more than
+ * {@link #MAX_NUM_BITS} bits, can be materialized. See
+ * {@link #sizeInBytes(PhraseTranslator)} for the memory a table takes.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class MaterializedPhraseTable {
+
+    public static final int MAX_NUM_BITS = 29;
+
+    // number of consecutive values of each block
+    private static final int BLOCK_BITS = 12;
+
+    // hash table slot of no phrase
+    private static final int EMPTY = 0;
+
+    private final PhraseTranslator phraseTranslator;
+    private final IndexTranslator indexTranslator;
+    private final int numWords;
+    private final long numPhrases;
+    private final int blockSize;
+    private final int maxPhraseLength;
+    private final int maxUtf8PhraseLength;
+
+    // blocks of phrases, null until rendered
+    private final AtomicReferenceArray<Block> blocks;
+
+    // slots of value plus one, negated if more than one value has the phrase
+    private final Supplier<int[]> slots;
+
+    /**
+     * Phrases of consecutive values, and the offsets where each phrase ends.
+     */
+    private static class Block {
+        private final byte[] bytes;
+        private final int[] ends;
+
+        private Block(byte[] bytes, int[] ends) {
+            this.bytes = bytes;
+            this.ends = ends;
+        }
+
+        private int start(int row) {
+            return row == 0 ? 0 : ends[row - 1];
+        }
+    }
+
+    /**
+     * Creates a table of the phrases of a phrase translator. No phrases are
+     * rendered until they are used.
+     *
+     * @param phraseTranslator          Phrase translator to materialize.
+     * @throws IllegalArgumentException If the phrase translator can't be materialized.
+     */
+    public MaterializedPhraseTable(PhraseTranslator phraseTranslator) {
+        Preconditions.checkArgument(canMaterialize(phraseTranslator),
+                "Phrases must be constructed and deconstructed by the same separators, "
+                        + "of no more than %s bits.", MAX_NUM_BITS);
+        this.phraseTranslator = phraseTranslator;
+        this.indexTranslator = phraseTranslator.getIndexTranslator();
+        this.numWords = indexTranslator.bitDistribution().size();
+        this.numPhrases = 1L << indexTranslator.bitCoverage();
+        this.blockSize = (int) Math.min(numPhrases, 1 << BLOCK_BITS);
+        this.maxPhraseLength = phraseTranslator.maxPhraseLength();
+        this.maxUtf8PhraseLength = maxUtf8PhraseLength(phraseTranslator);
+        this.blocks = new AtomicReferenceArray<>((int) (numPhrases / blockSize));
+        this.slots = Suppliers.memoize(this::buildSlots);
+    }
+
+    /**
+     * Get the number of bytes that the table of a phrase translator takes
+     * when all phrases are materialized: the UTF-8 encoded phrases, the
+     * offsets of the phrases and the hash table.
+     *
+     * @param phraseTranslator  Phrase translator to materialize.
+     * @return                  The number of bytes, or Long.MAX_VALUE if the
+     *                          phrase translator can't be materialized.
+     */
+    public static long sizeInBytes(PhraseTranslator phraseTranslator) {
+        if (!canMaterialize(phraseTranslator)) {
+            return Long.MAX_VALUE;
+        }
+        SeparatorsPhraseConstructor separators = phraseTranslator.getSeparatorsConstructor();
+        List<WordProvider> wordProviders =
+                phraseTranslator.getWordProviderSequence().getWordProviders();
+        List<Integer> bitDistribution = phraseTranslator.getIndexTranslator().bitDistribution();
+        int numBits = phraseTranslator.getIndexTranslator().bitCoverage();
+        long numPhrases = 1L << numBits;
+
+        // each word is in the phrases of every combination of the other words
+        long phraseBytes = numPhrases * separators.utf8SeparatorsLength();
+        for (int i = 0; i < wordProviders.size(); i++) {
+            long wordBytes = 0;
+            for (int index = 0; index < 1 << bitDistribution.get(i); index++) {
+                wordBytes += wordProviders.get(i).getUtf8(index).length;
+            }
+            phraseBytes += wordBytes << numBits - bitDistribution.get(i);
+        }
+        return phraseBytes + Integer.BYTES * numPhrases + Integer.BYTES * numSlots(numPhrases);
+    }
+
+    /**
+     * Render all phrases and build the hash table, so that no translation
+     * renders phrases later.
+     */
+    public void materialize() {
+        for (int block = 0; block < blocks.length(); block++) {
+            getBlock(block);
+        }
+        slots.get();
+    }
+
+    /**
+     * Translates the sequence of bits, in a long, to a phrase.
+     *
+     * @param l                         Long to translate into a phrase.
+     * @return                          Translated phrase.
+     * @throws IllegalArgumentException If the long is not within the bits of the translator.
+     */
+    public String fromLong(long l) {
+        checkLong(l);
+        Block block = getBlock((int) (l >>> BLOCK_BITS));
+        int row = (int) l & blockSize - 1;
+        int start = block.start(row);
+        return new String(block.bytes, start, block.ends[row] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Translates the sequence of bits, in a long, to a phrase encoded as
+     * UTF-8 and written to a byte array.
+     *
+     * @param l                         Long to translate into a phrase.
+     * @param bytes                     Byte array to write the phrase to.
+     * @param offset                    Index in the byte array to write the first byte to.
+     * @return                          The number of bytes written.
+     * @throws IllegalArgumentException If the long is not within the bits of the translator.
+     * @throws IndexOutOfBoundsException    If the phrase does not fit in the
+     *                                      byte array.
+     */
+    public int fromLong(long l, byte[] bytes, int offset) {
+        checkLong(l);
+        Block block = getBlock((int) (l >>> BLOCK_BITS));
+        int row = (int) l & blockSize - 1;
+        int start = block.start(row);
+        int length = block.ends[row] - start;
+        if (offset < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("Phrase does not fit in byte array.");
+        }
+        System.arraycopy(block.bytes, start, bytes, offset, length);
+        return length;
+    }
+
+    /**
+     * Translates a phrase to a sequence of bits interpreted as a long.
+     *
+     * @param phrase                    Phrase to translate into a long.
+     * @return                          Translated long.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long toLong(CharSequence phrase)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        long value = lookUp(phrase);
+        return value != -1 ? value : phraseTranslator.toLong(phrase, 0, phrase.length());
+    }
+
+    /**
+     * Translates a UTF-8 encoded phrase, in a region of a byte array, to a
+     * sequence of bits interpreted as a long.
+     *
+     * @param phrase                    Byte array containing the UTF-8 encoded phrase.
+     * @param start                     Index of the first byte of the phrase, inclusive.
+     * @param end                       Index of the last byte of the phrase, exclusive.
+     * @return                          Translated long.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long toLong(byte[] phrase, int start, int end)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        if (start < 0 || end > phrase.length || start > end) {
+            throw new IndexOutOfBoundsException("Phrase region out of bounds.");
+        }
+        long value = lookUp(phrase, start, end);
+        return value != -1 ? value : phraseTranslator.toLong(phrase, start, end);
+    }
+
+    /**
+     * Translates a phrase to a sequence of bits interpreted as a long,
+     * without throwing exceptions for phrases that can't be translated.
+     *
+     * @param phrase    Phrase to translate into a long.
+     * @param result    Result to report the translation, and the long, in.
+     * @return          Status of the translation.
+     */
+    public TranslationResult.Status tryToLong(CharSequence phrase, TranslationResult result) {
+        long value = lookUp(phrase);
+        if (value == -1) {
+            return phraseTranslator.tryToLong(phrase, result);
+        }
+        result.reset(numWords);
+        int[] indices = result.indices();
+        for (int i = 0; i < numWords; i++) {
+            indices[i] = indexTranslator.fromLong(value, i);
+        }
+        result.setValue(value);
+        return TranslationResult.Status.OK;
+    }
+
+    /**
+     * Get the phrase translator of the table.
+     *
+     * @return  The phrase translator.
+     */
+    public PhraseTranslator getPhraseTranslator() {
+        return phraseTranslator;
+    }
+
+    /**
+     * Look up the value of a phrase, encoding it as UTF-8. A char encodes to
+     * at most three bytes, and a surrogate pair to four.
+     *
+     * @return  The value, or -1 if the phrase is not in the table, or more
+     *          than one value has the phrase.
+     */
+    private long lookUp(CharSequence phrase) {
+        if (phrase.length() > maxPhraseLength) {
+            return -1;
+        }
+        byte[] bytes = new byte[3 * phrase.length()];
+        int length = encodeUtf8(phrase, bytes);
+        return length != -1 ? lookUp(bytes, 0, length) : -1;
+    }
+
+    /**
+     * Look up the value of a UTF-8 encoded phrase.
+     *
+     * @return  The value, or -1 if the phrase is not in the table, or more
+     *          than one value has the phrase.
+     */
+    private long lookUp(byte[] phrase, int start, int end) {
+        if (end - start > maxUtf8PhraseLength) {
+            return -1;
+        }
+        int[] slots = this.slots.get();
+        int mask = slots.length - 1;
+        for (int slot = hash(phrase, start, end) & mask; slots[slot] != EMPTY;
+             slot = slot + 1 & mask) {
+            int value = Math.abs(slots[slot]) - 1;
+            if (equals(value, phrase, start, end)) {
+                return slots[slot] > 0 ? value : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Build the hash table of all phrases, by linear probing.
+     */
+    private int[] buildSlots() {
+        int[] slots = new int[numSlots(numPhrases)];
+        int mask = slots.length - 1;
+        for (int b = 0; b < blocks.length(); b++) {
+            Block block = getBlock(b);
+            for (int row = 0; row < blockSize; row++) {
+                int start = block.start(row);
+                int end = block.ends[row];
+                int slot = hash(block.bytes, start, end) & mask;
+                while (slots[slot] != EMPTY
+                        && !equals(Math.abs(slots[slot]) - 1, block.bytes, start, end)) {
+                    slot = slot + 1 & mask;
+                }
+                // phrases of more than one value are left to the phrase translator
+                slots[slot] = slots[slot] == EMPTY
+                        ? b * blockSize + row + 1 : -Math.abs(slots[slot]);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Get a block of phrases, rendering it if this is the first time it is
+     * used. Threads racing to render a block all get the first one stored.
+     */
+    private Block getBlock(int block) {
+        Block result = blocks.get(block);
+        if (result == null) {
+            blocks.compareAndSet(block, null, render(block));
+            result = blocks.get(block);
+        }
+        return result;
+    }
+
+    private Block render(int block) {
+        byte[] bytes = new byte[blockSize * maxUtf8PhraseLength];
+        int[] ends = new int[blockSize];
+        long firstValue = (long) block * blockSize;
+        int length = 0;
+        for (int row = 0; row < blockSize; row++) {
+            length += phraseTranslator.fromLong(firstValue + row, bytes, length);
+            ends[row] = length;
+        }
+        return new Block(Arrays.copyOf(bytes, length), ends);
+    }
+
+    /**
+     * Returns true if the phrase of a value equals a UTF-8 encoded phrase.
+     */
+    private boolean equals(int value, byte[] phrase, int start, int end) {
+        Block block = getBlock(value >>> BLOCK_BITS);
+        int row = value & blockSize - 1;
+        int blockStart = block.start(row);
+        if (block.ends[row] - blockStart != end - start) {
+            return false;
+        }
+        for (int i = 0; i < end - start; i++) {
+            if (block.bytes[blockStart + i] != phrase[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkLong(long l) {
+        Preconditions.checkArgument(0 <= l && l < numPhrases,
+                "Value %s is not within the %s bits of the translator.",
+                l, indexTranslator.bitCoverage());
+    }
+
+    private static boolean canMaterialize(PhraseTranslator phraseTranslator) {
+        return phraseTranslator.getSeparatorsConstructor() != null
+                && phraseTranslator.getSeparatorsConstructor()
+                        == phraseTranslator.getSeparatorsDeconstructor()
+                && phraseTranslator.getIndexTranslator().bitCoverage() <= MAX_NUM_BITS;
+    }
+
+    private static int maxUtf8PhraseLength(PhraseTranslator phraseTranslator) {
+        List<WordProvider> wordProviders =
+                phraseTranslator.getWordProviderSequence().getWordProviders();
+        List<Integer> bitDistribution = phraseTranslator.getIndexTranslator().bitDistribution();
+        int length = phraseTranslator.getSeparatorsConstructor().utf8SeparatorsLength();
+        for (int i = 0; i < wordProviders.size(); i++) {
+            int maxWordLength = 0;
+            for (int index = 0; index < 1 << bitDistribution.get(i); index++) {
+                maxWordLength = Math.max(maxWordLength, wordProviders.get(i).getUtf8(index).length);
+            }
+            length += maxWordLength;
+        }
+        return length;
+    }
+
+    /**
+     * Get the number of slots of the hash table, at least twice the number
+     * of phrases so that probe sequences stay short.
+     */
+    private static int numSlots(long numPhrases) {
+        return (int) numPhrases << 1;
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        // spread the bits, as the slot is taken from the low bits
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Encode a phrase as UTF-8 to a byte array large enough to hold it.
+     *
+     * @return  The number of bytes, or -1 if the phrase contains a surrogate
+     *          that is not part of a pair, which no phrase in the table does.
+     */
+    private static int encodeUtf8(CharSequence phrase, byte[] bytes) {
+        int length = 0;
+        for (int i = 0; i < phrase.length(); i++) {
+            char c = phrase.charAt(i);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xc0 | c >> 6);
+                bytes[length++] = (byte) (0x80 | c & 0x3f);
+            } else if (!Character.isSurrogate(c)) {
+                bytes[length++] = (byte) (0xe0 | c >> 12);
+                bytes[length++] = (byte) (0x80 | c >> 6 & 0x3f);
+                bytes[length++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < phrase.length()
+                    && Character.isLowSurrogate(phrase.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, phrase.charAt(++i));
+                bytes[length++] = (byte) (0xf0 | codePoint >> 18);
+                bytes[length++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                bytes[length++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                bytes[length++] = (byte) (0x80 | codePoint & 0x3f);
+            } else {
+                return -1;
+            }
+        }
+        return length;
+    }
+}
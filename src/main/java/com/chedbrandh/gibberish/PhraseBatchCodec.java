@@ -0,0 +1,521 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Translates batches of values to phrases and back, for converting columns
+ * of many values at a time.
+ *
+ * Batches are processed in blocks of rows. Within a block each stage runs
+ * column by column: all values are split into indices, then the words of the
+ * first word provider are looked up for all rows, then those of the second,
+ * and so on, before phrases are rendered row by row. Phrases are decoded the
+ * same way, by first finding the words of all rows and then looking them up
+ * one word provider at a time.
+ *
+ * Rows that can't be decoded by column are translated by the phrase
+ * translator, so that values and statuses are the same as those of
+ * {@link PhraseTranslator#tryToLong}. This is also the case for all rows if
+ * some word contains the separator following it, since such words can't be
+ * found by searching for separators.
+ *
+ * Phrases can also be written to and read from byte arrays of fixed length
+ * records, encoded as UTF-8. Records shorter than the stride are padded with
+ * zero bytes.
+ *
+ * Values are split into indices by a {@link BitUnpacker}, which uses the
+ * Vector API when running from the multi-release jar on Java 17 or later with
+ * the jdk.incubator.vector module added.
+ *
+ * Batches larger than a threshold are optionally split into parts that are
+ * processed in parallel in a {@link ForkJoinPool}.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class PhraseBatchCodec {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 14;
+
+    // number of rows that each stage processes at a time
+    private static final int BLOCK_SIZE = 1024;
+
+    private static final String SHORT_STRIDE_FORMAT =
+            "Stride %s is shorter than the longest phrase of %s bytes.";
+
+    private final PhraseTranslator phraseTranslator;
+    private final List<WordProvider> wordProviders;
+    private final IndexTranslator indexTranslator;
+    private final BitUnpacker unpacker;
+    private final SeparatorsPhraseConstructor constructor;
+    private final SeparatorsPhraseConstructor deconstructor;
+    private final int numBits;
+    private final int[] indexLimits;
+    private final int maxPhraseLength;
+    private final int maxUtf8PhraseLength;
+
+    // true if words end where the separator following them is first found
+    private final boolean separatorsEndWords;
+    // true if no phrase contains a zero byte, which ends records
+    private final boolean zeroFree;
+
+    // pool to process large batches in, or null to process them in the calling thread
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    /**
+     * Creates a codec processing batches in the calling thread.
+     *
+     * @param phraseTranslator  Phrase translator to translate values and phrases by.
+     */
+    public PhraseBatchCodec(PhraseTranslator phraseTranslator) {
+        this(phraseTranslator, null, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates a codec processing large batches in parallel.
+     *
+     * @param phraseTranslator  Phrase translator to translate values and phrases by.
+     * @param pool              Pool to process batches in, or null to process
+     *                          them in the calling thread.
+     * @param parallelThreshold Number of rows of the largest part of a batch
+     *                          that is processed by a single task.
+     */
+    public PhraseBatchCodec(PhraseTranslator phraseTranslator, ForkJoinPool pool,
+                            int parallelThreshold) {
+        Preconditions.checkArgument(phraseTranslator.getSeparatorsConstructor() != null
+                        && phraseTranslator.getSeparatorsDeconstructor() != null,
+                "Phrases must be constructed and deconstructed by separators.");
+        Preconditions.checkArgument(
+                phraseTranslator.getIndexTranslator().bitCoverage() < Long.SIZE,
+                "Longs can not provide the number of bits required.");
+        Preconditions.checkArgument(parallelThreshold > 0, "Parallel threshold must be positive.");
+        this.phraseTranslator = phraseTranslator;
+        this.wordProviders = phraseTranslator.getWordProviderSequence().getWordProviders();
+        this.indexTranslator = phraseTranslator.getIndexTranslator();
+        this.constructor = phraseTranslator.getSeparatorsConstructor();
+        this.deconstructor = phraseTranslator.getSeparatorsDeconstructor();
+        this.unpacker = BitUnpackers.create(indexTranslator);
+        this.numBits = indexTranslator.bitCoverage();
+        this.maxPhraseLength = phraseTranslator.maxPhraseLength();
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+
+        int numWords = wordProviders.size();
+        this.indexLimits = new int[numWords];
+        boolean separatorsEndWords = true;
+        boolean zeroFree = true;
+        int maxUtf8Length = constructor.utf8SeparatorsLength();
+        for (int i = 0; i <= numWords; i++) {
+            zeroFree &= constructor.getSeparator(i).indexOf('\0') == -1;
+        }
+        for (int i = 0; i < numWords; i++) {
+            WordProvider provider = wordProviders.get(i);
+            indexLimits[i] = 1 << indexTranslator.bitDistribution().get(i);
+            String separator = deconstructor.getSeparator(i + 1);
+            int maxUtf8WordLength = 0;
+            for (int index = 0; index < indexLimits[i]; index++) {
+                String word = provider.get(index);
+                if (i < numWords - 1) {
+                    separatorsEndWords &= (word + separator).indexOf(separator) == word.length();
+                }
+                zeroFree &= word.indexOf('\0') == -1;
+                maxUtf8WordLength = Math.max(maxUtf8WordLength, provider.getUtf8(index).length);
+            }
+            maxUtf8Length += maxUtf8WordLength;
+        }
+        this.separatorsEndWords = separatorsEndWords;
+        this.zeroFree = zeroFree;
+        this.maxUtf8PhraseLength = maxUtf8Length;
+    }
+
+    /**
+     * Translate a batch of values to phrases.
+     *
+     * @param values                    Values to translate.
+     * @param phrases                   Array to place the phrase of each value in,
+     *                                  at the index of the value.
+     * @throws IllegalArgumentException If a value is not within the values of the
+     *                                  translator.
+     */
+    public void encodeBatch(long[] values, String[] phrases) {
+        Preconditions.checkArgument(phrases.length >= values.length,
+                "Array of phrases is shorter than the array of values.");
+        process(values.length, (from, to) -> encodeRows(values, phrases, from, to));
+    }
+
+    /**
+     * Translate a batch of values to UTF-8 encoded phrases, in records of a
+     * fixed number of bytes. Records are padded with zero bytes.
+     *
+     * @param values                    Values to translate.
+     * @param records                   Array to place the record of each value in,
+     *                                  at the index of the value times the stride.
+     * @param stride                    Number of bytes of each record.
+     * @throws IllegalArgumentException If a value is not within the values of the
+     *                                  translator, or the stride is shorter than
+     *                                  the longest phrase.
+     * @throws IllegalStateException    If some phrase contains a zero byte.
+     */
+    public void encodeBatch(long[] values, byte[] records, int stride) {
+        checkRecords(records.length, values.length, stride);
+        process(values.length, (from, to) -> encodeRecords(values, records, stride, from, to));
+    }
+
+    /**
+     * Translate a batch of phrases to values. Phrases that can't be translated
+     * are given the value -1.
+     *
+     * @param phrases   Phrases to translate.
+     * @param values    Array to place the value of each phrase in, at the
+     *                  index of the phrase.
+     * @param statuses  Array to place the status of the translation of each
+     *                  phrase in, at the index of the phrase.
+     */
+    public void decodeBatch(CharSequence[] phrases, long[] values,
+                            TranslationResult.Status[] statuses) {
+        Preconditions.checkArgument(values.length >= phrases.length
+                        && statuses.length >= phrases.length,
+                "Arrays of values and statuses are shorter than the array of phrases.");
+        process(phrases.length, (from, to) -> decodeRows(phrases, values, statuses, from, to));
+    }
+
+    /**
+     * Translate a batch of UTF-8 encoded phrases, in records of a fixed
+     * number of bytes, to values. A phrase ends at the first zero byte of its
+     * record, or at the end of the record. Phrases that can't be translated
+     * are given the value -1.
+     *
+     * @param records                   Records of the phrases to translate.
+     * @param stride                    Number of bytes of each record.
+     * @param values                    Array to place the value of each record in.
+     *                                  The number of values is the number of records.
+     * @param statuses                  Array to place the status of the translation
+     *                                  of each record in.
+     * @throws IllegalArgumentException If the stride is shorter than the longest phrase.
+     * @throws IllegalStateException    If some phrase contains a zero byte.
+     */
+    public void decodeBatch(byte[] records, int stride, long[] values,
+                            TranslationResult.Status[] statuses) {
+        checkRecords(records.length, values.length, stride);
+        Preconditions.checkArgument(statuses.length >= values.length,
+                "Array of statuses is shorter than the array of values.");
+        process(values.length,
+                (from, to) -> decodeRecords(records, stride, values, statuses, from, to));
+    }
+
+    /**
+     * Get the number of bytes of the longest UTF-8 encoded phrase, which is
+     * the shortest stride of records.
+     *
+     * @return  The number of bytes.
+     */
+    public int getMaxUtf8PhraseLength() {
+        return maxUtf8PhraseLength;
+    }
+
+    private void encodeRows(long[] values, String[] phrases, int from, int to) {
+        int numWords = wordProviders.size();
+        int[][] indices = new int[numWords][BLOCK_SIZE];
+        String[][] words = new String[numWords][BLOCK_SIZE];
+        char[] chars = new char[maxPhraseLength];
+        for (int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE) {
+            int blockSize = Math.min(BLOCK_SIZE, to - blockStart);
+            split(values, blockStart, blockSize, indices);
+            for (int i = 0; i < numWords; i++) {
+                WordProvider provider = wordProviders.get(i);
+                for (int r = 0; r < blockSize; r++) {
+                    words[i][r] = provider.get(indices[i][r]);
+                }
+            }
+            for (int r = 0; r < blockSize; r++) {
+                int length = append(constructor.getSeparator(0), chars, 0);
+                for (int i = 0; i < numWords; i++) {
+                    length = append(words[i][r], chars, length);
+                    length = append(constructor.getSeparator(i + 1), chars, length);
+                }
+                phrases[blockStart + r] = new String(chars, 0, length);
+            }
+        }
+    }
+
+    private void encodeRecords(long[] values, byte[] records, int stride, int from, int to) {
+        int numWords = wordProviders.size();
+        int[][] indices = new int[numWords][BLOCK_SIZE];
+        byte[][][] words = new byte[numWords][BLOCK_SIZE][];
+        for (int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE) {
+            int blockSize = Math.min(BLOCK_SIZE, to - blockStart);
+            split(values, blockStart, blockSize, indices);
+            for (int i = 0; i < numWords; i++) {
+                WordProvider provider = wordProviders.get(i);
+                for (int r = 0; r < blockSize; r++) {
+                    words[i][r] = provider.getUtf8(indices[i][r]);
+                }
+            }
+            for (int r = 0; r < blockSize; r++) {
+                int recordStart = (blockStart + r) * stride;
+                int index = append(constructor.getUtf8Separator(0), records, recordStart);
+                for (int i = 0; i < numWords; i++) {
+                    index = append(words[i][r], records, index);
+                    index = append(constructor.getUtf8Separator(i + 1), records, index);
+                }
+                Arrays.fill(records, index, recordStart + stride, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Split a block of values into the indices of each position.
+     */
+    private void split(long[] values, int blockStart, int blockSize, int[][] indices) {
+        int invalid = unpacker.unpack(values, blockStart, blockSize, indices);
+        if (invalid != -1) {
+            throw new IllegalArgumentException(String.format(
+                    "Value %s is not within the %s bits of the translator.",
+                    values[invalid], numBits));
+        }
+    }
+
+    private void decodeRows(CharSequence[] phrases, long[] values,
+                            TranslationResult.Status[] statuses, int from, int to) {
+        int numWords = wordProviders.size();
+        int[][] wordStarts = new int[numWords][BLOCK_SIZE];
+        int[][] wordEnds = new int[numWords][BLOCK_SIZE];
+        boolean[] found = new boolean[BLOCK_SIZE];
+        AdmissionProfile profile = phraseTranslator.getAdmissionProfile();
+        TranslationResult result = new TranslationResult();
+        for (int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE) {
+            int blockSize = Math.min(BLOCK_SIZE, to - blockStart);
+
+            // find the words of all rows
+            for (int r = 0; r < blockSize; r++) {
+                CharSequence phrase = phrases[blockStart + r];
+                found[r] = separatorsEndWords && profile.admitsLength(phrase.length())
+                        && findWords(phrase, r, wordStarts, wordEnds);
+                values[blockStart + r] = 0;
+            }
+
+            // look up the words one word provider at a time
+            for (int i = 0; i < numWords; i++) {
+                WordProvider provider = wordProviders.get(i);
+                for (int r = 0; r < blockSize; r++) {
+                    if (found[r]) {
+                        int index = provider.indexOf(
+                                phrases[blockStart + r], wordStarts[i][r], wordEnds[i][r]);
+                        found[r] = index >= 0 && index < indexLimits[i];
+                        values[blockStart + r] |= found[r] ? indexTranslator.toLong(index, i) : 0;
+                    }
+                }
+            }
+
+            // translate the rows that could not be decoded by column
+            for (int r = 0; r < blockSize; r++) {
+                if (found[r]) {
+                    statuses[blockStart + r] = TranslationResult.Status.OK;
+                } else {
+                    setResult(phrases[blockStart + r], blockStart + r, values, statuses, result);
+                }
+            }
+        }
+    }
+
+    private void decodeRecords(byte[] records, int stride, long[] values,
+                               TranslationResult.Status[] statuses, int from, int to) {
+        int numWords = wordProviders.size();
+        int[][] wordStarts = new int[numWords][BLOCK_SIZE];
+        int[][] wordEnds = new int[numWords][BLOCK_SIZE];
+        int[] recordEnds = new int[BLOCK_SIZE];
+        boolean[] found = new boolean[BLOCK_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        AdmissionProfile profile = phraseTranslator.getAdmissionProfile();
+        TranslationResult result = new TranslationResult();
+        for (int blockStart = from; blockStart < to; blockStart += BLOCK_SIZE) {
+            int blockSize = Math.min(BLOCK_SIZE, to - blockStart);
+
+            // find the words of all rows
+            for (int r = 0; r < blockSize; r++) {
+                int recordStart = (blockStart + r) * stride;
+                int recordEnd = recordStart;
+                while (recordEnd < recordStart + stride && records[recordEnd] != 0) {
+                    recordEnd++;
+                }
+                recordEnds[r] = recordEnd;
+                found[r] = separatorsEndWords
+                        && profile.admitsUtf8Length(recordEnd - recordStart)
+                        && findUtf8Words(buffer, recordStart, recordEnd, r, wordStarts, wordEnds);
+                values[blockStart + r] = 0;
+            }
+
+            // look up the words one word provider at a time
+            for (int i = 0; i < numWords; i++) {
+                WordProvider provider = wordProviders.get(i);
+                for (int r = 0; r < blockSize; r++) {
+                    if (found[r]) {
+                        int index = provider.indexOfUtf8(buffer, wordStarts[i][r], wordEnds[i][r]);
+                        found[r] = index >= 0 && index < indexLimits[i];
+                        values[blockStart + r] |= found[r] ? indexTranslator.toLong(index, i) : 0;
+                    }
+                }
+            }
+
+            // translate the rows that could not be decoded by column
+            for (int r = 0; r < blockSize; r++) {
+                if (found[r]) {
+                    statuses[blockStart + r] = TranslationResult.Status.OK;
+                } else {
+                    int recordStart = (blockStart + r) * stride;
+                    String phrase = new String(records, recordStart, recordEnds[r] - recordStart,
+                            StandardCharsets.UTF_8);
+                    setResult(phrase, blockStart + r, values, statuses, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the bounds of the words of a phrase, by the first separator
+     * following each word.
+     */
+    private boolean findWords(CharSequence phrase, int r, int[][] wordStarts, int[][] wordEnds) {
+        int numWords = wordProviders.size();
+        int end = phrase.length();
+        if (!deconstructor.hasLeading(phrase, 0, end)) {
+            return false;
+        }
+        int wordsStart = deconstructor.getSeparator(0).length();
+        if (!deconstructor.hasTrailing(phrase, wordsStart, end)) {
+            return false;
+        }
+        int wordsEnd = end - deconstructor.getSeparator(numWords).length();
+        int wordStart = wordsStart;
+        for (int i = 0; i < numWords - 1; i++) {
+            int wordEnd = deconstructor.indexOfSeparator(i, phrase, wordStart, wordsEnd);
+            if (wordEnd == -1) {
+                return false;
+            }
+            wordStarts[i][r] = wordStart;
+            wordEnds[i][r] = wordEnd;
+            wordStart = wordEnd + deconstructor.separatorLength(i);
+        }
+        wordStarts[numWords - 1][r] = wordStart;
+        wordEnds[numWords - 1][r] = wordsEnd;
+        return true;
+    }
+
+    /**
+     * Find the bounds of the words of a UTF-8 encoded phrase, by the first
+     * separator following each word.
+     */
+    private boolean findUtf8Words(ByteBuffer phrase, int start, int end, int r,
+                                  int[][] wordStarts, int[][] wordEnds) {
+        int numWords = wordProviders.size();
+        if (!deconstructor.hasUtf8Leading(phrase, start, end)) {
+            return false;
+        }
+        int wordsStart = start + deconstructor.getUtf8Separator(0).length;
+        if (!deconstructor.hasUtf8Trailing(phrase, wordsStart, end)) {
+            return false;
+        }
+        int wordsEnd = end - deconstructor.getUtf8Separator(numWords).length;
+        int wordStart = wordsStart;
+        for (int i = 0; i < numWords - 1; i++) {
+            int wordEnd = deconstructor.indexOfUtf8Separator(i, phrase, wordStart, wordsEnd);
+            if (wordEnd == -1) {
+                return false;
+            }
+            wordStarts[i][r] = wordStart;
+            wordEnds[i][r] = wordEnd;
+            wordStart = wordEnd + deconstructor.getUtf8Separator(i + 1).length;
+        }
+        wordStarts[numWords - 1][r] = wordStart;
+        wordEnds[numWords - 1][r] = wordsEnd;
+        return true;
+    }
+
+    /**
+     * Translate a phrase by the phrase translator, placing its value and status.
+     */
+    private void setResult(CharSequence phrase, int row, long[] values,
+                           TranslationResult.Status[] statuses, TranslationResult result) {
+        TranslationResult.Status status = phraseTranslator.tryToLong(phrase, result);
+        statuses[row] = status;
+        values[row] = status == TranslationResult.Status.OK ? result.getValue() : -1;
+    }
+
+    private void checkRecords(int numBytes, int numRecords, int stride) {
+        Preconditions.checkState(zeroFree, "Phrases containing zero bytes can't be records.");
+        if (stride < maxUtf8PhraseLength) {
+            throw new IllegalArgumentException(
+                    String.format(SHORT_STRIDE_FORMAT, stride, maxUtf8PhraseLength));
+        }
+        Preconditions.checkArgument((long) numRecords * stride <= numBytes,
+                "Array of records is shorter than the number of records times the stride.");
+    }
+
+    /**
+     * Process the rows of a batch, in parallel if the batch is large and
+     * there is a pool.
+     */
+    private void process(int numRows, RowProcessor processor) {
+        if (pool == null || numRows <= parallelThreshold) {
+            processor.process(0, numRows);
+        } else {
+            pool.invoke(new RowsTask(processor, parallelThreshold, 0, numRows));
+        }
+    }
+
+    private static int append(String s, char[] chars, int offset) {
+        s.getChars(0, s.length(), chars, offset);
+        return offset + s.length();
+    }
+
+    private static int append(byte[] bytes, byte[] records, int offset) {
+        System.arraycopy(bytes, 0, records, offset, bytes.length);
+        return offset + bytes.length;
+    }
+
+    /**
+     * Processes a range of the rows of a batch.
+     */
+    private interface RowProcessor {
+        void process(int from, int to);
+    }
+
+    /**
+     * Task halving a range of rows until it is small enough to process. Tasks
+     * are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static class RowsTask extends RecursiveAction {
+
+        private final RowProcessor processor;
+        private final int parallelThreshold;
+        private final int from;
+        private final int to;
+
+        RowsTask(RowProcessor processor, int parallelThreshold, int from, int to) {
+            this.processor = processor;
+            this.parallelThreshold = parallelThreshold;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= parallelThreshold) {
+                processor.process(from, to);
+            } else {
+                int mid = from + (to - from) / 2;
+                invokeAll(new RowsTask(processor, parallelThreshold, from, mid),
+                        new RowsTask(processor, parallelThreshold, mid, to));
+            }
+        }
+    }
+}
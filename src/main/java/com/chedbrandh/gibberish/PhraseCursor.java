@@ -0,0 +1,232 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Cursor over the phrases of a range of consecutive values of a
+ * {@link PhraseTranslator}. Created by {@link PhraseTranslator#iterate}.
+ *
+ * The phrase is kept in a reusable char buffer. Moving to the next value
+ * increments the index of the least significant word, carrying over to more
+ * significant words like an odometer, and only the words that changed are
+ * rewritten. Following words are shifted in place if a word changes length.
+ *
+ * The chars of the current phrase are valid until the cursor is advanced.
+ * Cursors are not thread safe.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class PhraseCursor implements Iterator<String> {
+
+    private final List<WordProvider> wordProviders;
+    private final IndexTranslator indexTranslator;
+    private final SeparatorsPhraseConstructor separators;
+
+    // positions in order from the least significant bits
+    private final int[] carryOrder;
+    // number of indices of each position
+    private final int[] indexLimits;
+
+    private final long fromValue;
+    private final long toValue;
+    private long nextValue;
+
+    // current indices, and where their words are in the buffer
+    private final int[] indices;
+    private final int[] wordStarts;
+    private final int[] wordLengths;
+    private final char[] chars;
+    private int length;
+
+    PhraseCursor(List<WordProvider> wordProviders, IndexTranslator indexTranslator,
+                 SeparatorsPhraseConstructor separators, int maxPhraseLength,
+                 long fromValue, long toValue) {
+        this.wordProviders = wordProviders;
+        this.indexTranslator = indexTranslator;
+        this.separators = separators;
+        this.fromValue = fromValue;
+        this.toValue = toValue;
+        this.nextValue = fromValue;
+
+        int numWords = wordProviders.size();
+        List<Integer> bitDistribution = indexTranslator.bitDistribution();
+        this.indexLimits = new int[numWords];
+        this.carryOrder = new int[numWords];
+        for (int i = 0; i < numWords; i++) {
+            indexLimits[i] = 1 << bitDistribution.get(i);
+            // a position without bits may share the offset of another, and always carries
+            int j = i;
+            while (j > 0 && indexTranslator.bitOffset(carryOrder[j - 1])
+                    > indexTranslator.bitOffset(i)) {
+                carryOrder[j] = carryOrder[j - 1];
+                j--;
+            }
+            carryOrder[j] = i;
+        }
+        this.indices = new int[numWords];
+        this.wordStarts = new int[numWords];
+        this.wordLengths = new int[numWords];
+        this.chars = new char[maxPhraseLength];
+    }
+
+    /**
+     * Move to the phrase of the next value of the range.
+     *
+     * @return  True if the cursor moved, false if the range is exhausted.
+     */
+    public boolean advance() {
+        if (nextValue >= toValue) {
+            return false;
+        }
+        moveTo(nextValue);
+        return true;
+    }
+
+    /**
+     * Move to the phrase of some value of the range. Moving to the value
+     * following the current one only rewrites the words that changed, other
+     * values have their whole phrase rewritten.
+     *
+     * @param value                     Value to move to.
+     * @throws IllegalArgumentException If the value is not within the range.
+     */
+    public void moveTo(long value) {
+        Preconditions.checkArgument(fromValue <= value && value < toValue,
+                "Value %s is not within the range of the cursor.", value);
+        if (value == nextValue && nextValue != fromValue) {
+            step();
+        } else {
+            render(value);
+        }
+        nextValue = value + 1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextValue < toValue;
+    }
+
+    @Override
+    public String next() {
+        if (!advance()) {
+            throw new NoSuchElementException();
+        }
+        return phrase();
+    }
+
+    /**
+     * Get the value of the current phrase.
+     *
+     * @return                          The value.
+     * @throws IllegalStateException    If the cursor has not been advanced.
+     */
+    public long value() {
+        checkStarted();
+        return nextValue - 1;
+    }
+
+    /**
+     * Get the current phrase.
+     *
+     * @return                          The phrase.
+     * @throws IllegalStateException    If the cursor has not been advanced.
+     */
+    public String phrase() {
+        checkStarted();
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Get the buffer holding the chars of the current phrase, from index
+     * zero up to its length. The buffer must not be modified.
+     *
+     * @return  The buffer.
+     */
+    public char[] chars() {
+        return chars;
+    }
+
+    /**
+     * Get the number of chars of the current phrase.
+     *
+     * @return  The length.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Append the current phrase to a StringBuilder.
+     *
+     * @param stringBuilder             The StringBuilder to append the phrase to.
+     * @throws IllegalStateException    If the cursor has not been advanced.
+     */
+    public void appendTo(StringBuilder stringBuilder) {
+        checkStarted();
+        stringBuilder.append(chars, 0, length);
+    }
+
+    /**
+     * Write the whole phrase of a value to the buffer.
+     */
+    private void render(long value) {
+        length = append(separators.getSeparator(0), 0);
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = indexTranslator.fromLong(value, i);
+            String word = wordProviders.get(i).get(indices[i]);
+            wordStarts[i] = length;
+            wordLengths[i] = word.length();
+            length = append(word, length);
+            length = append(separators.getSeparator(i + 1), length);
+        }
+    }
+
+    /**
+     * Increment the indices like an odometer, rewriting the changed words.
+     */
+    private void step() {
+        for (int position : carryOrder) {
+            if (++indices[position] < indexLimits[position]) {
+                setWord(position);
+                return;
+            }
+            indices[position] = 0;
+            setWord(position);
+        }
+    }
+
+    /**
+     * Write the word of the current index of a position to the buffer,
+     * shifting the rest of the phrase if the word changes length.
+     */
+    private void setWord(int position) {
+        String word = wordProviders.get(position).get(indices[position]);
+        int shift = word.length() - wordLengths[position];
+        if (shift != 0) {
+            int tailStart = wordStarts[position] + wordLengths[position];
+            System.arraycopy(chars, tailStart, chars, tailStart + shift, length - tailStart);
+            length += shift;
+            wordLengths[position] = word.length();
+            for (int i = position + 1; i < wordStarts.length; i++) {
+                wordStarts[i] += shift;
+            }
+        }
+        word.getChars(0, word.length(), chars, wordStarts[position]);
+    }
+
+    private int append(String s, int offset) {
+        s.getChars(0, s.length(), chars, offset);
+        return offset + s.length();
+    }
+
+    private void checkStarted() {
+        if (nextValue == fromValue) {
+            throw new IllegalStateException("Cursor has not been advanced.");
+        }
+    }
+}
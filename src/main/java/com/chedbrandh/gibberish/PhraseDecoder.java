@@ -0,0 +1,452 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Compiled decoder translating phrases, constructed by a
+ * {@link SeparatorsPhraseConstructor}, directly to longs.
+ *
+ * The reachable words of every word provider are compiled into two tries,
+ * one keyed by chars and one by UTF-8 bytes, each with one root per
+ * position. A phrase is walked once through the trie of each position. Whenever a word ends and
+ * the following separator matches, decoding continues with the next
+ * position, and the index of the word is placed among the bits of the
+ * result. If the rest of the phrase can't be decoded the walk backtracks
+ * and tries a longer word. This means words containing separators are
+ * decoded correctly, which searching for the first occurrence of a
+ * separator does not do.
+ *
+ * Backtracking only happens where a word followed by its separator is also
+ * the beginning of a longer word, so for typical word lists decoding is
+ * linear in the length of the phrase and no objects are created. Where it
+ * can happen, the positions and indices from which the rest of the phrase
+ * failed to decode are remembered in a bit set, so that every position is
+ * walked at most once from every index, however the words are crafted.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+class PhraseDecoder {
+
+    private final SeparatorsPhraseConstructor separators;
+    private final IndexTranslator indexTranslator;
+
+    // char and UTF-8 byte tries of the reachable words of each position
+    private final Trie charTrie;
+    private final Trie utf8Trie;
+
+    // whether walking the tries may backtrack, and so needs remembering failures
+    private final boolean charBacktracks;
+    private final boolean utf8Backtracks;
+
+    // max number of UTF-8 bytes from the first word to the end of a phrase
+    private final int maxUtf8Length;
+
+    /**
+     * Compiles a decoder.
+     *
+     * @param separators        Separators used for constructing phrases.
+     * @param words             Words in index order, one list per position.
+     *                          Typically word providers.
+     * @param indexTranslator   Index translator. Must not cover more than
+     *                          63 bits, since -1 is returned for phrases
+     *                          that can't be decoded.
+     */
+    PhraseDecoder(SeparatorsPhraseConstructor separators,
+                  List<? extends List<String>> words,
+                  IndexTranslator indexTranslator) {
+        Preconditions.checkArgument(indexTranslator.bitCoverage() < Long.SIZE,
+                "Decoded bits must fit in a non-negative long.");
+        this.separators = separators;
+        this.indexTranslator = indexTranslator;
+
+        List<List<int[]>> charKeys = new ArrayList<>();
+        List<List<int[]>> utf8Keys = new ArrayList<>();
+        int maxUtf8Length = 0;
+        for (int i = 0; i < words.size(); i++) {
+            List<String> positionWords = words.get(i);
+            int numWords = 1 << indexTranslator.bitDistribution().get(i);
+            List<int[]> positionCharKeys = new ArrayList<>(numWords);
+            List<int[]> positionUtf8Keys = new ArrayList<>(numWords);
+            int maxPositionLength = 0;
+            for (int index = 0; index < numWords; index++) {
+                String word = positionWords.get(index);
+                positionCharKeys.add(word.chars().toArray());
+                byte[] utf8 = word.getBytes(StandardCharsets.UTF_8);
+                int[] utf8Key = new int[utf8.length];
+                for (int j = 0; j < utf8.length; j++) {
+                    utf8Key[j] = utf8[j] & 0xFF;
+                }
+                positionUtf8Keys.add(utf8Key);
+                maxPositionLength = Math.max(maxPositionLength, utf8Key.length);
+            }
+            maxUtf8Length += maxPositionLength + separators.getUtf8Separator(i + 1).length;
+            charKeys.add(positionCharKeys);
+            utf8Keys.add(positionUtf8Keys);
+        }
+        this.charTrie = new Trie(charKeys);
+        this.utf8Trie = new Trie(utf8Keys);
+
+        // a walk backtracks only if a word is followed by the beginning of its separator
+        boolean charBacktracks = false;
+        boolean utf8Backtracks = false;
+        for (int position = 0; position < words.size() - 1; position++) {
+            String separator = separators.getSeparator(position + 1);
+            byte[] utf8Separator = separators.getUtf8Separator(position + 1);
+            charBacktracks |= charTrie.continuesWord(position,
+                    separator.isEmpty() ? -1 : separator.charAt(0));
+            utf8Backtracks |= utf8Trie.continuesWord(position,
+                    utf8Separator.length == 0 ? -1 : utf8Separator[0] & 0xFF);
+        }
+        this.charBacktracks = charBacktracks;
+        this.utf8Backtracks = utf8Backtracks;
+        this.maxUtf8Length = maxUtf8Length;
+    }
+
+    /**
+     * Decodes the words of a phrase, i.e. the phrase without its leading and
+     * trailing Strings, in a region of a CharSequence.
+     *
+     * @param phrase        CharSequence containing the phrase.
+     * @param wordsStart    Index of the first char of the first word, inclusive.
+     * @param wordsEnd      Index after the last char of the last word, exclusive.
+     * @return              The decoded long, or -1 if the words can't be decoded.
+     */
+    long decode(CharSequence phrase, int wordsStart, int wordsEnd) {
+        long[] failures = charBacktracks ? failures(wordsEnd - wordsStart) : null;
+        return decode(phrase, 0, wordsStart, wordsEnd, failures, wordsStart);
+    }
+
+    /**
+     * Decodes the words of a UTF-8 encoded phrase, i.e. the phrase without
+     * its leading and trailing Strings, in a region of a ByteBuffer.
+     *
+     * @param phrase        ByteBuffer containing the UTF-8 encoded phrase.
+     * @param wordsStart    Absolute index of the first byte of the first word, inclusive.
+     * @param wordsEnd      Absolute index after the last byte of the last word, exclusive.
+     * @return              The decoded long, or -1 if the words can't be decoded.
+     */
+    long decodeUtf8(ByteBuffer phrase, int wordsStart, int wordsEnd) {
+        long[] failures = utf8Backtracks ? failures(wordsEnd - wordsStart) : null;
+        return decodeUtf8(phrase, 0, wordsStart, wordsEnd, failures, wordsStart);
+    }
+
+    /**
+     * Decodes a UTF-8 encoded phrase that begins with its first word at some
+     * index of a ByteBuffer, and ends anywhere before some limit. Of phrases
+     * with the same earlier words, the one with the longest last word is
+     * decoded.
+     *
+     * @param bytes         ByteBuffer containing the UTF-8 encoded phrase.
+     * @param wordsStart    Absolute index of the first byte of the first word, inclusive.
+     * @param limit         Absolute index that the phrase must end before, exclusive.
+     * @param end           Array whose first element is set to the absolute index
+     *                      after the trailing String of a decoded phrase.
+     * @return              The decoded long, or -1 if no phrase begins at the index.
+     */
+    long decodeUtf8Prefix(ByteBuffer bytes, int wordsStart, int limit, int[] end) {
+        long[] failures = utf8Backtracks
+                ? failures(Math.min(limit - wordsStart, maxUtf8Length)) : null;
+        return decodeUtf8Prefix(bytes, 0, wordsStart, limit, end, failures, wordsStart);
+    }
+
+    /**
+     * Decode the word at a position, starting at some index, and all
+     * following words. Failures, if not null, are the positions and indices
+     * relative to some origin from which the rest already failed to decode.
+     */
+    private long decode(CharSequence phrase, int position, int from, int wordsEnd,
+                        long[] failures, int origin) {
+        boolean last = position == charTrie.roots.length - 1;
+        String separator = last ? "" : separators.getSeparator(position + 1);
+        int node = charTrie.roots[position];
+        int index = from;
+        while (node != -1) {
+            int wordIndex = charTrie.wordIndex[node];
+            if (wordIndex != -1) {
+                if (last) {
+                    if (index == wordsEnd) {
+                        return indexTranslator.toLong(wordIndex, position);
+                    }
+                } else if (regionEquals(separator, phrase, index, wordsEnd)) {
+                    int next = index + separator.length();
+                    int failure = failure(position + 1, next - origin);
+                    if (!isSet(failures, failure)) {
+                        long rest = decode(
+                                phrase, position + 1, next, wordsEnd, failures, origin);
+                        if (rest != -1) {
+                            return rest | indexTranslator.toLong(wordIndex, position);
+                        }
+                        set(failures, failure);
+                    }
+                }
+            }
+            if (index == wordsEnd) {
+                break;
+            }
+            node = charTrie.child(node, phrase.charAt(index++));
+        }
+        return -1;
+    }
+
+    /**
+     * Decode the UTF-8 encoded word at a position, starting at some index,
+     * and all following words, remembering failures like decode does.
+     */
+    private long decodeUtf8(ByteBuffer phrase, int position, int from, int wordsEnd,
+                            long[] failures, int origin) {
+        boolean last = position == utf8Trie.roots.length - 1;
+        byte[] separator = last ? null : separators.getUtf8Separator(position + 1);
+        int node = utf8Trie.roots[position];
+        int index = from;
+        while (node != -1) {
+            int wordIndex = utf8Trie.wordIndex[node];
+            if (wordIndex != -1) {
+                if (last) {
+                    if (index == wordsEnd) {
+                        return indexTranslator.toLong(wordIndex, position);
+                    }
+                } else if (regionEquals(separator, phrase, index, wordsEnd)) {
+                    int next = index + separator.length;
+                    int failure = failure(position + 1, next - origin);
+                    if (!isSet(failures, failure)) {
+                        long rest = decodeUtf8(
+                                phrase, position + 1, next, wordsEnd, failures, origin);
+                        if (rest != -1) {
+                            return rest | indexTranslator.toLong(wordIndex, position);
+                        }
+                        set(failures, failure);
+                    }
+                }
+            }
+            if (index == wordsEnd) {
+                break;
+            }
+            node = utf8Trie.child(node, phrase.get(index++) & 0xFF);
+        }
+        return -1;
+    }
+
+    /**
+     * Decode the UTF-8 encoded word at a position, starting at some index,
+     * and all following words and the trailing String, before some limit,
+     * remembering failures like decode does.
+     */
+    private long decodeUtf8Prefix(ByteBuffer bytes, int position, int from, int limit,
+                                  int[] end, long[] failures, int origin) {
+        boolean last = position == utf8Trie.roots.length - 1;
+        byte[] separator = separators.getUtf8Separator(position + 1);
+        int node = utf8Trie.roots[position];
+        int index = from;
+        long longest = -1;
+        while (node != -1) {
+            int wordIndex = utf8Trie.wordIndex[node];
+            if (wordIndex != -1 && regionEquals(separator, bytes, index, limit)) {
+                if (last) {
+                    longest = indexTranslator.toLong(wordIndex, position);
+                    end[0] = index + separator.length;
+                } else {
+                    int next = index + separator.length;
+                    int failure = failure(position + 1, next - origin);
+                    if (!isSet(failures, failure)) {
+                        long rest = decodeUtf8Prefix(
+                                bytes, position + 1, next, limit, end, failures, origin);
+                        if (rest != -1) {
+                            return rest | indexTranslator.toLong(wordIndex, position);
+                        }
+                        set(failures, failure);
+                    }
+                }
+            }
+            if (index == limit) {
+                break;
+            }
+            node = utf8Trie.child(node, bytes.get(index++) & 0xFF);
+        }
+        return longest;
+    }
+
+    /**
+     * Create a bit set with room for the failures of every position at every
+     * index of a region of some length, including the index after it.
+     */
+    private long[] failures(int length) {
+        long numBits = (long) charTrie.roots.length * (length + 1);
+        return new long[(int) ((numBits + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    /**
+     * Get the bit of the failure of a position at an index relative to the
+     * start of the region.
+     */
+    private int failure(int position, int index) {
+        return index * charTrie.roots.length + position;
+    }
+
+    /**
+     * Returns true if a bit is set in a bit set, or false if there is no bit set.
+     */
+    private static boolean isSet(long[] bits, int bit) {
+        return bits != null && (bits[bit >>> 6] & 1L << bit) != 0;
+    }
+
+    /**
+     * Sets a bit in a bit set, unless there is no bit set.
+     */
+    private static void set(long[] bits, int bit) {
+        if (bits != null) {
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Returns true if a String is found in a CharSequence at some index,
+     * before some end index.
+     */
+    private static boolean regionEquals(String string, CharSequence chars, int index, int end) {
+        if (index + string.length() > end) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) != chars.charAt(index + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if some bytes are found in a ByteBuffer at some index,
+     * before some end index.
+     */
+    private static boolean regionEquals(byte[] bytes, ByteBuffer buffer, int index, int end) {
+        if (index + bytes.length > end) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != buffer.get(index + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tries with one root per position, flattened into arrays. The children
+     * of a node are stored contiguously and sorted by label, so that they
+     * can be binary searched.
+     */
+    private static class Trie {
+
+        private final int[] roots;
+        private final int[] wordIndex;
+        private final int[] childStart;
+        private final int[] childLabel;
+        private final int[] childNode;
+
+        /**
+         * Builds tries from keys, where the value of a key is its index in
+         * the list of keys of its position.
+         */
+        Trie(List<List<int[]>> keys) {
+            List<Node> nodes = new ArrayList<>();
+            roots = new int[keys.size()];
+            for (int position = 0; position < keys.size(); position++) {
+                Node root = new Node();
+                List<int[]> positionKeys = keys.get(position);
+                for (int index = 0; index < positionKeys.size(); index++) {
+                    Node node = root;
+                    for (int label : positionKeys.get(index)) {
+                        node = node.children.computeIfAbsent(label, l -> new Node());
+                    }
+                    node.wordIndex = index;
+                }
+                roots[position] = number(root, nodes);
+            }
+
+            wordIndex = new int[nodes.size()];
+            childStart = new int[nodes.size() + 1];
+            childLabel = new int[nodes.size()];
+            childNode = new int[nodes.size()];
+            int numChildren = 0;
+            for (int i = 0; i < nodes.size(); i++) {
+                Node node = nodes.get(i);
+                wordIndex[i] = node.wordIndex;
+                childStart[i] = numChildren;
+                for (Integer label : node.children.keySet()) {
+                    childLabel[numChildren] = label;
+                    childNode[numChildren] = node.children.get(label).id;
+                    numChildren++;
+                }
+            }
+            childStart[nodes.size()] = numChildren;
+        }
+
+        /**
+         * Returns true if some word of a position is the beginning of a
+         * longer word, where the longer word continues with some label, or
+         * with any label if the label is -1.
+         */
+        boolean continuesWord(int position, int label) {
+            int end = position + 1 < roots.length ? roots[position + 1] : wordIndex.length;
+            for (int node = roots[position]; node < end; node++) {
+                if (wordIndex[node] != -1 && childStart[node] < childStart[node + 1]
+                        && (label == -1 || child(node, label) != -1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Get the child of a node with some label, or -1 if there is none.
+         */
+        int child(int node, int label) {
+            int low = childStart[node];
+            int high = childStart[node + 1] - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (childLabel[middle] < label) {
+                    low = middle + 1;
+                } else if (childLabel[middle] > label) {
+                    high = middle - 1;
+                } else {
+                    return childNode[middle];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Number a node and all of its descendants breadth first, adding
+         * them to a list of nodes. Returns the number of the node.
+         */
+        private static int number(Node root, List<Node> nodes) {
+            int first = nodes.size();
+            root.id = nodes.size();
+            nodes.add(root);
+            for (int i = first; i < nodes.size(); i++) {
+                for (Node child : nodes.get(i).children.values()) {
+                    child.id = nodes.size();
+                    nodes.add(child);
+                }
+            }
+            return root.id;
+        }
+
+        /**
+         * Trie node used while building.
+         */
+        private static class Node {
+            private final TreeMap<Integer, Node> children = new TreeMap<>();
+            private int wordIndex = -1;
+            private int id;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+
+/**
+ * The exact distribution of phrase lengths of a {@link PhraseTranslator}.
+ *
+ * Every bit sequence is equally likely, so every index that a word provider
+ * can be given is equally likely. The length distribution of the words of a
+ * provider is therefore the histogram of the lengths of the words at the
+ * reachable indices. The length distribution of phrases is the convolution of
+ * the length distributions of all word providers, shifted by the length of
+ * the separators.
+ *
+ * Lengths are in chars, as returned by {@link String#length()}.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class PhraseLengthStatistics {
+
+    private final int minLength;
+    private final int maxLength;
+    private final double meanLength;
+
+    // probabilities[i] is the probability of a phrase having length minLength + i
+    private final double[] probabilities;
+
+    /**
+     * Computes the phrase length distribution.
+     *
+     * @param wordProviders     Word providers used for constructing phrases.
+     * @param bitDistribution   Number of bits assigned to each word provider.
+     * @param separatorsLength  Number of characters added to the words of
+     *                          any phrase.
+     */
+    public PhraseLengthStatistics(List<WordProvider> wordProviders,
+                                  List<Integer> bitDistribution,
+                                  int separatorsLength) {
+        Preconditions.checkArgument(wordProviders.size() == bitDistribution.size(),
+                "Number of bit distributions does not match the number of word providers.");
+
+        // distribution of the total length of all words, starting out with no words
+        int min = 0;
+        double[] distribution = new double[] {1};
+        for (int i = 0; i < wordProviders.size(); i++) {
+            WordProvider provider = wordProviders.get(i);
+            int numWords = 1 << bitDistribution.get(i);
+            Preconditions.checkArgument(numWords <= provider.size(),
+                    "Number of bits exceeds the bit coverage of the word provider.");
+
+            // histogram of reachable word lengths
+            int wordMin = Integer.MAX_VALUE;
+            int wordMax = 0;
+            for (int index = 0; index < numWords; index++) {
+                wordMin = Math.min(wordMin, provider.get(index).length());
+                wordMax = Math.max(wordMax, provider.get(index).length());
+            }
+            double[] wordDistribution = new double[wordMax - wordMin + 1];
+            for (int index = 0; index < numWords; index++) {
+                wordDistribution[provider.get(index).length() - wordMin] += 1.0 / numWords;
+            }
+
+            distribution = convolve(distribution, wordDistribution);
+            min += wordMin;
+        }
+
+        this.minLength = min + separatorsLength;
+        this.maxLength = minLength + distribution.length - 1;
+        this.probabilities = distribution;
+        double mean = 0;
+        for (int i = 0; i < distribution.length; i++) {
+            mean += (minLength + i) * distribution[i];
+        }
+        this.meanLength = mean;
+    }
+
+    /**
+     * Get the length of the shortest phrase.
+     *
+     * @return  The min length.
+     */
+    public int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * Get the length of the longest phrase.
+     *
+     * @return  The max length.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Get the mean length of all phrases.
+     *
+     * @return  The mean length.
+     */
+    public double getMeanLength() {
+        return meanLength;
+    }
+
+    /**
+     * Get the probability of a phrase having some length.
+     *
+     * @param length    The phrase length.
+     * @return          The fraction of all phrases that have the length.
+     */
+    public double getProbability(int length) {
+        return length < minLength || length > maxLength ? 0 : probabilities[length - minLength];
+    }
+
+    /**
+     * Get the shortest length that at least some percentage of all phrases
+     * are no longer than.
+     *
+     * @param percentile    Percentage between 0 and 100.
+     * @return              The length at the percentile.
+     */
+    public int getPercentile(double percentile) {
+        Preconditions.checkArgument(0 <= percentile && percentile <= 100,
+                "Percentile must be between 0 and 100.");
+        double fraction = percentile / 100;
+        double cumulative = 0;
+        for (int i = 0; i < probabilities.length - 1; i++) {
+            cumulative += probabilities[i];
+            // allow for rounding errors in the cumulative sum
+            if (cumulative >= fraction - 1e-12) {
+                return minLength + i;
+            }
+        }
+        return maxLength;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(PhraseLengthStatistics.class)
+                .add("minLength", minLength)
+                .add("maxLength", maxLength)
+                .add("meanLength", meanLength)
+                .add("median", getPercentile(50))
+                .add("p99", getPercentile(99))
+                .toString();
+    }
+
+    private static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != 0) {
+                for (int j = 0; j < b.length; j++) {
+                    result[i + j] += a[i] * b[j];
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,513 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Scanner finding the phrases of a {@link PhraseTranslator} embedded in
+ * UTF-8 encoded text, such as log files.
+ *
+ * The first non-empty separator of the translator, the anchor, is compiled
+ * into an Aho-Corasick automaton, which finds every occurrence of it in a
+ * single pass over the bytes. A phrase can only begin at an anchor, if the
+ * anchor is the leading String, or a first word before it. The bytes between
+ * a possible phrase start and the anchor are looked up in a Bloom filter of
+ * the words of the first position. Remaining candidates are verified by the
+ * decoder compiled for the translator, which finds the phrase beginning at
+ * the candidate and its value.
+ *
+ * Text is split into chunks that are scanned in parallel. Each chunk is
+ * scanned a maximum phrase length past its end, so phrases crossing chunk
+ * boundaries are found, by the chunk they begin in. Occurrences are
+ * delivered in the order of their offsets, and may overlap.
+ *
+ * A phrase is not found where it would begin or end in the middle of a
+ * token, i.e. if an ASCII letter or digit at the edge of the phrase is
+ * adjacent to another one outside of it.
+ *
+ * Only phrase translators that deconstruct phrases with a
+ * {@link SeparatorsPhraseConstructor}, with at least one non-empty
+ * separator, and translate no more than 63 bits, can be scanned for.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class PhraseScanner {
+
+    /** Default number of bytes per chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+
+    // Bloom filter bits per word, and number of probes per lookup
+    private static final int BLOOM_BITS_PER_WORD = 16;
+    private static final int BLOOM_PROBES = 3;
+
+    // FNV-1a parameters, hashing the bytes of a word from last to first
+    private static final long BLOOM_SEED = 0xcbf29ce484222325L;
+    private static final long BLOOM_PRIME = 0x100000001b3L;
+
+    private final PhraseDecoder decoder;
+    private final int chunkSize;
+    private final int parallelism;
+
+    // automaton for the anchor, and which of its states end an anchor
+    private final Automaton automaton;
+    private final boolean[] anchorStates;
+    private final int anchorLength;
+    private final boolean anchorIsLeading;
+
+    // minimum and maximum lengths of the word before the anchor, if any
+    private final int prefixMin;
+    private final int prefixMax;
+
+    // Bloom filter of the words before the anchor, or null if the anchor leads
+    private final long[] bloom;
+
+    // maximum number of bytes of a phrase
+    private final int maxPhraseBytes;
+
+    /**
+     * Creates a scanner for a phrase translator, scanning chunks of the
+     * default size using all available processors.
+     *
+     * @param phraseTranslator  Phrase translator to find phrases of.
+     * @throws IllegalArgumentException If phrases of the translator can't be scanned for.
+     */
+    public PhraseScanner(PhraseTranslator phraseTranslator) {
+        this(phraseTranslator, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a scanner for a phrase translator.
+     *
+     * @param phraseTranslator  Phrase translator to find phrases of.
+     * @param chunkSize         Number of bytes per chunk scanned in parallel.
+     * @param parallelism       Number of chunks read before they are scanned in parallel.
+     * @throws IllegalArgumentException If phrases of the translator can't be scanned for.
+     */
+    public PhraseScanner(PhraseTranslator phraseTranslator, int chunkSize, int parallelism) {
+        Preconditions.checkArgument(
+                phraseTranslator.getPhraseDeconstructor() instanceof SeparatorsPhraseConstructor,
+                "Phrase deconstructor must be a SeparatorsPhraseConstructor.");
+        Preconditions.checkArgument(phraseTranslator.getDecoder() != null,
+                "Scanned bits must fit in a non-negative long.");
+        Preconditions.checkArgument(chunkSize > 0, "Chunk size must be positive.");
+        Preconditions.checkArgument(parallelism > 0, "Parallelism must be positive.");
+        SeparatorsPhraseConstructor separators =
+                (SeparatorsPhraseConstructor) phraseTranslator.getPhraseDeconstructor();
+        List<WordProvider> wordProviders =
+                phraseTranslator.getWordProviderSequence().getWordProviders();
+        List<Integer> bitDistribution = phraseTranslator.getIndexTranslator().bitDistribution();
+        this.decoder = phraseTranslator.getDecoder();
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+
+        // minimum and maximum UTF-8 lengths of the reachable words of each position
+        int numWords = wordProviders.size();
+        int[] minLengths = new int[numWords];
+        int[] maxLengths = new int[numWords];
+        for (int i = 0; i < numWords; i++) {
+            minLengths[i] = Integer.MAX_VALUE;
+            for (int index = 0; index < 1 << bitDistribution.get(i); index++) {
+                int length = wordProviders.get(i).getUtf8(index).length;
+                minLengths[i] = Math.min(minLengths[i], length);
+                maxLengths[i] = Math.max(maxLengths[i], length);
+            }
+        }
+        this.maxPhraseBytes = Arrays.stream(maxLengths).sum() + separators.utf8SeparatorsLength();
+        Preconditions.checkArgument(chunkSize <= Integer.MAX_VALUE - maxPhraseBytes - 2,
+                "Chunk size must leave room for a phrase past the end of a chunk.");
+
+        // the first non-empty separator is the anchor
+        int anchor = 0;
+        while (anchor <= numWords && separators.getUtf8Separator(anchor).length == 0) {
+            anchor++;
+        }
+        Preconditions.checkArgument(anchor <= numWords,
+                "Phrases without separators can't be scanned for.");
+        this.anchorLength = separators.getUtf8Separator(anchor).length;
+        this.anchorIsLeading = anchor == 0;
+        this.prefixMin = Arrays.stream(minLengths, 0, anchor).sum();
+        this.prefixMax = Arrays.stream(maxLengths, 0, anchor).sum();
+
+        // compile the anchor, other separators are left to the decoder
+        this.automaton = new Automaton(
+                Collections.singletonList(separators.getUtf8Separator(anchor)));
+        this.anchorStates = new boolean[automaton.matches.length];
+        for (int state = 0; state < anchorStates.length; state++) {
+            anchorStates[state] = automaton.matches[state].length > 0;
+        }
+
+        if (!anchorIsLeading) {
+            int numPrefixWords = 1 << bitDistribution.get(0);
+            this.bloom = new long[bloomSize(numPrefixWords)];
+            for (int index = 0; index < numPrefixWords; index++) {
+                byte[] word = wordProviders.get(0).getUtf8(index);
+                long hash = BLOOM_SEED;
+                for (int i = word.length - 1; i >= 0; i--) {
+                    hash = hashStep(hash, word[i]);
+                }
+                for (int probe = 0; probe < BLOOM_PROBES; probe++) {
+                    int bit = bloomBit(hash, probe, bloom.length);
+                    bloom[bit >>> 6] |= 1L << bit;
+                }
+            }
+        } else {
+            this.bloom = null;
+        }
+    }
+
+    /**
+     * Find the phrases in a region of a ByteBuffer, from its position to its
+     * limit. Offsets are absolute indices in the buffer.
+     *
+     * @param bytes     ByteBuffer containing UTF-8 encoded text.
+     * @return          The occurrences found, ordered by offset.
+     */
+    public List<Occurrence> scan(ByteBuffer bytes) {
+        List<Occurrence> occurrences = Lists.newArrayList();
+        scanChunks(bytes.duplicate(), 0, bytes.position(), bytes.limit(), occurrences::add);
+        return occurrences;
+    }
+
+    /**
+     * Find the phrases in a file. Chunks of the file are memory mapped and
+     * scanned in parallel.
+     *
+     * @param file          File containing UTF-8 encoded text.
+     * @param consumer      Consumer of the occurrences found, ordered by offset.
+     * @throws IOException  If the file can't be read.
+     */
+    public void scan(Path file, Consumer<Occurrence> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long numChunks = (size + chunkSize - 1) / chunkSize;
+            for (long first = 0; first < numChunks; first += parallelism) {
+                long batchStart = first;
+                int batchSize = (int) Math.min(parallelism, numChunks - first);
+                List<List<Occurrence>> batch = IntStream.range(0, batchSize).parallel()
+                        .mapToObj(i -> scanMapped(channel, (batchStart + i) * chunkSize, size))
+                        .collect(Collectors.toList());
+                batch.forEach(occurrences -> occurrences.forEach(consumer));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Find the phrases in the bytes read from a channel, until its end.
+     * Bytes are read into a buffer of a number of chunks, which are scanned
+     * in parallel.
+     *
+     * @param channel       Channel of UTF-8 encoded text.
+     * @param consumer      Consumer of the occurrences found, ordered by offset.
+     * @throws IOException  If the channel can't be read.
+     */
+    public void scan(ReadableByteChannel channel, Consumer<Occurrence> consumer)
+            throws IOException {
+        // owned bytes of all chunks, and a phrase and a byte of context after them
+        int lookahead = maxPhraseBytes + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(
+                (int) Math.min(Integer.MAX_VALUE, (long) parallelism * chunkSize + lookahead + 1));
+        long base = 0;
+        int from = 0;
+        boolean end = false;
+        while (!end) {
+            while (buffer.hasRemaining() && !end) {
+                end = channel.read(buffer) == -1;
+            }
+            int limit = buffer.position();
+            int to = end ? limit : limit - lookahead;
+            ByteBuffer bytes = buffer.duplicate();
+            bytes.limit(limit);
+            scanChunks(bytes, base, from, to, consumer);
+            if (!end) {
+                // keep the last byte scanned as context for the next bytes
+                buffer.limit(limit);
+                buffer.position(to - 1);
+                buffer.compact();
+                base += to - 1;
+                from = 1;
+            }
+        }
+    }
+
+    /**
+     * Scan the chunks of a region of a buffer in parallel. Bytes after the
+     * region, up to the limit of the buffer, are used for finding phrases
+     * beginning in the region.
+     */
+    private void scanChunks(ByteBuffer bytes, long base, int from, int to,
+                            Consumer<Occurrence> consumer) {
+        int numChunks = (int) (((long) to - from + chunkSize - 1) / chunkSize);
+        IntStream.range(0, numChunks).parallel()
+                .mapToObj(i -> {
+                    int chunkFrom = from + i * chunkSize;
+                    int chunkTo = (int) Math.min(to, (long) chunkFrom + chunkSize);
+                    return scanChunk(bytes, base, chunkFrom, chunkTo);
+                })
+                .collect(Collectors.toList())
+                .forEach(occurrences -> occurrences.forEach(consumer));
+    }
+
+    /**
+     * Map and scan the chunk of a file beginning at some offset.
+     */
+    private List<Occurrence> scanMapped(FileChannel channel, long chunkStart, long size) {
+        long mapStart = Math.max(0, chunkStart - 1);
+        long chunkEnd = Math.min(size, chunkStart + chunkSize);
+        long mapEnd = Math.min(size, chunkEnd + maxPhraseBytes + 1);
+        try {
+            ByteBuffer bytes =
+                    channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            return scanChunk(bytes, mapStart,
+                    (int) (chunkStart - mapStart), (int) (chunkEnd - mapStart));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Find the phrases beginning in a region of a buffer. The whole buffer,
+     * up to its limit, may be read.
+     *
+     * @param bytes     Buffer of UTF-8 encoded text.
+     * @param base      Offset of the first byte of the buffer.
+     * @param from      Index of the first byte that may begin a phrase, inclusive.
+     * @param to        Index after the last byte that may begin a phrase, exclusive.
+     * @return          The occurrences found, ordered by offset.
+     */
+    private List<Occurrence> scanChunk(ByteBuffer bytes, long base, int from, int to) {
+        List<Occurrence> occurrences = Lists.newArrayList();
+        int limit = bytes.limit();
+        int scanEnd = (int) Math.min(limit, (long) to + prefixMax + anchorLength);
+        int[] end = new int[1];
+        // phrase starts already decoded, by start modulo the number of possible starts
+        int[] decoded = new int[prefixMax + 1];
+        int state = 0;
+        for (int i = from; i < scanEnd; i++) {
+            state = automaton.next(state, bytes.get(i) & 0xFF);
+            if (!anchorStates[state]) {
+                continue;
+            }
+            int anchor = i + 1 - anchorLength;
+            if (anchorIsLeading) {
+                if (anchor < to) {
+                    decodeAt(bytes, base, anchor, anchor + anchorLength, end, occurrences);
+                }
+                continue;
+            }
+            // try starts from the anchor backwards, hashing the bytes in between
+            long hash = BLOOM_SEED;
+            for (int start = anchor; start >= Math.max(from, anchor - prefixMax); start--) {
+                if (start < anchor) {
+                    hash = hashStep(hash, bytes.get(start));
+                }
+                if (start >= to || anchor - start < prefixMin
+                        || decoded[start % decoded.length] == start + 1
+                        || bloom != null && !bloomContains(hash)) {
+                    continue;
+                }
+                decoded[start % decoded.length] = start + 1;
+                decodeAt(bytes, base, start, start, end, occurrences);
+            }
+        }
+        occurrences.sort(Comparator.comparingLong(Occurrence::getOffset));
+        return occurrences;
+    }
+
+    /**
+     * Decode the phrase beginning at some index, and add it to a list of
+     * occurrences if found at token boundaries.
+     */
+    private void decodeAt(ByteBuffer bytes, long base, int start, int wordsStart, int[] end,
+                          List<Occurrence> occurrences) {
+        long value = decoder.decodeUtf8Prefix(bytes, wordsStart, bytes.limit(), end);
+        if (value == -1) {
+            return;
+        }
+        if (splitsToken(bytes, start - 1, start) || splitsToken(bytes, end[0] - 1, end[0])) {
+            return;
+        }
+        occurrences.add(new Occurrence(base + start, end[0] - start, value));
+    }
+
+    /**
+     * Returns true if the bytes at two indices are both ASCII letters or digits.
+     */
+    private static boolean splitsToken(ByteBuffer bytes, int before, int after) {
+        return before >= 0 && after < bytes.limit()
+                && isAsciiLetterOrDigit(bytes.get(before))
+                && isAsciiLetterOrDigit(bytes.get(after));
+    }
+
+    private static boolean isAsciiLetterOrDigit(byte b) {
+        return b >= '0' && b <= '9' || b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z';
+    }
+
+    private static long hashStep(long hash, byte b) {
+        return (hash ^ (b & 0xFF)) * BLOOM_PRIME;
+    }
+
+    private static int bloomSize(int numWords) {
+        long bits = Long.highestOneBit(
+                Math.max(Long.SIZE, (long) numWords * BLOOM_BITS_PER_WORD - 1)) << 1;
+        return (int) (bits / Long.SIZE);
+    }
+
+    private static int bloomBit(long hash, int probe, int numLongs) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return (h1 + probe * h2) & (numLongs * Long.SIZE - 1);
+    }
+
+    private boolean bloomContains(long hash) {
+        for (int probe = 0; probe < BLOOM_PROBES; probe++) {
+            int bit = bloomBit(hash, probe, bloom.length);
+            if ((bloom[bit >>> 6] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A phrase found by a scanner. Holds the offset of the first byte of the
+     * phrase, its length in bytes, and the long it translates to.
+     */
+    public static class Occurrence {
+
+        private final long offset;
+        private final int length;
+        private final long value;
+
+        public Occurrence(long offset, int length, long value) {
+            this.offset = offset;
+            this.length = length;
+            this.value = value;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Occurrence)) {
+                return false;
+            }
+            Occurrence other = (Occurrence) o;
+            return offset == other.offset && length == other.length && value == other.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(offset) * 31 + Long.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return offset + "+" + length + "=" + value;
+        }
+    }
+
+    /**
+     * Aho-Corasick automaton over bytes, compiled into a table with the next
+     * state for every state and byte.
+     */
+    private static class Automaton {
+
+        private final int[] next;
+        private final int[][] matches;
+
+        /**
+         * Compiles an automaton matching any of some non-empty patterns.
+         */
+        Automaton(List<byte[]> patterns) {
+            // build the trie of the patterns
+            List<int[]> children = Lists.newArrayList();
+            List<List<Integer>> outputs = Lists.newArrayList();
+            children.add(newChildren());
+            outputs.add(Lists.newArrayList());
+            for (int pattern = 0; pattern < patterns.size(); pattern++) {
+                int state = 0;
+                for (byte b : patterns.get(pattern)) {
+                    if (children.get(state)[b & 0xFF] == -1) {
+                        children.get(state)[b & 0xFF] = children.size();
+                        children.add(newChildren());
+                        outputs.add(Lists.newArrayList());
+                    }
+                    state = children.get(state)[b & 0xFF];
+                }
+                outputs.get(state).add(pattern);
+            }
+
+            // fill in transitions breadth first, following failure links
+            int numStates = children.size();
+            next = new int[numStates * 256];
+            int[] failure = new int[numStates];
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int b = 0; b < 256; b++) {
+                int child = children.get(0)[b];
+                next[b] = child == -1 ? 0 : child;
+                if (child != -1) {
+                    queue.add(child);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs.get(state).addAll(outputs.get(failure[state]));
+                for (int b = 0; b < 256; b++) {
+                    int child = children.get(state)[b];
+                    if (child == -1) {
+                        next[state * 256 + b] = next[failure[state] * 256 + b];
+                    } else {
+                        failure[child] = next[failure[state] * 256 + b];
+                        next[state * 256 + b] = child;
+                        queue.add(child);
+                    }
+                }
+            }
+
+            matches = new int[numStates][];
+            for (int state = 0; state < numStates; state++) {
+                matches[state] = outputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        int next(int state, int b) {
+            return next[state * 256 + b];
+        }
+
+        private static int[] newChildren() {
+            int[] children = new int[256];
+            Arrays.fill(children, -1);
+            return children;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.chedbrandh.gibberish;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the phrases of a range of values of a
+ * {@link PhraseTranslator}, in order.
+ *
+ * Splitting halves the remaining range, so that parallel streams divide the
+ * work evenly. Each spliterator renders its phrases with its own
+ * {@link PhraseCursor}, created when traversal starts, so that workers share
+ * no state.
+ *
+ * Phrases are not reported as distinct, since two values may render the same
+ * phrase when a word contains the separator that follows it.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+class PhraseSpliterator implements Spliterator<String> {
+
+    private static final int CHARACTERISTICS =
+            ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+
+    private final PhraseTranslator phraseTranslator;
+    private long fromValue;
+    private final long toValue;
+
+    // cursor at the value before fromValue, or null if traversal has not started
+    private PhraseCursor cursor;
+
+    PhraseSpliterator(PhraseTranslator phraseTranslator, long fromValue, long toValue) {
+        this.phraseTranslator = phraseTranslator;
+        this.fromValue = fromValue;
+        this.toValue = toValue;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (fromValue >= toValue) {
+            return false;
+        }
+        if (cursor == null) {
+            cursor = phraseTranslator.iterate(fromValue, toValue);
+        }
+        cursor.advance();
+        fromValue++;
+        action.accept(cursor.phrase());
+        return true;
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        long midValue = fromValue + (toValue - fromValue) / 2;
+        if (midValue == fromValue) {
+            return null;
+        }
+        Spliterator<String> prefix = new PhraseSpliterator(phraseTranslator, fromValue, midValue);
+        fromValue = midValue;
+        cursor = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return toValue - fromValue;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+}
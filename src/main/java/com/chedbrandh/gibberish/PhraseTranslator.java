@@ -6,8 +6,21 @@ import com.chedbrandh.gibberish.exceptions.IllegalWordException;
 import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class for translating between bit sequences and phrases.
@@ -21,6 +34,21 @@ import java.util.List;
  * {@link IPhraseConstructor} turns the sequence of words into a phrase. Translating a
  * phrase into a sequence of bits is the reverse of this process.
  *
+ * When phrases are deconstructed by a {@link SeparatorsPhraseConstructor},
+ * and the bits fit in a long, phrases are instead decoded in a single pass by
+ * a decoder compiled from the separators and the word providers. This
+ * decoder also handles words that contain separators.
+ *
+ * Phrases from untrusted sources can be translated by the {@code tryToLong}
+ * and {@code tryToBytes} methods, which report failures in a reusable
+ * {@link TranslationResult} instead of throwing exceptions. Input is first
+ * checked against an {@link AdmissionProfile}, so that input of a length no
+ * phrase has is rejected without being read.
+ *
+ * The phrases of consecutive values can be generated by a {@link PhraseCursor},
+ * which only rewrites the words that change from one phrase to the next.
+ * Streams of phrases, sequential or parallel, are made of such cursors.
+ *
  * @author Christofer Hedbrandh (chedbrandh@gmail.com)
  * @since 1.0
  */
@@ -35,6 +63,29 @@ public class PhraseTranslator {
     private final IPhraseConstructor phraseConstructor;
     private final IPhraseDeconstructor phraseDeconstructor;
 
+    // word providers and, if available, separators used for rendering bytes
+    private final List<WordProvider> wordProviders;
+    private final SeparatorsPhraseConstructor separatorsConstructor;
+    private final SeparatorsPhraseConstructor separatorsDeconstructor;
+
+    // number of indices that the bits of each position can address
+    private final long[] indexLimits;
+
+    // length of the longest phrase that can be constructed, or -1 if unknown
+    private final int maxPhraseLength;
+
+    // true if the first occurrence of a separator after a word always ends the word
+    private final boolean separatorsEndWords;
+
+    // decoder for phrases, compiled when first used, or null if not available
+    private final Supplier<PhraseDecoder> decoder;
+
+    // checks for rejecting input cheaply, computed when first used, or null if not available
+    private final Supplier<AdmissionProfile> admissionProfile;
+
+    // phrase length distribution, computed when first asked for, or null if not available
+    private final Supplier<PhraseLengthStatistics> lengthStatistics;
+
     /**
      * Create a translator. The {@link WordProviderSequence} must have enough
      * coverage to handle the indices that the IndexTranslator may provide.
@@ -58,8 +109,87 @@ public class PhraseTranslator {
         this.numBits = indexTranslator.bitCoverage();
 
         // verify bit coverage
-        wordProviderSequence.verifyProviderBitCoverage(
-                indexTranslator.bitDistribution());
+        List<Integer> bitDistribution = indexTranslator.bitDistribution();
+        wordProviderSequence.verifyProviderBitCoverage(bitDistribution);
+
+        this.wordProviders = wordProviderSequence.getWordProviders();
+        this.separatorsConstructor = phraseConstructor instanceof SeparatorsPhraseConstructor
+                ? (SeparatorsPhraseConstructor) phraseConstructor : null;
+        this.separatorsDeconstructor = phraseDeconstructor instanceof SeparatorsPhraseConstructor
+                ? (SeparatorsPhraseConstructor) phraseDeconstructor : null;
+        int separatorsLength = phraseConstructor.separatorsLength();
+        int maxLength = separatorsLength;
+        boolean separatorsEndWords = true;
+        for (int i = 0; i < wordProviders.size(); i++) {
+            String separator = separatorsDeconstructor != null && i < wordProviders.size() - 1
+                    ? separatorsDeconstructor.getSeparator(i + 1) : null;
+            int maxWordLength = 0;
+            for (int index = 0; index < 1 << bitDistribution.get(i); index++) {
+                String word = wordProviders.get(i).get(index);
+                maxWordLength = Math.max(maxWordLength, word.length());
+                if (separator != null) {
+                    separatorsEndWords &=
+                            (word + separator).indexOf(separator) == word.length();
+                }
+            }
+            maxLength += maxWordLength;
+        }
+        this.maxPhraseLength = separatorsLength >= 0 ? maxLength : -1;
+        this.separatorsEndWords = separatorsEndWords;
+        this.indexLimits = new long[wordProviders.size()];
+        for (int i = 0; i < indexLimits.length; i++) {
+            indexLimits[i] = 1L << bitDistribution.get(i);
+        }
+        this.lengthStatistics = separatorsLength >= 0
+                ? Suppliers.memoize(() -> new PhraseLengthStatistics(
+                        wordProviders, bitDistribution, separatorsLength))
+                : null;
+        this.decoder = separatorsDeconstructor != null && numBits < Long.SIZE
+                ? Suppliers.memoize(() -> new PhraseDecoder(
+                        separatorsDeconstructor, wordProviders, indexTranslator))
+                : null;
+        this.admissionProfile = separatorsDeconstructor != null
+                ? Suppliers.memoize(() -> new AdmissionProfile(
+                        separatorsDeconstructor, wordProviders))
+                : null;
+    }
+
+    /**
+     * Create a translator whose phrases sort like the values they encode.
+     *
+     * The first word holds the most significant bits, and the reachable words
+     * of each word provider are reordered by a collation, so that comparing
+     * phrases by the collation compares the bit sequences they encode. The
+     * reordered words are the same as those reachable before, so phrases are
+     * as long as those of a regular translator, but the words are mapped to
+     * other indices.
+     *
+     * Whether the order holds is verified when the translator is created. It
+     * may not hold if a word is a prefix of another word of the same position.
+     *
+     * @param wordProviderSequence      Word providers, in the regular order.
+     * @param bitDistribution           Number of bits of each word provider.
+     * @param separators                Translates between word sequences and phrases.
+     * @param collation                 Order in which phrases are to be sorted.
+     * @return                          The order-preserving translator.
+     * @throws BitCoverageException     Thrown if there aren't enough words in a word
+     *                                  provider to cover the number of bits assigned to it.
+     * @throws IllegalArgumentException If some phrases do not sort like their values.
+     */
+    public static PhraseTranslator orderPreserving(WordProviderSequence wordProviderSequence,
+                                                   List<Integer> bitDistribution,
+                                                   SeparatorsPhraseConstructor separators,
+                                                   Collation collation)
+            throws BitCoverageException {
+        wordProviderSequence.verifyProviderBitCoverage(bitDistribution);
+        List<WordProvider> wordProviders = Lists.newArrayList();
+        for (int i = 0; i < bitDistribution.size(); i++) {
+            wordProviders.add(wordProviderSequence.getWordProviders().get(i)
+                    .reorder(1 << bitDistribution.get(i), collation.comparator()));
+        }
+        collation.verifyOrder(separators, wordProviders, bitDistribution);
+        return new PhraseTranslator(new WordProviderSequence(wordProviders),
+                new IndexTranslator(bitDistribution, true), separators, separators);
     }
 
     /**
@@ -71,9 +201,51 @@ public class PhraseTranslator {
      * @return              Returns the translated phrase as defined by the word providers.
      */
     public String fromBytes(byte[] bytes, int fromBitIndex, int toBitIndex) {
+        if (separatorsConstructor == null) {
+            return phraseConstructor.construct(getWords(bytes, fromBitIndex, toBitIndex));
+        }
+        // render the words of the indices straight into a presized char array
         List<Integer> indices = indexTranslator.fromBytes(bytes, fromBitIndex, toBitIndex);
-        List<String> words = wordProviderSequence.getWords(indices);
-        return phraseConstructor.construct(words);
+        int length = separatorsConstructor.separatorsLength();
+        for (int i = 0; i < indices.size(); i++) {
+            length += wordProviders.get(i).get(indices.get(i)).length();
+        }
+        char[] chars = new char[length];
+        int index = putChars(separatorsConstructor.getSeparator(0), chars, 0);
+        for (int i = 0; i < indices.size(); i++) {
+            index = putChars(wordProviders.get(i).get(indices.get(i)), chars, index);
+            index = putChars(separatorsConstructor.getSeparator(i + 1), chars, index);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Translates a sequence of bits in a byte array to a phrase, appending it
+     * to a StringBuilder.
+     *
+     * @param bytes         The byte array to translate from.
+     * @param fromBitIndex  The inclusive bit start index to read from the byte array.
+     * @param toBitIndex    The exclusive bit end index to read from the byte array.
+     * @param stringBuilder The StringBuilder to append the phrase to.
+     */
+    public void fromBytes(byte[] bytes, int fromBitIndex, int toBitIndex,
+                          StringBuilder stringBuilder) {
+        phraseConstructor.construct(getWords(bytes, fromBitIndex, toBitIndex), stringBuilder);
+    }
+
+    /**
+     * Translates a sequence of bits in a byte array to a phrase, appending it
+     * to an Appendable.
+     *
+     * @param bytes         The byte array to translate from.
+     * @param fromBitIndex  The inclusive bit start index to read from the byte array.
+     * @param toBitIndex    The exclusive bit end index to read from the byte array.
+     * @param appendable    The Appendable to append the phrase to.
+     * @throws IOException  If the Appendable fails to append.
+     */
+    public void fromBytes(byte[] bytes, int fromBitIndex, int toBitIndex,
+                          Appendable appendable) throws IOException {
+        phraseConstructor.construct(getWords(bytes, fromBitIndex, toBitIndex), appendable);
     }
 
     /**
@@ -89,6 +261,10 @@ public class PhraseTranslator {
      */
     public void toBytes(byte[] bytes, String phrase, int fromBitIndex, int toBitIndex)
             throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        if (separatorsDeconstructor != null) {
+            toBytes(bytes, phrase, 0, phrase.length(), fromBitIndex, toBitIndex);
+            return;
+        }
         // deconstruct phrase into words
         List<String> words = phraseDeconstructor.deconstruct(phrase);
         // map words to indices
@@ -100,15 +276,301 @@ public class PhraseTranslator {
         indexTranslator.toBytes(bytes, indices, fromBitIndex, toBitIndex);
     }
 
+    /**
+     * Translates a phrase, in a region of a CharSequence, to a sequence of
+     * bits written to a byte array.
+     *
+     * When the phrase deconstructor is a {@link SeparatorsPhraseConstructor}
+     * words are looked up in place, without creating Strings for them. Other
+     * phrase deconstructors are given the region as a String.
+     *
+     * @param bytes                     The byte array to translate to.
+     * @param phrase                    CharSequence containing the phrase.
+     * @param start                     Index of the first char of the phrase, inclusive.
+     * @param end                       Index of the last char of the phrase, exclusive.
+     * @param fromBitIndex              The inclusive bit start index to write to the byte array.
+     * @param toBitIndex                The exclusive bit end index to write to the byte array.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public void toBytes(byte[] bytes, CharSequence phrase, int start, int end,
+                        int fromBitIndex, int toBitIndex)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        if (separatorsDeconstructor == null) {
+            toBytes(bytes, phrase.subSequence(start, end).toString(), fromBitIndex, toBitIndex);
+            return;
+        }
+        TranslationResult result = new TranslationResult();
+        if (translate(phrase, start, end, result, false) == TranslationResult.Status.OK) {
+            indexTranslator.toBytes(
+                    bytes, Ints.asList(result.indices()), fromBitIndex, toBitIndex);
+        }
+        result.check();
+    }
+
+    /**
+     * Translates a phrase to a sequence of bits written to a byte array,
+     * without throwing exceptions for phrases that can't be translated.
+     *
+     * @param bytes         The byte array to translate to.
+     * @param phrase        The phrase to translate from.
+     * @param fromBitIndex  The inclusive bit start index to write to the byte array.
+     * @param toBitIndex    The exclusive bit end index to write to the byte array.
+     * @param result        Result to report the translation in.
+     * @return              Status of the translation. Bytes are only written if OK.
+     */
+    public TranslationResult.Status tryToBytes(byte[] bytes, CharSequence phrase,
+                                               int fromBitIndex, int toBitIndex,
+                                               TranslationResult result) {
+        return tryToBytes(bytes, phrase, 0, phrase.length(), fromBitIndex, toBitIndex, result);
+    }
+
+    /**
+     * Translates a phrase, in a region of a CharSequence, to a sequence of
+     * bits written to a byte array, without throwing exceptions for phrases
+     * that can't be translated.
+     *
+     * @param bytes         The byte array to translate to.
+     * @param phrase        CharSequence containing the phrase.
+     * @param start         Index of the first char of the phrase, inclusive.
+     * @param end           Index of the last char of the phrase, exclusive.
+     * @param fromBitIndex  The inclusive bit start index to write to the byte array.
+     * @param toBitIndex    The exclusive bit end index to write to the byte array.
+     * @param result        Result to report the translation in.
+     * @return              Status of the translation. Bytes are only written if OK.
+     */
+    public TranslationResult.Status tryToBytes(byte[] bytes, CharSequence phrase,
+                                               int start, int end,
+                                               int fromBitIndex, int toBitIndex,
+                                               TranslationResult result) {
+        TranslationResult.Status status = translate(phrase, start, end, result, true);
+        if (status == TranslationResult.Status.OK) {
+            indexTranslator.toBytes(
+                    bytes, Ints.asList(result.indices()), fromBitIndex, toBitIndex);
+        }
+        return status;
+    }
+
     /**
      * Translates the sequence of bits, in a long, to a phrase.
      *
+     * When the phrase constructor is a {@link SeparatorsPhraseConstructor}
+     * the words are read straight from the bits of the long and copied into
+     * a char array of the length of the phrase, which the String is made of.
+     *
      * @param l     Long to translate into a phrase.
      * @return      Translated phrase.
      */
     public String fromLong(long l) {
+        if (separatorsConstructor == null) {
+            byte[] bytes = longToBytes(l, numBits);
+            return fromBytes(bytes, 0, numBits);
+        }
+        checkLong(l);
+        char[] chars = new char[phraseLength(l)];
+        putPhrase(l, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Create a cursor over the phrases of a range of values, in order. The
+     * cursor renders each phrase by only rewriting the words that differ
+     * from those of the previous phrase.
+     *
+     * @param fromValue                 First value of the range, inclusive.
+     * @param toValue                   Last value of the range, exclusive.
+     * @return                          The cursor.
+     * @throws IllegalStateException    If phrases are not constructed by a
+     *                                  {@link SeparatorsPhraseConstructor}.
+     * @throws IllegalArgumentException If the range is not within the values
+     *                                  of the translator.
+     */
+    public PhraseCursor iterate(long fromValue, long toValue) {
+        checkIterable(fromValue, toValue);
+        return new PhraseCursor(wordProviders, indexTranslator, separatorsConstructor,
+                maxPhraseLength, fromValue, toValue);
+    }
+
+    /**
+     * Create a spliterator over the phrases of a range of values, in order.
+     * Splitting halves the remaining range, and each part renders its
+     * phrases with its own {@link PhraseCursor}.
+     *
+     * @param fromValue                 First value of the range, inclusive.
+     * @param toValue                   Last value of the range, exclusive.
+     * @return                          The spliterator.
+     * @throws IllegalStateException    If phrases are not constructed by a
+     *                                  {@link SeparatorsPhraseConstructor}.
+     * @throws IllegalArgumentException If the range is not within the values
+     *                                  of the translator.
+     */
+    public Spliterator<String> spliterator(long fromValue, long toValue) {
+        checkIterable(fromValue, toValue);
+        return new PhraseSpliterator(this, fromValue, toValue);
+    }
+
+    /**
+     * Create a sequential stream of the phrases of a range of values, in
+     * order. Parallel streams split the range evenly between workers.
+     *
+     * @param fromValue                 First value of the range, inclusive.
+     * @param toValue                   Last value of the range, exclusive.
+     * @return                          The stream of phrases.
+     * @throws IllegalStateException    If phrases are not constructed by a
+     *                                  {@link SeparatorsPhraseConstructor}.
+     * @throws IllegalArgumentException If the range is not within the values
+     *                                  of the translator.
+     */
+    public Stream<String> phrases(long fromValue, long toValue) {
+        return StreamSupport.stream(spliterator(fromValue, toValue), false);
+    }
+
+    /**
+     * Create a stream of the phrases of a stream of values. The stream is
+     * parallel if the stream of values is.
+     *
+     * If phrases are constructed by a {@link SeparatorsPhraseConstructor},
+     * each part of the stream that a worker traverses renders phrases with
+     * its own {@link PhraseCursor}, which only rewrites the words that
+     * changed if values are consecutive. Either way each value gives the
+     * same phrase, or exception, as {@link #fromLong(long)}.
+     *
+     * @param values    Stream of values.
+     * @return          The stream of phrases.
+     */
+    public Stream<String> phrases(LongStream values) {
+        if (separatorsConstructor == null || numBits >= Long.SIZE) {
+            return values.mapToObj(this::fromLong);
+        }
+        long toValue = numBits < Long.SIZE - 1 ? 1L << numBits : Long.MAX_VALUE;
+        return StreamSupport.stream(
+                new ValuePhraseSpliterator(this, values.spliterator(), toValue),
+                values.isParallel()).onClose(values::close);
+    }
+
+    /**
+     * Translates the sequence of bits, in a long, to a phrase appended to a
+     * StringBuilder.
+     *
+     * @param l             Long to translate into a phrase.
+     * @param stringBuilder StringBuilder to append the phrase to.
+     */
+    public void fromLong(long l, StringBuilder stringBuilder) {
+        byte[] bytes = longToBytes(l, numBits);
+        fromBytes(bytes, 0, numBits, stringBuilder);
+    }
+
+    /**
+     * Translates the sequence of bits, in a long, to a phrase appended to an
+     * Appendable.
+     *
+     * @param l             Long to translate into a phrase.
+     * @param appendable    Appendable to append the phrase to.
+     * @throws IOException  If the Appendable fails to append.
+     */
+    public void fromLong(long l, Appendable appendable) throws IOException {
+        byte[] bytes = longToBytes(l, numBits);
+        fromBytes(bytes, 0, numBits, appendable);
+    }
+
+    /**
+     * Translates the sequence of bits, in a long, to a phrase put in a
+     * CharBuffer.
+     *
+     * @param l             Long to translate into a phrase.
+     * @param charBuffer    CharBuffer to put the phrase in.
+     */
+    public void fromLong(long l, CharBuffer charBuffer) {
         byte[] bytes = longToBytes(l, numBits);
-        return fromBytes(bytes, 0, numBits);
+        phraseConstructor.construct(getWords(bytes, 0, numBits), charBuffer);
+    }
+
+    /**
+     * Translates the sequence of bits, in a long, to a phrase written to a
+     * char array. A char array of length {@link #maxPhraseLength()} can hold
+     * any phrase.
+     *
+     * @param l         Long to translate into a phrase.
+     * @param chars     Char array to write the phrase to.
+     * @param offset    Index in the char array to write the first char to.
+     * @return          The number of chars written.
+     */
+    public int fromLong(long l, char[] chars, int offset) {
+        if (separatorsConstructor == null) {
+            byte[] bytes = longToBytes(l, numBits);
+            return phraseConstructor.construct(getWords(bytes, 0, numBits), chars, offset);
+        }
+        checkLong(l);
+        int length = phraseLength(l);
+        if (offset < 0 || offset + length > chars.length) {
+            throw new IndexOutOfBoundsException("Phrase does not fit in char array.");
+        }
+        putPhrase(l, chars, offset);
+        return length;
+    }
+
+    /**
+     * Translates the sequence of bits, in a long, to a phrase encoded as
+     * UTF-8 and written to a byte array.
+     *
+     * When the phrase constructor is a {@link SeparatorsPhraseConstructor}
+     * the phrase is copied from words and separators encoded at construction,
+     * without allocating. Other phrase constructors construct a String that
+     * is then encoded.
+     *
+     * @param l         Long to translate into a phrase.
+     * @param bytes     Byte array to write the phrase to.
+     * @param offset    Index in the byte array to write the first byte to.
+     * @return          The number of bytes written.
+     * @throws IndexOutOfBoundsException    If the phrase does not fit in the
+     *                                      byte array.
+     */
+    public int fromLong(long l, byte[] bytes, int offset) {
+        if (separatorsConstructor == null) {
+            byte[] phrase = fromLong(l).getBytes(StandardCharsets.UTF_8);
+            checkFits(bytes, offset, phrase.length);
+            System.arraycopy(phrase, 0, bytes, offset, phrase.length);
+            return phrase.length;
+        }
+        checkLong(l);
+        int length = utf8Length(l);
+        checkFits(bytes, offset, length);
+        int index = put(separatorsConstructor.getUtf8Separator(0), bytes, offset);
+        for (int i = 0; i < wordProviders.size(); i++) {
+            index = put(getUtf8Word(l, i), bytes, index);
+            index = put(separatorsConstructor.getUtf8Separator(i + 1), bytes, index);
+        }
+        return length;
+    }
+
+    /**
+     * Translates the sequence of bits, in a long, to a phrase encoded as
+     * UTF-8 and put in a ByteBuffer. See {@link #fromLong(long, byte[], int)}.
+     *
+     * @param l             Long to translate into a phrase.
+     * @param byteBuffer    ByteBuffer to put the phrase in.
+     * @return              The number of bytes put.
+     * @throws java.nio.BufferOverflowException If the phrase does not fit in
+     *                                          the remaining bytes of the buffer.
+     */
+    public int fromLong(long l, ByteBuffer byteBuffer) {
+        if (separatorsConstructor == null) {
+            byte[] phrase = fromLong(l).getBytes(StandardCharsets.UTF_8);
+            byteBuffer.put(phrase);
+            return phrase.length;
+        }
+        checkLong(l);
+        int length = utf8Length(l);
+        if (length > byteBuffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+        byteBuffer.put(separatorsConstructor.getUtf8Separator(0));
+        for (int i = 0; i < wordProviders.size(); i++) {
+            byteBuffer.put(getUtf8Word(l, i));
+            byteBuffer.put(separatorsConstructor.getUtf8Separator(i + 1));
+        }
+        return length;
     }
 
     /**
@@ -122,11 +584,350 @@ public class PhraseTranslator {
      */
     public long toLong(String phrase)
             throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        if (separatorsDeconstructor != null) {
+            return toLong(phrase, 0, phrase.length());
+        }
         byte[] bytes = new byte[numBitsToNumBytes(numBits)];
         toBytes(bytes, phrase, 0, numBits);
         return bytesToLong(bytes, numBits);
     }
 
+    /**
+     * Translates a phrase, in a region of a CharSequence, to a sequence of
+     * bits interpreted as a long.
+     *
+     * When the phrase deconstructor is a {@link SeparatorsPhraseConstructor}
+     * the phrase is walked once by a decoder compiled from the separators and
+     * the word providers, so no objects are created unless the phrase can't
+     * be translated. Words containing separators are also decoded correctly.
+     * Other phrase deconstructors are given the region as a String.
+     *
+     * @param phrase                    CharSequence containing the phrase.
+     * @param start                     Index of the first char of the phrase, inclusive.
+     * @param end                       Index of the last char of the phrase, exclusive.
+     * @return                          Translated long.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long toLong(CharSequence phrase, int start, int end)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        if (separatorsDeconstructor == null) {
+            return toLong(phrase.subSequence(start, end).toString());
+        }
+        Preconditions.checkState(numBits <= Long.SIZE, ILLEGAL_LONG_USAGE);
+        TranslationResult result = new TranslationResult();
+        translate(phrase, start, end, result, false);
+        result.check();
+        return result.getValue();
+    }
+
+    /**
+     * Translates a phrase to a sequence of bits interpreted as a long,
+     * without throwing exceptions for phrases that can't be translated.
+     *
+     * @param phrase    Phrase to translate into a long.
+     * @param result    Result to report the translation, and the long, in.
+     * @return          Status of the translation.
+     */
+    public TranslationResult.Status tryToLong(CharSequence phrase, TranslationResult result) {
+        return tryToLong(phrase, 0, phrase.length(), result);
+    }
+
+    /**
+     * Translates a phrase, in a region of a CharSequence, to a sequence of
+     * bits interpreted as a long, without throwing exceptions for phrases
+     * that can't be translated.
+     *
+     * When the phrase deconstructor is a {@link SeparatorsPhraseConstructor}
+     * no exceptions are created. Other phrase deconstructors report illegal
+     * phrases by exceptions, which are caught.
+     *
+     * @param phrase    CharSequence containing the phrase.
+     * @param start     Index of the first char of the phrase, inclusive.
+     * @param end       Index of the last char of the phrase, exclusive.
+     * @param result    Result to report the translation, and the long, in.
+     * @return          Status of the translation.
+     */
+    public TranslationResult.Status tryToLong(CharSequence phrase, int start, int end,
+                                              TranslationResult result) {
+        Preconditions.checkState(numBits <= Long.SIZE, ILLEGAL_LONG_USAGE);
+        return translate(phrase, start, end, result, true);
+    }
+
+    /**
+     * Returns true if a phrase can be translated.
+     *
+     * @param phrase    Phrase to validate.
+     * @return          True if the phrase can be translated.
+     */
+    public boolean isValid(CharSequence phrase) {
+        if (admissionProfile != null
+                && !admissionProfile.get().admits(phrase, 0, phrase.length())) {
+            return false;
+        }
+        if (decoder != null) {
+            SeparatorsPhraseConstructor separators = separatorsDeconstructor;
+            int end = phrase.length();
+            if (!separators.hasLeading(phrase, 0, end)) {
+                return false;
+            }
+            int wordsStart = separators.getSeparator(0).length();
+            if (!separators.hasTrailing(phrase, wordsStart, end)) {
+                return false;
+            }
+            int wordsEnd = end - separators.getSeparator(wordProviders.size()).length();
+            return decoder.get().decode(phrase, wordsStart, wordsEnd) != -1;
+        }
+        return translate(phrase, 0, phrase.length(), new TranslationResult(), true)
+                == TranslationResult.Status.OK;
+    }
+
+    /**
+     * Translates a UTF-8 encoded phrase, in a region of a ByteBuffer, to a
+     * sequence of bits interpreted as a long.
+     *
+     * When the phrase deconstructor is a {@link SeparatorsPhraseConstructor}
+     * separators and words are matched against their UTF-8 encodings in
+     * place by a compiled decoder, so the bytes are never decoded and no
+     * objects are created unless the phrase can't be translated. Other phrase deconstructors are
+     * given the decoded region as a String.
+     *
+     * @param phrase                    ByteBuffer containing the UTF-8 encoded phrase.
+     * @param start                     Absolute index of the first byte of the phrase,
+     *                                  inclusive.
+     * @param end                       Absolute index of the last byte of the phrase,
+     *                                  exclusive.
+     * @return                          Translated long.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long toLong(ByteBuffer phrase, int start, int end)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        if (start < 0 || end > phrase.limit() || start > end) {
+            throw new IndexOutOfBoundsException("Phrase region out of bounds.");
+        }
+        if (separatorsDeconstructor == null) {
+            return toLong(SeparatorsPhraseConstructor.decodeUtf8(phrase, start, end));
+        }
+        Preconditions.checkState(numBits <= Long.SIZE, ILLEGAL_LONG_USAGE);
+        int wordsStart = separatorsDeconstructor.utf8WordsStart(phrase, start, end);
+        int wordsEnd = separatorsDeconstructor.utf8WordsEnd(phrase, wordsStart, end);
+        // input of a length no phrase has is only classified, as it can't be decoded
+        if (decoder != null && admissionProfile.get().admitsUtf8Length(end - start)) {
+            long result = decoder.get().decodeUtf8(phrase, wordsStart, wordsEnd);
+            if (result != -1) {
+                return result;
+            }
+            // fall through to find out why the phrase could not be decoded
+        }
+        int numWords = wordProviders.size();
+        long result = 0;
+        int wordStart = wordsStart;
+        try {
+            for (int i = 0; i < numWords; i++) {
+                int wordEnd = wordsEnd;
+                if (i < numWords - 1) {
+                    wordEnd = separatorsDeconstructor.indexOfUtf8Separator(
+                            i, phrase, wordStart, wordsEnd);
+                    if (wordEnd == -1) {
+                        String words = SeparatorsPhraseConstructor.decodeUtf8(
+                                phrase, wordsStart, wordsEnd);
+                        throw IllegalPhraseException.expectedSeparator(
+                                words, separatorsDeconstructor.getSeparator(i + 1));
+                    }
+                }
+                result |= utf8WordToLong(phrase, wordStart, wordEnd, i);
+                if (i < numWords - 1) {
+                    wordStart = wordEnd + separatorsDeconstructor.getUtf8Separator(i + 1).length;
+                }
+            }
+        } catch (IllegalWordException | WordIndexOutOfBoundsException e) {
+            // an illegal phrase takes precedence, as when deconstructing before lookup
+            separatorsDeconstructor.deconstructUtf8(phrase, start, end, new int[2 * numWords]);
+            throw e;
+        }
+        return result;
+    }
+
+    /**
+     * Translates a UTF-8 encoded phrase, in a region of a byte array, to a
+     * sequence of bits interpreted as a long. See
+     * {@link #toLong(ByteBuffer, int, int)}.
+     *
+     * @param phrase                    Byte array containing the UTF-8 encoded phrase.
+     * @param start                     Index of the first byte of the phrase, inclusive.
+     * @param end                       Index of the last byte of the phrase, exclusive.
+     * @return                          Translated long.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long toLong(byte[] phrase, int start, int end)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        return toLong(ByteBuffer.wrap(phrase), start, end);
+    }
+
+    /**
+     * Translates the word at a position of a phrase to its index, without
+     * translating the rest of the phrase.
+     *
+     * When the phrase deconstructor is a {@link SeparatorsPhraseConstructor}
+     * the phrase is only scanned up to the end of the word, and only the word
+     * is looked up, so a phrase with illegal words at other positions may be
+     * decoded. Other phrase deconstructors, and translators with words that
+     * contain the separator following them, translate the whole phrase.
+     *
+     * @param phrase                    Phrase to decode a word of.
+     * @param position                  Position of the word.
+     * @return                          Index of the word.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If the word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If the word maps to illegal index.
+     */
+    public int decodeField(CharSequence phrase, int position)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        Preconditions.checkElementIndex(position, wordProviders.size(), "Position");
+        TranslationResult result = new TranslationResult();
+        translateWords(phrase, position, position + 1, result);
+        result.check();
+        return result.indices()[position];
+    }
+
+    /**
+     * Translates a range of the bits of a phrase to a long, only translating
+     * the words that hold the bits. The first bit of the range is the least
+     * significant bit of the long. As with {@link #decodeField}, the phrase
+     * is only scanned up to the end of the last of the words.
+     *
+     * @param phrase                    Phrase to decode bits of.
+     * @param fromBitIndex              Index of the first bit, inclusive.
+     * @param toBitIndex                Index of the last bit, exclusive.
+     * @return                          The bits.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If a word maps to illegal index.
+     */
+    public long decodeBits(CharSequence phrase, int fromBitIndex, int toBitIndex)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        Preconditions.checkArgument(0 <= fromBitIndex && fromBitIndex <= toBitIndex
+                        && toBitIndex <= numBits && toBitIndex - fromBitIndex <= Long.SIZE,
+                "Bit range must be within the bits of the translator, and fit in a long.");
+        if (fromBitIndex == toBitIndex) {
+            return 0;
+        }
+        // positions overlapping the bit range are adjacent, whichever end of
+        // the bit sequence the first position holds
+        int fromPosition = wordProviders.size();
+        int toPosition = 0;
+        for (int i = 0; i < wordProviders.size(); i++) {
+            int offset = indexTranslator.bitOffset(i);
+            if (offset < toBitIndex && fromBitIndex < offset + bitsOf(i)) {
+                fromPosition = Math.min(fromPosition, i);
+                toPosition = i + 1;
+            }
+        }
+        TranslationResult result = new TranslationResult();
+        translateWords(phrase, fromPosition, toPosition, result);
+        result.check();
+
+        long value = 0;
+        for (int i = fromPosition; i < toPosition; i++) {
+            int offset = indexTranslator.bitOffset(i);
+            int start = Math.max(offset, fromBitIndex);
+            int end = Math.min(offset + bitsOf(i), toBitIndex);
+            long bits = (result.indices()[i] >>> (start - offset)) & ((1L << (end - start)) - 1);
+            value |= bits << (start - fromBitIndex);
+        }
+        return value;
+    }
+
+    /**
+     * Verify that phrases of a range of values can be iterated.
+     */
+    private void checkIterable(long fromValue, long toValue) {
+        Preconditions.checkState(numBits < Long.SIZE, ILLEGAL_LONG_USAGE);
+        Preconditions.checkState(separatorsConstructor != null,
+                "Phrases can only be iterated if constructed by separators.");
+        Preconditions.checkArgument(0 <= fromValue && fromValue <= toValue
+                        && (numBits >= Long.SIZE - 1 || toValue <= 1L << numBits),
+                "Range of values must be within the values of the translator.");
+    }
+
+    /**
+     * Translates word indices to a phrase. Indices must be legal for their
+     * positions.
+     */
+    String fromIndices(int[] indices) {
+        List<String> words = Lists.newArrayListWithCapacity(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            words.add(wordProviders.get(i).get(indices[i]));
+        }
+        return phraseConstructor.construct(words);
+    }
+
+    /**
+     * Translates a phrase to the indices of its words, of any number of bits,
+     * reported in a result.
+     */
+    TranslationResult.Status tryToIndices(CharSequence phrase, TranslationResult result) {
+        return translate(phrase, 0, phrase.length(), result, true);
+    }
+
+    /**
+     * Get the phrase constructor if it is a {@link SeparatorsPhraseConstructor}.
+     *
+     * @return  The phrase constructor, or null if it is not made of separators.
+     */
+    SeparatorsPhraseConstructor getSeparatorsConstructor() {
+        return separatorsConstructor;
+    }
+
+    /**
+     * Get the phrase deconstructor if it is a {@link SeparatorsPhraseConstructor}.
+     *
+     * @return  The phrase deconstructor, or null if it is not made of separators.
+     */
+    SeparatorsPhraseConstructor getSeparatorsDeconstructor() {
+        return separatorsDeconstructor;
+    }
+
+    /**
+     * Get the decoder compiled for this translator, compiling it if this is
+     * the first time it is asked for.
+     *
+     * @return  The decoder, or null if phrases can't be decoded by one.
+     */
+    PhraseDecoder getDecoder() {
+        return decoder != null ? decoder.get() : null;
+    }
+
+    /**
+     * Get the exact distribution of the lengths of the phrases that this
+     * translator can construct. The distribution is computed the first time
+     * it is asked for.
+     *
+     * @return  The phrase length statistics.
+     * @throws IllegalStateException If the phrase constructor doesn't know
+     *                               the number of characters it adds to words.
+     */
+    public PhraseLengthStatistics lengthStatistics() {
+        Preconditions.checkState(lengthStatistics != null,
+                "Phrase constructor does not know its separators length.");
+        return lengthStatistics.get();
+    }
+
+    /**
+     * Get the length of the longest phrase that this translator can construct.
+     *
+     * @return  The max phrase length, or -1 if the phrase constructor doesn't
+     *          know the number of characters it adds to words.
+     */
+    public int maxPhraseLength() {
+        return maxPhraseLength;
+    }
+
     /**
      * Get {@link IndexTranslator} used to create the phrase translator.
      *
@@ -145,6 +946,348 @@ public class PhraseTranslator {
         return wordProviderSequence;
     }
 
+    /**
+     * Get the checks that input must pass to possibly be a phrase. The
+     * profile is computed the first time it is asked for.
+     *
+     * @return  The admission profile, or null if phrases are not
+     *          deconstructed by a {@link SeparatorsPhraseConstructor}.
+     */
+    public AdmissionProfile getAdmissionProfile() {
+        return admissionProfile != null ? admissionProfile.get() : null;
+    }
+
+    /**
+     * Get {@link IPhraseDeconstructor} used to create the phrase translator.
+     *
+     * @return  The phrase deconstructor.
+     */
+    public IPhraseDeconstructor getPhraseDeconstructor() {
+        return phraseDeconstructor;
+    }
+
+    /**
+     * Translates a phrase, in a region of a CharSequence, to indices and, if
+     * the bits fit, a long, reported in a result. If admitting by length,
+     * input of a length no phrase has is reported as such without being read.
+     * Otherwise it is reported like other illegal phrases, as exceptions
+     * thrown by the translator have always reported it.
+     */
+    private TranslationResult.Status translate(CharSequence phrase, int start, int end,
+                                               TranslationResult result, boolean admitLength) {
+        if (start < 0 || end > phrase.length() || start > end) {
+            throw new IndexOutOfBoundsException("Phrase region out of bounds.");
+        }
+        int numWords = wordProviders.size();
+        result.reset(numWords);
+        if (separatorsDeconstructor == null) {
+            return translate(phrase.subSequence(start, end).toString(), result);
+        }
+        AdmissionProfile profile = admissionProfile.get();
+        boolean admitted = profile.admitsLength(end - start);
+        if (!admitted && admitLength) {
+            return result.unexpectedLength(
+                    phrase, start, end, profile.getMinChars(), profile.getMaxChars());
+        }
+        SeparatorsPhraseConstructor separators = separatorsDeconstructor;
+        if (!separators.hasLeading(phrase, start, end)) {
+            return result.expectedLeading(phrase, start, end, separators.getSeparator(0));
+        }
+        int wordsStart = start + separators.getSeparator(0).length();
+        if (!separators.hasTrailing(phrase, wordsStart, end)) {
+            return result.expectedTrailing(
+                    phrase, wordsStart, end, separators.getSeparator(numWords));
+        }
+        int wordsEnd = end - separators.getSeparator(numWords).length();
+        int[] indices = result.indices();
+        if (decoder != null && admitted) {
+            long value = decoder.get().decode(phrase, wordsStart, wordsEnd);
+            if (value != -1) {
+                for (int i = 0; i < numWords; i++) {
+                    indices[i] = indexTranslator.fromLong(value, i);
+                }
+                result.setValue(value);
+                return TranslationResult.Status.OK;
+            }
+            // fall through to find out why the phrase could not be decoded
+        }
+
+        // an illegal phrase takes precedence over the first illegal word
+        TranslationResult.Status status = TranslationResult.Status.OK;
+        int wordStart = wordsStart;
+        for (int i = 0; i < numWords; i++) {
+            int wordEnd = wordsEnd;
+            if (i < numWords - 1) {
+                wordEnd = separators.indexOfSeparator(i, phrase, wordStart, wordsEnd);
+                if (wordEnd == -1) {
+                    return result.expectedSeparator(
+                            phrase, wordsStart, wordsEnd, separators.getSeparator(i + 1));
+                }
+            }
+            if (status == TranslationResult.Status.OK) {
+                int index = wordProviders.get(i).indexOf(phrase, wordStart, wordEnd);
+                status = setIndex(index, phrase, wordStart, wordEnd, i, result);
+            }
+            if (i < numWords - 1) {
+                wordStart = wordEnd + separators.separatorLength(i);
+            }
+        }
+        if (status == TranslationResult.Status.OK) {
+            setValue(result);
+        }
+        return status;
+    }
+
+    /**
+     * Translates the words at a range of positions of a phrase to indices,
+     * reported in a result. The phrase is only scanned up to the end of the
+     * last word of the range, unless a word may contain its separator, in
+     * which case the whole phrase is decoded to find where words end.
+     */
+    private TranslationResult.Status translateWords(CharSequence phrase, int fromPosition,
+                                                    int toPosition, TranslationResult result) {
+        int numWords = wordProviders.size();
+        if (separatorsDeconstructor == null || !separatorsEndWords) {
+            return translate(phrase, 0, phrase.length(), result, true);
+        }
+        result.reset(numWords);
+        int end = phrase.length();
+        AdmissionProfile profile = admissionProfile.get();
+        if (!profile.admitsLength(end)) {
+            return result.unexpectedLength(
+                    phrase, 0, end, profile.getMinChars(), profile.getMaxChars());
+        }
+        SeparatorsPhraseConstructor separators = separatorsDeconstructor;
+        if (!separators.hasLeading(phrase, 0, end)) {
+            return result.expectedLeading(phrase, 0, end, separators.getSeparator(0));
+        }
+        int wordsStart = separators.getSeparator(0).length();
+        if (!separators.hasTrailing(phrase, wordsStart, end)) {
+            return result.expectedTrailing(
+                    phrase, wordsStart, end, separators.getSeparator(numWords));
+        }
+        int wordsEnd = end - separators.getSeparator(numWords).length();
+        int wordStart = wordsStart;
+        for (int i = 0; i < toPosition; i++) {
+            int wordEnd = wordsEnd;
+            if (i < numWords - 1) {
+                wordEnd = separators.indexOfSeparator(i, phrase, wordStart, wordsEnd);
+                if (wordEnd == -1) {
+                    return result.expectedSeparator(
+                            phrase, wordsStart, wordsEnd, separators.getSeparator(i + 1));
+                }
+            }
+            if (i >= fromPosition) {
+                int index = wordProviders.get(i).indexOf(phrase, wordStart, wordEnd);
+                TranslationResult.Status status =
+                        setIndex(index, phrase, wordStart, wordEnd, i, result);
+                if (status != TranslationResult.Status.OK) {
+                    return status;
+                }
+            }
+            if (i < numWords - 1) {
+                wordStart = wordEnd + separators.separatorLength(i);
+            }
+        }
+        return TranslationResult.Status.OK;
+    }
+
+    /**
+     * Get the number of bits of the word at a position.
+     */
+    private int bitsOf(int position) {
+        return indexTranslator.bitDistribution().get(position);
+    }
+
+    /**
+     * Translates a phrase deconstructed by a phrase deconstructor other than
+     * a {@link SeparatorsPhraseConstructor}. Unknown words take precedence
+     * over illegal indices, as when throwing exceptions.
+     */
+    private TranslationResult.Status translate(String phrase, TranslationResult result) {
+        List<String> words;
+        try {
+            words = phraseDeconstructor.deconstruct(phrase);
+        } catch (IllegalPhraseException e) {
+            return result.illegalPhrase(e);
+        }
+        Preconditions.checkArgument(words.size() == wordProviders.size(),
+                "Number of indices requested does not match the number of word providers.");
+        int[] indices = result.indices();
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = wordProviders.get(i).indexOf(words.get(i));
+            if (indices[i] == -1) {
+                String word = words.get(i);
+                return result.illegalWord(i, word, 0, word.length(), wordProviders.get(i));
+            }
+        }
+        for (int i = 0; i < indices.length; i++) {
+            String word = words.get(i);
+            TranslationResult.Status status =
+                    setIndex(indices[i], word, 0, word.length(), i, result);
+            if (status != TranslationResult.Status.OK) {
+                return status;
+            }
+        }
+        setValue(result);
+        return TranslationResult.Status.OK;
+    }
+
+    /**
+     * Set the index of the word at a position of a result, if the word was
+     * found and the index is legal for the position.
+     */
+    private TranslationResult.Status setIndex(int index, CharSequence word, int wordStart,
+                                              int wordEnd, int position,
+                                              TranslationResult result) {
+        if (index == -1) {
+            return result.illegalWord(
+                    position, word, wordStart, wordEnd, wordProviders.get(position));
+        }
+        if (index >= indexLimits[position]) {
+            return result.wordIndexOutOfBounds(position, word, wordStart, wordEnd, index,
+                    indexTranslator.bitDistribution().get(position));
+        }
+        result.indices()[position] = index;
+        return TranslationResult.Status.OK;
+    }
+
+    /**
+     * Set the long of the indices of a result, if the bits fit in a long.
+     */
+    private void setValue(TranslationResult result) {
+        if (numBits <= Long.SIZE) {
+            long value = 0;
+            int[] indices = result.indices();
+            for (int i = 0; i < indices.length; i++) {
+                value |= indexTranslator.toLong(indices[i], i);
+            }
+            result.setValue(value);
+        }
+    }
+
+    /**
+     * Translates a sequence of bits in a byte array to words.
+     */
+    private List<String> getWords(byte[] bytes, int fromBitIndex, int toBitIndex) {
+        List<Integer> indices = indexTranslator.fromBytes(bytes, fromBitIndex, toBitIndex);
+        return wordProviderSequence.getWords(indices);
+    }
+
+    /**
+     * Look up the index of a UTF-8 encoded word, in a region of a ByteBuffer,
+     * and place it at its position among the bits of a long.
+     */
+    private long utf8WordToLong(ByteBuffer phrase, int wordStart, int wordEnd, int position)
+            throws IllegalWordException, WordIndexOutOfBoundsException {
+        int index = wordProviders.get(position).indexOfUtf8(phrase, wordStart, wordEnd);
+        if (index == -1 || index >= indexLimits[position]) {
+            verifyIndex(index, SeparatorsPhraseConstructor.decodeUtf8(phrase, wordStart, wordEnd),
+                    position);
+        }
+        return indexTranslator.toLong(index, position);
+    }
+
+    /**
+     * Throws exception if a word was not found, or if its index is not legal
+     * for its position.
+     */
+    private void verifyIndex(int index, String word, int position)
+            throws IllegalWordException, WordIndexOutOfBoundsException {
+        if (index == -1) {
+            throw new IllegalWordException(word, wordProviders.get(position));
+        }
+        if (index >= indexLimits[position]) {
+            throw WordIndexOutOfBoundsException.forIndex(
+                    index, word, indexTranslator.bitDistribution().get(position));
+        }
+    }
+
+    /**
+     * Get the word at some position of the phrase for a long.
+     */
+    private String getWord(long l, int position) {
+        return wordProviders.get(position).get(indexTranslator.fromLong(l, position));
+    }
+
+    /**
+     * Get the length of the phrase for a long.
+     */
+    private int phraseLength(long l) {
+        int length = separatorsConstructor.separatorsLength();
+        for (int i = 0; i < wordProviders.size(); i++) {
+            length += getWord(l, i).length();
+        }
+        return length;
+    }
+
+    /**
+     * Write the phrase for a long to a char array, which it must fit in, and
+     * return the index after the last char written.
+     */
+    private int putPhrase(long l, char[] chars, int offset) {
+        int index = putChars(separatorsConstructor.getSeparator(0), chars, offset);
+        for (int i = 0; i < wordProviders.size(); i++) {
+            index = putChars(getWord(l, i), chars, index);
+            index = putChars(separatorsConstructor.getSeparator(i + 1), chars, index);
+        }
+        return index;
+    }
+
+    /**
+     * Get the UTF-8 encoded word at some position of the phrase for a long.
+     */
+    private byte[] getUtf8Word(long l, int position) {
+        return wordProviders.get(position).getUtf8(indexTranslator.fromLong(l, position));
+    }
+
+    /**
+     * Get the UTF-8 encoded length of the phrase for a long.
+     */
+    private int utf8Length(long l) {
+        int length = separatorsConstructor.utf8SeparatorsLength();
+        for (int i = 0; i < wordProviders.size(); i++) {
+            length += getUtf8Word(l, i).length;
+        }
+        return length;
+    }
+
+    /**
+     * Throws runtime exception if a long can not be translated.
+     */
+    private void checkLong(long l) {
+        Preconditions.checkState(numBits <= Long.SIZE, ILLEGAL_LONG_USAGE);
+        Preconditions.checkArgument(0 <= l, "Only positive values are allowed.");
+    }
+
+    /**
+     * Throws runtime exception if some number of bytes can not be written to
+     * a byte array at an offset.
+     */
+    private static void checkFits(byte[] bytes, int offset, int length) {
+        if (offset < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("Phrase does not fit in byte array.");
+        }
+    }
+
+    /**
+     * Copy all bytes of a byte array to another and return the index after
+     * the last byte written.
+     */
+    private static int put(byte[] source, byte[] bytes, int offset) {
+        System.arraycopy(source, 0, bytes, offset, source.length);
+        return offset + source.length;
+    }
+
+    /**
+     * Copy all chars of a String to a char array and return the index after
+     * the last char written.
+     */
+    private static int putChars(String string, char[] chars, int offset) {
+        string.getChars(0, string.length(), chars, offset);
+        return offset + string.length();
+    }
+
     /**
      * Translates a long to a byte array.
      *
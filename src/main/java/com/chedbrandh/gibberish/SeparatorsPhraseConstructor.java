@@ -5,6 +5,11 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
 
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -15,6 +20,10 @@ import java.util.List;
  * For example separators ["", " like to eat ", "."] applied to the words
  * ["Dingos", "moussaka"] becomes "Dingos like to eat moussaka."
  *
+ * Phrases can be constructed as Strings, or be written directly to a
+ * StringBuilder, an Appendable, a CharBuffer or a char array. The separators
+ * are also kept encoded as UTF-8 so that phrases can be rendered to bytes.
+ *
  * The algorithm is implemented in such a way that it allows for both words and
  * separators to contain regex and {@link java.util.Formatter} characters. This
  * means that "words" don't technically have to be words since they are allowed
@@ -28,6 +37,11 @@ public class SeparatorsPhraseConstructor implements IPhraseConstructor, IPhraseD
     private final ImmutableList<String> separators;
     private final String leading;
     private final String trailing;
+    private final int separatorsLength;
+
+    // leading, separators and trailing encoded as UTF-8
+    private final byte[][] utf8Separators;
+    private final int utf8SeparatorsLength;
 
     /**
      * Creates a SeparatorsPhraseConstructor from some separators.
@@ -51,27 +65,49 @@ public class SeparatorsPhraseConstructor implements IPhraseConstructor, IPhraseD
         this.trailing = Strings.nullToEmpty(separators.get(separators.size() - 1));
         this.separators = ImmutableList.copyOf(separators.subList(1, separators.size() - 1));
 
+        int length = leading.length() + trailing.length();
         for (String separator : this.separators) {
             Preconditions.checkArgument(!separator.isEmpty(), "Separators must not be empty.");
+            length += separator.length();
+        }
+        this.separatorsLength = length;
+
+        this.utf8Separators = new byte[this.separators.size() + 2][];
+        int utf8Length = 0;
+        for (int i = 0; i < utf8Separators.length; i++) {
+            utf8Separators[i] = getSeparator(i).getBytes(StandardCharsets.UTF_8);
+            utf8Length += utf8Separators[i].length;
         }
+        this.utf8SeparatorsLength = utf8Length;
     }
 
     /**
      * Constructs a phrase from words.
      *
      * Strings from the separators and the words are concatenated
-     * alternatively to create a phrase.
+     * alternatively to create a phrase. The length of the phrase is known
+     * from the words, so it is built in a buffer of the exact size.
      *
      * @param words   Parts used to construct a phrase. Typically words.
      * @return        Phrase constructed from words and separators.
      */
     @Override
     public String construct(List<String> words) {
-        // note that in documentation terminology, separators include leading and trailing
-        Preconditions.checkArgument(words.size() == separators.size() + 1,
-                "Number of words must be one less than the number of separators.");
+        StringBuilder stringBuilder = new StringBuilder(constructedLength(words));
+        construct(words, stringBuilder);
+        return stringBuilder.toString();
+    }
 
-        StringBuilder stringBuilder = new StringBuilder();
+    /**
+     * Constructs a phrase from words, appending it to a StringBuilder.
+     *
+     * @param words         Parts used to construct a phrase. Typically words.
+     * @param stringBuilder StringBuilder to append the phrase to.
+     */
+    @Override
+    public void construct(List<String> words, StringBuilder stringBuilder) {
+        checkNumberOfWords(words);
+        stringBuilder.ensureCapacity(stringBuilder.length() + constructedLength(words));
         stringBuilder.append(leading);
         stringBuilder.append(words.get(0));
         for (int i = 0; i < separators.size(); i++) {
@@ -79,8 +115,142 @@ public class SeparatorsPhraseConstructor implements IPhraseConstructor, IPhraseD
             stringBuilder.append(words.get(i + 1));
         }
         stringBuilder.append(trailing);
+    }
 
-        return stringBuilder.toString();
+    /**
+     * Constructs a phrase from words, appending it to an Appendable.
+     *
+     * @param words         Parts used to construct a phrase. Typically words.
+     * @param appendable    Appendable to append the phrase to.
+     * @throws IOException  If the Appendable fails to append.
+     */
+    @Override
+    public void construct(List<String> words, Appendable appendable) throws IOException {
+        checkNumberOfWords(words);
+        appendable.append(leading);
+        appendable.append(words.get(0));
+        for (int i = 0; i < separators.size(); i++) {
+            appendable.append(separators.get(i));
+            appendable.append(words.get(i + 1));
+        }
+        appendable.append(trailing);
+    }
+
+    /**
+     * Constructs a phrase from words, putting it at the position of a
+     * CharBuffer.
+     *
+     * @param words         Parts used to construct a phrase. Typically words.
+     * @param charBuffer    CharBuffer to put the phrase in.
+     * @throws java.nio.BufferOverflowException If the phrase does not fit in
+     *                                          the remaining chars of the buffer.
+     */
+    @Override
+    public void construct(List<String> words, CharBuffer charBuffer) {
+        checkNumberOfWords(words);
+        if (constructedLength(words) > charBuffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+        charBuffer.put(leading);
+        charBuffer.put(words.get(0));
+        for (int i = 0; i < separators.size(); i++) {
+            charBuffer.put(separators.get(i));
+            charBuffer.put(words.get(i + 1));
+        }
+        charBuffer.put(trailing);
+    }
+
+    /**
+     * Constructs a phrase from words, writing it to a char array.
+     *
+     * @param words     Parts used to construct a phrase. Typically words.
+     * @param chars     Char array to write the phrase to.
+     * @param offset    Index in the char array to write the first char to.
+     * @return          The number of chars written.
+     * @throws IndexOutOfBoundsException    If the phrase does not fit in the
+     *                                      char array.
+     */
+    @Override
+    public int construct(List<String> words, char[] chars, int offset) {
+        checkNumberOfWords(words);
+        int length = constructedLength(words);
+        if (offset < 0 || offset + length > chars.length) {
+            throw new IndexOutOfBoundsException("Phrase does not fit in char array.");
+        }
+        int index = putChars(leading, chars, offset);
+        index = putChars(words.get(0), chars, index);
+        for (int i = 0; i < separators.size(); i++) {
+            index = putChars(separators.get(i), chars, index);
+            index = putChars(words.get(i + 1), chars, index);
+        }
+        putChars(trailing, chars, index);
+        return length;
+    }
+
+    /**
+     * Get the length of the phrase constructed from some words.
+     *
+     * @param words     Parts used to construct a phrase. Typically words.
+     * @return          The length of the phrase.
+     */
+    public int constructedLength(List<String> words) {
+        checkNumberOfWords(words);
+        int length = separatorsLength;
+        for (int i = 0; i < words.size(); i++) {
+            length += words.get(i).length();
+        }
+        return length;
+    }
+
+    /**
+     * Get the total length of all separators, including leading and trailing.
+     *
+     * @return  The number of characters added to the words.
+     */
+    @Override
+    public int separatorsLength() {
+        return separatorsLength;
+    }
+
+    /**
+     * Get the total length of all separators encoded as UTF-8, including
+     * leading and trailing.
+     *
+     * @return  The number of bytes added to the UTF-8 encoded words.
+     */
+    public int utf8SeparatorsLength() {
+        return utf8SeparatorsLength;
+    }
+
+    /**
+     * Get the String placed before the word at a position. Position zero is
+     * the leading String and the position after the last word is the
+     * trailing String.
+     *
+     * @param position  Position of the separator.
+     * @return          The separator.
+     */
+    String getSeparator(int position) {
+        if (position == 0) {
+            return leading;
+        }
+        if (position == separators.size() + 1) {
+            return trailing;
+        }
+        return separators.get(position - 1);
+    }
+
+    /**
+     * Get the UTF-8 encoding of the String placed before the word at a
+     * position. Position zero is the leading String and the position after
+     * the last word is the trailing String. The returned array is shared and
+     * must not be modified.
+     *
+     * @param position  Position of the separator.
+     * @return          The separator encoded as UTF-8.
+     */
+    byte[] getUtf8Separator(int position) {
+        return utf8Separators[position];
     }
 
     /**
@@ -96,56 +266,320 @@ public class SeparatorsPhraseConstructor implements IPhraseConstructor, IPhraseD
      */
     @Override
     public List<String> deconstruct(String phrase) throws IllegalPhraseException {
+        int[] wordBounds = new int[2 * (separators.size() + 1)];
+        deconstruct(phrase, 0, phrase.length(), wordBounds);
+        ImmutableList.Builder<String> words = ImmutableList.builder();
+        for (int i = 0; i < wordBounds.length; i += 2) {
+            words.add(phrase.substring(wordBounds[i], wordBounds[i + 1]));
+        }
+        return words.build();
+    }
 
-        // strip any leading phrase "prefix" or "postfix"
-        phrase = stripLeading(phrase);
-        phrase = stripTrailing(phrase);
+    /**
+     * Deconstructs a phrase, in a region of a CharSequence, into word
+     * boundaries.
+     *
+     * The start and end index of word i are written to wordBounds[2 * i] and
+     * wordBounds[2 * i + 1]. No Strings are created for the words.
+     *
+     * @param phrase        CharSequence containing the phrase.
+     * @param start         Index of the first char of the phrase, inclusive.
+     * @param end           Index of the last char of the phrase, exclusive.
+     * @param wordBounds    Array to write word start and end indices to.
+     *                      Must have room for two indices per word.
+     * @throws IllegalPhraseException   If separators are not found in the
+     *                                  phrase, in the expected places.
+     */
+    public void deconstruct(CharSequence phrase, int start, int end, int[] wordBounds)
+            throws IllegalPhraseException {
+        Preconditions.checkArgument(wordBounds.length >= 2 * (separators.size() + 1),
+                "Word bounds must have room for two indices per word.");
+        int wordsStart = wordsStart(phrase, start, end);
+        int wordsEnd = wordsEnd(phrase, wordsStart, end);
+        int index = wordsStart;
+        for (int i = 0; i < separators.size(); i++) {
+            int separatorIndex = indexOfSeparator(i, phrase, index, wordsEnd);
+            if (separatorIndex == -1) {
+                throw IllegalPhraseException.expectedSeparator(
+                        phrase.subSequence(wordsStart, wordsEnd).toString(), separators.get(i));
+            }
+            wordBounds[2 * i] = index;
+            wordBounds[2 * i + 1] = separatorIndex;
+            index = separatorIndex + separators.get(i).length();
+        }
+        wordBounds[2 * separators.size()] = index;
+        wordBounds[2 * separators.size() + 1] = wordsEnd;
+    }
 
-        int index = 0;
-        // get all but last words
-        ImmutableList.Builder<String> words = ImmutableList.builder();
-        for (String separator : separators) {
-            int separatorIndex = phrase.indexOf(separator, index);
+    /**
+     * Get the index of the first char of the first word in a phrase.
+     *
+     * @param phrase    CharSequence containing the phrase.
+     * @param start     Index of the first char of the phrase, inclusive.
+     * @param end       Index of the last char of the phrase, exclusive.
+     * @return          Index of the char after the leading String.
+     * @throws IllegalPhraseException   If leading String can't be found.
+     */
+    int wordsStart(CharSequence phrase, int start, int end) throws IllegalPhraseException {
+        if (!hasLeading(phrase, start, end)) {
+            throw IllegalPhraseException.expectedLeading(
+                    phrase.subSequence(start, end).toString(), leading);
+        }
+        return start + leading.length();
+    }
+
+    /**
+     * Get the index after the last char of the last word in a phrase.
+     *
+     * @param phrase    CharSequence containing the phrase.
+     * @param start     Index of the first char of the first word, inclusive.
+     * @param end       Index of the last char of the phrase, exclusive.
+     * @return          Index of the first char of the trailing String.
+     * @throws IllegalPhraseException   If trailing String can't be found.
+     */
+    int wordsEnd(CharSequence phrase, int start, int end) throws IllegalPhraseException {
+        if (!hasTrailing(phrase, start, end)) {
+            throw IllegalPhraseException.expectedTrailing(
+                    phrase.subSequence(start, end).toString(), trailing);
+        }
+        return end - trailing.length();
+    }
+
+    /**
+     * Returns true if a region of a CharSequence begins with the leading String.
+     *
+     * @param phrase    CharSequence containing the phrase.
+     * @param start     Index of the first char of the phrase, inclusive.
+     * @param end       Index of the last char of the phrase, exclusive.
+     * @return          True if the leading String is found.
+     */
+    boolean hasLeading(CharSequence phrase, int start, int end) {
+        return leading.length() <= end - start && regionEquals(leading, phrase, start);
+    }
+
+    /**
+     * Returns true if a region of a CharSequence ends with the trailing String.
+     *
+     * @param phrase    CharSequence containing the phrase.
+     * @param start     Index of the first char of the first word, inclusive.
+     * @param end       Index of the last char of the phrase, exclusive.
+     * @return          True if the trailing String is found.
+     */
+    boolean hasTrailing(CharSequence phrase, int start, int end) {
+        return trailing.length() <= end - start
+                && regionEquals(trailing, phrase, end - trailing.length());
+    }
+
+    /**
+     * Get the index of the separator between word i and word i + 1.
+     *
+     * @param i         Index of the separator, excluding leading.
+     * @param phrase    CharSequence containing the phrase.
+     * @param from      Index to start searching from, inclusive.
+     * @param wordsEnd  Index after the last char of the last word.
+     * @return          Index of the first char of the separator or -1 if
+     *                  the separator can't be found.
+     */
+    int indexOfSeparator(int i, CharSequence phrase, int from, int wordsEnd) {
+        String separator = separators.get(i);
+        for (int index = from; index + separator.length() <= wordsEnd; index++) {
+            if (regionEquals(separator, phrase, index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the length of the separator between word i and word i + 1.
+     *
+     * @param i     Index of the separator, excluding leading.
+     * @return      The length of the separator.
+     */
+    int separatorLength(int i) {
+        return separators.get(i).length();
+    }
+
+    /**
+     * Deconstructs a UTF-8 encoded phrase, in a region of a ByteBuffer, into
+     * word boundaries. The bytes are matched against separators encoded at
+     * construction, without decoding them.
+     *
+     * The start and end byte index of word i are written to wordBounds[2 * i]
+     * and wordBounds[2 * i + 1].
+     *
+     * @param phrase        ByteBuffer containing the UTF-8 encoded phrase.
+     * @param start         Absolute index of the first byte of the phrase, inclusive.
+     * @param end           Absolute index of the last byte of the phrase, exclusive.
+     * @param wordBounds    Array to write word start and end indices to.
+     *                      Must have room for two indices per word.
+     * @throws IllegalPhraseException   If separators are not found in the
+     *                                  phrase, in the expected places.
+     */
+    public void deconstructUtf8(ByteBuffer phrase, int start, int end, int[] wordBounds)
+            throws IllegalPhraseException {
+        Preconditions.checkArgument(wordBounds.length >= 2 * (separators.size() + 1),
+                "Word bounds must have room for two indices per word.");
+        int wordsStart = utf8WordsStart(phrase, start, end);
+        int wordsEnd = utf8WordsEnd(phrase, wordsStart, end);
+        int index = wordsStart;
+        for (int i = 0; i < separators.size(); i++) {
+            int separatorIndex = indexOfUtf8Separator(i, phrase, index, wordsEnd);
             if (separatorIndex == -1) {
-                throw IllegalPhraseException.expectedSeparator(phrase, separator);
+                throw IllegalPhraseException.expectedSeparator(
+                        decodeUtf8(phrase, wordsStart, wordsEnd), separators.get(i));
             }
-            words.add(phrase.substring(index, separatorIndex));
-            index = separatorIndex + separator.length();
+            wordBounds[2 * i] = index;
+            wordBounds[2 * i + 1] = separatorIndex;
+            index = separatorIndex + utf8Separators[i + 1].length;
+        }
+        wordBounds[2 * separators.size()] = index;
+        wordBounds[2 * separators.size() + 1] = wordsEnd;
+    }
+
+    /**
+     * Get the index of the first byte of the first word in a UTF-8 encoded
+     * phrase.
+     *
+     * @param phrase    ByteBuffer containing the UTF-8 encoded phrase.
+     * @param start     Absolute index of the first byte of the phrase, inclusive.
+     * @param end       Absolute index of the last byte of the phrase, exclusive.
+     * @return          Index of the byte after the leading String.
+     * @throws IllegalPhraseException   If leading String can't be found.
+     */
+    int utf8WordsStart(ByteBuffer phrase, int start, int end) throws IllegalPhraseException {
+        byte[] utf8Leading = utf8Separators[0];
+        if (utf8Leading.length > end - start || !regionEquals(utf8Leading, phrase, start)) {
+            throw IllegalPhraseException.expectedLeading(decodeUtf8(phrase, start, end), leading);
         }
+        return start + utf8Leading.length;
+    }
 
-        // get last word
-        words.add(phrase.substring(index));
+    /**
+     * Get the index after the last byte of the last word in a UTF-8 encoded
+     * phrase.
+     *
+     * @param phrase    ByteBuffer containing the UTF-8 encoded phrase.
+     * @param start     Absolute index of the first byte of the first word, inclusive.
+     * @param end       Absolute index of the last byte of the phrase, exclusive.
+     * @return          Index of the first byte of the trailing String.
+     * @throws IllegalPhraseException   If trailing String can't be found.
+     */
+    int utf8WordsEnd(ByteBuffer phrase, int start, int end) throws IllegalPhraseException {
+        byte[] utf8Trailing = utf8Separators[utf8Separators.length - 1];
+        if (utf8Trailing.length > end - start ||
+                !regionEquals(utf8Trailing, phrase, end - utf8Trailing.length)) {
+            throw IllegalPhraseException.expectedTrailing(decodeUtf8(phrase, start, end), trailing);
+        }
+        return end - utf8Trailing.length;
+    }
 
-        return words.build();
+    /**
+     * Returns true if a region of a ByteBuffer begins with the UTF-8 encoded
+     * leading String.
+     *
+     * @param phrase    ByteBuffer containing the UTF-8 encoded phrase.
+     * @param start     Absolute index of the first byte of the phrase, inclusive.
+     * @param end       Absolute index of the last byte of the phrase, exclusive.
+     * @return          True if the leading String is found.
+     */
+    boolean hasUtf8Leading(ByteBuffer phrase, int start, int end) {
+        byte[] utf8Leading = utf8Separators[0];
+        return utf8Leading.length <= end - start && regionEquals(utf8Leading, phrase, start);
+    }
+
+    /**
+     * Returns true if a region of a ByteBuffer ends with the UTF-8 encoded
+     * trailing String.
+     *
+     * @param phrase    ByteBuffer containing the UTF-8 encoded phrase.
+     * @param start     Absolute index of the first byte of the first word, inclusive.
+     * @param end       Absolute index of the last byte of the phrase, exclusive.
+     * @return          True if the trailing String is found.
+     */
+    boolean hasUtf8Trailing(ByteBuffer phrase, int start, int end) {
+        byte[] utf8Trailing = utf8Separators[utf8Separators.length - 1];
+        return utf8Trailing.length <= end - start
+                && regionEquals(utf8Trailing, phrase, end - utf8Trailing.length);
     }
 
     /**
-     * Strip leading substring from a phrase String.
+     * Get the index of the UTF-8 encoded separator between word i and word
+     * i + 1.
      *
-     * @param phrase                    Phrase to strip.
-     * @return                          Phrase with leading substring removed.
-     * @throws IllegalPhraseException   If leading substring can't be found.
+     * @param i         Index of the separator, excluding leading.
+     * @param phrase    ByteBuffer containing the UTF-8 encoded phrase.
+     * @param from      Absolute index to start searching from, inclusive.
+     * @param wordsEnd  Index after the last byte of the last word.
+     * @return          Index of the first byte of the separator or -1 if
+     *                  the separator can't be found.
      */
-    private String stripLeading(String phrase) throws IllegalPhraseException {
-        if (leading.length() > phrase.length() ||
-                !leading.equals(phrase.substring(0, leading.length()))) {
-            throw IllegalPhraseException.expectedLeading(phrase, leading);
+    int indexOfUtf8Separator(int i, ByteBuffer phrase, int from, int wordsEnd) {
+        byte[] separator = utf8Separators[i + 1];
+        for (int index = from; index + separator.length <= wordsEnd; index++) {
+            if (regionEquals(separator, phrase, index)) {
+                return index;
+            }
         }
-        return phrase.substring(leading.length());
+        return -1;
     }
 
     /**
-     * String trailing substring from a phrase String.
+     * Decode a region of a ByteBuffer as UTF-8. Used for reporting phrases
+     * and words that could not be translated.
      *
-     * @param phrase                    Phrase to strip.
-     * @return                          Phrase with trailing substring removed.
-     * @throws IllegalPhraseException   If trailing substring can't be found.
+     * @param bytes     ByteBuffer containing UTF-8 encoded chars.
+     * @param start     Absolute index of the first byte, inclusive.
+     * @param end       Absolute index of the last byte, exclusive.
+     * @return          The decoded String.
+     */
+    static String decodeUtf8(ByteBuffer bytes, int start, int end) {
+        ByteBuffer region = bytes.duplicate();
+        region.limit(end);
+        region.position(start);
+        return StandardCharsets.UTF_8.decode(region).toString();
+    }
+
+    /**
+     * Throws runtime exception if the number of words does not match the
+     * number of separators.
      */
-    private String stripTrailing(String phrase) throws IllegalPhraseException {
-        if (trailing.length() > phrase.length() ||
-                !trailing.equals(phrase.substring(phrase.length() - trailing.length()))) {
-            throw IllegalPhraseException.expectedTrailing(phrase, trailing);
+    private void checkNumberOfWords(List<String> words) {
+        // note that in documentation terminology, separators include leading and trailing
+        Preconditions.checkArgument(words.size() == separators.size() + 1,
+                "Number of words must be one less than the number of separators.");
+    }
+
+    /**
+     * Returns true if a String is found in a CharSequence at some index.
+     */
+    private static boolean regionEquals(String string, CharSequence chars, int index) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) != chars.charAt(index + i)) {
+                return false;
+            }
         }
-        return phrase.substring(0, phrase.length() - trailing.length());
+        return true;
+    }
+
+    /**
+     * Returns true if some bytes are found in a ByteBuffer at some index.
+     */
+    private static boolean regionEquals(byte[] bytes, ByteBuffer buffer, int index) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != buffer.get(index + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy all chars of a String to a char array and return the index after
+     * the last char written.
+     */
+    private static int putChars(String string, char[] chars, int offset) {
+        string.getChars(0, string.length(), chars, offset);
+        return offset + string.length();
     }
 }
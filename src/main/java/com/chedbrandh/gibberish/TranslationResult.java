@@ -0,0 +1,290 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
+import com.google.common.base.Preconditions;
+
+/**
+ * Reusable result of translating a phrase without throwing exceptions.
+ *
+ * Rejecting a phrase only records why it was rejected. The exception that
+ * the checked API would have thrown, and its message, are only created when
+ * asked for. Since the phrase is referenced rather than copied, diagnostics
+ * describe a mutable phrase, such as a StringBuilder, only until it is
+ * modified.
+ *
+ * A result can be reused for any number of translations, but not by several
+ * threads at once.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class TranslationResult {
+
+    /**
+     * Status of a translation.
+     */
+    public enum Status {
+        /** The phrase was translated. */
+        OK,
+        /** The phrase is not on the expected format. */
+        ILLEGAL_PHRASE,
+        /** A word can't be found in its word provider. */
+        ILLEGAL_WORD,
+        /** A word maps to an index that is greater than its bits allow. */
+        WORD_INDEX_OUT_OF_BOUNDS
+    }
+
+    // what part of a phrase was not found, if the phrase is illegal
+    private enum Expected { LEADING, TRAILING, SEPARATOR, LENGTH }
+
+    private Status status = Status.OK;
+    private long value;
+    private boolean hasValue;
+    private int[] indices = new int[0];
+
+    // chars, and region of them, that diagnostics refer to
+    private CharSequence chars;
+    private int regionStart;
+    private int regionEnd;
+
+    // illegal phrase diagnostics
+    private Expected expected;
+    private String expectedString;
+    private IllegalPhraseException phraseException;
+    private int minLength;
+    private int maxLength;
+
+    // illegal word diagnostics
+    private int position = -1;
+    private WordProvider wordProvider;
+    private int index;
+    private int numBits;
+
+    /**
+     * Get the status of the last translation.
+     *
+     * @return  The status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns true if the last translation succeeded.
+     *
+     * @return  True if the status is OK.
+     */
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+
+    /**
+     * Get the long that the last phrase translated to.
+     *
+     * @return                          The translated long.
+     * @throws IllegalStateException    If the last translation failed, or was
+     *                                  of more bits than a long holds.
+     */
+    public long getValue() {
+        Preconditions.checkState(status == Status.OK, "Translation failed.");
+        Preconditions.checkState(hasValue, "Translated bits do not fit in a long.");
+        return value;
+    }
+
+    /**
+     * Get the position of the word that could not be translated.
+     *
+     * @return  The position, or -1 if no word failed.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Get a message describing why the last translation failed.
+     *
+     * @return  The message, or null if the translation succeeded.
+     */
+    public String getMessage() {
+        return status == Status.OK ? null : toException().getMessage();
+    }
+
+    /**
+     * Create the exception that the checked API would have thrown for the
+     * last translation.
+     *
+     * @return  The exception, or null if the translation succeeded.
+     */
+    public Exception toException() {
+        switch (status) {
+            case ILLEGAL_PHRASE:
+                return toPhraseException();
+            case ILLEGAL_WORD:
+                return new IllegalWordException(region(), wordProvider);
+            case WORD_INDEX_OUT_OF_BOUNDS:
+                return WordIndexOutOfBoundsException.forIndex(index, region(), numBits);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Throw the exception that the checked API would have thrown for the
+     * last translation, if it failed.
+     *
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public void check()
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        switch (status) {
+            case ILLEGAL_PHRASE:
+                throw toPhraseException();
+            case ILLEGAL_WORD:
+                throw new IllegalWordException(region(), wordProvider);
+            case WORD_INDEX_OUT_OF_BOUNDS:
+                throw WordIndexOutOfBoundsException.forIndex(index, region(), numBits);
+            default:
+        }
+    }
+
+    /**
+     * Reset the result before a translation of some number of words.
+     */
+    void reset(int numWords) {
+        this.status = Status.OK;
+        this.value = 0;
+        this.hasValue = false;
+        if (indices.length != numWords) {
+            indices = new int[numWords];
+        }
+        this.chars = null;
+        this.expected = null;
+        this.expectedString = null;
+        this.phraseException = null;
+        this.position = -1;
+        this.wordProvider = null;
+    }
+
+    /**
+     * Get the indices of the words of the last translation.
+     */
+    int[] indices() {
+        return indices;
+    }
+
+    /**
+     * Set the translated long, if the bits fit in a long.
+     */
+    void setValue(long value) {
+        this.value = value;
+        this.hasValue = true;
+    }
+
+    /**
+     * Record that the leading String was not found in a region of the phrase.
+     */
+    Status expectedLeading(CharSequence phrase, int start, int end, String leading) {
+        return illegalPhrase(Expected.LEADING, phrase, start, end, leading);
+    }
+
+    /**
+     * Record that the trailing String was not found in a region of the phrase.
+     */
+    Status expectedTrailing(CharSequence phrase, int start, int end, String trailing) {
+        return illegalPhrase(Expected.TRAILING, phrase, start, end, trailing);
+    }
+
+    /**
+     * Record that a separator was not found in the words of the phrase.
+     */
+    Status expectedSeparator(CharSequence phrase, int wordsStart, int wordsEnd,
+                             String separator) {
+        return illegalPhrase(Expected.SEPARATOR, phrase, wordsStart, wordsEnd, separator);
+    }
+
+    /**
+     * Record that a region of the phrase is too short or too long.
+     */
+    Status unexpectedLength(CharSequence phrase, int start, int end,
+                            int minLength, int maxLength) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        return illegalPhrase(Expected.LENGTH, phrase, start, end, null);
+    }
+
+    /**
+     * Record that a phrase was found illegal by a phrase deconstructor.
+     */
+    Status illegalPhrase(IllegalPhraseException exception) {
+        this.phraseException = exception;
+        this.position = -1;
+        this.status = Status.ILLEGAL_PHRASE;
+        return status;
+    }
+
+    /**
+     * Record that the word in a region of some chars was not found.
+     */
+    Status illegalWord(int position, CharSequence word, int wordStart, int wordEnd,
+                       WordProvider wordProvider) {
+        this.position = position;
+        this.chars = word;
+        this.regionStart = wordStart;
+        this.regionEnd = wordEnd;
+        this.wordProvider = wordProvider;
+        this.status = Status.ILLEGAL_WORD;
+        return status;
+    }
+
+    /**
+     * Record that the word in a region of some chars maps to an illegal index.
+     */
+    Status wordIndexOutOfBounds(int position, CharSequence word, int wordStart, int wordEnd,
+                                int index, int numBits) {
+        this.position = position;
+        this.chars = word;
+        this.regionStart = wordStart;
+        this.regionEnd = wordEnd;
+        this.index = index;
+        this.numBits = numBits;
+        this.status = Status.WORD_INDEX_OUT_OF_BOUNDS;
+        return status;
+    }
+
+    private Status illegalPhrase(Expected expected, CharSequence phrase, int start, int end,
+                                 String expectedString) {
+        this.expected = expected;
+        this.chars = phrase;
+        this.regionStart = start;
+        this.regionEnd = end;
+        this.expectedString = expectedString;
+        this.position = -1;
+        this.status = Status.ILLEGAL_PHRASE;
+        return status;
+    }
+
+    private IllegalPhraseException toPhraseException() {
+        if (phraseException != null) {
+            return phraseException;
+        }
+        switch (expected) {
+            case LEADING:
+                return IllegalPhraseException.expectedLeading(region(), expectedString);
+            case TRAILING:
+                return IllegalPhraseException.expectedTrailing(region(), expectedString);
+            case LENGTH:
+                return IllegalPhraseException.unexpectedLength(
+                        region(), regionEnd - regionStart, minLength, maxLength);
+            default:
+                return IllegalPhraseException.expectedSeparator(region(), expectedString);
+        }
+    }
+
+    private String region() {
+        return chars.subSequence(regionStart, regionEnd).toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.chedbrandh.gibberish;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the phrases of a spliterator of values of a
+ * {@link PhraseTranslator}.
+ *
+ * Splitting splits the values, and each spliterator renders its phrases
+ * with its own {@link PhraseCursor}, created when traversal starts, so that
+ * workers share no state. Values outside the range of the cursor are
+ * translated by {@link PhraseTranslator#fromLong(long)}, so that every value
+ * gives the same phrase, or exception, as translating it alone.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+class ValuePhraseSpliterator implements Spliterator<String> {
+
+    private static final int CHARACTERISTICS = ORDERED | SIZED | SUBSIZED;
+
+    private final PhraseTranslator phraseTranslator;
+    private final Spliterator.OfLong values;
+    private final long toValue;
+
+    // cursor over all values up to toValue, or null if traversal has not started
+    private PhraseCursor cursor;
+
+    /**
+     * Creates a spliterator over the phrases of some values.
+     *
+     * @param phraseTranslator  Phrase translator to render phrases of.
+     * @param values            Values to render phrases of.
+     * @param toValue           Last value, exclusive, rendered by a cursor.
+     */
+    ValuePhraseSpliterator(PhraseTranslator phraseTranslator, Spliterator.OfLong values,
+                           long toValue) {
+        this.phraseTranslator = phraseTranslator;
+        this.values = values;
+        this.toValue = toValue;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        return values.tryAdvance((long value) -> action.accept(phrase(value)));
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        values.forEachRemaining((long value) -> action.accept(phrase(value)));
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        Spliterator.OfLong prefix = values.trySplit();
+        return prefix != null
+                ? new ValuePhraseSpliterator(phraseTranslator, prefix, toValue) : null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return values.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return values.characteristics() & CHARACTERISTICS | NONNULL;
+    }
+
+    private String phrase(long value) {
+        if (value < 0 || value >= toValue) {
+            return phraseTranslator.fromLong(value);
+        }
+        if (cursor == null) {
+            cursor = phraseTranslator.iterate(0, toValue);
+        }
+        cursor.moveTo(value);
+        return cursor.phrase();
+    }
+}
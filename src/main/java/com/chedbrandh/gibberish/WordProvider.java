@@ -8,8 +8,11 @@ import com.google.common.collect.Sets;
 import com.google.common.math.LongMath;
 
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.AbstractList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
@@ -23,6 +26,11 @@ import java.util.Set;
  *
  * Also computes the mean word length for some set of words.
  *
+ * Words are encoded as UTF-8 once, at construction, so that phrases can be
+ * rendered directly to bytes. Hash indices of the words and their UTF-8
+ * encodings are also built, so that words can be looked up in place in
+ * regions of CharSequences and of UTF-8 bytes.
+ *
  * @author Christofer Hedbrandh (chedbrandh@gmail.com)
  * @since 1.0
  */
@@ -30,6 +38,16 @@ public class WordProvider extends AbstractList<String> {
 
     // ordered list of unique words.
     private final ImmutableList<String> wordList;
+    // words encoded as UTF-8, in the same order as the word list.
+    private final byte[][] utf8Words;
+    // hashes of the UTF-8 encoded words, in the same order as the word list.
+    private final int[] utf8Hashes;
+    // open addressing hash tables of word index + 1, where zero means empty.
+    private final int[] hashTable;
+    private final int[] utf8HashTable;
+    // length of the longest word, in chars and in UTF-8 bytes.
+    private final int maxLength;
+    private final int maxUtf8Length;
     // provider reference name (used for exception handling).
     private final String name;
 
@@ -42,13 +60,62 @@ public class WordProvider extends AbstractList<String> {
      *                  exception handling).
      */
     public WordProvider(Iterable<String> words, String name) {
-        Set<String> wordSet = Sets.newHashSet(words);
-        List<String> tempWordList = Lists.newArrayList(wordSet);
-        sortLexicographicallyAndByLength(tempWordList);
-        this.wordList = ImmutableList.copyOf(tempWordList);
+        this(name, sortedWords(words));
+    }
+
+    /**
+     * Creates a WordProvider of words that are already ordered.
+     */
+    private WordProvider(String name, List<String> orderedWords) {
+        this.wordList = ImmutableList.copyOf(orderedWords);
+        this.utf8Words = new byte[wordList.size()][];
+        this.utf8Hashes = new int[wordList.size()];
+        int[] hashes = new int[wordList.size()];
+        int maxLength = 0;
+        int maxUtf8Length = 0;
+        for (int i = 0; i < utf8Words.length; i++) {
+            utf8Words[i] = wordList.get(i).getBytes(StandardCharsets.UTF_8);
+            utf8Hashes[i] = utf8Hash(ByteBuffer.wrap(utf8Words[i]), 0, utf8Words[i].length);
+            hashes[i] = wordList.get(i).hashCode();
+            maxLength = Math.max(maxLength, wordList.get(i).length());
+            maxUtf8Length = Math.max(maxUtf8Length, utf8Words[i].length);
+        }
+        this.maxLength = maxLength;
+        this.maxUtf8Length = maxUtf8Length;
+        this.hashTable = buildHashTable(hashes);
+        this.utf8HashTable = buildHashTable(utf8Hashes);
         this.name = name;
     }
 
+    /**
+     * Create a WordProvider of the same words, where the first words are
+     * reordered by some order. The remaining words keep their order.
+     *
+     * The first words are the same set of words as before, so phrases made
+     * of them are no longer, but their indices follow the order instead of
+     * the length of the words.
+     *
+     * @param numWords  Number of first words to reorder.
+     * @param order     Order of the reordered words.
+     * @return          The reordered WordProvider.
+     * @throws IllegalArgumentException If two of the words are equal by the order.
+     */
+    public WordProvider reorder(int numWords, Comparator<String> order) {
+        Preconditions.checkArgument(0 <= numWords && numWords <= size(),
+                "Number of words to reorder must be at most all words.");
+        List<String> words = Lists.newArrayList(wordList);
+        List<String> reordered = words.subList(0, numWords);
+        Collections.sort(reordered, order);
+        for (int i = 1; i < numWords; i++) {
+            if (order.compare(reordered.get(i - 1), reordered.get(i)) == 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Words '%s' and '%s' of provider '%s' are equal by the order.",
+                        reordered.get(i - 1), reordered.get(i), name));
+            }
+        }
+        return new WordProvider(name, words);
+    }
+
     /**
      * Get the mean word length for the numWords first words.
      *
@@ -82,6 +149,105 @@ public class WordProvider extends AbstractList<String> {
         return wordList.get(index);
     }
 
+    /**
+     * Get the index of a word. Words are found with a hash lookup rather
+     * than by scanning the list.
+     *
+     * @param o Word to get the index of.
+     * @return  The index of the word or -1 if there is no such word.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof String)) {
+            return -1;
+        }
+        String word = (String) o;
+        return indexOf(word.hashCode(), word, 0, word.length());
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * Get the index of the word made up by a region of a CharSequence. The
+     * chars are hashed and compared in place, so no objects are created. A
+     * region longer than every word is not read.
+     *
+     * @param chars CharSequence containing the word.
+     * @param start Index of the first char of the word, inclusive.
+     * @param end   Index of the last char of the word, exclusive.
+     * @return      The index of the word or -1 if there is no such word.
+     */
+    public int indexOf(CharSequence chars, int start, int end) {
+        if (end - start > maxLength) {
+            return -1;
+        }
+        // same hash as String.hashCode so that Strings can use their cached hash
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        return indexOf(hash, chars, start, end);
+    }
+
+    /**
+     * Get the index of the word whose UTF-8 encoding makes up a region of a
+     * ByteBuffer. The bytes are hashed and compared in place, without
+     * decoding them, so no objects are created. A region longer than every
+     * word is not read.
+     *
+     * @param bytes ByteBuffer containing the UTF-8 encoded word.
+     * @param start Absolute index of the first byte of the word, inclusive.
+     * @param end   Absolute index of the last byte of the word, exclusive.
+     * @return      The index of the word or -1 if there is no such word.
+     */
+    public int indexOfUtf8(ByteBuffer bytes, int start, int end) {
+        if (end - start > maxUtf8Length) {
+            return -1;
+        }
+        int hash = utf8Hash(bytes, start, end);
+        int slot = slot(hash, utf8HashTable);
+        while (utf8HashTable[slot] != 0) {
+            int index = utf8HashTable[slot] - 1;
+            if (utf8Hashes[index] == hash && regionEquals(utf8Words[index], bytes, start, end)) {
+                return index;
+            }
+            slot = (slot + 1) & (utf8HashTable.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of the word whose UTF-8 encoding makes up a region of a
+     * byte array. See {@link #indexOfUtf8(ByteBuffer, int, int)}.
+     *
+     * @param bytes Byte array containing the UTF-8 encoded word.
+     * @param start Index of the first byte of the word, inclusive.
+     * @param end   Index of the last byte of the word, exclusive.
+     * @return      The index of the word or -1 if there is no such word.
+     */
+    public int indexOfUtf8(byte[] bytes, int start, int end) {
+        return indexOfUtf8(ByteBuffer.wrap(bytes), start, end);
+    }
+
+    /**
+     * Get the UTF-8 encoding of the word at a specific index. The returned
+     * array is shared and must not be modified.
+     *
+     * @param index Index of the location of the word.
+     * @return      The word at index encoded as UTF-8.
+     */
+    byte[] getUtf8(int index) {
+        return utf8Words[index];
+    }
+
     /**
      * Returns the number of words in the ordered word list free from
      * duplicates.
@@ -115,6 +281,94 @@ public class WordProvider extends AbstractList<String> {
         return name;
     }
 
+    /**
+     * Look up a word with a known hash in the hash table.
+     */
+    private int indexOf(int hash, CharSequence chars, int start, int end) {
+        int slot = slot(hash, hashTable);
+        while (hashTable[slot] != 0) {
+            String word = wordList.get(hashTable[slot] - 1);
+            if (word.hashCode() == hash && regionEquals(word, chars, start, end)) {
+                return hashTable[slot] - 1;
+            }
+            slot = (slot + 1) & (hashTable.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Build an open addressing hash table of index + 1 from some hashes.
+     */
+    private static int[] buildHashTable(int[] hashes) {
+        int[] table = new int[Math.max(2, Integer.highestOneBit(hashes.length * 2) * 2)];
+        for (int i = 0; i < hashes.length; i++) {
+            int slot = slot(hashes[i], table);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    /**
+     * Get the first slot in a hash table for some hash.
+     */
+    private static int slot(int hash, int[] table) {
+        return (hash ^ (hash >>> 16)) & (table.length - 1);
+    }
+
+    /**
+     * Hash a region of a ByteBuffer the way String.hashCode hashes chars.
+     */
+    private static int utf8Hash(ByteBuffer bytes, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes.get(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns true if a UTF-8 encoded word equals a region of a ByteBuffer.
+     */
+    private static boolean regionEquals(byte[] word, ByteBuffer bytes, int start, int end) {
+        if (word.length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++) {
+            if (word[i] != bytes.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if a word equals a region of a CharSequence.
+     */
+    private static boolean regionEquals(String word, CharSequence chars, int start, int end) {
+        if (word.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) != chars.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove duplicates of words and order them.
+     */
+    private static List<String> sortedWords(Iterable<String> words) {
+        Set<String> wordSet = Sets.newHashSet(words);
+        List<String> wordList = Lists.newArrayList(wordSet);
+        sortLexicographicallyAndByLength(wordList);
+        return wordList;
+    }
+
     /**
      * First sort a list lexicographically and then by length.
      *
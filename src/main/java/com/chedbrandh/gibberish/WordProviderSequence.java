@@ -77,6 +77,15 @@ public class WordProviderSequence {
         return builder.build();
     }
 
+    /**
+     * Get the word providers of the sequence.
+     *
+     * @return  The word providers in order.
+     */
+    public List<WordProvider> getWordProviders() {
+        return wordProviders;
+    }
+
     /**
      * Returns the sum of the WordProviders bit coverage.
      *
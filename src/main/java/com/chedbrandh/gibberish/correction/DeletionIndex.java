@@ -0,0 +1,265 @@
+package com.chedbrandh.gibberish.correction;
+
+import com.chedbrandh.gibberish.WordProvider;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index for finding the words of a {@link WordProvider} that are within
+ * some edit distance of a misspelled word.
+ *
+ * Every word is indexed under all Strings that can be created by deleting
+ * up to a maximum number of its chars. A misspelled word is looked up by
+ * its own deletions, which finds every word within the maximum edit
+ * distance without comparing against all words. Candidates are then
+ * verified with the optimal string alignment distance, where insertions,
+ * deletions, substitutions and transpositions of adjacent chars each count
+ * as one edit. This is the approach of the SymSpell algorithm.
+ *
+ * The index can be large, so an estimate of its memory use is kept, and
+ * building fails if the estimate goes over a budget.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class DeletionIndex {
+
+    private static final String MEMORY_BUDGET_FORMAT =
+            "Deletion index for word provider '%s' exceeds memory budget of %s bytes.";
+
+    // rough sizes used for estimating memory use of index entries
+    private static final int STRING_BYTES = 40;
+    private static final int ARRAY_BYTES = 16;
+    private static final int MAP_ENTRY_BYTES = 40;
+
+    private final WordProvider wordProvider;
+    private final int maxEditDistance;
+    private final Map<String, int[]> index;
+    private final long estimatedBytes;
+
+    /**
+     * Builds a deletion index for a word provider.
+     *
+     * @param wordProvider      Word provider to index.
+     * @param maxEditDistance   Maximum edit distance that can be looked up.
+     * @param maxBytes          Budget for the estimated memory use of the index.
+     * @throws IllegalArgumentException If the estimated memory use exceeds
+     *                                  the budget.
+     */
+    public DeletionIndex(WordProvider wordProvider, int maxEditDistance, long maxBytes) {
+        Preconditions.checkArgument(maxEditDistance >= 0, "Edit distance must be non-negative.");
+        this.wordProvider = wordProvider;
+        this.maxEditDistance = maxEditDistance;
+
+        Map<String, List<Integer>> lists = Maps.newHashMap();
+        long bytes = 0;
+        for (int i = 0; i < wordProvider.size(); i++) {
+            for (String deletion : deletions(wordProvider.get(i), maxEditDistance)) {
+                List<Integer> indices = lists.get(deletion);
+                if (indices == null) {
+                    indices = Lists.newArrayListWithCapacity(1);
+                    lists.put(deletion, indices);
+                    bytes += MAP_ENTRY_BYTES + STRING_BYTES + 2 * deletion.length() + ARRAY_BYTES;
+                }
+                indices.add(i);
+                bytes += Integer.BYTES;
+                if (bytes > maxBytes) {
+                    throw new IllegalArgumentException(String.format(
+                            MEMORY_BUDGET_FORMAT, wordProvider.getName(), maxBytes));
+                }
+            }
+        }
+
+        this.index = Maps.newHashMapWithExpectedSize(lists.size());
+        for (Map.Entry<String, List<Integer>> entry : lists.entrySet()) {
+            int[] indices = new int[entry.getValue().size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = entry.getValue().get(i);
+            }
+            index.put(entry.getKey(), indices);
+        }
+        this.estimatedBytes = bytes;
+    }
+
+    /**
+     * Find the words within some edit distance of a word, ordered by edit
+     * distance and then by index.
+     *
+     * @param word          Word to find similar words for.
+     * @param editDistance  Maximum edit distance of the words found. Must not
+     *                      be greater than the maximum of the index.
+     * @param maxIndex      Only words with an index less than this are found.
+     * @param deadline      Value of {@link System#nanoTime()} after which the
+     *                      search stops and returns the words found so far.
+     * @return              Matches, ordered by edit distance and index.
+     */
+    public List<Match> lookup(String word, int editDistance, int maxIndex, long deadline) {
+        Preconditions.checkArgument(editDistance <= maxEditDistance,
+                "Edit distance must not be greater than the maximum of the index.");
+        Set<Integer> seen = Sets.newHashSet();
+        List<Match> matches = Lists.newArrayList();
+        for (String deletion : deletions(word, editDistance)) {
+            if (System.nanoTime() - deadline > 0) {
+                break;
+            }
+            int[] indices = index.get(deletion);
+            if (indices == null) {
+                continue;
+            }
+            for (int index : indices) {
+                if (index < maxIndex && seen.add(index)) {
+                    int distance = editDistance(word, wordProvider.get(index), editDistance);
+                    if (distance <= editDistance) {
+                        matches.add(new Match(index, distance));
+                    }
+                }
+            }
+        }
+        Collections.sort(matches);
+        return matches;
+    }
+
+    /**
+     * Get the estimated number of bytes used by the index.
+     *
+     * @return  The estimated memory use.
+     */
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Get the number of distinct Strings that words are indexed under.
+     *
+     * @return  The number of index entries.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Get the maximum edit distance that can be looked up.
+     *
+     * @return  The maximum edit distance.
+     */
+    public int getMaxEditDistance() {
+        return maxEditDistance;
+    }
+
+    /**
+     * Get the optimal string alignment distance between two Strings. Counts
+     * greater than the maximum distance are not exact.
+     *
+     * @param a             First String.
+     * @param b             Second String.
+     * @param maxDistance   Distance after which computation can stop.
+     * @return              The edit distance, or a number greater than the
+     *                      max distance.
+     */
+    public static int editDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1),
+                        d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2)
+                        && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    /**
+     * Get a word and all Strings created by deleting up to some number of
+     * its chars.
+     */
+    private static Set<String> deletions(String word, int maxDeletions) {
+        Set<String> deletions = Sets.newHashSet(word);
+        List<String> current = ImmutableList.of(word);
+        for (int d = 0; d < maxDeletions; d++) {
+            List<String> next = Lists.newArrayList();
+            for (String string : current) {
+                for (int i = 0; i < string.length(); i++) {
+                    String deletion = string.substring(0, i) + string.substring(i + 1);
+                    if (deletions.add(deletion)) {
+                        next.add(deletion);
+                    }
+                }
+            }
+            current = next;
+        }
+        return deletions;
+    }
+
+    /**
+     * A word found by a lookup, and its edit distance from the word looked up.
+     */
+    public static class Match implements Comparable<Match> {
+
+        private final int index;
+        private final int distance;
+
+        public Match(int index, int distance) {
+            this.index = index;
+            this.distance = distance;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            int result = Integer.compare(distance, other.distance);
+            return result != 0 ? result : Integer.compare(index, other.index);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Match)) {
+                return false;
+            }
+            Match other = (Match) o;
+            return index == other.index && distance == other.distance;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * index + distance;
+        }
+
+        @Override
+        public String toString() {
+            return index + "@" + distance;
+        }
+    }
+}
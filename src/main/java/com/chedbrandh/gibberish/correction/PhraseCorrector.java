@@ -0,0 +1,270 @@
+package com.chedbrandh.gibberish.correction;
+
+import com.chedbrandh.gibberish.IndexTranslator;
+import com.chedbrandh.gibberish.PhraseTranslator;
+import com.chedbrandh.gibberish.SeparatorsPhraseConstructor;
+import com.chedbrandh.gibberish.WordProvider;
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Corrector for phrases with misspelled words.
+ *
+ * A phrase is deconstructed into words, and every word that is not found
+ * in its word provider is replaced by the words within some edit distance
+ * of it, found using a {@link DeletionIndex} per word provider. The
+ * combinations of replacements are returned as candidate decodings, ranked
+ * by the sum of the edit distances of their words.
+ *
+ * Finding candidates stops when a time budget is used up, in which case the
+ * candidates found so far are returned and the result is marked as
+ * incomplete. The deletion indices are built when the corrector is created
+ * and must fit in a memory budget.
+ *
+ * Only phrase translators that deconstruct phrases with a
+ * {@link SeparatorsPhraseConstructor}, and translate no more than 63 bits,
+ * can be corrected. Misspelled separators are not corrected.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class PhraseCorrector {
+
+    private final SeparatorsPhraseConstructor separators;
+    private final IndexTranslator indexTranslator;
+    private final List<WordProvider> wordProviders;
+    private final List<DeletionIndex> deletionIndices;
+    private final int maxEditDistance;
+    private final long estimatedBytes;
+
+    /**
+     * Creates a corrector for a phrase translator, building a deletion index
+     * for each distinct word provider.
+     *
+     * @param phraseTranslator  Phrase translator to correct phrases for.
+     * @param maxEditDistance   Maximum edit distance of a corrected word.
+     * @param maxBytes          Budget for the estimated memory use of all indices.
+     * @throws IllegalArgumentException If the phrase translator can't be
+     *                                  corrected, or if the indices exceed
+     *                                  the memory budget.
+     */
+    public PhraseCorrector(PhraseTranslator phraseTranslator, int maxEditDistance, long maxBytes) {
+        Preconditions.checkArgument(
+                phraseTranslator.getPhraseDeconstructor() instanceof SeparatorsPhraseConstructor,
+                "Phrase deconstructor must be a SeparatorsPhraseConstructor.");
+        Preconditions.checkArgument(
+                phraseTranslator.getIndexTranslator().bitCoverage() < Long.SIZE,
+                "Corrected bits must fit in a non-negative long.");
+        this.separators = (SeparatorsPhraseConstructor) phraseTranslator.getPhraseDeconstructor();
+        this.indexTranslator = phraseTranslator.getIndexTranslator();
+        this.wordProviders = phraseTranslator.getWordProviderSequence().getWordProviders();
+        this.maxEditDistance = maxEditDistance;
+
+        // word providers used at several positions share an index
+        Map<WordProvider, DeletionIndex> built = new IdentityHashMap<>();
+        List<DeletionIndex> indices = Lists.newArrayList();
+        long bytes = 0;
+        for (WordProvider wordProvider : wordProviders) {
+            DeletionIndex index = built.get(wordProvider);
+            if (index == null) {
+                index = new DeletionIndex(wordProvider, maxEditDistance, maxBytes - bytes);
+                built.put(wordProvider, index);
+                bytes += index.estimatedBytes();
+            }
+            indices.add(index);
+        }
+        this.deletionIndices = ImmutableList.copyOf(indices);
+        this.estimatedBytes = bytes;
+    }
+
+    /**
+     * Find candidate decodings of a phrase that may contain misspelled words.
+     * A phrase without misspelled words has itself as its only candidate.
+     *
+     * @param phrase                    Phrase to correct.
+     * @param maxCandidates             Maximum number of candidates to return.
+     * @param timeBudget                Time after which no more candidates are searched for.
+     * @param timeUnit                  Unit of the time budget.
+     * @return                          Candidates, ranked by total edit distance.
+     * @throws IllegalPhraseException   If phrase can't be deconstructed into words.
+     */
+    public Result correct(String phrase, int maxCandidates, long timeBudget, TimeUnit timeUnit)
+            throws IllegalPhraseException {
+        Preconditions.checkArgument(maxCandidates > 0, "Number of candidates must be positive.");
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeBudget);
+        List<String> words = separators.deconstruct(phrase);
+
+        // matches for each position, exact matches only if found and legal
+        List<List<DeletionIndex.Match>> matches = Lists.newArrayList();
+        for (int i = 0; i < words.size(); i++) {
+            int maxIndex = 1 << indexTranslator.bitDistribution().get(i);
+            int index = wordProviders.get(i).indexOf(words.get(i));
+            if (index != -1 && index < maxIndex) {
+                matches.add(ImmutableList.of(new DeletionIndex.Match(index, 0)));
+            } else {
+                matches.add(deletionIndices.get(i).lookup(
+                        words.get(i), maxEditDistance, maxIndex, deadline));
+            }
+        }
+        boolean complete = System.nanoTime() - deadline <= 0;
+
+        List<Candidate> candidates = Lists.newArrayList();
+        if (matches.stream().anyMatch(List::isEmpty)) {
+            return new Result(candidates, complete);
+        }
+
+        // enumerate combinations of matches in order of total edit distance,
+        // only incrementing positions at or after the last incremented one
+        PriorityQueue<Combination> queue = new PriorityQueue<>();
+        int[] first = new int[words.size()];
+        queue.add(new Combination(first, 0, distance(matches, first)));
+        while (!queue.isEmpty() && candidates.size() < maxCandidates) {
+            if (System.nanoTime() - deadline > 0) {
+                complete = false;
+                break;
+            }
+            Combination combination = queue.poll();
+            candidates.add(toCandidate(matches, combination));
+            for (int i = combination.lastIncremented; i < words.size(); i++) {
+                if (combination.choices[i] + 1 < matches.get(i).size()) {
+                    int[] choices = Arrays.copyOf(combination.choices, words.size());
+                    choices[i]++;
+                    queue.add(new Combination(choices, i, distance(matches, choices)));
+                }
+            }
+        }
+        return new Result(candidates, complete);
+    }
+
+    /**
+     * Get the estimated number of bytes used by the deletion indices.
+     *
+     * @return  The estimated memory use.
+     */
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Get the total edit distance of a combination of matches.
+     */
+    private static int distance(List<List<DeletionIndex.Match>> matches, int[] choices) {
+        int distance = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            distance += matches.get(i).get(choices[i]).getDistance();
+        }
+        return distance;
+    }
+
+    /**
+     * Create the candidate for a combination of matches.
+     */
+    private Candidate toCandidate(List<List<DeletionIndex.Match>> matches,
+                                  Combination combination) {
+        List<String> words = Lists.newArrayListWithCapacity(matches.size());
+        long value = 0;
+        for (int i = 0; i < matches.size(); i++) {
+            int index = matches.get(i).get(combination.choices[i]).getIndex();
+            words.add(wordProviders.get(i).get(index));
+            value |= indexTranslator.toLong(index, i);
+        }
+        return new Candidate(separators.construct(words), value, combination.distance);
+    }
+
+    /**
+     * Choice of match at each position, and the last position incremented.
+     * Ordered by total edit distance, and then by choices so that matches
+     * with equal distance are ordered by index.
+     */
+    private static class Combination implements Comparable<Combination> {
+
+        private final int[] choices;
+        private final int lastIncremented;
+        private final int distance;
+
+        private Combination(int[] choices, int lastIncremented, int distance) {
+            this.choices = choices;
+            this.lastIncremented = lastIncremented;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Combination other) {
+            if (distance != other.distance) {
+                return Integer.compare(distance, other.distance);
+            }
+            for (int i = 0; i < choices.length; i++) {
+                if (choices[i] != other.choices[i]) {
+                    return Integer.compare(choices[i], other.choices[i]);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * A corrected phrase, the long it translates to, and the total edit
+     * distance of its words from the words of the phrase corrected.
+     */
+    public static class Candidate {
+
+        private final String phrase;
+        private final long value;
+        private final int distance;
+
+        public Candidate(String phrase, long value, int distance) {
+            this.phrase = phrase;
+            this.value = value;
+            this.distance = distance;
+        }
+
+        public String getPhrase() {
+            return phrase;
+        }
+
+        public long getValue() {
+            return value;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return phrase + "@" + distance;
+        }
+    }
+
+    /**
+     * Ranked candidates, and whether the search for candidates was completed
+     * within the time budget.
+     */
+    public static class Result {
+
+        private final List<Candidate> candidates;
+        private final boolean complete;
+
+        public Result(List<Candidate> candidates, boolean complete) {
+            this.candidates = ImmutableList.copyOf(candidates);
+            this.complete = complete;
+        }
+
+        public List<Candidate> getCandidates() {
+            return candidates;
+        }
+
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.chedbrandh.gibberish.dataloading;
 
+import com.chedbrandh.gibberish.Collation;
 import com.google.common.collect.Iterables;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +28,16 @@ public class Schema {
             "Size of list for key 'providers' must be exactly the same as 'bit_distribution'.";
     private static final String BIT_DISTRIBUTION_SUM_MESSAGE =
             "Sum of integers in list for key 'bit_distribution' must equal 'number_of_bits'.";
+    private static final String NEGATIVE_VALUE_FORMAT =
+            "Value for key '%s' must be non-negative.";
+    private static final String FIELDS_BITS_SUM_MESSAGE =
+            "Sum of bits for key 'fields' must equal the number of bits of the translator.";
+    private static final String NON_POSITIVE_VALUE_FORMAT =
+            "Value for key '%s' must be positive.";
+    private static final String UNKNOWN_VALUE_FORMAT =
+            "Value '%s' for key '%s' must be one of %s.";
+    private static final String SNOWFLAKE_BITS_SUM_MESSAGE =
+            "Sum of bits for key 'snowflake' must equal the number of bits of the translator.";
 
     // map from file reference name to file
     public Map<String, File> files;
@@ -62,6 +74,30 @@ public class Schema {
      *
      * If a checksum is specified, an exception is thrown if it does not
      * match the checksum computed from the word providers.
+     *
+     * If the bit distribution is calculated, it can optionally be searched
+     * for from a number of random starting points, in addition to the
+     * default starting point. The search is reproducible for a given seed.
+     * The random restarts run in parallel, by all available processors unless
+     * a parallelism is given, and can be limited by an evaluation budget
+     * shared between them, and by a time budget, in which case the result may
+     * vary between runs.
+     *
+     * Lenient decoding can be enabled, in which case it is verified when the
+     * translator is created that no words collide when folded.
+     *
+     * The bits of the translator can optionally be laid out as structured
+     * ids, split into a timestamp, a node id and a sequence number.
+     *
+     * The bits of the translator can optionally be split into named fields,
+     * for encoding composite keys.
+     *
+     * The translator can optionally be made order-preserving, so that its
+     * phrases sort like the values they encode, by a collation that defaults
+     * to that of UTF-8 encoded bytes.
+     *
+     * All phrases of the translator can optionally be materialized into a
+     * lookup table, if the table takes no more than a number of bytes.
      */
     public static class Translator {
         // list of provider reference names to use for phrase translation.
@@ -74,6 +110,62 @@ public class Schema {
         public List<Integer> bit_distribution;
         // optional checksum specified to ensure no changes made to word providers.
         public String checksum;
+        // optional number of random restarts when calculating the bit distribution.
+        public int optimization_restarts;
+        // optional seed for the random restarts.
+        public long optimization_seed;
+        // optional number of random restarts run in parallel, all processors if zero.
+        public int optimization_parallelism;
+        // optional milliseconds after which no random restarts are begun.
+        public long optimization_time_budget_millis;
+        // optional number of evaluations shared by the random restarts.
+        public long optimization_evaluation_budget;
+        // optional flag for creating a lenient decoder for the translator.
+        public boolean lenient_decoding;
+        // optional layout of structured ids.
+        public Snowflake snowflake;
+        // optional named fields, in order from the least significant bit.
+        public List<Field> fields;
+        // optional flag for making phrases sort like the values they encode.
+        public boolean order_preserving;
+        // optional collation of the sorted phrases, UTF8 or UTF16.
+        public String collation;
+        // optional max number of bytes of a table of all phrases of the translator.
+        public long materialize_max_bytes;
+    }
+
+    /**
+     * A Field is a named part of the bits of a translator. A field may
+     * restrict its values to a range, in which case the bits hold the value
+     * minus the minimum.
+     */
+    public static class Field {
+        // name of the field.
+        public String name;
+        // number of bits of the field.
+        public int bits;
+        // optional minimum value of the field.
+        public Long min;
+        // optional maximum value of the field.
+        public Long max;
+    }
+
+    /**
+     * A Snowflake splits the bits of a translator into a timestamp, a node id
+     * and a sequence number. The timestamp counts ticks since an epoch. If no
+     * tick length is given, ticks are one millisecond long.
+     */
+    public static class Snowflake {
+        // number of bits of the timestamp.
+        public int timestamp_bits;
+        // number of bits of the node id.
+        public int node_bits;
+        // number of bits of the sequence number.
+        public int sequence_bits;
+        // milliseconds since the Unix epoch of timestamp zero.
+        public long epoch_millis;
+        // optional number of milliseconds per tick.
+        public long tick_millis;
     }
 
     /**
@@ -95,6 +187,25 @@ public class Schema {
      * Verifies the sum of all integers in the list for the 'bit_distribution'
      * key equals to the value of the 'number_of_bits' key, for all
      * translators, if both keys are available.
+     *
+     * Verifies that the values of the 'optimization_restarts',
+     * 'optimization_parallelism', 'optimization_time_budget_millis' and
+     * 'optimization_evaluation_budget' keys are non-negative, for all
+     * translators.
+     *
+     * Verifies that the bits of the 'snowflake' key are non-negative, that
+     * its tick length is non-negative, and that its bits sum to the number of
+     * bits of the translator, for all translators with the key set.
+     *
+     * Verifies that the fields of the 'fields' key have names and a positive
+     * number of bits, and that the bits sum to the number of bits of the
+     * translator, for all translators with the key set.
+     *
+     * Verifies that the value of the 'collation' key names a collation, for
+     * all translators with the key set.
+     *
+     * Verifies that the value of the 'materialize_max_bytes' key is
+     * non-negative, for all translators.
      */
     public void verifySemantics() {
         verifyNotNullOrEmpty("files", files);
@@ -149,6 +260,79 @@ public class Schema {
                 sum(translator.bit_distribution) != translator.number_of_bits) {
             throw new IllegalArgumentException(BIT_DISTRIBUTION_SUM_MESSAGE);
         }
+        // verify optimization_restarts >= 0
+        if (translator.optimization_restarts < 0) {
+            throw new IllegalArgumentException(
+                    String.format(NEGATIVE_VALUE_FORMAT, "optimization_restarts"));
+        }
+        if (translator.optimization_parallelism < 0) {
+            throw new IllegalArgumentException(
+                    String.format(NEGATIVE_VALUE_FORMAT, "optimization_parallelism"));
+        }
+        if (translator.optimization_time_budget_millis < 0) {
+            throw new IllegalArgumentException(
+                    String.format(NEGATIVE_VALUE_FORMAT, "optimization_time_budget_millis"));
+        }
+        if (translator.optimization_evaluation_budget < 0) {
+            throw new IllegalArgumentException(
+                    String.format(NEGATIVE_VALUE_FORMAT, "optimization_evaluation_budget"));
+        }
+        // verify materialize_max_bytes >= 0
+        if (translator.materialize_max_bytes < 0) {
+            throw new IllegalArgumentException(
+                    String.format(NEGATIVE_VALUE_FORMAT, "materialize_max_bytes"));
+        }
+        if (translator.snowflake != null) {
+            verifySnowflakeSemantics(translator);
+        }
+        if (translator.fields != null) {
+            verifyFieldsSemantics(translator);
+        }
+        if (translator.collation != null) {
+            verifyCollationSemantics(translator);
+        }
+    }
+
+    private static void verifyCollationSemantics(Translator translator) {
+        for (Collation collation : Collation.values()) {
+            if (collation.name().equals(translator.collation)) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException(String.format(UNKNOWN_VALUE_FORMAT,
+                translator.collation, "collation", Arrays.toString(Collation.values())));
+    }
+
+    private static void verifyFieldsSemantics(Translator translator) {
+        verifyNotNullOrEmpty("fields", translator.fields);
+        int bits = 0;
+        for (Field field : translator.fields) {
+            verifyNotNull("name", field.name);
+            if (field.bits <= 0) {
+                throw new IllegalArgumentException(
+                        String.format(NON_POSITIVE_VALUE_FORMAT, "bits"));
+            }
+            bits += field.bits;
+        }
+        if (bits != numBits(translator)) {
+            throw new IllegalArgumentException(FIELDS_BITS_SUM_MESSAGE);
+        }
+    }
+
+    private static void verifySnowflakeSemantics(Translator translator) {
+        Snowflake snowflake = translator.snowflake;
+        if (snowflake.timestamp_bits < 0 || snowflake.node_bits < 0 ||
+                snowflake.sequence_bits < 0) {
+            throw new IllegalArgumentException(String.format(NEGATIVE_VALUE_FORMAT, "snowflake"));
+        }
+        if (snowflake.tick_millis < 0) {
+            throw new IllegalArgumentException(
+                    String.format(NEGATIVE_VALUE_FORMAT, "tick_millis"));
+        }
+        int numBits = numBits(translator);
+        if (snowflake.timestamp_bits + snowflake.node_bits + snowflake.sequence_bits != numBits) {
+            throw new IllegalArgumentException(SNOWFLAKE_BITS_SUM_MESSAGE);
+        }
     }
 
     private static void verifyNotNull(String key, Object value) {
@@ -171,6 +355,11 @@ public class Schema {
         }
     }
 
+    private static int numBits(Translator translator) {
+        return translator.number_of_bits > 0
+                ? translator.number_of_bits : sum(translator.bit_distribution);
+    }
+
     private static int sum(List<Integer> integerList) {
         int result = 0;
         for (int i : integerList) {
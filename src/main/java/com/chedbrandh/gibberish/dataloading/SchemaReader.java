@@ -1,13 +1,21 @@
 package com.chedbrandh.gibberish.dataloading;
 
+import com.chedbrandh.gibberish.BitFieldCodec;
+import com.chedbrandh.gibberish.BitFieldLayout;
+import com.chedbrandh.gibberish.Collation;
 import com.chedbrandh.gibberish.IndexTranslator;
+import com.chedbrandh.gibberish.LenientPhraseDecoder;
+import com.chedbrandh.gibberish.MaterializedPhraseTable;
 import com.chedbrandh.gibberish.PhraseTranslator;
 import com.chedbrandh.gibberish.SeparatorsPhraseConstructor;
 import com.chedbrandh.gibberish.WordProvider;
 import com.chedbrandh.gibberish.WordProviderSequence;
 import com.chedbrandh.gibberish.exceptions.BitCoverageException;
 import com.chedbrandh.gibberish.exceptions.DuplicateWordException;
+import com.chedbrandh.gibberish.ids.SnowflakeLayout;
 import com.chedbrandh.gibberish.optimization.ConstrainedIntegerOptimizer;
+import com.chedbrandh.gibberish.optimization.OptimizerStats;
+import com.chedbrandh.gibberish.optimization.RandomRestartOptimizer;
 import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem;
 import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Direction;
 import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Input;
@@ -38,6 +46,19 @@ import java.util.stream.Collectors;
  *
  * If no bit distribution for a translator is given, and optimization algorithm
  * is ran to find the bit distribution that creates the shortest phrases.
+ * Statistics from these optimization runs are kept per translator. If the
+ * schema asks for random restarts, the optimizer searches from that many
+ * random starting points as well, in parallel, within any time and
+ * evaluation budget.
+ *
+ * If the schema enables lenient decoding for a translator, a lenient decoder
+ * is created along with it. Likewise a {@link SnowflakeLayout} is created for
+ * a translator that the schema lays out as structured ids, and a
+ * {@link BitFieldCodec} for a translator that the schema splits into fields.
+ * Translators that the schema makes order-preserving are created by
+ * {@link PhraseTranslator#orderPreserving}. A {@link MaterializedPhraseTable}
+ * is created, with all phrases rendered, for a translator whose table takes
+ * no more bytes than the schema allows.
  *
  * @author Christofer Hedbrandh (chedbrandh@gmail.com)
  * @since 1.0
@@ -51,6 +72,12 @@ public class SchemaReader {
     private final Map<String, WordFileReader> files = Maps.newHashMap();
     private final Map<String, WordProvider> providers = Maps.newHashMap();
     private final Map<String, PhraseTranslator> translators = Maps.newHashMap();
+    private final Map<String, LenientPhraseDecoder> lenientDecoders = Maps.newHashMap();
+    private final Map<String, SnowflakeLayout> snowflakeLayouts = Maps.newHashMap();
+    private final Map<String, BitFieldCodec> bitFieldCodecs = Maps.newHashMap();
+    private final Map<String, MaterializedPhraseTable> materializedTables = Maps.newHashMap();
+    private final Map<String, OptimizerStats<Input, Output, Direction>> optimizationStats =
+            Maps.newHashMap();
 
     /**
      * Create a SchemaReader from a Schema InputStream.
@@ -94,6 +121,68 @@ public class SchemaReader {
         return ImmutableMap.copyOf(translators);
     }
 
+    /**
+     * Returns a map with the lenient decoders of the translators that the
+     * schema enables lenient decoding for.
+     *
+     * @return Map from translator reference name to lenient decoder.
+     */
+    public ImmutableMap<String, LenientPhraseDecoder> getLenientDecoders() {
+        return ImmutableMap.copyOf(lenientDecoders);
+    }
+
+    /**
+     * Returns a map with the structured id layouts of the translators that
+     * the schema lays out as structured ids.
+     *
+     * @return Map from translator reference name to layout.
+     */
+    public ImmutableMap<String, SnowflakeLayout> getSnowflakeLayouts() {
+        return ImmutableMap.copyOf(snowflakeLayouts);
+    }
+
+    /**
+     * Returns a map with the codecs of the fields of the translators that the
+     * schema splits into fields.
+     *
+     * @return Map from translator reference name to codec.
+     */
+    public ImmutableMap<String, BitFieldCodec> getBitFieldCodecs() {
+        return ImmutableMap.copyOf(bitFieldCodecs);
+    }
+
+    /**
+     * Returns a map with the materialized tables of the translators whose
+     * tables take no more bytes than the schema allows.
+     *
+     * @return Map from translator reference name to materialized table.
+     */
+    public ImmutableMap<String, MaterializedPhraseTable> getMaterializedTables() {
+        return ImmutableMap.copyOf(materializedTables);
+    }
+
+    /**
+     * Returns a map with the word providers described by the schema.
+     *
+     * @return Map from provider reference name to provider.
+     */
+    public ImmutableMap<String, WordProvider> getProviders() {
+        return ImmutableMap.copyOf(providers);
+    }
+
+    /**
+     * Returns a map with statistics from optimizing the bit distribution of
+     * translators. Translators with a bit distribution specified by the
+     * schema are not optimized, and are therefore not in the map. The
+     * statistics of translators optimized with random restarts cover all
+     * restarts.
+     *
+     * @return Map from translator reference name to optimization statistics.
+     */
+    public ImmutableMap<String, OptimizerStats<Input, Output, Direction>> getOptimizationStats() {
+        return ImmutableMap.copyOf(optimizationStats);
+    }
+
     /**
      * Load files specified by schema.
      *
@@ -151,9 +240,9 @@ public class SchemaReader {
                     .collect(Collectors.toList());
             WordProviderSequence wordProviderSequence = new WordProviderSequence(providers);
 
-            // create index translator
-            List<Integer> bitDistribution = getBitDistribution(translatorSchema, providers);
-            IndexTranslator indexTranslator = new IndexTranslator(bitDistribution);
+            // determine bit distribution
+            List<Integer> bitDistribution =
+                    getBitDistribution(translatorReference, translatorSchema, providers);
 
             // create phrase constructor
             SeparatorsPhraseConstructor phraseConstructor =
@@ -166,12 +255,50 @@ public class SchemaReader {
                                translatorSchema.checksum);
             }
 
-            // create phrase translator
-            PhraseTranslator phraseTranslator = new PhraseTranslator(
-                    wordProviderSequence, indexTranslator, phraseConstructor, phraseConstructor);
+            // create phrase translator, verifying any order of phrases
+            PhraseTranslator phraseTranslator;
+            if (translatorSchema.order_preserving) {
+                Collation collation = translatorSchema.collation != null
+                        ? Collation.valueOf(translatorSchema.collation) : Collation.UTF8;
+                phraseTranslator = PhraseTranslator.orderPreserving(
+                        wordProviderSequence, bitDistribution, phraseConstructor, collation);
+            } else {
+                phraseTranslator = new PhraseTranslator(wordProviderSequence,
+                        new IndexTranslator(bitDistribution), phraseConstructor,
+                        phraseConstructor);
+            }
 
             // add phrase translator to map
             translators.put(translatorReference, phraseTranslator);
+
+            // create lenient decoder, verifying that folding causes no collisions
+            if (translatorSchema.lenient_decoding) {
+                lenientDecoders.put(translatorReference,
+                        new LenientPhraseDecoder(phraseTranslator));
+            }
+
+            // create structured id layout
+            Schema.Snowflake snowflake = translatorSchema.snowflake;
+            if (snowflake != null) {
+                snowflakeLayouts.put(translatorReference, new SnowflakeLayout(
+                        snowflake.timestamp_bits, snowflake.node_bits, snowflake.sequence_bits,
+                        snowflake.epoch_millis, Math.max(1, snowflake.tick_millis)));
+            }
+
+            // create codec of fields
+            if (translatorSchema.fields != null) {
+                bitFieldCodecs.put(translatorReference,
+                        new BitFieldCodec(phraseTranslator, getBitFieldLayout(translatorSchema)));
+            }
+
+            // create table of all phrases, if within the memory budget
+            if (translatorSchema.materialize_max_bytes > 0
+                    && MaterializedPhraseTable.sizeInBytes(phraseTranslator)
+                            <= translatorSchema.materialize_max_bytes) {
+                MaterializedPhraseTable table = new MaterializedPhraseTable(phraseTranslator);
+                table.materialize();
+                materializedTables.put(translatorReference, table);
+            }
         }
     }
 
@@ -180,20 +307,55 @@ public class SchemaReader {
      * optimization algorithm is ran to produce the bit distribution that
      * creates the shortest phrases for a translator.
      *
-     * @param translator    Translator schema.
-     * @param providers     Word providers to use for creating bit distribution.
-     * @return              The computed optimal bit distribution (or what schema specifies.)
+     * @param translatorReference   Translator reference name used in Schema.
+     * @param translator            Translator schema.
+     * @param providers             Word providers to use for creating bit distribution.
+     * @return                      The computed optimal bit distribution (or what schema
+     *                              specifies.)
      */
-    private static List<Integer> getBitDistribution(
-            Schema.Translator translator, Iterable<WordProvider> providers) {
+    private List<Integer> getBitDistribution(String translatorReference,
+                                             Schema.Translator translator,
+                                             Iterable<WordProvider> providers) {
         if (translator.bit_distribution != null) {
             return translator.bit_distribution;
         }
         TotalMeanWordLengthProblem problem =
                 new TotalMeanWordLengthProblem(providers, translator.number_of_bits);
-        ConstrainedIntegerOptimizer<Input, Output, Direction> optimizer =
-                new ConstrainedIntegerOptimizer<>(problem);
-        return optimizer.findMin().bitDistribution;
+        OptimizerStats<Input, Output, Direction> stats = new OptimizerStats<>();
+        List<Integer> bitDistribution;
+        if (translator.optimization_restarts > 0) {
+            int parallelism = translator.optimization_parallelism > 0
+                    ? translator.optimization_parallelism
+                    : Runtime.getRuntime().availableProcessors();
+            bitDistribution = new RandomRestartOptimizer<>(problem,
+                    translator.optimization_restarts, translator.optimization_seed, parallelism,
+                    translator.optimization_time_budget_millis,
+                    translator.optimization_evaluation_budget, stats)
+                    .findMin().bitDistribution();
+        } else {
+            bitDistribution = new ConstrainedIntegerOptimizer<>(problem, stats)
+                    .findMin().bitDistribution();
+        }
+        optimizationStats.put(translatorReference, stats);
+        return bitDistribution;
+    }
+
+    /**
+     * Create the layout of the fields of a translator. Fields without a
+     * minimum start at zero, and fields without a maximum hold any value of
+     * their bits.
+     *
+     * @param translator    Translator schema.
+     * @return              The layout.
+     */
+    private static BitFieldLayout getBitFieldLayout(Schema.Translator translator) {
+        List<BitFieldLayout.Field> fields = Lists.newArrayList();
+        for (Schema.Field field : translator.fields) {
+            long min = field.min != null ? field.min : 0;
+            long max = field.max != null ? field.max : min + (1L << field.bits) - 1;
+            fields.add(new BitFieldLayout.Field(field.name, field.bits, min, max));
+        }
+        return new BitFieldLayout(fields);
     }
 
     /**
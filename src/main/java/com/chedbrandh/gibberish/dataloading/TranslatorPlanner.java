@@ -0,0 +1,226 @@
+package com.chedbrandh.gibberish.dataloading;
+
+import com.chedbrandh.gibberish.WordProvider;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Lists;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class for planning translators given a pool of word providers.
+ *
+ * A phrase template is a list of slots. Every slot has a separator that is
+ * written before the word of the slot, and a list of candidate word
+ * providers for the word. Optional slots may be left out of the phrase. The
+ * planner picks which slots to use, which provider to use for every used
+ * slot, and how many bits each provider is assigned, so that the expected
+ * length of a phrase is as short as possible for a given number of bits.
+ *
+ * The expected phrase length is the sum of the lengths of all separators
+ * used, and the mean word length of every provider used given the number of
+ * bits it is assigned. Since this sum is separable over the slots, the plan is
+ * found exactly by dynamic programming over the slots and the number of bits
+ * used so far. This takes time proportional to the number of slots, times
+ * the number of candidates per slot, times the number of bits squared.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class TranslatorPlanner {
+
+    // expected lengths differing by less than this are considered equal
+    private static final double DOUBLE_TOLERANCE = 0.00001;
+
+    // map from provider reference name to provider
+    private final ImmutableMap<String, WordProvider> providers;
+
+    // meanWordLengths.get(name)[n] is the mean length of the 2^n first words of a provider
+    private final ImmutableMap<String, double[]> meanWordLengths;
+
+    /**
+     * Creates a planner for a pool of word providers.
+     *
+     * @param providers Map from provider reference name to provider. E.g.
+     *                  {@link SchemaReader#getProviders()}.
+     */
+    public TranslatorPlanner(Map<String, WordProvider> providers) {
+        Preconditions.checkArgument(!providers.isEmpty(), "Must provide at least one provider.");
+        this.providers = ImmutableMap.copyOf(providers);
+        ImmutableMap.Builder<String, double[]> builder = ImmutableMap.builder();
+        for (Map.Entry<String, WordProvider> entry : this.providers.entrySet()) {
+            WordProvider provider = entry.getValue();
+            double[] lengths = new double[provider.bitCoverage() + 1];
+            for (int numBits = 0; numBits < lengths.length; numBits++) {
+                lengths[numBits] = provider.meanWordLength(1 << numBits);
+            }
+            builder.put(entry.getKey(), lengths);
+        }
+        this.meanWordLengths = builder.build();
+    }
+
+    /**
+     * Finds the translator with the shortest expected phrase length.
+     *
+     * @param template      Slots of the phrase in order. All slots but the
+     *                      first must have a non-empty separator.
+     * @param trailing      String written after the last word.
+     * @param numberOfBits  Number of bits the translator must cover.
+     * @return              The plan for the translator.
+     * @throws IllegalArgumentException If no combination of slots and
+     *                                  providers covers the number of bits.
+     */
+    public Plan plan(List<Slot> template, String trailing, int numberOfBits) {
+        Preconditions.checkArgument(!template.isEmpty(), "Must provide at least one slot.");
+        Preconditions.checkArgument(numberOfBits > 0, "Number of bits must be positive.");
+        for (int i = 1; i < template.size(); i++) {
+            Preconditions.checkArgument(!template.get(i).separator.isEmpty(),
+                    "Separators of all slots but the first must not be empty.");
+        }
+        List<List<String>> candidates = Lists.newArrayList();
+        for (Slot slot : template) {
+            List<String> slotCandidates = slot.providers.isEmpty() ?
+                    ImmutableSortedSet.copyOf(providers.keySet()).asList() : slot.providers;
+            for (String candidate : slotCandidates) {
+                Preconditions.checkArgument(providers.containsKey(candidate),
+                        "Reference to provider '%s' could not be found.", candidate);
+            }
+            candidates.add(slotCandidates);
+        }
+
+        // cost[i][b] is the min expected length of slots i and onward covering b bits
+        int numSlots = template.size();
+        double[][] cost = new double[numSlots + 1][numberOfBits + 1];
+        // choice[i][b] is the candidate index, or -1 if skipped, for the min
+        int[][] choice = new int[numSlots][numberOfBits + 1];
+        int[][] choiceBits = new int[numSlots][numberOfBits + 1];
+        for (double[] row : cost) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        cost[numSlots][0] = trailing.length();
+
+        for (int i = numSlots - 1; i >= 0; i--) {
+            Slot slot = template.get(i);
+            for (int b = 0; b <= numberOfBits; b++) {
+                double best = Double.POSITIVE_INFINITY;
+                if (slot.optional) {
+                    best = cost[i + 1][b];
+                    choice[i][b] = -1;
+                }
+                // bound: no candidate can beat the best found if its
+                // separator alone makes the cost exceed it
+                for (int c = 0; c < candidates.get(i).size() &&
+                        slot.separator.length() < best; c++) {
+                    double[] lengths = meanWordLengths.get(candidates.get(i).get(c));
+                    for (int k = 1; k < lengths.length && k <= b; k++) {
+                        double candidateCost =
+                                slot.separator.length() + lengths[k] + cost[i + 1][b - k];
+                        if (candidateCost < best - DOUBLE_TOLERANCE) {
+                            best = candidateCost;
+                            choice[i][b] = c;
+                            choiceBits[i][b] = k;
+                        }
+                    }
+                }
+                cost[i][b] = best;
+            }
+        }
+
+        // at least one slot must be used
+        if (Double.isInfinite(cost[0][numberOfBits])) {
+            throw new IllegalArgumentException(
+                    "No combination of providers covers " + numberOfBits + " bits.");
+        }
+
+        // follow choices to create the translator
+        Schema.Translator translator = new Schema.Translator();
+        translator.providers = Lists.newArrayList();
+        translator.format = Lists.newArrayList();
+        translator.bit_distribution = Lists.newArrayList();
+        translator.number_of_bits = numberOfBits;
+        for (int i = 0, b = numberOfBits; i < numSlots; i++) {
+            int c = choice[i][b];
+            if (c == -1) {
+                continue;
+            }
+            translator.format.add(template.get(i).separator);
+            translator.providers.add(candidates.get(i).get(c));
+            translator.bit_distribution.add(choiceBits[i][b]);
+            b -= choiceBits[i][b];
+        }
+        translator.format.add(trailing);
+        return new Plan(translator, cost[0][numberOfBits]);
+    }
+
+    /**
+     * A slot in a phrase template.
+     *
+     * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+     * @since 1.0
+     */
+    public static class Slot {
+        // string written before the word of the slot.
+        public final String separator;
+        // candidate provider reference names, empty meaning any provider.
+        public final List<String> providers;
+        // whether the slot can be left out of the phrase.
+        public final boolean optional;
+
+        public Slot(String separator, List<String> providers, boolean optional) {
+            this.separator = Strings.nullToEmpty(separator);
+            this.providers = ImmutableList.copyOf(providers);
+            this.optional = optional;
+        }
+
+        public static Slot required(String separator, String... providers) {
+            return new Slot(separator, Arrays.asList(providers), false);
+        }
+
+        public static Slot optional(String separator, String... providers) {
+            return new Slot(separator, Arrays.asList(providers), true);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(Slot.class)
+                    .add("separator", separator)
+                    .add("providers", providers)
+                    .add("optional", optional)
+                    .toString();
+        }
+    }
+
+    /**
+     * A planned translator and its expected phrase length.
+     *
+     * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+     * @since 1.0
+     */
+    public static class Plan {
+        // translator ready to be added to a schema.
+        public final Schema.Translator translator;
+        // expected length of a phrase created by the translator.
+        public final double expectedLength;
+
+        public Plan(Schema.Translator translator, double expectedLength) {
+            this.translator = translator;
+            this.expectedLength = expectedLength;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(Plan.class)
+                    .add("providers", translator.providers)
+                    .add("format", translator.format)
+                    .add("bit_distribution", translator.bit_distribution)
+                    .add("expectedLength", expectedLength)
+                    .toString();
+        }
+    }
+}
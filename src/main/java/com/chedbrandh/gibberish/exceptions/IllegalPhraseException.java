@@ -18,6 +18,11 @@ public class IllegalPhraseException extends Exception {
             "Could not find expected trailing substring '%s' in phrase '%s'.";
     private static final String EXPECTED_SEPARATOR_FORMAT =
             "Could not find expected separator '%s' in phrase '%s'.";
+    private static final String UNEXPECTED_LENGTH_FORMAT =
+            "Phrase length %s is not between the minimum %s and maximum %s phrase lengths.";
+
+    // longest phrase or word quoted in full by messages, longer ones are abbreviated
+    private static final int MAX_QUOTED_LENGTH = 200;
 
     private final String phrase;
 
@@ -29,22 +34,54 @@ public class IllegalPhraseException extends Exception {
     public static IllegalPhraseException expectedLeading(
             String phrase, String leadingSubstring) {
         return new IllegalPhraseException(phrase,
-                String.format(EXPECTED_LEADING_FORMAT, leadingSubstring, phrase));
+                String.format(EXPECTED_LEADING_FORMAT, leadingSubstring, abbreviate(phrase)));
     }
 
     public static IllegalPhraseException expectedTrailing(
             String phrase, String trailingSubstring) {
         return new IllegalPhraseException(phrase,
-                String.format(EXPECTED_TRAILING_FORMAT, trailingSubstring, phrase));
+                String.format(EXPECTED_TRAILING_FORMAT, trailingSubstring, abbreviate(phrase)));
     }
 
     public static IllegalPhraseException expectedSeparator(
             String phrase, String separator) {
         return new IllegalPhraseException(phrase,
-                String.format(EXPECTED_SEPARATOR_FORMAT, separator, phrase));
+                String.format(EXPECTED_SEPARATOR_FORMAT, separator, abbreviate(phrase)));
+    }
+
+    /**
+     * Create an exception for a phrase that is too short or too long. The
+     * phrase is not part of the message, since it may be arbitrarily long.
+     *
+     * @param phrase        The phrase.
+     * @param length        Length of the phrase, in chars or bytes.
+     * @param minLength     Minimum length of phrases.
+     * @param maxLength     Maximum length of phrases.
+     * @return              The exception.
+     */
+    public static IllegalPhraseException unexpectedLength(
+            String phrase, int length, int minLength, int maxLength) {
+        return new IllegalPhraseException(phrase,
+                String.format(UNEXPECTED_LENGTH_FORMAT, length, minLength, maxLength));
     }
 
     public String getPhrase() {
         return phrase;
     }
+
+    /**
+     * Abbreviate a phrase or word quoted by a message, so that arbitrarily
+     * long input does not make an arbitrarily long message. The full phrase
+     * or word is still available from the exception.
+     */
+    static String abbreviate(String s) {
+        if (s.length() <= MAX_QUOTED_LENGTH) {
+            return s;
+        }
+        int end = MAX_QUOTED_LENGTH;
+        if (Character.isHighSurrogate(s.charAt(end - 1))) {
+            end--;
+        }
+        return s.substring(0, end) + "...";
+    }
 }
@@ -23,7 +23,8 @@ public class IllegalWordException extends Exception {
     private final WordProvider wordProvider;
 
     public IllegalWordException(String word, WordProvider wordProvider) {
-        super(String.format(MESSAGE_FORMAT, word, wordProvider.getName()));
+        super(String.format(MESSAGE_FORMAT,
+                IllegalPhraseException.abbreviate(word), wordProvider.getName()));
         this.word = word;
         this.wordProvider = wordProvider;
     }
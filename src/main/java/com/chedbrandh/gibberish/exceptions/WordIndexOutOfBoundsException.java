@@ -21,7 +21,7 @@ public class WordIndexOutOfBoundsException extends Exception {
     private final int numBits;
 
     /**
-     * Private constructor used by verification method.
+     * Private constructor used by verification and factory methods.
      *
      * @param index     Index to be verified.
      * @param word      Word that index maps to (used for exception handling).
@@ -34,6 +34,19 @@ public class WordIndexOutOfBoundsException extends Exception {
         this.numBits = numBits;
     }
 
+    /**
+     * Create an exception for an index that is greater than what some
+     * number of bits allows for.
+     *
+     * @param index     Illegal index.
+     * @param word      Word that index maps to.
+     * @param numBits   Number of bits used for index translating.
+     * @return          The exception.
+     */
+    public static WordIndexOutOfBoundsException forIndex(int index, String word, int numBits) {
+        return new WordIndexOutOfBoundsException(index, word, numBits);
+    }
+
     public int getIndex() {
         return index;
     }
@@ -72,7 +85,7 @@ public class WordIndexOutOfBoundsException extends Exception {
             String word = words.get(i);
             int numBits = bitDistribution.get(i);
             Preconditions.checkArgument(index >= 0, "Must provided non-negative index.");
-            if (index >= Math.pow(2, numBits)) {
+            if (index >= 1L << numBits) {
                 throw new WordIndexOutOfBoundsException(index, word, numBits);
             }
         }
@@ -0,0 +1,292 @@
+package com.chedbrandh.gibberish.ids;
+
+import com.chedbrandh.gibberish.PhraseTranslator;
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Mints unique phrases that look random.
+ *
+ * Sequence numbers are taken from a counter and scrambled by a keyed Feistel
+ * permutation over exactly the bits that the phrase translator covers, and
+ * the permuted values are translated to phrases. Since the permutation is a
+ * bijection no phrase is minted twice until all phrases have been minted, and
+ * since it is keyed the phrases do not look sequential. The sequence number
+ * of a minted phrase can be recovered with the key.
+ *
+ * The Feistel network splits values into two halves of equal width. Values
+ * of an odd number of bits are permuted over one more bit, and permuted again
+ * until they are within the range of the phrase translator.
+ *
+ * Blocks of sequence numbers are handed out from a shared atomic counter to
+ * a number of stripes, and threads mint from the block of the stripe picked
+ * by their thread id, so that threads mostly take sequence numbers from
+ * different atomics, and only take from the counter when a block is used up.
+ * Once the counter has handed out every sequence number, a thread whose
+ * block is used up takes the sequence numbers left in the blocks of other
+ * stripes, so that the minter is not exhausted while blocks handed out hold
+ * sequence numbers. Only the blocks lost when two threads replace the block
+ * of the same stripe at once are never minted, so the sequence numbers of
+ * minted phrases may have gaps.
+ *
+ * Since a thread may still be minting from its block, the last sequence
+ * number minted says nothing about the blocks handed to other threads. A
+ * minter replacing this one, e.g. after a restart, must therefore start at
+ * the {@link #highWaterMark()}, which is past every block handed out.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class IdMinter {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final int NUM_ROUNDS = 6;
+    // power of two of at least twice as many stripes as processors
+    private static final int NUM_STRIPES = 1 << Integer.SIZE
+            - Integer.numberOfLeadingZeros(2 * Runtime.getRuntime().availableProcessors() - 1);
+    private static final String EXHAUSTED = "All phrases have been minted.";
+
+    private final PhraseTranslator phraseTranslator;
+    private final int numBits;
+    private final long maxValue;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[NUM_ROUNDS];
+    private final int blockSize;
+
+    // next sequence number not handed out in a block
+    private final AtomicLong counter;
+
+    // block of each stripe, used up until first handed out
+    private final AtomicReferenceArray<Block> stripes = new AtomicReferenceArray<>(NUM_STRIPES);
+
+    /**
+     * Block of sequence numbers, minted by taking the next one.
+     */
+    private static class Block {
+        private static final Block USED_UP = new Block(0, 0);
+
+        private final long start;
+        private final long size;
+        private final AtomicLong taken = new AtomicLong();
+
+        private Block(long start, long size) {
+            this.start = start;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Creates a minter starting at sequence number zero, with the default
+     * block size.
+     *
+     * @param phraseTranslator  Phrase translator to mint phrases of.
+     * @param key               Key of the permutation.
+     */
+    public IdMinter(PhraseTranslator phraseTranslator, long key) {
+        this(phraseTranslator, key, 0, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a minter.
+     *
+     * @param phraseTranslator  Phrase translator to mint phrases of.
+     * @param key               Key of the permutation.
+     * @param start             First sequence number to mint. To continue after
+     *                          a restart, the {@link #highWaterMark()} of the
+     *                          minter before the restart.
+     * @param blockSize         Number of sequence numbers handed to a thread at a time.
+     */
+    public IdMinter(PhraseTranslator phraseTranslator, long key, long start, int blockSize) {
+        int numBits = phraseTranslator.getIndexTranslator().bitCoverage();
+        Preconditions.checkArgument(0 < numBits && numBits < Long.SIZE,
+                "Number of bits of phrase translator must be between 1 and 63.");
+        long maxValue = -1L >>> Long.SIZE - numBits;
+        Preconditions.checkArgument(Long.compareUnsigned(start, maxValue + 1) <= 0,
+                "Start must be within the range of the phrase translator, or one past it.");
+        Preconditions.checkArgument(blockSize > 0, "Block size must be positive.");
+        this.phraseTranslator = phraseTranslator;
+        this.numBits = numBits;
+        this.maxValue = maxValue;
+        this.halfBits = (numBits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        this.blockSize = blockSize;
+        this.counter = new AtomicLong(start);
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            stripes.set(i, Block.USED_UP);
+        }
+
+        // derive round keys from the key
+        long state = key;
+        for (int i = 0; i < NUM_ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    /**
+     * Mint the next phrase.
+     *
+     * @return                          A phrase not minted before.
+     * @throws IllegalStateException    If all phrases have been minted.
+     */
+    public String next() {
+        return phraseTranslator.fromLong(nextValue());
+    }
+
+    /**
+     * Mint the long that the next phrase translates to.
+     *
+     * @return                          A long not minted before.
+     * @throws IllegalStateException    If all phrases have been minted.
+     */
+    public long nextValue() {
+        int stripe = (int) Thread.currentThread().getId() & NUM_STRIPES - 1;
+        while (true) {
+            Block block = stripes.get(stripe);
+            long taken = block.taken.getAndIncrement();
+            if (taken < block.size) {
+                return permute(block.start + taken);
+            }
+            // a block lost to another thread replacing the same one leaves a gap
+            long next = counter.getAndAdd(blockSize);
+            if (next < 0 || maxValue < next) {
+                return drainStripes(stripe);
+            }
+            stripes.compareAndSet(
+                    stripe, block, new Block(next, Math.min(blockSize, maxValue - next + 1)));
+        }
+    }
+
+    /**
+     * Mint from the blocks of the other stripes, once the counter has handed
+     * out every sequence number.
+     */
+    private long drainStripes(int stripe) {
+        for (int i = 1; i < NUM_STRIPES; i++) {
+            Block block = stripes.get(stripe + i & NUM_STRIPES - 1);
+            long taken = block.taken.getAndIncrement();
+            if (taken < block.size) {
+                return permute(block.start + taken);
+            }
+        }
+        throw new IllegalStateException(EXHAUSTED);
+    }
+
+    /**
+     * Get the first sequence number not handed out in a block to any thread.
+     * Every sequence number minted so far, or that will be minted from the
+     * blocks handed out, is below it. A minter replacing this one, with the
+     * same key, can start at it without minting a phrase twice.
+     *
+     * If all phrases have been handed out it is one past the last sequence
+     * number, i.e. two to the power of the number of bits, as an unsigned
+     * long.
+     *
+     * @return  The high-water mark of the sequence numbers.
+     */
+    public long highWaterMark() {
+        long next = counter.get();
+        return Long.compareUnsigned(next, maxValue + 1) <= 0 ? next : maxValue + 1;
+    }
+
+    /**
+     * Get the sequence number that a minted phrase was minted for.
+     *
+     * @param phrase                    A minted phrase.
+     * @return                          The sequence number.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long sequenceNumber(String phrase)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        return unpermute(phraseTranslator.toLong(phrase));
+    }
+
+    /**
+     * Permute a sequence number.
+     *
+     * @param sequenceNumber    Sequence number within the range of the phrase translator.
+     * @return                  The permuted value, within the same range.
+     */
+    public long permute(long sequenceNumber) {
+        checkRange(sequenceNumber);
+        long value = sequenceNumber;
+        do {
+            value = encrypt(value);
+        } while (value >>> numBits != 0);
+        return value;
+    }
+
+    /**
+     * Reverse the permutation of a sequence number.
+     *
+     * @param value     Permuted value within the range of the phrase translator.
+     * @return          The sequence number.
+     */
+    public long unpermute(long value) {
+        checkRange(value);
+        long sequenceNumber = value;
+        do {
+            sequenceNumber = decrypt(sequenceNumber);
+        } while (sequenceNumber >>> numBits != 0);
+        return sequenceNumber;
+    }
+
+    public int getNumBits() {
+        return numBits;
+    }
+
+    private void checkRange(long value) {
+        Preconditions.checkArgument(value >>> numBits == 0,
+                "Value must be within the range of the phrase translator.");
+    }
+
+    /**
+     * Apply the Feistel network to a value of twice the half width.
+     */
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ round(right, roundKey);
+            left = right;
+            right = next;
+        }
+        return left << halfBits | right;
+    }
+
+    /**
+     * Apply the Feistel network in reverse to a value of twice the half width.
+     */
+    private long decrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int i = NUM_ROUNDS - 1; i >= 0; i--) {
+            long previous = right ^ round(left, roundKeys[i]);
+            right = left;
+            left = previous;
+        }
+        return left << halfBits | right;
+    }
+
+    private long round(long half, long roundKey) {
+        return mix(half ^ roundKey) & halfMask;
+    }
+
+    /**
+     * Mix the bits of a long, as done by the SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,190 @@
+package com.chedbrandh.gibberish.ids;
+
+import com.chedbrandh.gibberish.PhraseTranslator;
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates phrases of structured ids, unique across nodes without
+ * coordination, laid out by a {@link SnowflakeLayout}.
+ *
+ * Ids of a node are unique as long as no other generator uses the same node
+ * id. Ids are generated without locks, by a compare-and-set on the last
+ * tick and sequence number used.
+ *
+ * If the sequence numbers of a tick are used up, generation backs off until
+ * the clock reaches the next tick. If the clock moves backwards, ids keep
+ * being generated for the last tick used, backing off when its sequence
+ * numbers are used up, unless the clock moved back further than a tolerance,
+ * in which case generation fails.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class SnowflakeGenerator {
+
+    public static final long DEFAULT_MAX_CLOCK_REGRESSION_MILLIS = 1000;
+
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final String CLOCK_REGRESSION_FORMAT =
+            "Clock moved back %s ticks, which is more than the tolerated %s ticks.";
+    private static final String TIMESTAMP_OUT_OF_BOUNDS_FORMAT =
+            "Timestamp tick %s is not within the %s bits of the layout.";
+
+    private final PhraseTranslator phraseTranslator;
+    private final SnowflakeLayout layout;
+    private final long node;
+    private final long maxClockRegressionTicks;
+    private final LongSupplier clock;
+    private final int sequenceBits;
+    private final long sequenceMask;
+
+    // last tick shifted by the sequence bits, or'ed with the last sequence
+    // number, or -1 if no id has been generated
+    private final AtomicLong state = new AtomicLong(-1);
+
+    /**
+     * Creates a generator using the system clock, tolerating the default
+     * clock regression.
+     *
+     * @param phraseTranslator  Phrase translator to generate phrases of.
+     * @param layout            Layout of the bits of the phrase translator.
+     * @param node              Id of the node generating ids.
+     */
+    public SnowflakeGenerator(PhraseTranslator phraseTranslator, SnowflakeLayout layout,
+                              long node) {
+        this(phraseTranslator, layout, node, DEFAULT_MAX_CLOCK_REGRESSION_MILLIS);
+    }
+
+    /**
+     * Creates a generator using the system clock.
+     *
+     * @param phraseTranslator          Phrase translator to generate phrases of.
+     * @param layout                    Layout of the bits of the phrase translator.
+     * @param node                      Id of the node generating ids.
+     * @param maxClockRegressionMillis  Milliseconds that the clock may move back.
+     */
+    public SnowflakeGenerator(PhraseTranslator phraseTranslator, SnowflakeLayout layout,
+                              long node, long maxClockRegressionMillis) {
+        this(phraseTranslator, layout, node, maxClockRegressionMillis,
+                System::currentTimeMillis);
+    }
+
+    SnowflakeGenerator(PhraseTranslator phraseTranslator, SnowflakeLayout layout, long node,
+                       long maxClockRegressionMillis, LongSupplier clock) {
+        Preconditions.checkArgument(
+                phraseTranslator.getIndexTranslator().bitCoverage() == layout.getNumBits(),
+                "Number of bits of layout must equal that of the phrase translator.");
+        Preconditions.checkArgument(maxClockRegressionMillis >= 0,
+                "Tolerated clock regression must be non-negative.");
+        // verify that the node id fits
+        layout.toLong(0, node, 0);
+        this.phraseTranslator = phraseTranslator;
+        this.layout = layout;
+        this.node = node;
+        this.maxClockRegressionTicks =
+                (maxClockRegressionMillis + layout.getTickMillis() - 1) / layout.getTickMillis();
+        this.clock = clock;
+        this.sequenceBits = layout.getSequenceBits();
+        this.sequenceMask = (1L << sequenceBits) - 1;
+    }
+
+    /**
+     * Generate the phrase of the next id.
+     *
+     * @return                          A phrase not generated before by this node.
+     * @throws IllegalStateException    If the clock moved back too far, or the
+     *                                  timestamp does not fit in the layout.
+     */
+    public String next() {
+        return phraseTranslator.fromLong(nextValue());
+    }
+
+    /**
+     * Generate the next id.
+     *
+     * @return                          An id not generated before by this node.
+     * @throws IllegalStateException    If the clock moved back too far, or the
+     *                                  timestamp does not fit in the layout.
+     */
+    public long nextValue() {
+        while (true) {
+            long tick = currentTick();
+            long last = state.get();
+            long lastTick = last >> sequenceBits;
+            long next;
+            if (tick > lastTick) {
+                next = tick << sequenceBits;
+            } else {
+                if (lastTick - tick > maxClockRegressionTicks) {
+                    throw new IllegalStateException(String.format(
+                            CLOCK_REGRESSION_FORMAT, lastTick - tick, maxClockRegressionTicks));
+                }
+                if ((last & sequenceMask) == sequenceMask) {
+                    // sequence numbers of the last tick are used up
+                    LockSupport.parkNanos(BACKOFF_NANOS);
+                    continue;
+                }
+                next = last + 1;
+            }
+            if (state.compareAndSet(last, next)) {
+                return layout.toLong(next >> sequenceBits, node, next & sequenceMask);
+            }
+        }
+    }
+
+    /**
+     * Get the time of the start of the tick that the id of a phrase was
+     * generated in. Only the words holding the timestamp are translated.
+     *
+     * @param phrase                    Phrase of an id.
+     * @return                          Milliseconds since the Unix epoch.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long getTimestampMillis(String phrase)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        int fromBitIndex = layout.getNodeBits() + layout.getSequenceBits();
+        long tick = phraseTranslator.decodeBits(
+                phrase, fromBitIndex, fromBitIndex + layout.getTimestampBits());
+        return layout.getEpochMillis() + tick * layout.getTickMillis();
+    }
+
+    /**
+     * Get the id of the node that generated the id of a phrase. Only the
+     * words holding the node id are translated.
+     *
+     * @param phrase                    Phrase of an id.
+     * @return                          The node id.
+     * @throws IllegalPhraseException   If phrase can't be translated.
+     * @throws IllegalWordException     If a word can't be found in its word provider.
+     * @throws WordIndexOutOfBoundsException    If word maps to illegal index.
+     */
+    public long getNode(String phrase)
+            throws IllegalPhraseException, IllegalWordException, WordIndexOutOfBoundsException {
+        int fromBitIndex = layout.getSequenceBits();
+        return phraseTranslator.decodeBits(
+                phrase, fromBitIndex, fromBitIndex + layout.getNodeBits());
+    }
+
+    public SnowflakeLayout getLayout() {
+        return layout;
+    }
+
+    private long currentTick() {
+        long tick = layout.toTick(clock.getAsLong());
+        if (tick < 0 || tick >>> layout.getTimestampBits() != 0) {
+            throw new IllegalStateException(String.format(
+                    TIMESTAMP_OUT_OF_BOUNDS_FORMAT, tick, layout.getTimestampBits()));
+        }
+        return tick;
+    }
+}
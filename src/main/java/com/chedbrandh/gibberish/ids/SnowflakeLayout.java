@@ -0,0 +1,158 @@
+package com.chedbrandh.gibberish.ids;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Layout of structured ids, splitting the bits of a long into a coarse
+ * timestamp, the id of the node that generated the id, and a sequence number
+ * per node and timestamp.
+ *
+ * The sequence number is held by the least significant bits, followed by the
+ * node id, followed by the timestamp in the most significant bits. The
+ * timestamp is the number of ticks since an epoch, where a tick is some
+ * number of milliseconds.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class SnowflakeLayout {
+
+    private static final String FIELD_OUT_OF_BOUNDS_FORMAT =
+            "Value %s of field '%s' does not fit in %s bits.";
+
+    private final int timestampBits;
+    private final int nodeBits;
+    private final int sequenceBits;
+    private final long epochMillis;
+    private final long tickMillis;
+
+    /**
+     * Creates a layout.
+     *
+     * @param timestampBits Number of bits of the timestamp.
+     * @param nodeBits      Number of bits of the node id.
+     * @param sequenceBits  Number of bits of the sequence number.
+     * @param epochMillis   Milliseconds since the Unix epoch of timestamp zero.
+     * @param tickMillis    Number of milliseconds per timestamp tick.
+     */
+    public SnowflakeLayout(int timestampBits, int nodeBits, int sequenceBits,
+                           long epochMillis, long tickMillis) {
+        Preconditions.checkArgument(timestampBits > 0, "Timestamp bits must be positive.");
+        Preconditions.checkArgument(nodeBits >= 0 && sequenceBits >= 0,
+                "Node and sequence bits must be non-negative.");
+        Preconditions.checkArgument(timestampBits + nodeBits + sequenceBits < Long.SIZE,
+                "Layout must fit in a non-negative long.");
+        Preconditions.checkArgument(tickMillis > 0, "Tick milliseconds must be positive.");
+        this.timestampBits = timestampBits;
+        this.nodeBits = nodeBits;
+        this.sequenceBits = sequenceBits;
+        this.epochMillis = epochMillis;
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Pack the fields of an id into a long.
+     *
+     * @param tick      Ticks since the epoch.
+     * @param node      Node id.
+     * @param sequence  Sequence number.
+     * @return          The id.
+     * @throws IllegalArgumentException If a field does not fit in its bits.
+     */
+    public long toLong(long tick, long node, long sequence) {
+        checkField("timestamp", tick, timestampBits);
+        checkField("node", node, nodeBits);
+        checkField("sequence", sequence, sequenceBits);
+        return tick << nodeBits + sequenceBits | node << sequenceBits | sequence;
+    }
+
+    /**
+     * Get the number of ticks since the epoch of an id.
+     *
+     * @param id    The id.
+     * @return      The timestamp field.
+     */
+    public long getTick(long id) {
+        return id >>> nodeBits + sequenceBits & mask(timestampBits);
+    }
+
+    /**
+     * Get the node id of an id.
+     *
+     * @param id    The id.
+     * @return      The node field.
+     */
+    public long getNode(long id) {
+        return id >>> sequenceBits & mask(nodeBits);
+    }
+
+    /**
+     * Get the sequence number of an id.
+     *
+     * @param id    The id.
+     * @return      The sequence field.
+     */
+    public long getSequence(long id) {
+        return id & mask(sequenceBits);
+    }
+
+    /**
+     * Get the time of the start of the tick of an id.
+     *
+     * @param id    The id.
+     * @return      Milliseconds since the Unix epoch.
+     */
+    public long getTimestampMillis(long id) {
+        return epochMillis + getTick(id) * tickMillis;
+    }
+
+    /**
+     * Get the tick that a time falls in.
+     *
+     * @param millis    Milliseconds since the Unix epoch.
+     * @return          Ticks since the epoch of the layout, negative if before it.
+     */
+    public long toTick(long millis) {
+        return Math.floorDiv(millis - epochMillis, tickMillis);
+    }
+
+    /**
+     * Get the total number of bits of the layout.
+     *
+     * @return  The number of bits.
+     */
+    public int getNumBits() {
+        return timestampBits + nodeBits + sequenceBits;
+    }
+
+    public int getTimestampBits() {
+        return timestampBits;
+    }
+
+    public int getNodeBits() {
+        return nodeBits;
+    }
+
+    public int getSequenceBits() {
+        return sequenceBits;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private static long mask(int numBits) {
+        return (1L << numBits) - 1;
+    }
+
+    private static void checkField(String name, long value, int numBits) {
+        if (value < 0 || value > mask(numBits)) {
+            throw new IllegalArgumentException(
+                    String.format(FIELD_OUT_OF_BOUNDS_FORMAT, value, name, numBits));
+        }
+    }
+}
@@ -24,6 +24,9 @@ import java.util.Iterator;
  * well just follow the first descent Direction I find, rather than looking for
  * the steepest one (could be costly).
  *
+ * Progress can be followed by providing an {@link OptimizerListener}. Without
+ * one, a listener that ignores all events is used.
+ *
  * Disclaimer: Finally I would like to point out that I am no mathematician
  * and I give no guarantees to any of the claims I am making here. The
  * algorithm described may very well have an actual proper accurate name, and
@@ -42,7 +45,12 @@ public class ConstrainedIntegerOptimizer
     private final static Logger LOGGER =
             LoggerFactory.getLogger(ConstrainedIntegerOptimizer.class);
 
+    // listener ignoring all events, used when no listener is provided
+    private static final OptimizerListener<Object, Object, Object> NO_OP_LISTENER =
+            new OptimizerListener<Object, Object, Object>() { };
+
     private final Problem <Input, Output, Direction> problem;
+    private final OptimizerListener<? super Input, ? super Output, ? super Direction> listener;
 
     private Input currentInput;
     private Output currentOutput;
@@ -53,7 +61,20 @@ public class ConstrainedIntegerOptimizer
      * @param problem The problem to optimize.
      */
     public ConstrainedIntegerOptimizer(Problem<Input, Output, Direction> problem) {
+        this(problem, NO_OP_LISTENER);
+    }
+
+    /**
+     * Creates an optimizer reporting progress to a listener, no optimization
+     * is performed.
+     * @param problem   The problem to optimize.
+     * @param listener  Listener notified of optimization events.
+     */
+    public ConstrainedIntegerOptimizer(
+            Problem<Input, Output, Direction> problem,
+            OptimizerListener<? super Input, ? super Output, ? super Direction> listener) {
         this.problem = problem;
+        this.listener = listener;
     }
 
     /**
@@ -61,25 +82,47 @@ public class ConstrainedIntegerOptimizer
      * @return The Input value for the min.
      */
     public Input findMin() {
+        return findMin(problem.getLegalStartingInput());
+    }
+
+    /**
+     * Perform optimization from some legal starting Input and return the
+     * Input value for the found min.
+     * @param startingInput The legal Input to start optimizing from.
+     * @return              The Input value for the min.
+     */
+    public Input findMin(Input startingInput) {
         // initialize currentInput and currentOutput
-        currentInput = problem.getLegalStartingInput();
+        currentInput = startingInput;
         if (problem.isIllegalInput(currentInput)) {
             throw new IllegalArgumentException("Provided starting input is not legal.");
         }
-        currentOutput = problem.function(currentInput);
-        LOGGER.debug("Starting optimization from input {} with output {}.",
-                currentInput, currentOutput);
-
-        // look for and follow new descent directions while they exist or limit is reached
-        for (long i = 0; tryAllDirections(); i++){
-            LOGGER.debug("Has followed descent directions {} time(s).", i + 1);
-            if (i == problem.maxPasses()) {
-                throw new IllegalArgumentException("Still finding descent " +
-                        "directions after max number of descent directions followed.");
+        currentOutput = null;
+        listener.onStart(currentInput);
+        try {
+            currentOutput = problem.function(currentInput);
+            listener.onEvaluation(currentInput, currentOutput);
+            LOGGER.debug("Starting optimization from input {} with output {}.",
+                    currentInput, currentOutput);
+
+            // look for and follow new descent directions while they exist or limit is reached
+            for (long i = 0; ; i++){
+                boolean didDescend = tryAllDirections();
+                listener.onPassComplete(i, didDescend, currentInput, currentOutput);
+                if (!didDescend) {
+                    break;
+                }
+                LOGGER.debug("Has followed descent directions {} time(s).", i + 1);
+                if (i == problem.maxPasses()) {
+                    throw new IllegalArgumentException("Still finding descent " +
+                            "directions after max number of descent directions followed.");
+                }
             }
+            LOGGER.debug("Finished optimization at input {} with output {}.",
+                    currentInput, currentOutput);
+        } finally {
+            listener.onFinish(currentInput, currentOutput);
         }
-        LOGGER.debug("Finished optimization at input {} with output {}.",
-                currentInput, currentOutput);
         return currentInput;
     }
 
@@ -118,6 +161,7 @@ public class ConstrainedIntegerOptimizer
 
         if (problem.isIllegalInput(nextInput)) {
             LOGGER.debug("Current direction leads beyond constraints to {}.", nextInput);
+            listener.onRejectedStep(currentDirection, nextInput, null);
             return false;
         }
 
@@ -127,6 +171,7 @@ public class ConstrainedIntegerOptimizer
         }
 
         Output nextOutput = problem.function(nextInput);
+        listener.onEvaluation(nextInput, nextOutput);
         int outputDiff = nextOutput.compareTo(currentOutput);
 
         if (outputDiff < 0 || (outputDiff == 0 && inputDiff < 0)) {
@@ -134,10 +179,12 @@ public class ConstrainedIntegerOptimizer
             currentOutput = nextOutput;
             LOGGER.debug("Followed current direction leading to input {} with output {}.",
                     currentInput, currentOutput);
+            listener.onAcceptedStep(currentDirection, currentInput, currentOutput);
             return true;
         }
         LOGGER.debug("Rejected current direction leading to input {} with output {}.",
                 nextInput, nextOutput);
+        listener.onRejectedStep(currentDirection, nextInput, nextOutput);
         return false;
     }
 
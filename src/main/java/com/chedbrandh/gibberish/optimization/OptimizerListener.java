@@ -0,0 +1,82 @@
+package com.chedbrandh.gibberish.optimization;
+
+/**
+ * Listener for following the progress of a {@link ConstrainedIntegerOptimizer}.
+ *
+ * All methods have empty default implementations so that a listener only
+ * needs to implement the events it is interested in. The listener is called
+ * from the thread running the optimization.
+ *
+ * @param <Input> {@link ConstrainedIntegerOptimizer.Problem}
+ * @param <Output> {@link ConstrainedIntegerOptimizer.Problem}
+ * @param <Direction> {@link ConstrainedIntegerOptimizer.Problem}
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public interface OptimizerListener<Input, Output, Direction> {
+
+    /**
+     * Called once when optimization starts from the legal starting Input,
+     * before the starting Input is evaluated.
+     *
+     * @param input     The starting Input.
+     */
+    default void onStart(Input input) {
+    }
+
+    /**
+     * Called every time the problem function is evaluated.
+     *
+     * @param input     The evaluated Input.
+     * @param output    The resulting Output.
+     */
+    default void onEvaluation(Input input, Output output) {
+    }
+
+    /**
+     * Called when a step in some Direction is followed.
+     *
+     * @param direction The Direction followed.
+     * @param input     The new current Input.
+     * @param output    The Output of the new current Input.
+     */
+    default void onAcceptedStep(Direction direction, Input input, Output output) {
+    }
+
+    /**
+     * Called when a step in some Direction is not followed, either because
+     * the step leads to an illegal Input, or because it does not descend.
+     *
+     * @param direction The Direction tried.
+     * @param input     The rejected Input.
+     * @param output    The Output of the rejected Input, or null if the
+     *                  Input was illegal and therefore never evaluated.
+     */
+    default void onRejectedStep(Direction direction, Input input, Output output) {
+    }
+
+    /**
+     * Called when a pass over the Directions is complete.
+     *
+     * @param pass          The zero based number of the pass.
+     * @param didDescend    True if a descent Direction was found and followed.
+     * @param input         The current Input after the pass.
+     * @param output        The Output of the current Input.
+     */
+    default void onPassComplete(long pass, boolean didDescend, Input input, Output output) {
+    }
+
+    /**
+     * Called once when a min has been found, or when optimization fails
+     * after it has started.
+     *
+     * @param input     The Input value for the min, or the current Input if
+     *                  optimization failed.
+     * @param output    The Output value for the min, or the current Output if
+     *                  optimization failed. Null if the starting Input was
+     *                  never evaluated.
+     */
+    default void onFinish(Input input, Output output) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.chedbrandh.gibberish.optimization;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener collecting statistics about a single optimization run.
+ *
+ * Keeps count of function evaluations, accepted and rejected steps, and
+ * passes. Measures the wall time of the run, and records every time the best
+ * Output so far improves, so that the best objective over time can be
+ * followed.
+ *
+ * Instances are not thread safe, and should only be used for one
+ * optimization. A {@link RandomRestartOptimizer} delivers the events of all
+ * its runs one at a time, so the statistics then cover all runs.
+ *
+ * @param <Input> {@link ConstrainedIntegerOptimizer.Problem}
+ * @param <Output> {@link ConstrainedIntegerOptimizer.Problem}
+ * @param <Direction> {@link ConstrainedIntegerOptimizer.Problem}
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class OptimizerStats<Input, Output extends Comparable<Output>, Direction>
+        implements OptimizerListener<Input, Output, Direction> {
+
+    private final ImmutableList.Builder<Improvement<Input, Output>> improvements =
+            ImmutableList.builder();
+
+    private long startNanos;
+    private long finishNanos;
+    private long evaluationCount;
+    private long acceptedStepCount;
+    private long rejectedStepCount;
+    private long passCount;
+    private Output bestOutput;
+    private Input bestInput;
+
+    @Override
+    public void onStart(Input input) {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void onEvaluation(Input input, Output output) {
+        evaluationCount++;
+        // the first evaluation is that of the starting Input
+        if (bestOutput == null || output.compareTo(bestOutput) < 0) {
+            improve(input, output);
+        }
+    }
+
+    @Override
+    public void onAcceptedStep(Direction direction, Input input, Output output) {
+        acceptedStepCount++;
+    }
+
+    @Override
+    public void onRejectedStep(Direction direction, Input input, Output output) {
+        rejectedStepCount++;
+    }
+
+    @Override
+    public void onPassComplete(long pass, boolean didDescend, Input input, Output output) {
+        passCount++;
+    }
+
+    @Override
+    public void onFinish(Input input, Output output) {
+        finishNanos = System.nanoTime();
+        bestInput = input;
+        bestOutput = output;
+    }
+
+    /**
+     * Get the number of times the problem function was evaluated.
+     *
+     * @return  The number of evaluations.
+     */
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    /**
+     * Get the number of steps followed.
+     *
+     * @return  The number of accepted steps.
+     */
+    public long getAcceptedStepCount() {
+        return acceptedStepCount;
+    }
+
+    /**
+     * Get the number of steps not followed.
+     *
+     * @return  The number of rejected steps.
+     */
+    public long getRejectedStepCount() {
+        return rejectedStepCount;
+    }
+
+    /**
+     * Get the number of passes over all directions, including the final pass
+     * that found no descent direction.
+     *
+     * @return  The number of passes.
+     */
+    public long getPassCount() {
+        return passCount;
+    }
+
+    /**
+     * Get the wall time from start to finish of the optimization.
+     *
+     * @param timeUnit  Unit of the returned time.
+     * @return          The wall time, or the time so far if not yet finished.
+     */
+    public long getWallTime(TimeUnit timeUnit) {
+        long endNanos = finishNanos != 0 ? finishNanos : System.nanoTime();
+        return timeUnit.convert(endNanos - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the best Input found.
+     *
+     * @return  The best Input, or null if no optimization has been run.
+     */
+    public Input getBestInput() {
+        return bestInput;
+    }
+
+    /**
+     * Get the best Output found.
+     *
+     * @return  The best Output, or null if no optimization has been run.
+     */
+    public Output getBestOutput() {
+        return bestOutput;
+    }
+
+    /**
+     * Get every improvement of the best Output, in the order they were found.
+     * The first improvement is the starting Input.
+     *
+     * @return  The best objective over time.
+     */
+    public List<Improvement<Input, Output>> getImprovements() {
+        return improvements.build();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(OptimizerStats.class)
+                .add("evaluationCount", evaluationCount)
+                .add("acceptedStepCount", acceptedStepCount)
+                .add("rejectedStepCount", rejectedStepCount)
+                .add("passCount", passCount)
+                .add("wallTimeMicros", getWallTime(TimeUnit.MICROSECONDS))
+                .add("bestOutput", bestOutput)
+                .toString();
+    }
+
+    private void improve(Input input, Output output) {
+        bestInput = input;
+        bestOutput = output;
+        improvements.add(new Improvement<>(
+                System.nanoTime() - startNanos, evaluationCount, input, output));
+    }
+
+    /**
+     * An improvement of the best Output found so far.
+     *
+     * @param <Input> {@link ConstrainedIntegerOptimizer.Problem}
+     * @param <Output> {@link ConstrainedIntegerOptimizer.Problem}
+     *
+     * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+     * @since 1.0
+     */
+    public static class Improvement<Input, Output> {
+        // nanoseconds since the start of the optimization
+        public final long elapsedNanos;
+        // number of evaluations made when the improvement was found
+        public final long evaluationCount;
+        public final Input input;
+        public final Output output;
+
+        public Improvement(long elapsedNanos, long evaluationCount, Input input, Output output) {
+            this.elapsedNanos = elapsedNanos;
+            this.evaluationCount = evaluationCount;
+            this.input = input;
+            this.output = output;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(Improvement.class)
+                    .add("elapsedNanos", elapsedNanos)
+                    .add("evaluationCount", evaluationCount)
+                    .add("input", input)
+                    .add("output", output)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.chedbrandh.gibberish.optimization;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Optimizer searching for a global min by running the
+ * {@link ConstrainedIntegerOptimizer} from many starting Inputs.
+ *
+ * The {@link ConstrainedIntegerOptimizer} only finds a local min. For
+ * problems with more than one local min, the search is restarted from random
+ * legal starting Inputs, and the best local min found is returned. The first
+ * run always starts from the legal starting Input of the problem, so the
+ * result is never worse than that of a single {@link ConstrainedIntegerOptimizer}.
+ *
+ * The random starting Input of every restart is generated by its own random
+ * number generator seeded from the seed of the optimizer and the restart
+ * number. Restarts run in parallel, and the best local min is chosen by
+ * comparing Outputs, with Inputs as tiebreaker. The result is therefore the
+ * same for the same seed regardless of the parallelism, unless a time budget
+ * cuts the search short. Restarts are not begun once the time budget has
+ * passed.
+ *
+ * An evaluation budget limits the number of times the problem function is
+ * evaluated by the restarts. Whatever the run from the legal starting Input
+ * leaves of the budget is split evenly between the restarts, and a restart
+ * using up its share is cut short at the best Input it had stepped to. Since
+ * the share of a restart does not depend on other restarts, the result does
+ * not depend on the parallelism.
+ *
+ * Progress can be followed by providing an {@link OptimizerListener}. It is
+ * started once before the first run and finished once with the best min
+ * found, and is given the evaluations, steps and passes of every run. Events
+ * of parallel runs are delivered one at a time.
+ *
+ * @param <Input> {@link ConstrainedIntegerOptimizer.Problem}
+ * @param <Output> {@link ConstrainedIntegerOptimizer.Problem}
+ * @param <Direction> {@link ConstrainedIntegerOptimizer.Problem}
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class RandomRestartOptimizer
+        <Input extends Comparable<Input>, Output extends Comparable<Output>, Direction> {
+
+    private final static Logger LOGGER =
+            LoggerFactory.getLogger(RandomRestartOptimizer.class);
+
+    // multiplier spreading restart numbers over the seed space (golden ratio)
+    private static final long SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final Problem<Input, Output, Direction> problem;
+    private final int numRestarts;
+    private final long seed;
+    private final int parallelism;
+    private final long timeBudgetMillis;
+    private final long timeBudgetNanos;
+    private final long evaluationBudget;
+    private final OptimizerListener<? super Input, ? super Output, ? super Direction> listener;
+
+    // held while notifying the listener, so that events arrive one at a time
+    private final Object listenerLock = new Object();
+
+    // listener ignoring all events, used when no listener is provided
+    private static final OptimizerListener<Object, Object, Object> NO_OP_LISTENER =
+            new OptimizerListener<Object, Object, Object>() { };
+
+    /**
+     * Creates an optimizer using all available processors and no budget, no
+     * optimization is performed.
+     *
+     * @param problem       The problem to optimize.
+     * @param numRestarts   Number of restarts from random starting Inputs, in
+     *                      addition to the run from the legal starting Input.
+     * @param seed          Seed for generating random starting Inputs.
+     */
+    public RandomRestartOptimizer(Problem<Input, Output, Direction> problem,
+                                  int numRestarts,
+                                  long seed) {
+        this(problem, numRestarts, seed, Runtime.getRuntime().availableProcessors(), 0);
+    }
+
+    /**
+     * Creates an optimizer, no optimization is performed.
+     *
+     * @param problem           The problem to optimize.
+     * @param numRestarts       Number of restarts from random starting Inputs, in
+     *                          addition to the run from the legal starting Input.
+     * @param seed              Seed for generating random starting Inputs.
+     * @param parallelism       Number of restarts to run in parallel.
+     * @param timeBudgetMillis  Restarts are not begun after this many
+     *                          milliseconds. Zero means no time budget.
+     */
+    public RandomRestartOptimizer(Problem<Input, Output, Direction> problem,
+                                  int numRestarts,
+                                  long seed,
+                                  int parallelism,
+                                  long timeBudgetMillis) {
+        this(problem, numRestarts, seed, parallelism, timeBudgetMillis, 0, NO_OP_LISTENER);
+    }
+
+    /**
+     * Creates an optimizer reporting progress to a listener, no optimization
+     * is performed.
+     *
+     * @param problem           The problem to optimize.
+     * @param numRestarts       Number of restarts from random starting Inputs, in
+     *                          addition to the run from the legal starting Input.
+     * @param seed              Seed for generating random starting Inputs.
+     * @param parallelism       Number of restarts to run in parallel.
+     * @param timeBudgetMillis  Restarts are not begun after this many
+     *                          milliseconds. Zero means no time budget.
+     * @param evaluationBudget  Evaluations shared by the restarts, in addition
+     *                          to those of the run from the legal starting
+     *                          Input. Zero means no evaluation budget.
+     * @param listener          Listener notified of optimization events, or
+     *                          null for no listener.
+     */
+    public RandomRestartOptimizer(
+            Problem<Input, Output, Direction> problem,
+            int numRestarts,
+            long seed,
+            int parallelism,
+            long timeBudgetMillis,
+            long evaluationBudget,
+            OptimizerListener<? super Input, ? super Output, ? super Direction> listener) {
+        Preconditions.checkArgument(numRestarts >= 0, "Number of restarts must be non-negative.");
+        Preconditions.checkArgument(parallelism > 0, "Parallelism must be positive.");
+        Preconditions.checkArgument(timeBudgetMillis >= 0, "Time budget must be non-negative.");
+        Preconditions.checkArgument(evaluationBudget >= 0,
+                "Evaluation budget must be non-negative.");
+        this.problem = problem;
+        this.numRestarts = numRestarts;
+        this.seed = seed;
+        this.parallelism = parallelism;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        this.evaluationBudget = evaluationBudget;
+        this.listener = listener != null ? listener : NO_OP_LISTENER;
+    }
+
+    /**
+     * Perform optimization and return the Input value for the best min found.
+     * @return The Input value for the min.
+     */
+    public Input findMin() {
+        long startNanos = System.nanoTime();
+        Input startingInput = problem.getLegalStartingInput();
+        listener.onStart(startingInput);
+
+        // the run from the legal starting input is never skipped or cut short
+        Result<Input, Output> best = null;
+        try {
+            RunListener runListener = new RunListener(Long.MAX_VALUE);
+            best = run(startingInput, runListener);
+            LOGGER.debug("Found min {} from legal starting input.", best);
+            if (numRestarts > 0) {
+                best = restarts(best, startNanos, runListener.evaluationCount);
+            }
+        } finally {
+            listener.onFinish(best != null ? best.input : startingInput,
+                    best != null ? best.output : null);
+        }
+
+        LOGGER.debug("Finished optimization with {} restart(s) at {}.", numRestarts, best);
+        return best.input;
+    }
+
+    /**
+     * Run all restarts in parallel and return the best of their mins and
+     * some other min.
+     */
+    private Result<Input, Output> restarts(Result<Input, Output> best, long startNanos,
+                                           long usedEvaluations) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Optional<Result<Input, Output>> restartBest = pool.submit(() ->
+                    IntStream.rangeClosed(1, numRestarts).parallel()
+                            .mapToObj(restart -> restart(restart, startNanos, usedEvaluations))
+                            .filter(Objects::nonNull)
+                            .min(Comparator.naturalOrder())).get();
+            if (restartBest.isPresent() && restartBest.get().compareTo(best) < 0) {
+                return restartBest.get();
+            }
+            return best;
+        } catch (InterruptedException | ExecutionException e) {
+            throw Throwables.propagate(e.getCause() != null ? e.getCause() : e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Run the local optimizer from a random starting Input, unless the time
+     * budget has passed or no evaluations are left for the restart, in which
+     * case null is returned. A restart using up its share of the evaluation
+     * budget is cut short, returning the best Input it had stepped to.
+     */
+    private Result<Input, Output> restart(int restart, long startNanos, long usedEvaluations) {
+        if (timeBudgetMillis > 0 && System.nanoTime() - startNanos >= timeBudgetNanos) {
+            return null;
+        }
+        long evaluationLimit = evaluationLimit(restart, usedEvaluations);
+        if (evaluationLimit == 0) {
+            return null;
+        }
+        Random random = new Random(seed + restart * SEED_MULTIPLIER);
+        RunListener runListener = new RunListener(evaluationLimit);
+        Result<Input, Output> result;
+        try {
+            result = run(problem.getRandomLegalInput(random), runListener);
+        } catch (EvaluationBudgetExhausted e) {
+            result = new Result<>(runListener.currentInput, runListener.currentOutput);
+        }
+        LOGGER.debug("Found min {} in restart {}.", result, restart);
+        return result;
+    }
+
+    /**
+     * Share of the evaluation budget left by the run from the legal starting
+     * Input given to some restart. The budget left is split evenly between
+     * the restarts, with the remainder going to the first restarts.
+     */
+    private long evaluationLimit(int restart, long usedEvaluations) {
+        if (evaluationBudget == 0) {
+            return Long.MAX_VALUE;
+        }
+        long left = Math.max(0, evaluationBudget - usedEvaluations);
+        return left / numRestarts + (restart <= left % numRestarts ? 1 : 0);
+    }
+
+    private Result<Input, Output> run(Input startingInput, RunListener runListener) {
+        Input input = new ConstrainedIntegerOptimizer<>(problem, runListener)
+                .findMin(startingInput);
+        return new Result<>(input, problem.function(input));
+    }
+
+    /**
+     * Listener of a single run, counting and limiting its evaluations and
+     * passing on events to the listener of the optimizer, if one was
+     * provided. Runs are not started or finished on the listener of the
+     * optimizer, which is only started and finished once.
+     */
+    private class RunListener implements OptimizerListener<Input, Output, Direction> {
+
+        private final long evaluationLimit;
+        private long evaluationCount;
+        private Input currentInput;
+        private Output currentOutput;
+
+        private RunListener(long evaluationLimit) {
+            this.evaluationLimit = evaluationLimit;
+        }
+
+        @Override
+        public void onEvaluation(Input input, Output output) {
+            if (evaluationCount++ == 0) {
+                currentInput = input;
+                currentOutput = output;
+            }
+            if (listener != NO_OP_LISTENER) {
+                synchronized (listenerLock) {
+                    listener.onEvaluation(input, output);
+                }
+            }
+            if (evaluationCount == evaluationLimit) {
+                throw new EvaluationBudgetExhausted();
+            }
+        }
+
+        @Override
+        public void onAcceptedStep(Direction direction, Input input, Output output) {
+            currentInput = input;
+            currentOutput = output;
+            if (listener != NO_OP_LISTENER) {
+                synchronized (listenerLock) {
+                    listener.onAcceptedStep(direction, input, output);
+                }
+            }
+        }
+
+        @Override
+        public void onRejectedStep(Direction direction, Input input, Output output) {
+            if (listener != NO_OP_LISTENER) {
+                synchronized (listenerLock) {
+                    listener.onRejectedStep(direction, input, output);
+                }
+            }
+        }
+
+        @Override
+        public void onPassComplete(long pass, boolean didDescend, Input input, Output output) {
+            if (listener != NO_OP_LISTENER) {
+                synchronized (listenerLock) {
+                    listener.onPassComplete(pass, didDescend, input, output);
+                }
+            }
+        }
+    }
+
+    /**
+     * Thrown by a {@link RunListener} to cut a run short once its share of
+     * the evaluation budget is used up.
+     */
+    private static class EvaluationBudgetExhausted extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private EvaluationBudgetExhausted() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * A local min, ordered by Output with Input as tiebreaker.
+     */
+    private static class Result<Input extends Comparable<Input>, Output extends Comparable<Output>>
+            implements Comparable<Result<Input, Output>> {
+        private final Input input;
+        private final Output output;
+
+        private Result(Input input, Output output) {
+            this.input = input;
+            this.output = output;
+        }
+
+        @Override
+        public int compareTo(Result<Input, Output> other) {
+            int outputDiff = output.compareTo(other.output);
+            return outputDiff != 0 ? outputDiff : input.compareTo(other.input);
+        }
+
+        @Override
+        public String toString() {
+            return input + " with output " + output;
+        }
+    }
+
+    /**
+     * Class for defining a constrained integer problem that can provide
+     * random legal starting Inputs.
+     *
+     * @param <Input>       {@link ConstrainedIntegerOptimizer.Problem}
+     * @param <Output>      {@link ConstrainedIntegerOptimizer.Problem}
+     * @param <Direction>   {@link ConstrainedIntegerOptimizer.Problem}
+     *
+     * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+     * @since 1.0
+     */
+    public interface Problem <Input extends Comparable<Input>,
+            Output extends Comparable<Output>, Direction>
+            extends ConstrainedIntegerOptimizer.Problem<Input, Output, Direction> {
+
+        /**
+         * Returns some random legal Input. In order to guarantee determinism
+         * of the optimization algorithm, the Input must only depend on the
+         * numbers drawn from the given random number generator.
+         *
+         * @param random    Random number generator to draw from.
+         * @return          A random legal starting point.
+         */
+        Input getRandomLegalInput(Random random);
+    }
+}
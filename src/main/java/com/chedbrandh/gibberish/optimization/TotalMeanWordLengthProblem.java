@@ -5,20 +5,18 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import com.google.common.math.DoubleMath;
-import com.google.common.math.LongMath;
 import com.google.common.primitives.Ints;
 import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Direction;
 import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Input;
 import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Output;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 
 /**
  * There are a certain number of word providers. Each word provider must have
@@ -41,13 +39,14 @@ import java.util.NoSuchElementException;
  * provider).
  *
  * In order to assure a global minimum, the meanWordLength() for each provider
- * must have a 0 &le; gradient.
+ * must have a 0 &le; gradient. When this does not hold, random legal starting
+ * points are available for searching with a {@link RandomRestartOptimizer}.
  *
  * @author Christofer Hedbrandh (chedbrandh@gmail.com)
  * @since 1.0
  */
 public class TotalMeanWordLengthProblem
-        implements ConstrainedIntegerOptimizer.Problem<Input, Output, Direction> {
+        implements RandomRestartOptimizer.Problem<Input, Output, Direction> {
 
     // max number of iterations to run the optimizer before giving up
     public static final int MAX_PASSES = 1000;
@@ -58,26 +57,15 @@ public class TotalMeanWordLengthProblem
     // let optimizer start direction always be moving a bit from index 1 to 2
     private static final Direction START_DIRECTION = new Direction(0, 1);
 
-    /*
-    Comparator for lists of integers. Stating at index 0, the difference
-    between the first non-equal pair of integers is returned, or zero if
-    lists are equal.
-     */
-    private static final Comparator<List<Integer>> INTEGER_LIST_COMPARATOR =
-            (list1, list2) -> {
-                Preconditions.checkArgument(list1.size() == list2.size());
-                for (int i = 0; i < list1.size(); i++) {
-                    int compare = list1.get(i) - list2.get(i);
-                    if (compare != 0) {
-                        return compare;
-                    }
-                }
-                return 0;
-            };
-
     private final ImmutableList<WordProvider> wordProviders;
     private final int totalNumBits;
 
+    // bit coverage of each word provider
+    private final int[] bitCoverages;
+
+    // meanWordLengths[i][n] is the mean length of the 2^n first words of provider i
+    private final double[][] meanWordLengths;
+
     /**
      * Constructor for the optimization problem.
      *
@@ -96,6 +84,18 @@ public class TotalMeanWordLengthProblem
                 "total bits must be at least equal to the number of word providers.");
         this.wordProviders = wordProvidersList;
         this.totalNumBits = totalNumBits;
+
+        // precompute bit coverage and mean word length for every number of bits
+        bitCoverages = new int[wordProvidersList.size()];
+        meanWordLengths = new double[wordProvidersList.size()][];
+        for (int i = 0; i < wordProvidersList.size(); i++) {
+            WordProvider wordProvider = wordProvidersList.get(i);
+            bitCoverages[i] = wordProvider.bitCoverage();
+            meanWordLengths[i] = new double[bitCoverages[i] + 1];
+            for (int numBits = 0; numBits <= bitCoverages[i]; numBits++) {
+                meanWordLengths[i][numBits] = wordProvider.meanWordLength(1 << numBits);
+            }
+        }
     }
 
     /**
@@ -113,8 +113,10 @@ public class TotalMeanWordLengthProblem
     public Output function(Input input) {
         double sum = 0;
         for (int i = 0; i < numWordProviders(); i++) {
-            int numWords = Ints.checkedCast(LongMath.pow(2, input.bitDistribution.get(i)));
-            sum += wordProviders.get(i).meanWordLength(numWords);
+            int numBits = input.numBits[i];
+            Preconditions.checkArgument(0 <= numBits && numBits <= bitCoverages[i],
+                    "Must query mean word length for at most all words.");
+            sum += meanWordLengths[i][numBits];
         }
         return new Output(sum);
     }
@@ -129,15 +131,14 @@ public class TotalMeanWordLengthProblem
      */
     @Override
     public Input getLegalStartingInput() {
-        // initialize bit distribution list with ones
-        List<Integer> bitDistribution =
-                Lists.newArrayList(Collections.nCopies(numWordProviders(), 1));
+        // initialize bit distribution with ones
+        int[] bitDistribution = new int[numWordProviders()];
+        Arrays.fill(bitDistribution, 1);
         int remainingBits = totalNumBits - numWordProviders();
         for (int i = 0; remainingBits > 0 && i < numWordProviders(); i ++) {
-            WordProvider wordProvider = wordProviders.get(i);
             // assign to provider as many additional remaining bits as allowed
-            int providerNumBits = Math.min(remainingBits + 1, wordProvider.bitCoverage());
-            bitDistribution.set(i, providerNumBits);
+            int providerNumBits = Math.min(remainingBits + 1, bitCoverages[i]);
+            bitDistribution[i] = providerNumBits;
             remainingBits = remainingBits - providerNumBits + 1;
         }
         if (remainingBits > 0) {
@@ -147,16 +148,49 @@ public class TotalMeanWordLengthProblem
         return new Input(bitDistribution);
     }
 
+    /**
+     * Finds some random legal starting point.
+     *
+     * First assigns the minimum one bit to each word provider. Then assigns
+     * the remaining bits one at a time, each to a random word provider that
+     * has not yet reached its "bit coverage".
+     */
+    @Override
+    public Input getRandomLegalInput(Random random) {
+        // fail the same way as when finding the deterministic starting point
+        getLegalStartingInput();
+
+        int[] bitDistribution = new int[numWordProviders()];
+        Arrays.fill(bitDistribution, 1);
+        int[] openProviders = new int[numWordProviders()];
+        int numOpenProviders = 0;
+        for (int i = 0; i < numWordProviders(); i++) {
+            if (bitCoverages[i] > 1) {
+                openProviders[numOpenProviders++] = i;
+            }
+        }
+        for (int remainingBits = totalNumBits - numWordProviders(); remainingBits > 0;
+             remainingBits--) {
+            int openIndex = random.nextInt(numOpenProviders);
+            int providerIndex = openProviders[openIndex];
+            // close provider once its bit coverage is reached
+            if (++bitDistribution[providerIndex] == bitCoverages[providerIndex]) {
+                openProviders[openIndex] = openProviders[--numOpenProviders];
+            }
+        }
+        return new Input(bitDistribution);
+    }
+
     /**
      * Adjust bit distribution by removing a bit from one provider and adding
      * to another.
      */
     @Override
     public Input moveOneStep(Input input, Direction direction) {
-        ArrayList<Integer> newBitDistribution = Lists.newArrayList(input.bitDistribution);
-        newBitDistribution.set(direction.index1, newBitDistribution.get(direction.index1) - 1);
-        newBitDistribution.set(direction.index2, newBitDistribution.get(direction.index2) + 1);
-        return new Input(newBitDistribution);
+        int[] newNumBits = input.numBits.clone();
+        newNumBits[direction.index1]--;
+        newNumBits[direction.index2]++;
+        return new Input(newNumBits);
     }
 
     /**
@@ -167,15 +201,25 @@ public class TotalMeanWordLengthProblem
      */
     @Override
     public boolean isIllegalInput(Input input) {
-        boolean isLegal = true;
+        if (input.numBits.length != numWordProviders()) {
+            return true;
+        }
         int sumNumBits = 0;
-        for (int i = 0; isLegal && i < numWordProviders(); i++) {
-            int numBits = input.bitDistribution.get(i);
+        for (int i = 0; i < numWordProviders(); i++) {
+            int numBits = input.numBits[i];
+            if (!isLegalNumBits(i, numBits)) {
+                return true;
+            }
             sumNumBits += numBits;
-            int bitCoverage = wordProviders.get(i).bitCoverage();
-            isLegal = 1 <= numBits && numBits <= bitCoverage;
         }
-        return !isLegal || sumNumBits != totalNumBits;
+        return sumNumBits != totalNumBits;
+    }
+
+    /**
+     * A word provider must have at least one bit, and at most its bit coverage.
+     */
+    private boolean isLegalNumBits(int providerIndex, int numBits) {
+        return 1 <= numBits && numBits <= bitCoverages[providerIndex];
     }
 
     /**
@@ -233,29 +277,92 @@ public class TotalMeanWordLengthProblem
     }
 
     /**
-     * A holder of a list of integers representing the number of bits assigned
-     * to each word provider.
+     * A holder of an array of integers representing the number of bits
+     * assigned to each word provider.
+     *
+     * The array is never modified once the Input has been created. Moving an
+     * Input creates a new Input.
      *
      * @author Christofer Hedbrandh (chedbrandh@gmail.com)
      * @since 1.0
      */
     public static class Input implements Comparable<Input> {
+        private final int[] numBits;
+
+        /**
+         * Unmodifiable view of the number of bits of each word provider.
+         *
+         * @deprecated Use {@link #bitDistribution()} or {@link #numBits(int)}.
+         */
+        @Deprecated
         public final List<Integer> bitDistribution;
 
+        public Input(int... bitDistribution) {
+            this.numBits = bitDistribution.clone();
+            this.bitDistribution = Collections.unmodifiableList(Ints.asList(numBits));
+        }
+
         public Input(List<Integer> bitDistribution) {
-            this.bitDistribution  = bitDistribution;
+            this(Ints.toArray(bitDistribution));
         }
 
+        /**
+         * Get the bit distribution.
+         *
+         * @return  Unmodifiable list with the number of bits of each word provider.
+         */
+        @SuppressWarnings("deprecation")
+        public List<Integer> bitDistribution() {
+            return bitDistribution;
+        }
+
+        /**
+         * Get the number of bits assigned to a word provider.
+         *
+         * @param providerIndex Index of the word provider.
+         * @return              The number of bits assigned.
+         */
+        public int numBits(int providerIndex) {
+            return numBits[providerIndex];
+        }
+
+        /**
+         * Compares bit distributions starting at index 0. The difference between
+         * the first non-equal pair of integers is returned, or zero if the bit
+         * distributions are equal.
+         */
         @Override
         public int compareTo(Input other) {
-            Preconditions.checkArgument(bitDistribution.size() == other.bitDistribution.size());
-            return INTEGER_LIST_COMPARATOR.compare(bitDistribution, other.bitDistribution);
+            Preconditions.checkArgument(numBits.length == other.numBits.length);
+            for (int i = 0; i < numBits.length; i++) {
+                int compare = numBits[i] - other.numBits[i];
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Arrays.equals(numBits, ((Input) o).numBits);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(numBits);
         }
 
         @Override
         public String toString() {
             return MoreObjects.toStringHelper(Input.class)
-                    .add("bitDistribution", bitDistribution)
+                    .add("bitDistribution", Arrays.toString(numBits))
                     .toString();
         }
     }
@@ -0,0 +1,102 @@
+package com.chedbrandh.gibberish.tools;
+
+import com.chedbrandh.gibberish.PhraseScanner;
+import com.chedbrandh.gibberish.PhraseTranslator;
+import com.chedbrandh.gibberish.dataloading.SchemaReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line tool printing the phrases of a translator found in files, or
+ * in standard input if no files are given.
+ *
+ * Usage: {@code PhraseScannerMain <schema file> <translator name> [file ...]}
+ *
+ * Every phrase found is printed on a line with its byte offset and the long
+ * it translates to, separated by tabs. When more than one file is scanned
+ * lines begin with the name of the file.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+public class PhraseScannerMain {
+
+    private static final String USAGE =
+            "Usage: PhraseScannerMain <schema file> <translator name> [file ...]";
+
+    public static void main(String[] args) throws Exception {
+        int status = run(args, System.in, System.out, System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Run the tool.
+     *
+     * @param args      Command line arguments.
+     * @param in        Input scanned if no files are given.
+     * @param out       Output phrases are printed to.
+     * @param err       Output errors are printed to.
+     * @return          Exit status.
+     * @throws Exception   If the schema, or text, can't be read.
+     */
+    static int run(String[] args, InputStream in, PrintStream out, PrintStream err)
+            throws Exception {
+        if (args.length < 2) {
+            err.println(USAGE);
+            return 2;
+        }
+        SchemaReader schemaReader;
+        try (InputStream schemaInputStream = Files.newInputStream(Paths.get(args[0]))) {
+            schemaReader = new SchemaReader(schemaInputStream);
+        }
+        PhraseTranslator translator = schemaReader.getTranslators().get(args[1]);
+        if (translator == null) {
+            err.println("Unknown translator '" + args[1] + "'.");
+            return 2;
+        }
+        PhraseScanner scanner = new PhraseScanner(translator);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        List<String> files = Arrays.asList(args).subList(2, args.length);
+        try {
+            if (files.isEmpty()) {
+                scanner.scan(Channels.newChannel(in), occurrence -> print(writer, "", occurrence));
+            }
+            for (String file : files) {
+                Path path = Paths.get(file);
+                String prefix = files.size() > 1 ? file + "\t" : "";
+                scanner.scan(path, occurrence -> print(writer, prefix, occurrence));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return 0;
+    }
+
+    /**
+     * Print an occurrence on a line.
+     */
+    private static void print(Writer writer, String prefix, PhraseScanner.Occurrence occurrence) {
+        try {
+            writer.write(prefix + occurrence.getOffset() + "\t" + occurrence.getValue() + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
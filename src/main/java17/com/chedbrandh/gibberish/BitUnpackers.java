@@ -0,0 +1,43 @@
+package com.chedbrandh.gibberish;
+
+/**
+ * Creates the {@link BitUnpacker} of an {@link IndexTranslator}.
+ *
+ * If the jdk.incubator.vector module is available, given to the JVM by
+ * {@code --add-modules jdk.incubator.vector}, unpackers using the Vector API
+ * are created. Otherwise the scalar unpacker is.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+final class BitUnpackers {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_UNPACKER = "com.chedbrandh.gibberish.VectorBitUnpacker";
+
+    private static final boolean VECTOR_AVAILABLE =
+            ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+
+    private BitUnpackers() {
+    }
+
+    /**
+     * Create an unpacker of the bits of an index translator.
+     *
+     * @param indexTranslator   Index translator of the positions to unpack.
+     * @return                  The unpacker.
+     */
+    static BitUnpacker create(IndexTranslator indexTranslator) {
+        if (VECTOR_AVAILABLE) {
+            try {
+                // loaded by name, so that the class is never linked without the module
+                return (BitUnpacker) Class.forName(VECTOR_UNPACKER)
+                        .getDeclaredConstructor(IndexTranslator.class)
+                        .newInstance(indexTranslator);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // fall back to the scalar unpacker
+            }
+        }
+        return new BitUnpacker(indexTranslator);
+    }
+}
@@ -0,0 +1,68 @@
+package com.chedbrandh.gibberish;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Unpacks batches of values using the Vector API, shifting and masking as
+ * many values at a time as the preferred vectors of the CPU hold. Values
+ * that don't fill a vector are unpacked one at a time.
+ *
+ * @author Christofer Hedbrandh (chedbrandh@gmail.com)
+ * @since 1.0
+ */
+class VectorBitUnpacker extends BitUnpacker {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // ints of half the size of the longs, so that they have the same number of lanes
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(
+            int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+    VectorBitUnpacker(IndexTranslator indexTranslator) {
+        super(indexTranslator);
+    }
+
+    @Override
+    int unpack(long[] values, int from, int count, int[][] indices) {
+        int invalid = findInvalid(values, from, count);
+        if (invalid != -1) {
+            return invalid;
+        }
+        int vectorCount = LONGS.loopBound(count);
+        for (int i = 0; i < indices.length; i++) {
+            int shift = shifts[i];
+            long mask = masks[i];
+            int[] column = indices[i];
+            int r = 0;
+            for (; r < vectorCount; r += LONGS.length()) {
+                LongVector.fromArray(LONGS, values, from + r)
+                        .lanewise(VectorOperators.LSHR, shift)
+                        .and(mask)
+                        .convertShape(VectorOperators.L2I, INTS, 0)
+                        .reinterpretAsInts()
+                        .intoArray(column, r);
+            }
+            for (; r < count; r++) {
+                column[r] = (int) (values[from + r] >>> shift & mask);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    int findInvalid(long[] values, int from, int count) {
+        int vectorCount = LONGS.loopBound(count);
+        for (int r = 0; r < vectorCount; r += LONGS.length()) {
+            if (LongVector.fromArray(LONGS, values, from + r)
+                    .lanewise(VectorOperators.LSHR, getNumBits())
+                    .compare(VectorOperators.NE, 0)
+                    .anyTrue()) {
+                return super.findInvalid(values, from + r, LONGS.length());
+            }
+        }
+        return super.findInvalid(values, from + vectorCount, count - vectorCount);
+    }
+}
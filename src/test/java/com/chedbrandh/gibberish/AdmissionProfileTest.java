@@ -0,0 +1,68 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdmissionProfileTest {
+
+    private static final WordProvider PROVIDER_1 =
+            new WordProvider(ImmutableList.of("a", "bb", "ccc"), "");
+    private static final WordProvider PROVIDER_2 =
+            new WordProvider(ImmutableList.of("é", "x"), "");
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("<", " ", ">"));
+
+    private AdmissionProfile undertest;
+
+    @Before
+    public void before() throws Exception {
+        undertest = new AdmissionProfile(SEPARATORS, ImmutableList.of(PROVIDER_1, PROVIDER_2));
+    }
+
+    @Test
+    public void testLengths() throws Exception {
+        assertEquals(5, undertest.getMinChars());
+        assertEquals(7, undertest.getMaxChars());
+        assertEquals(5, undertest.getMinBytes());
+        assertEquals(8, undertest.getMaxBytes());
+        assertFalse(undertest.admitsLength(4));
+        assertTrue(undertest.admitsLength(5));
+        assertTrue(undertest.admitsLength(7));
+        assertFalse(undertest.admitsLength(8));
+        assertFalse(undertest.admitsUtf8Length(4));
+        assertTrue(undertest.admitsUtf8Length(8));
+        assertFalse(undertest.admitsUtf8Length(9));
+    }
+
+    @Test
+    public void testAdmits() throws Exception {
+        assertTrue(undertest.admits("<ccc é>", 0, 7));
+        assertTrue(undertest.admits("((<a x>))", 2, 7));
+        // any order of admitted chars is admitted
+        assertTrue(undertest.admits(">xa< ", 0, 5));
+        assertFalse(undertest.admits("<a z>", 0, 5));
+        assertFalse(undertest.admits("<ccc é>!", 0, 8));
+        assertFalse(undertest.admits("<a>", 0, 3));
+    }
+
+    @Test
+    public void testAdmitsUtf8() throws Exception {
+        assertTrue(undertest.admitsUtf8(utf8("<ccc é>"), 0, 8));
+        assertTrue(undertest.admitsUtf8(utf8("((<a x>))"), 2, 7));
+        assertFalse(undertest.admitsUtf8(utf8("<a z>"), 0, 5));
+        assertFalse(undertest.admitsUtf8(utf8("<a è>"), 0, 6));
+        assertFalse(undertest.admitsUtf8(utf8("<a é>>>>"), 0, 9));
+    }
+
+    private static ByteBuffer utf8(String string) {
+        return ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8));
+    }
+}
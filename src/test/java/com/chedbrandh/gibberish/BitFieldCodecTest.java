@@ -0,0 +1,140 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BitFieldCodecTest {
+
+    private static final WordProvider PROVIDER = new WordProvider(
+            IntStream.range(0, 1 << 10).mapToObj(i -> "w" + i).collect(Collectors.toList()), "");
+
+    // shard, type and id, split over four words of 10 bits
+    private static final BitFieldLayout LAYOUT = new BitFieldLayout(ImmutableList.of(
+            new BitFieldLayout.Field("shard", 6),
+            new BitFieldLayout.Field("type", 4, 1, 10),
+            new BitFieldLayout.Field("id", 30)));
+
+    // 70 bits, more than a long holds
+    private static final BitFieldLayout WIDE_LAYOUT = new BitFieldLayout(ImmutableList.of(
+            new BitFieldLayout.Field("a", 7),
+            new BitFieldLayout.Field("b", 63, -100, Long.MAX_VALUE - 100)));
+
+    private PhraseTranslator translator;
+    private BitFieldCodec undertest;
+
+    @Before
+    public void before() throws Exception {
+        translator = translator(4);
+        undertest = new BitFieldCodec(translator, LAYOUT);
+    }
+
+    @Test
+    public void testEncodeMatchesLong() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            long shard = random.nextInt(64);
+            long type = 1 + random.nextInt(10);
+            long id = random.nextInt(1 << 30);
+            long l = shard | (type - 1) << 6 | id << 10;
+            String phrase = undertest.encode(new long[] {shard, type, id});
+            assertEquals(translator.fromLong(l), phrase);
+            assertArrayEquals(new long[] {shard, type, id}, undertest.decode(phrase));
+        }
+    }
+
+    @Test
+    public void testDecodeField() throws Exception {
+        String phrase = undertest.encode(new long[] {33, 7, 987654321});
+        assertEquals(33, undertest.decodeField(phrase, "shard"));
+        assertEquals(7, undertest.decodeField(phrase, "type"));
+        assertEquals(987654321, undertest.decodeField(phrase, "id"));
+        // the shard and type are held by the first word only
+        String illegal = phrase.replaceAll("-.*", "-foo-foo-foo");
+        assertEquals(7, undertest.decodeField(illegal, "type"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeUnknownField() throws Exception {
+        undertest.decodeField(undertest.encode(new long[] {1, 1, 1}), "foo");
+    }
+
+    @Test
+    public void testWideLayout() throws Exception {
+        BitFieldCodec codec = new BitFieldCodec(translator(7), WIDE_LAYOUT);
+        for (long b : ImmutableList.of(-100L, 0L, 12345678901234L, Long.MAX_VALUE - 100)) {
+            long[] values = new long[] {127, b};
+            assertArrayEquals(values, codec.decode(codec.encode(values)));
+        }
+    }
+
+    @Test
+    public void testObject() throws Exception {
+        Key key = new Key();
+        key.shard = 5;
+        key.type = 10;
+        key.id = 123456789;
+        String phrase = undertest.encodeObject(key);
+        assertEquals(undertest.encode(new long[] {5, 10, 123456789}), phrase);
+        Key decoded = undertest.decodeObject(phrase, new Key());
+        assertEquals(5, decoded.shard);
+        assertEquals(10, decoded.type);
+        assertEquals(123456789, decoded.id);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testObjectMissingField() throws Exception {
+        undertest.encodeObject(new Object());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOutOfRange() throws Exception {
+        undertest.encode(new long[] {0, 0, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodedValueOutOfRange() throws Exception {
+        // a type of 11 is held by bits of 10
+        undertest.decode(translator.fromLong(10 << 6));
+    }
+
+    @Test(expected = IllegalWordException.class)
+    public void testDecodeIllegalWord() throws Exception {
+        undertest.decode("w1-w2-w3-foo");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLayoutBitsMismatch() throws Exception {
+        new BitFieldCodec(translator(3), LAYOUT);
+    }
+
+    private static PhraseTranslator translator(int numWords) throws Exception {
+        ImmutableList.Builder<String> separators = ImmutableList.builder();
+        separators.add("");
+        for (int i = 1; i < numWords; i++) {
+            separators.add("-");
+        }
+        separators.add("");
+        SeparatorsPhraseConstructor phraseConstructor =
+                new SeparatorsPhraseConstructor(separators.build());
+        return new PhraseTranslator(
+                new WordProviderSequence(Collections.nCopies(numWords, PROVIDER)),
+                new IndexTranslator(Collections.nCopies(numWords, 10)),
+                phraseConstructor, phraseConstructor);
+    }
+
+    private static class Key {
+        private int shard;
+        private long type;
+        private long id;
+    }
+}
@@ -0,0 +1,58 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitFieldLayoutTest {
+
+    private static final BitFieldLayout LAYOUT = new BitFieldLayout(ImmutableList.of(
+            new BitFieldLayout.Field("shard", 6),
+            new BitFieldLayout.Field("year", 6, 2000, 2063),
+            new BitFieldLayout.Field("id", 30)));
+
+    @Test
+    public void testLayout() throws Exception {
+        assertEquals(42, LAYOUT.getNumBits());
+        assertEquals(1, LAYOUT.indexOf("year"));
+        assertEquals(-1, LAYOUT.indexOf("foo"));
+        assertEquals(63, LAYOUT.getFields().get(0).getMax());
+    }
+
+    @Test
+    public void testToBitsAndFromBits() throws Exception {
+        BitFieldLayout.Field year = LAYOUT.getFields().get(1);
+        assertEquals(0, year.toBits(2000));
+        assertEquals(63, year.toBits(2063));
+        assertEquals(2017, year.fromBits(17));
+    }
+
+    @Test
+    public void testValueOutOfRange() throws Exception {
+        BitFieldLayout.Field year = LAYOUT.getFields().get(1);
+        try {
+            year.toBits(1999);
+            throw new RuntimeException("Did not throw expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Value 1999 of field 'year' is not within [2000, 2063].",
+                    e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBitsOutOfRange() throws Exception {
+        new BitFieldLayout.Field("type", 4, 1, 10).fromBits(10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRangeTooWide() throws Exception {
+        new BitFieldLayout.Field("year", 6, 2000, 2064);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateNames() throws Exception {
+        new BitFieldLayout(ImmutableList.of(
+                new BitFieldLayout.Field("id", 6), new BitFieldLayout.Field("id", 6)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BitUnpackerTest {
+
+    private static final ImmutableList<Integer> BIT_DISTRIBUTION = ImmutableList.of(3, 0, 7, 12);
+
+    @Test
+    public void testUnpack() throws Exception {
+        IndexTranslator indexTranslator = new IndexTranslator(BIT_DISTRIBUTION);
+        assertUnpacksLikeFromLong(indexTranslator, new BitUnpacker(indexTranslator));
+        indexTranslator = new IndexTranslator(BIT_DISTRIBUTION, true);
+        assertUnpacksLikeFromLong(indexTranslator, new BitUnpacker(indexTranslator));
+    }
+
+    @Test
+    public void testCreatedUnpacker() throws Exception {
+        IndexTranslator indexTranslator = new IndexTranslator(BIT_DISTRIBUTION);
+        assertUnpacksLikeFromLong(indexTranslator, BitUnpackers.create(indexTranslator));
+        indexTranslator = new IndexTranslator(BIT_DISTRIBUTION, true);
+        assertUnpacksLikeFromLong(indexTranslator, BitUnpackers.create(indexTranslator));
+    }
+
+    @Test
+    public void testInvalidValues() throws Exception {
+        BitUnpacker unpacker = BitUnpackers.create(new IndexTranslator(BIT_DISTRIBUTION));
+        long[] values = new long[40];
+        int[][] indices = new int[BIT_DISTRIBUTION.size()][values.length];
+        assertEquals(-1, unpacker.unpack(values, 0, values.length, indices));
+
+        values[37] = 1L << 22;
+        assertEquals(37, unpacker.unpack(values, 0, values.length, indices));
+        assertEquals(37, unpacker.unpack(values, 5, 33, indices));
+        assertEquals(-1, unpacker.unpack(values, 5, 32, indices));
+
+        values[2] = -1;
+        assertEquals(2, unpacker.unpack(values, 0, values.length, indices));
+    }
+
+    private static void assertUnpacksLikeFromLong(IndexTranslator indexTranslator,
+                                                  BitUnpacker unpacker) {
+        Random random = new Random(42);
+        long[] values = new long[101];
+        for (int r = 0; r < values.length; r++) {
+            values[r] = random.nextInt(1 << 22);
+        }
+        // an offset and count that leave a tail of values not filling a vector
+        int from = 3;
+        int count = 97;
+        int[][] indices = new int[BIT_DISTRIBUTION.size()][count];
+        assertEquals(-1, unpacker.unpack(values, from, count, indices));
+        for (int i = 0; i < BIT_DISTRIBUTION.size(); i++) {
+            for (int r = 0; r < count; r++) {
+                assertEquals(indexTranslator.fromLong(values[from + r], i), indices[i][r]);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CollationTest {
+
+    private static final WordProvider WORDS = new WordProvider(ImmutableList.of(
+            "b", "ba", "a", "ab", "c", "abc", "bab", "😀", "Ａ", "aa"), "");
+
+    @Test
+    public void testComparator() throws Exception {
+        String supplementary = "😀";
+        String bmp = "Ａ";
+        assertTrue(Collation.UTF16.comparator().compare(supplementary, bmp) < 0);
+        assertTrue(Collation.UTF8.comparator().compare(supplementary, bmp) > 0);
+        assertTrue(Collation.UTF8.comparator().compare("ab", "abc") < 0);
+        assertTrue(Collation.UTF8.comparator().compare("b", "abc") > 0);
+        assertEquals(0, Collation.UTF16.comparator().compare("ab", "ab"));
+    }
+
+    @Test
+    public void testPhrasesSortLikeValues() throws Exception {
+        for (Collation collation : Collation.values()) {
+            for (List<String> separators : ImmutableList.<List<String>>of(
+                    ImmutableList.of("", " ", ""),
+                    ImmutableList.of("<", ", ", ">"),
+                    ImmutableList.of("", "!", "."))) {
+                PhraseTranslator translator = PhraseTranslator.orderPreserving(
+                        new WordProviderSequence(ImmutableList.of(WORDS, WORDS)),
+                        ImmutableList.of(3, 3), new SeparatorsPhraseConstructor(separators),
+                        collation);
+                List<String> phrases = Lists.newArrayList();
+                for (long l = 0; l < 64; l++) {
+                    phrases.add(translator.fromLong(l));
+                    assertEquals(l, translator.toLong(phrases.get((int) l)));
+                }
+                List<String> sorted = Lists.newArrayList(phrases);
+                Collections.sort(sorted, collation.comparator());
+                assertEquals(phrases, sorted);
+            }
+        }
+    }
+
+    @Test
+    public void testPhrasesAreNotLonger() throws Exception {
+        WordProviderSequence sequence = new WordProviderSequence(ImmutableList.of(WORDS, WORDS));
+        SeparatorsPhraseConstructor separators =
+                new SeparatorsPhraseConstructor(ImmutableList.of("", " ", ""));
+        PhraseTranslator regular = new PhraseTranslator(sequence,
+                new IndexTranslator(ImmutableList.of(3, 2)), separators, separators);
+        PhraseTranslator undertest = PhraseTranslator.orderPreserving(
+                sequence, ImmutableList.of(3, 2), separators, Collation.UTF8);
+        assertEquals(regular.maxPhraseLength(), undertest.maxPhraseLength());
+        assertEquals(regular.lengthStatistics().getMeanLength(),
+                undertest.lengthStatistics().getMeanLength(), 1e-9);
+    }
+
+    @Test
+    public void testFailSeparatorAfterPrefix() throws Exception {
+        // "ab" sorts after "a", but "a~b" sorts after "ab b"
+        try {
+            PhraseTranslator.orderPreserving(
+                    new WordProviderSequence(ImmutableList.of(WORDS, WORDS)),
+                    ImmutableList.of(3, 1), new SeparatorsPhraseConstructor(
+                            ImmutableList.of("", "~", "")), Collation.UTF8);
+            throw new RuntimeException("Did not throw expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Phrases with words 'a' and 'aa' at position 0 do not sort like "
+                    + "their indices.", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFailTrailingAfterPrefix() throws Exception {
+        PhraseTranslator.orderPreserving(
+                new WordProviderSequence(ImmutableList.of(WORDS)), ImmutableList.of(3),
+                new SeparatorsPhraseConstructor(ImmutableList.of("", "~")), Collation.UTF8);
+    }
+}
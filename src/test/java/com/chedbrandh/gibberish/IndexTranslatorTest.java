@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static com.chedbrandh.gibberish.PhraseTranslatorEndToEndTest.intsToBytes;
 import static org.junit.Assert.assertEquals;
@@ -73,6 +74,59 @@ public class IndexTranslatorTest {
         assertTrue(Arrays.equals(intsToBytes(128,2), bytes));
     }
 
+    @Test
+    public void testFromLong() throws Exception {
+        IndexTranslator undertest = new IndexTranslator(ImmutableList.of(2, 1, 30, 31));
+        for (long l : new long[] {0L, 5L, 0x7FFFFFFFFFFFFFFFL, 4235509150918226520L}) {
+            byte[] bytes = PhraseTranslator.longToBytes(l, 64);
+            List<Integer> expected = undertest.fromBytes(bytes, 0, 64);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals((int) expected.get(i), undertest.fromLong(l, i));
+            }
+        }
+    }
+
+    @Test
+    public void testBitOffset() throws Exception {
+        IndexTranslator undertest = new IndexTranslator(ImmutableList.of(2, 1, 30, 31));
+        assertEquals(0, undertest.bitOffset(0));
+        assertEquals(2, undertest.bitOffset(1));
+        assertEquals(3, undertest.bitOffset(2));
+        assertEquals(33, undertest.bitOffset(3));
+    }
+
+    @Test
+    public void testMostSignificantFirst() throws Exception {
+        IndexTranslator undertest = new IndexTranslator(ImmutableList.of(2, 1, 3), true);
+        assertTrue(undertest.isMostSignificantFirst());
+        assertEquals(4, undertest.bitOffset(0));
+        assertEquals(3, undertest.bitOffset(1));
+        assertEquals(0, undertest.bitOffset(2));
+
+        // 0b011011 => 0b01->1, 0b1->1, 0b011->3
+        long l = 0b011011;
+        assertEquals(1, undertest.fromLong(l, 0));
+        assertEquals(1, undertest.fromLong(l, 1));
+        assertEquals(3, undertest.fromLong(l, 2));
+        assertEquals(ImmutableList.of(1, 1, 3),
+                undertest.fromBytes(PhraseTranslator.longToBytes(l, 6), 0, 6));
+        byte[] bytes = new byte[1];
+        undertest.toBytes(bytes, ImmutableList.of(1, 1, 3), 0, 6);
+        assertTrue(Arrays.equals(PhraseTranslator.longToBytes(l, 6), bytes));
+    }
+
+    @Test
+    public void testToLong() throws Exception {
+        IndexTranslator undertest = new IndexTranslator(ImmutableList.of(2, 1, 30, 31));
+        for (long l : new long[] {0L, 5L, 0x7FFFFFFFFFFFFFFFL, 4235509150918226520L}) {
+            long result = 0;
+            for (int i = 0; i < 4; i++) {
+                result |= undertest.toLong(undertest.fromLong(l, i), i);
+            }
+            assertEquals(l, result);
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testFromBytesIllegalBitIndices() throws Exception {
         IndexTranslator undertest = new IndexTranslator(ImmutableList.of(2, 1));
@@ -0,0 +1,91 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LenientPhraseDecoderTest {
+
+    private static final WordProvider NUMBERS = new WordProvider(
+            ImmutableList.of("6", "7", "8", "9"), "numbers");
+    private static final WordProvider ADJECTIVES = new WordProvider(
+            ImmutableList.of("sad", "café", "new york", "odd"), "adjectives");
+    private static final WordProvider NOUNS = new WordProvider(
+            ImmutableList.of("squid", "crab", "cod", "eel"), "nouns");
+
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("", " ", " ", "."));
+
+    private PhraseTranslator translator;
+    private LenientPhraseDecoder undertest;
+
+    @Before
+    public void before() throws Exception {
+        translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(NUMBERS, ADJECTIVES, NOUNS)),
+                new IndexTranslator(ImmutableList.of(2, 2, 2)), SEPARATORS, SEPARATORS);
+        undertest = new LenientPhraseDecoder(translator);
+    }
+
+    @Test
+    public void testToLongExact() throws Exception {
+        for (long l = 0; l < 64; l++) {
+            assertEquals(l, undertest.toLong(translator.fromLong(l)));
+        }
+    }
+
+    @Test
+    public void testToLongLenient() throws Exception {
+        long expected = translator.toLong("6 sad squid.");
+        assertEquals(expected, undertest.toLong("6 Sad Squid"));
+        assertEquals(expected, undertest.toLong("6 SAD SQUID!"));
+        assertEquals(expected, undertest.toLong("  6  sad\tsquid . "));
+        assertEquals(translator.toLong("7 café cod."), undertest.toLong("7 Café Cod"));
+        assertEquals(translator.toLong("8 new york eel."), undertest.toLong("8 New  York Eel"));
+    }
+
+    @Test
+    public void testFold() throws Exception {
+        assertEquals(" café new york ", LenientPhraseDecoder.fold("\tCAFÉ New \n York  "));
+    }
+
+    @Test
+    public void testFoldNormalizesRuns() throws Exception {
+        // combining marks compose with the ASCII char before them
+        assertEquals("café naïve", LenientPhraseDecoder.fold("CAFE\u0301 NAI\u0308VE"));
+        assertEquals("é é", LenientPhraseDecoder.fold("e\u0301\u3000\u00c9"));
+        assertEquals(" \u0301x\ud83d\ude00", LenientPhraseDecoder.fold("\t\u0301X\ud83d\ude00"));
+    }
+
+    @Test
+    public void testToLongReusedBuffer() throws Exception {
+        StringBuilder buffer = new StringBuilder("leftover");
+        assertEquals(translator.toLong("7 café cod."),
+                undertest.toLong("7 Cafe\u0301 Cod", buffer));
+        assertEquals(translator.toLong("6 sad squid."), undertest.toLong("6 Sad Squid", buffer));
+    }
+
+    @Test(expected = IllegalWordException.class)
+    public void testToLongIllegalWord() throws Exception {
+        undertest.toLong("6 Happy Squid");
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testToLongIllegalPhrase() throws Exception {
+        undertest.toLong("6-Sad-Squid");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFoldingCollision() throws Exception {
+        WordProvider colliding = new WordProvider(ImmutableList.of("sad", "Sad"), "colliding");
+        new LenientPhraseDecoder(new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(colliding, NOUNS)),
+                new IndexTranslator(ImmutableList.of(1, 2)),
+                new SeparatorsPhraseConstructor(ImmutableList.of("", " ", "")),
+                new SeparatorsPhraseConstructor(ImmutableList.of("", " ", ""))));
+    }
+}
@@ -0,0 +1,153 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MaterializedPhraseTableTest {
+
+    // one word of each UTF-8 width, the widest a surrogate pair
+    private static final WordProvider WIDTHS = new WordProvider(
+            ImmutableList.of("a", "ö", "€", "𝄞"), "");
+    private static final WordProvider MIXED = new WordProvider(
+            ImmutableList.of("x", "ñu", "日本", "z😀", "abc", "ÿÿ", "q", "Ω"), "");
+    private static final WordProviderSequence SEQUENCE = new WordProviderSequence(
+            ImmutableList.of(WIDTHS, MIXED, WIDTHS));
+    private static final List<Integer> BIT_DISTRIBUTION = ImmutableList.of(2, 3, 2);
+    private static final int NUM_PHRASES = 1 << 7;
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("«", " · ", " ", "»"));
+
+    @Test
+    public void testFromLong() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS, SEPARATORS);
+        MaterializedPhraseTable table = new MaterializedPhraseTable(translator);
+        byte[] bytes = new byte[translator.maxPhraseLength() * 3 + 1];
+        for (long l = 0; l < NUM_PHRASES; l++) {
+            String phrase = translator.fromLong(l);
+            assertEquals(phrase, table.fromLong(l));
+            byte[] expected = phrase.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, table.fromLong(l, bytes, 1));
+            assertArrayEquals(expected, Arrays.copyOfRange(
+                    bytes, 1, 1 + expected.length));
+        }
+    }
+
+    @Test
+    public void testToLong() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION, true), SEPARATORS, SEPARATORS);
+        MaterializedPhraseTable table = new MaterializedPhraseTable(translator);
+        TranslationResult result = new TranslationResult();
+        for (long l = 0; l < NUM_PHRASES; l++) {
+            String phrase = translator.fromLong(l);
+            assertEquals(l, table.toLong(phrase));
+            byte[] bytes = ("_" + phrase).getBytes(StandardCharsets.UTF_8);
+            assertEquals(l, table.toLong(bytes, 1, bytes.length));
+            assertEquals(TranslationResult.Status.OK, table.tryToLong(phrase, result));
+            assertEquals(l, result.getValue());
+            for (int i = 0; i < BIT_DISTRIBUTION.size(); i++) {
+                assertEquals(translator.getIndexTranslator().fromLong(l, i),
+                        result.indices()[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testIllegalPhrases() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS, SEPARATORS);
+        MaterializedPhraseTable table = new MaterializedPhraseTable(translator);
+        TranslationResult expected = new TranslationResult();
+        TranslationResult result = new TranslationResult();
+        for (String phrase : ImmutableList.of("«a · x a»", "«a · w a»", "«a · x 日»",
+                "«a · x a", "«a \uD834 · x a»", "«\uDD1E · x a»", "")) {
+            assertEquals(translator.tryToLong(phrase, expected), table.tryToLong(phrase, result));
+            assertEquals(expected.getMessage(), result.getMessage());
+        }
+        try {
+            table.toLong("«a · w a»");
+            throw new RuntimeException("Did not throw expected IllegalWordException");
+        } catch (IllegalWordException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAmbiguousPhrases() throws Exception {
+        // "a b" + " " + "c" and "a" + " " + "b c" are the same phrase
+        WordProviderSequence sequence = new WordProviderSequence(ImmutableList.of(
+                new WordProvider(ImmutableList.of("a", "a b"), ""),
+                new WordProvider(ImmutableList.of("c", "b c"), "")));
+        SeparatorsPhraseConstructor separators =
+                new SeparatorsPhraseConstructor(ImmutableList.of("", " ", ""));
+        PhraseTranslator translator = new PhraseTranslator(sequence,
+                new IndexTranslator(ImmutableList.of(1, 1)), separators, separators);
+        MaterializedPhraseTable table = new MaterializedPhraseTable(translator);
+        for (long l = 0; l < 4; l++) {
+            String phrase = translator.fromLong(l);
+            assertEquals(phrase, table.fromLong(l));
+            assertEquals(translator.toLong(phrase), table.toLong(phrase));
+        }
+    }
+
+    @Test
+    public void testManyBlocks() throws Exception {
+        List<String> words = IntStream.range(0, 128)
+                .mapToObj(i -> "w" + Integer.toString(i, 36))
+                .collect(Collectors.toList());
+        WordProvider provider = new WordProvider(words, "");
+        SeparatorsPhraseConstructor separators =
+                new SeparatorsPhraseConstructor(ImmutableList.of("", "-", ""));
+        PhraseTranslator translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(provider, provider)),
+                new IndexTranslator(ImmutableList.of(7, 7)), separators, separators);
+        MaterializedPhraseTable table = new MaterializedPhraseTable(translator);
+        for (long l = 1 << 14; l-- > 0; ) {
+            String phrase = translator.fromLong(l);
+            assertEquals(phrase, table.fromLong(l));
+            assertEquals(l, table.toLong(phrase));
+        }
+    }
+
+    @Test
+    public void testSizeInBytes() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS, SEPARATORS);
+        long phraseBytes = 0;
+        for (long l = 0; l < NUM_PHRASES; l++) {
+            phraseBytes += translator.fromLong(l).getBytes(StandardCharsets.UTF_8).length;
+        }
+        assertEquals(phraseBytes + 4 * NUM_PHRASES + 4 * 2 * NUM_PHRASES,
+                MaterializedPhraseTable.sizeInBytes(translator));
+
+        PhraseTranslator otherDeconstructor = new PhraseTranslator(SEQUENCE,
+                new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS,
+                new SeparatorsPhraseConstructor(ImmutableList.of("«", " · ", " ", "»")));
+        assertEquals(Long.MAX_VALUE, MaterializedPhraseTable.sizeInBytes(otherDeconstructor));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOtherDeconstructor() throws Exception {
+        new MaterializedPhraseTable(new PhraseTranslator(SEQUENCE,
+                new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS,
+                new SeparatorsPhraseConstructor(ImmutableList.of("«", " · ", " ", "»"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOutOfBounds() throws Exception {
+        new MaterializedPhraseTable(new PhraseTranslator(SEQUENCE,
+                new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS, SEPARATORS))
+                .fromLong(NUM_PHRASES);
+    }
+}
@@ -0,0 +1,136 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PhraseBatchCodecTest {
+
+    private static final WordProvider PROVIDER = new WordProvider(IntStream.range(0, 1100)
+            .mapToObj(i -> "wå" + Integer.toString(i, 36)).collect(Collectors.toList()), "");
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("<", " ", " ", ">"));
+    private static final PhraseTranslator TRANSLATOR = translator(SEPARATORS);
+
+    @Test
+    public void testEncodeBatch() throws Exception {
+        long[] values = randomValues(5000);
+        String[] phrases = new String[values.length];
+        new PhraseBatchCodec(TRANSLATOR).encodeBatch(values, phrases);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(TRANSLATOR.fromLong(values[i]), phrases[i]);
+        }
+    }
+
+    @Test
+    public void testDecodeBatch() throws Exception {
+        long[] values = randomValues(3000);
+        CharSequence[] phrases = new CharSequence[values.length + 4];
+        for (int i = 0; i < values.length; i++) {
+            phrases[i] = TRANSLATOR.fromLong(values[i]);
+        }
+        phrases[values.length] = "<wå1 wå2>";
+        phrases[values.length + 1] = "<wå1 wå2 foo>";
+        phrases[values.length + 2] = "<wå1 wå2 " + PROVIDER.get(1099) + ">";
+        phrases[values.length + 3] = new StringBuilder("<wå1 wå2 wå3>");
+        long[] decoded = new long[phrases.length];
+        TranslationResult.Status[] statuses = new TranslationResult.Status[phrases.length];
+        new PhraseBatchCodec(TRANSLATOR).decodeBatch(phrases, decoded, statuses);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], decoded[i]);
+            assertEquals(TranslationResult.Status.OK, statuses[i]);
+        }
+        assertEquals(TranslationResult.Status.ILLEGAL_PHRASE, statuses[values.length]);
+        assertEquals(TranslationResult.Status.ILLEGAL_WORD, statuses[values.length + 1]);
+        assertEquals(TranslationResult.Status.WORD_INDEX_OUT_OF_BOUNDS,
+                statuses[values.length + 2]);
+        assertEquals(-1, decoded[values.length + 2]);
+        assertEquals(TranslationResult.Status.OK, statuses[values.length + 3]);
+        assertEquals(TRANSLATOR.toLong("<wå1 wå2 wå3>"), decoded[values.length + 3]);
+    }
+
+    @Test
+    public void testDecodeBatchWordsContainingSeparators() throws Exception {
+        PhraseTranslator translator = translator(
+                new SeparatorsPhraseConstructor(ImmutableList.of("", "å", "å", "")));
+        long[] values = randomValues(2000);
+        String[] phrases = new String[values.length];
+        PhraseBatchCodec undertest = new PhraseBatchCodec(translator);
+        undertest.encodeBatch(values, phrases);
+        long[] decoded = new long[values.length];
+        undertest.decodeBatch(phrases, decoded, new TranslationResult.Status[values.length]);
+        assertArrayEquals(values, decoded);
+    }
+
+    @Test
+    public void testRecords() throws Exception {
+        PhraseBatchCodec undertest = new PhraseBatchCodec(TRANSLATOR);
+        int stride = undertest.getMaxUtf8PhraseLength() + 3;
+        long[] values = randomValues(2500);
+        byte[] records = new byte[values.length * stride];
+        undertest.encodeBatch(values, records, stride);
+        for (int i = 0; i < values.length; i++) {
+            byte[] phrase = TRANSLATOR.fromLong(values[i]).getBytes("UTF-8");
+            byte[] record = new byte[stride];
+            System.arraycopy(phrase, 0, record, 0, phrase.length);
+            byte[] actual = new byte[stride];
+            System.arraycopy(records, i * stride, actual, 0, stride);
+            assertArrayEquals(record, actual);
+        }
+
+        records[stride] = 'x';
+        long[] decoded = new long[values.length];
+        TranslationResult.Status[] statuses = new TranslationResult.Status[values.length];
+        undertest.decodeBatch(records, stride, decoded, statuses);
+        assertEquals(TranslationResult.Status.ILLEGAL_PHRASE, statuses[1]);
+        assertEquals(-1, decoded[1]);
+        decoded[1] = values[1];
+        assertArrayEquals(values, decoded);
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        PhraseBatchCodec undertest = new PhraseBatchCodec(TRANSLATOR, pool, 1000);
+        long[] values = randomValues(20000);
+        String[] phrases = new String[values.length];
+        undertest.encodeBatch(values, phrases);
+        long[] decoded = new long[values.length];
+        undertest.decodeBatch(phrases, decoded, new TranslationResult.Status[values.length]);
+        assertArrayEquals(values, decoded);
+        pool.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncodeValueOutOfRange() throws Exception {
+        new PhraseBatchCodec(TRANSLATOR).encodeBatch(new long[] {1L << 30}, new String[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortStride() throws Exception {
+        PhraseBatchCodec undertest = new PhraseBatchCodec(TRANSLATOR);
+        int stride = undertest.getMaxUtf8PhraseLength() - 1;
+        undertest.encodeBatch(new long[1], new byte[stride], stride);
+    }
+
+    private static PhraseTranslator translator(SeparatorsPhraseConstructor separators) {
+        try {
+            return new PhraseTranslator(
+                    new WordProviderSequence(ImmutableList.of(PROVIDER, PROVIDER, PROVIDER)),
+                    new IndexTranslator(ImmutableList.of(10, 10, 10)), separators, separators);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long[] randomValues(int numValues) {
+        return new Random(42).longs(numValues, 0, 1L << 30).toArray();
+    }
+}
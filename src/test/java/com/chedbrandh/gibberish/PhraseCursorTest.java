@@ -0,0 +1,106 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PhraseCursorTest {
+
+    // word lengths grow with every step, and shrink the most when carrying
+    private static final WordProvider DOUBLING = new WordProvider(
+            ImmutableList.of("a", "bb", "cccc", "dddddddd"), "");
+    private static final WordProvider SHORT_OR_LONG = new WordProvider(
+            ImmutableList.of("x", "yyyyyyyyyyyy"), "");
+    // words of the same length, shifted when the words before them change
+    private static final WordProvider SAME_LENGTH = new WordProvider(
+            ImmutableList.of("zz", "ww"), "");
+    private static final WordProviderSequence SEQUENCE = new WordProviderSequence(
+            ImmutableList.of(DOUBLING, SHORT_OR_LONG, SAME_LENGTH, DOUBLING));
+    private static final List<Integer> BIT_DISTRIBUTION = ImmutableList.of(2, 1, 1, 2);
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("[", "/", " ~ ", "-", "]"));
+
+    @Test
+    public void testPhrasesMatchFromLong() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS, SEPARATORS);
+        assertMatchesFromLong(translator, 0, 64);
+        assertMatchesFromLong(translator, 13, 42);
+    }
+
+    @Test
+    public void testPhrasesMatchFromLongMostSignificantFirst() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION, true), SEPARATORS, SEPARATORS);
+        assertMatchesFromLong(translator, 0, 64);
+        assertMatchesFromLong(translator, 7, 35);
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS, SEPARATORS);
+        List<String> phrases = Lists.newArrayList(translator.iterate(3, 6));
+        assertEquals(ImmutableList.of(translator.fromLong(3), translator.fromLong(4),
+                translator.fromLong(5)), phrases);
+
+        PhraseCursor cursor = translator.iterate(5, 5);
+        assertFalse(cursor.hasNext());
+        assertFalse(cursor.advance());
+        try {
+            cursor.next();
+            throw new RuntimeException("Did not throw expected NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAppendTo() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION), SEPARATORS, SEPARATORS);
+        PhraseCursor cursor = translator.iterate(10, 12);
+        StringBuilder stringBuilder = new StringBuilder();
+        while (cursor.advance()) {
+            cursor.appendTo(stringBuilder);
+        }
+        assertEquals(translator.fromLong(10) + translator.fromLong(11), stringBuilder.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPhraseBeforeAdvance() throws Exception {
+        new PhraseTranslator(SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION),
+                SEPARATORS, SEPARATORS).iterate(0, 1).phrase();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRangeOutOfBounds() throws Exception {
+        new PhraseTranslator(SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION),
+                SEPARATORS, SEPARATORS).iterate(0, 65);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRangeReversed() throws Exception {
+        new PhraseTranslator(SEQUENCE, new IndexTranslator(BIT_DISTRIBUTION),
+                SEPARATORS, SEPARATORS).iterate(5, 4);
+    }
+
+    private static void assertMatchesFromLong(PhraseTranslator translator,
+                                              long fromValue, long toValue) {
+        PhraseCursor cursor = translator.iterate(fromValue, toValue);
+        for (long l = fromValue; l < toValue; l++) {
+            assertTrue(cursor.advance());
+            assertEquals(l, cursor.value());
+            assertEquals(translator.fromLong(l), cursor.phrase());
+            assertEquals(cursor.phrase().length(), cursor.length());
+        }
+        assertFalse(cursor.advance());
+    }
+}
@@ -0,0 +1,120 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class PhraseDecoderTest {
+
+    // words containing the separator between them
+    private static final WordProvider CITIES = new WordProvider(
+            ImmutableList.of("rome", "new york", "new", "san jose"), "cities");
+    private static final WordProvider THINGS = new WordProvider(
+            ImmutableList.of("york", "jose", "s\u00e5n", "fog"), "things");
+
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("<", " ", ">"));
+    private static final IndexTranslator INDEX_TRANSLATOR =
+            new IndexTranslator(ImmutableList.of(2, 2));
+
+    private PhraseDecoder undertest;
+
+    @Before
+    public void before() throws Exception {
+        List<WordProvider> wordProviders = ImmutableList.of(CITIES, THINGS);
+        undertest = new PhraseDecoder(SEPARATORS, wordProviders, INDEX_TRANSLATOR);
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        for (int city = 0; city < 4; city++) {
+            for (int thing = 0; thing < 4; thing++) {
+                String phrase = SEPARATORS.construct(
+                        ImmutableList.of(CITIES.get(city), THINGS.get(thing)));
+                long expected = city | thing << 2;
+                assertEquals(phrase, expected, decode(phrase));
+                assertEquals(phrase, expected, decodeUtf8(phrase));
+            }
+        }
+    }
+
+    @Test
+    public void testDecodeBacktracks() throws Exception {
+        // "new" followed by " york" must be tried before "new york"
+        assertEquals(CITIES.indexOf("new") | THINGS.indexOf("york") << 2, decode("<new york>"));
+        // "new york" followed by " fog" is only found after backtracking
+        assertEquals(CITIES.indexOf("new york") | THINGS.indexOf("fog") << 2,
+                decode("<new york fog>"));
+        assertEquals(CITIES.indexOf("new york") | THINGS.indexOf("fog") << 2,
+                decodeUtf8("<new york fog>"));
+    }
+
+    @Test
+    public void testDecodeFails() throws Exception {
+        assertEquals(-1, decode("<new>"));
+        assertEquals(-1, decode("<rome  york>"));
+        assertEquals(-1, decode("<rome yorks>"));
+        assertEquals(-1, decode("<paris york>"));
+        assertEquals(-1, decodeUtf8("<rome san>"));
+    }
+
+    @Test(timeout = 10000)
+    public void testDecodeFailsWithoutExponentialBacktracking() throws Exception {
+        // 40 words of "a" or "a a" can split a run of a's in a vast number of ways
+        WordProvider as = new WordProvider(ImmutableList.of("a", "a a"), "");
+        WordProvider bs = new WordProvider(ImmutableList.of("b", "b b"), "");
+        List<WordProvider> wordProviders = new ArrayList<>(Collections.nCopies(40, as));
+        wordProviders.add(bs);
+        List<String> separators = new ArrayList<>(Collections.nCopies(42, " "));
+        separators.set(0, "");
+        separators.set(41, "");
+        PhraseDecoder decoder = new PhraseDecoder(new SeparatorsPhraseConstructor(separators),
+                wordProviders, new IndexTranslator(Collections.nCopies(41, 1)));
+
+        String as60 = Strings.repeat("a ", 60);
+        String phrase = as60 + "b b b";
+        assertEquals(-1, decoder.decode(phrase, 0, phrase.length()));
+        ByteBuffer bytes = ByteBuffer.wrap(phrase.getBytes(StandardCharsets.UTF_8));
+        assertEquals(-1, decoder.decodeUtf8(bytes, 0, bytes.limit()));
+
+        // the shortest words come first, as long as the rest can be decoded
+        String decodable = as60 + "b b";
+        assertEquals(((1L << 20) - 1) << 20 | 1L << 40,
+                decoder.decode(decodable, 0, decodable.length()));
+        int[] end = new int[1];
+        assertEquals(((1L << 10) - 1) << 30 | 1L << 40,
+                decoder.decodeUtf8Prefix(bytes, 20, bytes.limit(), end));
+        assertEquals(bytes.limit() - 2, end[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyBits() throws Exception {
+        WordProvider bits = new WordProvider(ImmutableList.of("0", "1"), "");
+        new PhraseDecoder(new SeparatorsPhraseConstructor(ImmutableList.of("", "", "")),
+                ImmutableList.of(bits, bits),
+                new IndexTranslator(ImmutableList.of(32, 32)));
+    }
+
+    private long decode(String phrase) throws IllegalPhraseException {
+        int wordsStart = SEPARATORS.wordsStart(phrase, 0, phrase.length());
+        int wordsEnd = SEPARATORS.wordsEnd(phrase, wordsStart, phrase.length());
+        return undertest.decode(phrase, wordsStart, wordsEnd);
+    }
+
+    private long decodeUtf8(String phrase) throws IllegalPhraseException {
+        ByteBuffer bytes = ByteBuffer.wrap(phrase.getBytes(StandardCharsets.UTF_8));
+        int wordsStart = SEPARATORS.utf8WordsStart(bytes, 0, bytes.limit());
+        int wordsEnd = SEPARATORS.utf8WordsEnd(bytes, wordsStart, bytes.limit());
+        return undertest.decodeUtf8(bytes, wordsStart, wordsEnd);
+    }
+}
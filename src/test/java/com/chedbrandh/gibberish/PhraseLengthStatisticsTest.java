@@ -0,0 +1,57 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PhraseLengthStatisticsTest {
+
+    private static final WordProvider PROVIDER_1 = new WordProvider(ImmutableList.of(
+            "a", "bb", "cc", "ddd"), "");
+    private static final WordProvider PROVIDER_2 = new WordProvider(ImmutableList.of(
+            "a", "b", "cc", "dddd", "eeeee"), "");
+
+    @Test
+    public void testDistribution() throws Exception {
+        PhraseLengthStatistics undertest = new PhraseLengthStatistics(
+                ImmutableList.of(PROVIDER_1, PROVIDER_2), ImmutableList.of(2, 1), 3);
+
+        // provider 1 lengths {1, 2, 2, 3}, provider 2 lengths {1, 1}
+        assertEquals(5, undertest.getMinLength());
+        assertEquals(7, undertest.getMaxLength());
+        assertEquals(6, undertest.getMeanLength(), 1e-9);
+        assertEquals(0, undertest.getProbability(4), 0);
+        assertEquals(0.25, undertest.getProbability(5), 1e-9);
+        assertEquals(0.5, undertest.getProbability(6), 1e-9);
+        assertEquals(0.25, undertest.getProbability(7), 1e-9);
+        assertEquals(0, undertest.getProbability(8), 0);
+
+        assertEquals(5, undertest.getPercentile(0));
+        assertEquals(5, undertest.getPercentile(25));
+        assertEquals(6, undertest.getPercentile(26));
+        assertEquals(6, undertest.getPercentile(75));
+        assertEquals(7, undertest.getPercentile(76));
+        assertEquals(7, undertest.getPercentile(100));
+    }
+
+    @Test
+    public void testMatchesAllPhrases() throws Exception {
+        PhraseLengthStatistics undertest = new PhraseLengthStatistics(
+                ImmutableList.of(PROVIDER_1, PROVIDER_2), ImmutableList.of(2, 2), 0);
+        int[] counts = new int[10];
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                counts[PROVIDER_1.get(i).length() + PROVIDER_2.get(j).length()]++;
+            }
+        }
+        for (int length = 0; length < counts.length; length++) {
+            assertEquals(counts[length] / 16.0, undertest.getProbability(length), 1e-9);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBitCoverageExceeded() throws Exception {
+        new PhraseLengthStatistics(ImmutableList.of(PROVIDER_1), ImmutableList.of(3), 0);
+    }
+}
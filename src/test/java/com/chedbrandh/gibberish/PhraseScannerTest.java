@@ -0,0 +1,153 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PhraseScannerTest {
+
+    private static final WordProvider ADJECTIVES = new WordProvider(
+            ImmutableList.of("sad", "café", "new york", "odd"), "adjectives");
+    private static final WordProvider NOUNS = new WordProvider(
+            ImmutableList.of("squid", "crab", "cod", "eel"), "nouns");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PhraseTranslator translator;
+
+    @Before
+    public void before() throws Exception {
+        translator = translator(ImmutableList.of("", " ", "."));
+    }
+
+    @Test
+    public void testScan() throws Exception {
+        String text = "error sad squid. at odd eel.\nnew york crab.";
+        assertEquals(ImmutableList.of(
+                occurrence(text, "sad squid."),
+                occurrence(text, "odd eel."),
+                occurrence(text, "new york crab.")),
+                scan(new PhraseScanner(translator), text));
+    }
+
+    @Test
+    public void testScanTokenBoundaries() throws Exception {
+        PhraseScanner undertest = new PhraseScanner(translator);
+        assertEquals(ImmutableList.of(), scan(undertest, "xsad squid."));
+        assertEquals(ImmutableList.of(), scan(undertest, "sad squids."));
+        String text = "(sad squid.)";
+        assertEquals(ImmutableList.of(occurrence(text, "sad squid.")), scan(undertest, text));
+    }
+
+    @Test
+    public void testScanNonAscii() throws Exception {
+        String text = "å café cod.";
+        assertEquals(ImmutableList.of(new PhraseScanner.Occurrence(
+                        3, "café cod.".getBytes(StandardCharsets.UTF_8).length,
+                        translator.toLong("café cod."))),
+                scan(new PhraseScanner(translator), text));
+    }
+
+    @Test
+    public void testScanLeadingAnchor() throws Exception {
+        PhraseTranslator leading = translator(ImmutableList.of("<", "|", ">"));
+        String text = "<sad|cod> <new york|squid><odd|x>";
+        assertEquals(ImmutableList.of(
+                occurrence(text, "<sad|cod>", leading),
+                occurrence(text, "<new york|squid>", leading)),
+                scan(new PhraseScanner(leading), text));
+    }
+
+    @Test
+    public void testScanTrailingAnchor() throws Exception {
+        SeparatorsPhraseConstructor separators =
+                new SeparatorsPhraseConstructor(ImmutableList.of("", "!"));
+        PhraseTranslator trailing = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(ADJECTIVES)),
+                new IndexTranslator(ImmutableList.of(2)), separators, separators);
+        String text = "sad! odd xodd! new york!";
+        assertEquals(ImmutableList.of(
+                occurrence(text, "sad!", trailing),
+                occurrence(text, "new york!", trailing)),
+                scan(new PhraseScanner(trailing), text));
+    }
+
+    @Test
+    public void testScanChunksAndChannels() throws Exception {
+        // phrases at random offsets, scanned with chunks smaller than phrases
+        Random random = new Random(0);
+        StringBuilder text = new StringBuilder();
+        List<String> phrases = Lists.newArrayList();
+        for (int i = 0; i < 200; i++) {
+            text.append(random.nextBoolean() ? "x " : " - ");
+            String phrase = translator.fromLong(random.nextInt(16));
+            phrases.add(phrase);
+            text.append(phrase);
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        List<PhraseScanner.Occurrence> expected =
+                scan(new PhraseScanner(translator), text.toString());
+        assertEquals(phrases.size(), expected.size());
+
+        for (int chunkSize : ImmutableList.of(1, 7, 100, 1 << 20)) {
+            PhraseScanner undertest = new PhraseScanner(translator, chunkSize, 3);
+
+            List<PhraseScanner.Occurrence> fromChannel = Lists.newArrayList();
+            undertest.scan(Channels.newChannel(new ByteArrayInputStream(bytes)),
+                    fromChannel::add);
+            assertEquals(expected, fromChannel);
+
+            Path file = temporaryFolder.newFile().toPath();
+            Files.write(file, bytes);
+            List<PhraseScanner.Occurrence> fromFile = Lists.newArrayList();
+            undertest.scan(file, fromFile::add);
+            assertEquals(expected, fromFile);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSeparators() throws Exception {
+        SeparatorsPhraseConstructor separators =
+                new SeparatorsPhraseConstructor(ImmutableList.of("", ""));
+        new PhraseScanner(new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(ADJECTIVES)),
+                new IndexTranslator(ImmutableList.of(2)), separators, separators));
+    }
+
+    private PhraseTranslator translator(List<String> separators) throws Exception {
+        SeparatorsPhraseConstructor constructor = new SeparatorsPhraseConstructor(separators);
+        return new PhraseTranslator(new WordProviderSequence(ImmutableList.of(ADJECTIVES, NOUNS)),
+                new IndexTranslator(ImmutableList.of(2, 2)), constructor, constructor);
+    }
+
+    private PhraseScanner.Occurrence occurrence(String text, String phrase) throws Exception {
+        return occurrence(text, phrase, translator);
+    }
+
+    private static PhraseScanner.Occurrence occurrence(
+            String text, String phrase, PhraseTranslator translator) throws Exception {
+        int offset = text.substring(0, text.indexOf(phrase))
+                .getBytes(StandardCharsets.UTF_8).length;
+        return new PhraseScanner.Occurrence(offset,
+                phrase.getBytes(StandardCharsets.UTF_8).length, translator.toLong(phrase));
+    }
+
+    private static List<PhraseScanner.Occurrence> scan(PhraseScanner scanner, String text) {
+        return scanner.scan(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,154 @@
+package com.chedbrandh.gibberish;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PhraseSpliteratorTest {
+
+    private static final WordProvider PROVIDER = new WordProvider(LongStream.range(0, 1 << 8)
+            .mapToObj(l -> Long.toString(l, 36)).collect(Collectors.toList()), "");
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("", "-", "-", ""));
+
+    @Test
+    public void testSequentialStream() throws Exception {
+        PhraseTranslator translator = translator();
+        assertEquals(fromLong(translator, LongStream.range(1000, 3000)),
+                translator.phrases(1000, 3000).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testParallelStream() throws Exception {
+        PhraseTranslator translator = translator();
+        assertEquals(fromLong(translator, LongStream.range(0, 1 << 16)),
+                translator.phrases(0, 1 << 16).parallel().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testPhrasesOfValues() throws Exception {
+        PhraseTranslator translator = translator();
+        long[] values = new Random(42).longs(10000, 0, 1 << 20).toArray();
+        assertEquals(fromLong(translator, LongStream.of(values)),
+                translator.phrases(LongStream.of(values).parallel())
+                        .collect(Collectors.toList()));
+        assertEquals(fromLong(translator, LongStream.range(5, 500)),
+                translator.phrases(LongStream.range(5, 500)).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testPhrasesOfValuesOutsideCursorRange() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(PROVIDER, PROVIDER, PROVIDER)),
+                new IndexTranslator(ImmutableList.of(2, 2, 2)), SEPARATORS, SEPARATORS);
+        assertEquals(fromLong(translator, LongStream.of(63, 64, 0, 1000)),
+                translator.phrases(LongStream.of(63, 64, 0, 1000))
+                        .collect(Collectors.toList()));
+
+        List<WordProvider> providers = Collections.nCopies(8, PROVIDER);
+        List<String> separators = Lists.newArrayList(Collections.nCopies(9, "-"));
+        separators.set(0, "");
+        separators.set(8, "");
+        SeparatorsPhraseConstructor wideSeparators = new SeparatorsPhraseConstructor(separators);
+        PhraseTranslator wide = new PhraseTranslator(new WordProviderSequence(providers),
+                new IndexTranslator(ImmutableList.of(8, 8, 8, 8, 8, 8, 8, 7)),
+                wideSeparators, wideSeparators);
+        LongStream values = LongStream.of(Long.MAX_VALUE - 1, Long.MAX_VALUE, 0);
+        assertEquals(fromLong(wide, values),
+                wide.phrases(LongStream.of(Long.MAX_VALUE - 1, Long.MAX_VALUE, 0))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPhrasesOfNegativeValues() throws Exception {
+        translator().phrases(LongStream.of(1, -1)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPhrasesOfValuesSplit() throws Exception {
+        Spliterator<String> suffix = translator().phrases(LongStream.range(10, 20)).spliterator();
+        assertEquals(10, suffix.estimateSize());
+        assertTrue(suffix.hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED));
+        Spliterator<String> prefix = suffix.trySplit();
+        List<String> phrases = Lists.newArrayList();
+        prefix.forEachRemaining(phrases::add);
+        suffix.forEachRemaining(phrases::add);
+        assertEquals(fromLong(translator(), LongStream.range(10, 20)), phrases);
+    }
+
+    @Test
+    public void testPhrasesOfValuesWithoutSeparators() throws Exception {
+        PhraseTranslator regular = translator();
+        IPhraseConstructor phraseConstructor = delegatingConstructor(SEPARATORS);
+        PhraseTranslator translator = new PhraseTranslator(
+                regular.getWordProviderSequence(), regular.getIndexTranslator(),
+                phraseConstructor, SEPARATORS);
+        assertEquals(fromLong(regular, LongStream.range(0, 10)),
+                translator.phrases(LongStream.range(0, 10)).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testTrySplit() throws Exception {
+        Spliterator<String> suffix = translator().spliterator(10, 20);
+        assertEquals(10, suffix.estimateSize());
+        assertTrue(suffix.hasCharacteristics(Spliterator.ORDERED | Spliterator.SIZED));
+        assertFalse(suffix.hasCharacteristics(Spliterator.DISTINCT));
+        Spliterator<String> prefix = suffix.trySplit();
+        assertEquals(5, prefix.estimateSize());
+        assertEquals(5, suffix.estimateSize());
+
+        List<String> phrases = Lists.newArrayList();
+        assertTrue(prefix.tryAdvance(phrases::add));
+        assertEquals(2, prefix.trySplit().estimateSize());
+        prefix.forEachRemaining(phrases::add);
+        assertFalse(prefix.tryAdvance(phrases::add));
+        assertEquals(fromLong(translator(), LongStream.of(10, 13, 14)), phrases);
+
+        Spliterator<String> single = translator().spliterator(3, 4);
+        assertNull(single.trySplit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRangeOutOfBounds() throws Exception {
+        translator().spliterator(0, (1 << 24) + 1);
+    }
+
+    private static PhraseTranslator translator() throws Exception {
+        return new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(PROVIDER, PROVIDER, PROVIDER)),
+                new IndexTranslator(ImmutableList.of(8, 8, 8)), SEPARATORS, SEPARATORS);
+    }
+
+    private static List<String> fromLong(PhraseTranslator translator, LongStream values) {
+        return values.mapToObj(translator::fromLong).collect(Collectors.toList());
+    }
+
+    /**
+     * Create a phrase constructor that is not a SeparatorsPhraseConstructor.
+     */
+    private static IPhraseConstructor delegatingConstructor(SeparatorsPhraseConstructor separators) {
+        return new IPhraseConstructor() {
+            @Override
+            public String construct(List<String> words) {
+                return separators.construct(words);
+            }
+
+            @Override
+            public int separatorsLength() {
+                return separators.separatorsLength();
+            }
+        };
+    }
+}
@@ -4,16 +4,21 @@ import com.chedbrandh.gibberish.dataloading.WordFileReader;
 import com.chedbrandh.gibberish.exceptions.BitCoverageException;
 import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
 import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
 import com.google.common.collect.ImmutableList;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 
@@ -192,6 +197,418 @@ public class PhraseTranslatorEndToEndTest {
         }
     }
 
+    @Test
+    public void testFromLongToUtf8() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(PROVIDER_1,
+                        new WordProvider(ImmutableList.of("\u00e5", "\u20ac", "z"), ""))),
+                INDEX_TRANSLATOR_2,
+                new SeparatorsPhraseConstructor(ImmutableList.of("\u00ab", "-", "\u00bb")),
+                PHRASE_CONSTRUCTOR_2);
+        byte[] bytes = new byte[64];
+        ByteBuffer byteBuffer = ByteBuffer.allocate(20);
+        for (long l = 0; l < 8; l++) {
+            byte[] expected = translator.fromLong(l).getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, translator.fromLong(l, bytes, 3));
+            assertArrayEquals(expected, Arrays.copyOfRange(bytes, 3, 3 + expected.length));
+
+            byteBuffer.clear();
+            assertEquals(expected.length, translator.fromLong(l, byteBuffer));
+            assertArrayEquals(expected, Arrays.copyOf(byteBuffer.array(), byteBuffer.position()));
+        }
+        for (long l : TEST_LONGS) {
+            byte[] expected = undertest.fromLong(l).getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, undertest.fromLong(l, bytes, 0));
+            assertArrayEquals(expected, Arrays.copyOf(bytes, expected.length));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testFromLongToUtf8Overflow() throws Exception {
+        undertest2.fromLong(0, new byte[3], 1);
+    }
+
+    @Test
+    public void testFromLongToChars() throws Exception {
+        char[] chars = new char[undertest.maxPhraseLength() + 2];
+        for (long l : TEST_LONGS) {
+            StringBuilder expected = new StringBuilder();
+            undertest.fromLong(l, expected);
+            assertEquals(expected.toString(), undertest.fromLong(l));
+            assertEquals(expected.toString(), undertest.fromBytes(
+                    PhraseTranslator.longToBytes(l & 65535L, 16), 0, 16));
+            assertEquals(expected.length(), undertest.fromLong(l, chars, 2));
+            assertEquals(expected.toString(), new String(chars, 2, expected.length()));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testFromLongToCharsOverflow() throws Exception {
+        undertest2.fromLong(0, new char[3], 1);
+    }
+
+    @Test
+    public void testToLongFromRegion() throws Exception {
+        for (long l : TEST_LONGS) {
+            String phrase = undertest.fromLong(l);
+            StringBuilder line = new StringBuilder("GET /").append(phrase).append(" HTTP/1.1");
+            assertEquals(undertest.toLong(phrase), undertest.toLong(line, 5, 5 + phrase.length()));
+
+            byte[] expected = new byte[2];
+            undertest.toBytes(expected, phrase, 0, 16);
+            byte[] actual = new byte[2];
+            undertest.toBytes(actual, line, 5, 5 + phrase.length(), 0, 16);
+            assertArrayEquals(expected, actual);
+        }
+        for (long l = 0; l < 8; l++) {
+            assertEquals(l, undertest2.toLong("(" + undertest2.fromLong(l) + ")", 1, 4));
+        }
+    }
+
+    @Test
+    public void testToLongFromUtf8() throws Exception {
+        for (long l : TEST_LONGS) {
+            byte[] phrase = undertest.fromLong(l).getBytes(StandardCharsets.UTF_8);
+            byte[] line = new byte[phrase.length + 4];
+            System.arraycopy(phrase, 0, line, 2, phrase.length);
+            assertEquals(undertest.toLong(undertest.fromLong(l)),
+                    undertest.toLong(line, 2, 2 + phrase.length));
+            ByteBuffer direct = ByteBuffer.allocateDirect(line.length);
+            direct.put(line);
+            assertEquals(undertest.toLong(undertest.fromLong(l)),
+                    undertest.toLong(direct, 2, 2 + phrase.length));
+        }
+        PhraseTranslator translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(PROVIDER_1,
+                        new WordProvider(ImmutableList.of("\u00e5", "\u20ac", "z"), ""))),
+                INDEX_TRANSLATOR_2,
+                new SeparatorsPhraseConstructor(ImmutableList.of("\u00ab", "-", "\u00bb")),
+                new SeparatorsPhraseConstructor(ImmutableList.of("\u00ab", "-", "\u00bb")));
+        byte[] bytes = new byte[20];
+        for (long l = 0; l < 8; l++) {
+            int length = translator.fromLong(l, bytes, 1);
+            assertEquals(l, translator.toLong(bytes, 1, 1 + length));
+        }
+    }
+
+    @Test
+    public void testTwoWayTranslationWordsContainingSeparators() throws Exception {
+        WordProvider cities = new WordProvider(
+                ImmutableList.of("rome", "new york", "new", "san jose"), "");
+        WordProvider things = new WordProvider(ImmutableList.of("york", "jose", "fog", "n"), "");
+        SeparatorsPhraseConstructor separators =
+                new SeparatorsPhraseConstructor(ImmutableList.of("", " ", ""));
+        PhraseTranslator translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(cities, things)),
+                new IndexTranslator(ImmutableList.of(2, 2)), separators, separators);
+        byte[] utf8 = new byte[20];
+        for (long l = 0; l < 16; l++) {
+            String phrase = translator.fromLong(l);
+            assertEquals(phrase, l, translator.toLong(phrase));
+            int length = translator.fromLong(l, utf8, 0);
+            assertEquals(phrase, l, translator.toLong(utf8, 0, length));
+            byte[] bytes = new byte[1];
+            translator.toBytes(bytes, phrase, 0, 4);
+            assertEquals(phrase, l, bytes[0]);
+        }
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testToLongFromUtf8IllegalPhrase() throws Exception {
+        undertest2.toLong("1-a".getBytes(StandardCharsets.UTF_8), 0, 3);
+    }
+
+    @Test(expected = IllegalWordException.class)
+    public void testToLongFromUtf8IllegalWord() throws Exception {
+        undertest2.toLong("1 z".getBytes(StandardCharsets.UTF_8), 0, 3);
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testToLongFromRegionIllegalPhrase() throws Exception {
+        undertest2.toLong("(1-a)", 1, 4);
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testToLongFromRegionIllegalWordAndPhrase() throws Exception {
+        // an unknown first word, but also a missing separator after the third word
+        String phrase = "apa!!" + undertest.fromLong(0).substring(4).replace("dpa", "");
+        undertest.toLong(phrase, 0, phrase.length());
+    }
+
+    @Test(expected = IllegalWordException.class)
+    public void testToLongFromRegionIllegalWord() throws Exception {
+        undertest2.toLong("1 z", 0, 3);
+    }
+
+    @Test(expected = WordIndexOutOfBoundsException.class)
+    public void testToLongFromRegionWordIndexOutOfBounds() throws Exception {
+        undertest2.toLong("1 c", 0, 3);
+    }
+
+    @Test
+    public void testTryToLong() throws Exception {
+        TranslationResult result = new TranslationResult();
+        for (long l = 0; l < 8; l++) {
+            String phrase = undertest2.fromLong(l);
+            assertEquals(TranslationResult.Status.OK, undertest2.tryToLong(phrase, result));
+            assertEquals(l, result.getValue());
+            assertTrue(undertest2.isValid(phrase));
+        }
+        for (long l : TEST_LONGS) {
+            String phrase = undertest.fromLong(l & 0xFFFF);
+            assertEquals(TranslationResult.Status.OK, undertest.tryToLong(phrase, result));
+            assertEquals(l & 0xFFFF, result.getValue());
+        }
+    }
+
+    @Test
+    public void testTryToLongFailures() throws Exception {
+        assertTryToLongFails(undertest2, "1-a", TranslationResult.Status.ILLEGAL_PHRASE, -1);
+        assertTryToLongFails(undertest2, "1 z", TranslationResult.Status.ILLEGAL_WORD, 1);
+        assertTryToLongFails(undertest2, "z a", TranslationResult.Status.ILLEGAL_WORD, 0);
+        assertTryToLongFails(undertest2, "1 c",
+                TranslationResult.Status.WORD_INDEX_OUT_OF_BOUNDS, 1);
+        assertTryToLongFails(undertest2, "5 z",
+                TranslationResult.Status.WORD_INDEX_OUT_OF_BOUNDS, 0);
+        String phrase = "apa!!" + undertest.fromLong(0).substring(4).replace("dpa", "");
+        assertTryToLongFails(undertest, phrase, TranslationResult.Status.ILLEGAL_PHRASE, -1);
+        assertTryToLongFails(undertest, "x" + undertest.fromLong(0),
+                TranslationResult.Status.ILLEGAL_PHRASE, -1);
+        assertTryToLongFails(undertest, undertest.fromLong(0) + "x",
+                TranslationResult.Status.ILLEGAL_PHRASE, -1);
+    }
+
+    @Test
+    public void testTryToLongUnexpectedLength() throws Exception {
+        TranslationResult result = new TranslationResult();
+        StringBuilder phrase = new StringBuilder("1 ");
+        for (int i = 0; i < 1000; i++) {
+            phrase.append('a');
+        }
+        assertEquals(TranslationResult.Status.ILLEGAL_PHRASE,
+                undertest2.tryToLong(phrase, result));
+        assertEquals("Phrase length 1002 is not between the minimum 3 and maximum 3 "
+                + "phrase lengths.", result.getMessage());
+        assertTryToLongFails(undertest2, "1 ", TranslationResult.Status.ILLEGAL_PHRASE, -1);
+        assertTryToLongFails(undertest2, "1 aa", TranslationResult.Status.ILLEGAL_PHRASE, -1);
+    }
+
+    @Test(expected = IllegalWordException.class)
+    public void testToLongFromUtf8UnexpectedLength() throws Exception {
+        undertest2.toLong("1  a".getBytes(StandardCharsets.UTF_8), 0, 4);
+    }
+
+    @Test
+    public void testToLongUnexpectedLengthKeepsExceptions() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(
+                        new WordProvider(ImmutableList.of(
+                                "a", "b", "cc", "dd", "eee", "fff", "gggg", "hhhh"), "p0"),
+                        new WordProvider(ImmutableList.of("x", "yy", "zzz", "wwww"), "p1"))),
+                new IndexTranslator(ImmutableList.of(3, 2)),
+                new SeparatorsPhraseConstructor(ImmutableList.of("<", " ", ">")),
+                new SeparatorsPhraseConstructor(ImmutableList.of("<", " ", ">")));
+        String phrase = "<a qqqqqqqqqqqqqqqqqq>";
+        String message = "Could not find word 'qqqqqqqqqqqqqqqqqq' in word provider 'p1'";
+        try {
+            translator.toLong(phrase);
+            throw new RuntimeException("Did not throw expected IllegalWordException");
+        } catch (IllegalWordException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+        try {
+            translator.toLong(phrase.getBytes(StandardCharsets.UTF_8), 0, phrase.length());
+            throw new RuntimeException("Did not throw expected IllegalWordException");
+        } catch (IllegalWordException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+        try {
+            translator.toBytes(new byte[1], phrase, 0, 5);
+            throw new RuntimeException("Did not throw expected IllegalWordException");
+        } catch (IllegalWordException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+        try {
+            translator.toLong("<a qqqqqqqqqqqqqqqqqq");
+            throw new RuntimeException("Did not throw expected IllegalPhraseException");
+        } catch (IllegalPhraseException e) {
+            // expected
+        }
+
+        // non-throwing translation still rejects the length without reading the phrase
+        TranslationResult result = new TranslationResult();
+        assertEquals(TranslationResult.Status.ILLEGAL_PHRASE, translator.tryToLong(phrase, result));
+        assertTrue(result.getMessage(), result.getMessage().startsWith("Phrase length 22"));
+        assertFalse(translator.isValid(phrase));
+    }
+
+    @Test
+    public void testToLongOversizedPhraseHasShortMessage() throws Exception {
+        char[] qs = new char[100000];
+        Arrays.fill(qs, 'q');
+        String word = new String(qs);
+        try {
+            undertest2.toLong("1 " + word);
+            throw new RuntimeException("Did not throw expected IllegalWordException");
+        } catch (IllegalWordException e) {
+            assertEquals(word, e.getWord());
+            assertTrue(e.getMessage(), e.getMessage().length() < 1000);
+        }
+        try {
+            undertest2.toLong(word);
+            throw new RuntimeException("Did not throw expected IllegalPhraseException");
+        } catch (IllegalPhraseException e) {
+            assertEquals(word, e.getPhrase());
+            assertTrue(e.getMessage(), e.getMessage().length() < 1000);
+        }
+    }
+
+    @Test
+    public void testGetAdmissionProfile() throws Exception {
+        AdmissionProfile profile = undertest2.getAdmissionProfile();
+        assertEquals(3, profile.getMinChars());
+        assertEquals(3, profile.getMaxChars());
+        assertTrue(profile.admits("5 c", 0, 3));
+        PhraseTranslator translator = new PhraseTranslator(PROVIDER_SEQUENCE, INDEX_TRANSLATOR_2,
+                PHRASE_CONSTRUCTOR_2, PHRASE_CONSTRUCTOR_2::deconstruct);
+        assertEquals(null, translator.getAdmissionProfile());
+    }
+
+    @Test
+    public void testTryToLongOtherDeconstructor() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(PROVIDER_SEQUENCE, INDEX_TRANSLATOR_2,
+                PHRASE_CONSTRUCTOR_2, PHRASE_CONSTRUCTOR_2::deconstruct);
+        TranslationResult result = new TranslationResult();
+        assertEquals(TranslationResult.Status.OK, translator.tryToLong("3 b", result));
+        assertEquals(undertest2.toLong("3 b"), result.getValue());
+        // unknown words take precedence over illegal indices
+        assertTryToLongFails(translator, "5 z", TranslationResult.Status.ILLEGAL_WORD, 1);
+        assertTryToLongFails(translator, "5 a",
+                TranslationResult.Status.WORD_INDEX_OUT_OF_BOUNDS, 0);
+        assertTryToLongFails(translator, "1-a", TranslationResult.Status.ILLEGAL_PHRASE, -1);
+    }
+
+    @Test
+    public void testTryToBytes() throws Exception {
+        TranslationResult result = new TranslationResult();
+        for (int i = 0; i + 1 < TEST_BYTES.length; i++) {
+            byte[] originalBytes = new byte[] {TEST_BYTES[i], TEST_BYTES[i + 1]};
+            String phrase = undertest.fromBytes(originalBytes, 0, 16);
+            byte[] bytes = new byte[2];
+            assertEquals(TranslationResult.Status.OK,
+                    undertest.tryToBytes(bytes, phrase, 0, 16, result));
+            assertArrayEquals(originalBytes, bytes);
+        }
+        byte[] bytes = new byte[] {42};
+        assertEquals(TranslationResult.Status.ILLEGAL_WORD,
+                undertest2.tryToBytes(bytes, "1 z", 0, 3, result));
+        assertArrayEquals(new byte[] {42}, bytes);
+    }
+
+    @Test
+    public void testDecodeField() throws Exception {
+        for (long l : TEST_LONGS) {
+            String phrase = undertest.fromLong(l & 0xFFFF);
+            for (int i = 0; i < 4; i++) {
+                assertEquals((l & 0xFFFF) >>> 4 * i & 0xF, undertest.decodeField(phrase, i));
+            }
+        }
+        // words after the decoded word are not looked up
+        String phrase = undertest2.fromLong(5).replaceAll(" .*", " z");
+        assertEquals(1, undertest2.decodeField(phrase, 0));
+    }
+
+    @Test
+    public void testDecodeBits() throws Exception {
+        for (long l : TEST_LONGS) {
+            long value = l & 0xFFFF;
+            String phrase = undertest.fromLong(value);
+            for (int from = 0; from <= 16; from++) {
+                for (int to = from; to <= 16; to++) {
+                    long expected = (value >>> from) & ((1L << (to - from)) - 1);
+                    assertEquals(expected, undertest.decodeBits(phrase, from, to));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDecodeFieldWordsContainingSeparator() throws Exception {
+        WordProvider cities =
+                new WordProvider(ImmutableList.of("rome", "new", "new york", "oslo"), "");
+        PhraseTranslator translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(cities,
+                        new WordProvider(ImmutableList.of("fog", "york", "jose", "ice"), ""))),
+                new IndexTranslator(ImmutableList.of(2, 2)),
+                new SeparatorsPhraseConstructor(ImmutableList.of("<", " ", ">")),
+                new SeparatorsPhraseConstructor(ImmutableList.of("<", " ", ">")));
+        for (long l = 0; l < 16; l++) {
+            String phrase = translator.fromLong(l);
+            assertEquals(phrase, l & 3, translator.decodeField(phrase, 0));
+            assertEquals(phrase, l >>> 2, translator.decodeField(phrase, 1));
+            assertEquals(phrase, (l >>> 1) & 3, translator.decodeBits(phrase, 1, 3));
+        }
+        assertEquals(cities.indexOf("new york"), translator.decodeField("<new york fog>", 0));
+    }
+
+    @Test(expected = IllegalWordException.class)
+    public void testDecodeFieldIllegalWord() throws Exception {
+        undertest2.decodeField("1 z", 1);
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testDecodeFieldIllegalPhrase() throws Exception {
+        undertest2.decodeField("1-a", 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeBitsOutOfRange() throws Exception {
+        undertest2.decodeBits("1 a", 0, 4);
+    }
+
+    @Test
+    public void testDecodeFieldOtherDeconstructor() throws Exception {
+        PhraseTranslator translator = new PhraseTranslator(PROVIDER_SEQUENCE, INDEX_TRANSLATOR_2,
+                PHRASE_CONSTRUCTOR_2, PHRASE_CONSTRUCTOR_2::deconstruct);
+        assertEquals(undertest2.decodeField("3 b", 1), translator.decodeField("3 b", 1));
+        assertEquals(undertest2.decodeBits("3 b", 1, 3), translator.decodeBits("3 b", 1, 3));
+    }
+
+    @Test
+    public void testIsValid() throws Exception {
+        assertTrue(undertest2.isValid("4 b"));
+        assertFalse(undertest2.isValid("4 c"));
+        assertFalse(undertest2.isValid("4 z"));
+        assertFalse(undertest2.isValid("4-b"));
+        assertFalse(undertest2.isValid("4  b"));
+        assertFalse(undertest2.isValid(""));
+    }
+
+    /**
+     * Assert that a phrase fails to translate, and that the failure is
+     * described like the exception thrown by the checked API, unless the
+     * phrase is rejected for its length, which the checked API doesn't do.
+     */
+    private static void assertTryToLongFails(PhraseTranslator translator, String phrase,
+                                             TranslationResult.Status status, int position) {
+        TranslationResult result = new TranslationResult();
+        assertEquals(status, translator.tryToLong(phrase, result));
+        assertEquals(status, result.getStatus());
+        assertEquals(position, result.getPosition());
+        assertFalse(translator.isValid(phrase));
+        AdmissionProfile profile = translator.getAdmissionProfile();
+        if (profile != null && !profile.admitsLength(phrase.length())) {
+            return;
+        }
+        try {
+            translator.toLong(phrase);
+            throw new RuntimeException("Did not throw expected exception");
+        } catch (Exception e) {
+            assertEquals(e.getClass(), result.toException().getClass());
+            assertEquals(e.getMessage(), result.getMessage());
+        }
+    }
+
     public static byte[] intsToBytes(Integer... ints) {
         byte[] result = new byte[ints.length];
         for (int i = 0; i < ints.length; i++) {
@@ -7,11 +7,16 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static com.chedbrandh.gibberish.PhraseTranslatorEndToEndTest.intsToBytes;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -27,6 +32,10 @@ public class PhraseTranslatorTest {
     private static final List<Integer> INDICES = ImmutableList.of(1, 2);
     private static final List<String> WORDS = ImmutableList.of("foo", "bar");
     private static final String PHRASE = "apabpacpa";
+    private static final List<WordProvider> WORD_PROVIDERS = ImmutableList.of(
+            new WordProvider(ImmutableList.of("a", "bb", "ccc", "dddd"), ""),
+            new WordProvider(ImmutableList.of("a", "b", "c", "d", "e", "f", "g", "hh"), ""));
+    private static final int SEPARATORS_LENGTH = 3;
 
     @Mock private WordProviderSequence wordProviderSequence;
     @Mock private IndexTranslator indexTranslator;
@@ -48,7 +57,12 @@ public class PhraseTranslatorTest {
         when(wordProviderSequence.getWords(INDICES)).thenReturn(WORDS);
         when(wordProviderSequence.getIndices(WORDS)).thenReturn(INDICES);
 
+        when(wordProviderSequence.getWordProviders()).thenReturn(WORD_PROVIDERS);
+
         when(phraseConstructor.construct(WORDS)).thenReturn(PHRASE);
+        when(phraseConstructor.separatorsLength()).thenReturn(SEPARATORS_LENGTH);
+        doAnswer(invocation -> ((StringBuilder) invocation.getArguments()[1]).append(PHRASE))
+                .when(phraseConstructor).construct(eq(WORDS), any(StringBuilder.class));
         when(phraseDeconstructor.deconstruct(PHRASE)).thenReturn(WORDS);
 
         // construct translator to test
@@ -59,6 +73,8 @@ public class PhraseTranslatorTest {
         verify(indexTranslator).bitCoverage();
         verify(indexTranslator).bitDistribution();
         verify(wordProviderSequence).verifyProviderBitCoverage(BIT_DISTRIBUTION);
+        verify(wordProviderSequence).getWordProviders();
+        verify(phraseConstructor).separatorsLength();
         verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
     }
 
@@ -90,6 +106,60 @@ public class PhraseTranslatorTest {
         verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
     }
 
+    @Test
+    public void testFromBytesToStringBuilder() throws Exception {
+        StringBuilder stringBuilder = new StringBuilder("x");
+        undertest.fromBytes(BYTES, FROM_BIT_INDEX, TO_BIT_INDEX, stringBuilder);
+        assertEquals("x" + PHRASE, stringBuilder.toString());
+        verify(indexTranslator).fromBytes(BYTES, FROM_BIT_INDEX, TO_BIT_INDEX);
+        verify(wordProviderSequence).getWords(INDICES);
+        verify(phraseConstructor).construct(eq(WORDS), any(StringBuilder.class));
+        verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
+    }
+
+    @Test
+    public void testFromLongToStringBuilder() throws Exception {
+        StringBuilder stringBuilder = new StringBuilder();
+        undertest.fromLong(BYTES[0], stringBuilder);
+        assertEquals(PHRASE, stringBuilder.toString());
+        verify(indexTranslator).fromBytes(BYTES, 0, BIT_COVERAGE);
+        verify(wordProviderSequence).getWords(INDICES);
+        verify(phraseConstructor).construct(eq(WORDS), any(StringBuilder.class));
+        verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
+    }
+
+    @Test
+    public void testFromLongToAppendable() throws Exception {
+        Appendable appendable = new StringBuilder();
+        undertest.fromLong(BYTES[0], appendable);
+        verify(indexTranslator).fromBytes(BYTES, 0, BIT_COVERAGE);
+        verify(wordProviderSequence).getWords(INDICES);
+        verify(phraseConstructor).construct(WORDS, appendable);
+        verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
+    }
+
+    @Test
+    public void testFromLongToUtf8() throws Exception {
+        byte[] bytes = new byte[12];
+        assertEquals(PHRASE.length(), undertest.fromLong(BYTES[0], bytes, 2));
+        assertEquals(PHRASE, new String(bytes, 2, PHRASE.length(), StandardCharsets.UTF_8));
+        verify(indexTranslator).fromBytes(BYTES, 0, BIT_COVERAGE);
+        verify(wordProviderSequence).getWords(INDICES);
+        verify(phraseConstructor).construct(WORDS);
+        verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
+    }
+
+    @Test
+    public void testFromLongToCharArray() throws Exception {
+        char[] chars = new char[10];
+        when(phraseConstructor.construct(WORDS, chars, 3)).thenReturn(PHRASE.length());
+        assertEquals(PHRASE.length(), undertest.fromLong(BYTES[0], chars, 3));
+        verify(indexTranslator).fromBytes(BYTES, 0, BIT_COVERAGE);
+        verify(wordProviderSequence).getWords(INDICES);
+        verify(phraseConstructor).construct(WORDS, chars, 3);
+        verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
+    }
+
     @Test
     public void testToLong() throws Exception {
         undertest.toLong(PHRASE);
@@ -101,6 +171,16 @@ public class PhraseTranslatorTest {
         verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
     }
 
+    @Test
+    public void testToLongFromRegion() throws Exception {
+        undertest.toLong("<" + PHRASE + ">", 1, PHRASE.length() + 1);
+        verify(phraseDeconstructor).deconstruct(PHRASE);
+        verify(wordProviderSequence).getIndices(WORDS);
+        verify(indexTranslator, times(2)).bitDistribution();
+        verify(indexTranslator).toBytes(new byte[] {0}, INDICES, 0, BIT_COVERAGE);
+        verifyNoMoreInteractions(indexTranslator, wordProviderSequence, phraseConstructor);
+    }
+
     @Test
     public void testLongToBytes() throws Exception {
         assertArrayEquals(new byte[] {7}, PhraseTranslator.longToBytes(7, 8));
@@ -128,6 +208,41 @@ public class PhraseTranslatorTest {
         assertEquals(42 + 1, PhraseTranslator.numBitsToNumBytes(Byte.SIZE * 42 + 1));
     }
 
+    @Test
+    public void testMaxPhraseLength() throws Exception {
+        assertEquals(4 + 2 + SEPARATORS_LENGTH, undertest.maxPhraseLength());
+    }
+
+    @Test
+    public void testLengthStatistics() throws Exception {
+        PhraseLengthStatistics statistics = undertest.lengthStatistics();
+        assertEquals(undertest.maxPhraseLength(), statistics.getMaxLength());
+        assertEquals(1 + 1 + SEPARATORS_LENGTH, statistics.getMinLength());
+        assertEquals(2.5 + 1.125 + SEPARATORS_LENGTH, statistics.getMeanLength(), 1e-9);
+        assertSame(statistics, undertest.lengthStatistics());
+    }
+
+    @Test
+    public void testUnknownSeparatorsLength() throws Exception {
+        IPhraseConstructor phraseConstructor = words -> String.join("+", words);
+        PhraseTranslator translator = new PhraseTranslator(new WordProviderSequence(
+                WORD_PROVIDERS), new IndexTranslator(BIT_DISTRIBUTION), phraseConstructor,
+                phraseDeconstructor);
+        assertEquals(-1, phraseConstructor.separatorsLength());
+        assertEquals(-1, translator.maxPhraseLength());
+        assertEquals("ccc+c", translator.fromLong(0b01010));
+        StringBuilder stringBuilder = new StringBuilder(">");
+        translator.fromLong(0b01010, stringBuilder);
+        assertEquals(">ccc+c", stringBuilder.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownSeparatorsLengthStatistics() throws Exception {
+        new PhraseTranslator(new WordProviderSequence(WORD_PROVIDERS),
+                new IndexTranslator(BIT_DISTRIBUTION), words -> String.join("+", words),
+                phraseDeconstructor).lengthStatistics();
+    }
+
     @Test
     public void testGetIndexTranslator() throws Exception {
         assertEquals(indexTranslator, undertest.getIndexTranslator());
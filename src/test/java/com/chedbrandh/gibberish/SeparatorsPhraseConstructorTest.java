@@ -4,8 +4,14 @@ import com.google.common.collect.ImmutableList;
 import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
 import org.junit.Test;
 
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 
@@ -33,6 +39,73 @@ public class SeparatorsPhraseConstructorTest {
         assertEquals(words, undertest.deconstruct(actualPhrase));
     }
 
+    @Test
+    public void testSeparatorsLength() throws Exception {
+        assertEquals(9, new SeparatorsPhraseConstructor(
+                ImmutableList.of("foo", "bar", "baz")).separatorsLength());
+        assertEquals(1, new SeparatorsPhraseConstructor(
+                ImmutableList.of("", " ", "")).separatorsLength());
+    }
+
+    @Test
+    public void testUtf8Separators() throws Exception {
+        List<String> separators = ImmutableList.of("\u00ab", "\u20ac", "");
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(separators);
+        assertEquals(5, undertest.utf8SeparatorsLength());
+        for (int i = 0; i < separators.size(); i++) {
+            assertArrayEquals(separators.get(i).getBytes(StandardCharsets.UTF_8),
+                    undertest.getUtf8Separator(i));
+        }
+    }
+
+    @Test
+    public void testConstructedLength() throws Exception {
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(
+                ImmutableList.of("<", "-", ">"));
+        assertEquals(8, undertest.constructedLength(ImmutableList.of("foo", "ba")));
+        assertEquals(8, undertest.construct(ImmutableList.of("foo", "ba")).length());
+    }
+
+    @Test
+    public void testConstructToSinks() throws Exception {
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(
+                ImmutableList.of("<", "-", ">"));
+        List<String> words = ImmutableList.of("foo", "ba");
+
+        StringBuilder stringBuilder = new StringBuilder("x");
+        undertest.construct(words, stringBuilder);
+        assertEquals("x<foo-ba>", stringBuilder.toString());
+
+        StringWriter writer = new StringWriter();
+        undertest.construct(words, (Appendable) writer);
+        assertEquals("<foo-ba>", writer.toString());
+
+        CharBuffer charBuffer = CharBuffer.allocate(10);
+        charBuffer.put('x');
+        undertest.construct(words, charBuffer);
+        charBuffer.flip();
+        assertEquals("x<foo-ba>", charBuffer.toString());
+
+        char[] chars = new char[10];
+        assertEquals(8, undertest.construct(words, chars, 2));
+        assertEquals("<foo-ba>", new String(chars, 2, 8));
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testConstructCharBufferOverflow() throws Exception {
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(
+                ImmutableList.of("<", "-", ">"));
+        CharBuffer charBuffer = CharBuffer.allocate(7);
+        undertest.construct(ImmutableList.of("foo", "ba"), charBuffer);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testConstructCharArrayOverflow() throws Exception {
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(
+                ImmutableList.of("<", "-", ">"));
+        undertest.construct(ImmutableList.of("foo", "ba"), new char[10], 3);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testConstructWrongNumberOfWords() throws Exception {
         List<String> separators = ImmutableList.of("foo", "bar", "baz");
@@ -41,6 +114,49 @@ public class SeparatorsPhraseConstructorTest {
         undertest.construct(words);
     }
 
+    @Test
+    public void testDeconstructRegion() throws Exception {
+        List<String> separators = ImmutableList.of("foo", "bar", "baz");
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(separators);
+        int[] wordBounds = new int[4];
+        undertest.deconstruct("xxfoo123bar234bazxx", 2, 17, wordBounds);
+        assertArrayEquals(new int[] {5, 8, 11, 14}, wordBounds);
+        undertest.deconstruct(new StringBuilder("foobarbaz"), 0, 9, wordBounds);
+        assertArrayEquals(new int[] {3, 3, 6, 6}, wordBounds);
+    }
+
+    @Test
+    public void testDeconstructUtf8() throws Exception {
+        List<String> separators = ImmutableList.of("\u00ab", "\u20ac", "\u00bb");
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(separators);
+        byte[] bytes = "x\u00ab12\u20ac\u00e5\u00bb".getBytes(StandardCharsets.UTF_8);
+        int[] wordBounds = new int[4];
+        undertest.deconstructUtf8(ByteBuffer.wrap(bytes), 1, bytes.length, wordBounds);
+        assertArrayEquals(new int[] {3, 5, 8, 10}, wordBounds);
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testDeconstructUtf8MissingSeparator() throws Exception {
+        List<String> separators = ImmutableList.of("\u00ab", "\u20ac", "\u00bb");
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(separators);
+        byte[] bytes = "\u00ab12-\u00e5\u00bb".getBytes(StandardCharsets.UTF_8);
+        undertest.deconstructUtf8(ByteBuffer.wrap(bytes), 0, bytes.length, new int[4]);
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testDeconstructRegionMissingSuffix() throws Exception {
+        List<String> separators = ImmutableList.of("foo", "bar", "baz");
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(separators);
+        undertest.deconstruct("xxfoo123bar234bazxx", 2, 16, new int[4]);
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testDeconstructOverlappingPrefixAndSuffix() throws Exception {
+        List<String> separators = ImmutableList.of("ab", "-", "ba");
+        SeparatorsPhraseConstructor undertest = new SeparatorsPhraseConstructor(separators);
+        undertest.deconstruct("aba");
+    }
+
     @Test(expected = IllegalPhraseException.class)
     public void testDeconstructMissingPrefix() throws Exception {
         List<String> separators = ImmutableList.of("foo", "bar", "baz");
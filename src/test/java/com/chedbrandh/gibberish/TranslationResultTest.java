@@ -0,0 +1,84 @@
+package com.chedbrandh.gibberish;
+
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.chedbrandh.gibberish.exceptions.IllegalWordException;
+import com.chedbrandh.gibberish.exceptions.WordIndexOutOfBoundsException;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TranslationResultTest {
+
+    private static final WordProvider WORDS =
+            new WordProvider(ImmutableList.of("foo", "bar"), "words");
+
+    @Test
+    public void testOk() throws Exception {
+        TranslationResult undertest = new TranslationResult();
+        undertest.reset(2);
+        undertest.setValue(42);
+        assertTrue(undertest.isOk());
+        assertEquals(42, undertest.getValue());
+        assertNull(undertest.getMessage());
+        assertNull(undertest.toException());
+        undertest.check();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testValueOfFailure() throws Exception {
+        TranslationResult undertest = new TranslationResult();
+        undertest.reset(2);
+        undertest.illegalWord(1, "<foo baz>", 5, 8, WORDS);
+        undertest.getValue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testValueNotFittingInLong() throws Exception {
+        TranslationResult undertest = new TranslationResult();
+        undertest.reset(2);
+        undertest.getValue();
+    }
+
+    @Test(expected = IllegalWordException.class)
+    public void testCheckIllegalWord() throws Exception {
+        TranslationResult undertest = new TranslationResult();
+        undertest.reset(2);
+        undertest.illegalWord(1, "<foo baz>", 5, 8, WORDS);
+        assertEquals("Could not find word 'baz' in word provider 'words'.",
+                undertest.getMessage());
+        undertest.check();
+    }
+
+    @Test(expected = WordIndexOutOfBoundsException.class)
+    public void testCheckWordIndexOutOfBounds() throws Exception {
+        TranslationResult undertest = new TranslationResult();
+        undertest.reset(2);
+        undertest.wordIndexOutOfBounds(0, "<foo baz>", 1, 4, 1, 0);
+        assertEquals(1, ((WordIndexOutOfBoundsException) undertest.toException()).getIndex());
+        undertest.check();
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testCheckIllegalPhrase() throws Exception {
+        TranslationResult undertest = new TranslationResult();
+        undertest.reset(2);
+        undertest.expectedSeparator("<foo-baz>", 1, 8, " ");
+        assertEquals(-1, undertest.getPosition());
+        assertEquals("foo-baz",
+                ((IllegalPhraseException) undertest.toException()).getPhrase());
+        undertest.check();
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        TranslationResult undertest = new TranslationResult();
+        undertest.reset(2);
+        undertest.illegalWord(1, "<foo baz>", 5, 8, WORDS);
+        undertest.reset(2);
+        assertTrue(undertest.isOk());
+        assertEquals(-1, undertest.getPosition());
+    }
+}
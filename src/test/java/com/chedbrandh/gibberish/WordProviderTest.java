@@ -6,9 +6,14 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 
 public class WordProviderTest {
@@ -30,6 +35,30 @@ public class WordProviderTest {
         assertEquals("xyz", new WordProvider(Iterables.concat(WORDS_1, WORDS_4), "").get(6));
     }
 
+    @Test
+    public void testGetUtf8() throws Exception {
+        WordProvider undertest = new WordProvider(ImmutableList.of("b", "\u00e5", "\u20ac"), "");
+        for (int i = 0; i < undertest.size(); i++) {
+            assertArrayEquals(undertest.get(i).getBytes(StandardCharsets.UTF_8),
+                    undertest.getUtf8(i));
+        }
+    }
+
+    @Test
+    public void testReorder() throws Exception {
+        WordProvider undertest = new WordProvider(ImmutableList.of("bb", "a", "ccc", "b"), "foo")
+                .reorder(3, Comparator.reverseOrder());
+        assertEquals(ImmutableList.of("bb", "b", "a", "ccc"), undertest);
+        assertEquals(1, undertest.indexOf("b"));
+        assertEquals("foo", undertest.getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReorderFailEqualWords() throws Exception {
+        new WordProvider(ImmutableList.of("a", "B", "b"), "")
+                .reorder(3, String.CASE_INSENSITIVE_ORDER);
+    }
+
     @Test
     public void testGetName() throws Exception {
         assertEquals("foo", new WordProvider(WORDS_1, "foo").getName());
@@ -53,6 +82,43 @@ public class WordProviderTest {
         assertEquals(-1, new WordProvider(WORDS_4, "").indexOf("blargh"));
     }
 
+    @Test
+    public void testGetIndexOfRegion() throws Exception {
+        WordProvider undertest = new WordProvider(WORDS_4, "");
+        assertEquals(3, undertest.indexOf("--abc--", 2, 5));
+        assertEquals(1, undertest.indexOf(new StringBuilder("--abc--"), 2, 3));
+        assertEquals(-1, undertest.indexOf("--abc--", 1, 5));
+        assertEquals(-1, undertest.indexOf("--abc--", 2, 2));
+    }
+
+    @Test
+    public void testGetIndexOfUtf8() throws Exception {
+        WordProvider undertest = new WordProvider(ImmutableList.of("b", "\u00e5", "\u20ac"), "");
+        byte[] bytes = "x\u20acb\u00e5".getBytes(StandardCharsets.UTF_8);
+        assertEquals(2, undertest.indexOfUtf8(bytes, 1, 4));
+        assertEquals(0, undertest.indexOfUtf8(bytes, 4, 5));
+        assertEquals(1, undertest.indexOfUtf8(ByteBuffer.wrap(bytes), 5, 7));
+        assertEquals(-1, undertest.indexOfUtf8(bytes, 0, 1));
+        assertEquals(-1, undertest.indexOfUtf8(bytes, 1, 5));
+    }
+
+    @Test
+    public void testGetIndexManyWords() throws Exception {
+        List<String> words = Lists.newArrayList();
+        for (int i = 0; i < 1000; i++) {
+            words.add(Integer.toString(i, 36));
+        }
+        WordProvider undertest = new WordProvider(words, "");
+        for (int i = 0; i < undertest.size(); i++) {
+            assertEquals(i, undertest.indexOf(undertest.get(i)));
+            String word = undertest.get(i);
+            assertEquals(i, undertest.indexOf(" " + word, 1, word.length() + 1));
+        }
+        assertEquals(-1, undertest.indexOf("zzz"));
+        assertEquals(-1, undertest.indexOf(42));
+        assertTrue(undertest.contains("rr"));
+    }
+
     @Test
     public void testMeanWordLength() throws Exception {
         Iterable<String> words = ImmutableSet.of("a", "ab", "abc", "abcd", "abcde");
@@ -0,0 +1,89 @@
+package com.chedbrandh.gibberish.correction;
+
+import com.chedbrandh.gibberish.WordProvider;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DeletionIndexTest {
+
+    private static final WordProvider WORDS = new WordProvider(
+            ImmutableList.of("squid", "squad", "quid", "crab", "cod", "code"), "words");
+    private static final int SIZE = WORDS.size();
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    @Test
+    public void testLookup() throws Exception {
+        DeletionIndex undertest = new DeletionIndex(WORDS, 2, Long.MAX_VALUE);
+        assertEquals(ImmutableList.of(match("quid", 1), match("squad", 1), match("squid", 0))
+                        .stream().sorted().collect(Collectors.toList()),
+                lookup(undertest, "squid", 1, SIZE));
+        assertEquals(ImmutableList.of(match("crab", 1)), lookup(undertest, "carb", 1, SIZE));
+        assertEquals(ImmutableList.of(match("cod", 1), match("code", 2)),
+                lookup(undertest, "cdo", 2, SIZE));
+        assertEquals(ImmutableList.of(), lookup(undertest, "eel", 2, SIZE));
+    }
+
+    @Test
+    public void testLookupMaxIndex() throws Exception {
+        DeletionIndex undertest = new DeletionIndex(WORDS, 1, Long.MAX_VALUE);
+        assertEquals(ImmutableList.of(match("cod", 1), match("code", 1)),
+                lookup(undertest, "coe", 1, SIZE));
+        assertEquals(ImmutableList.of(match("cod", 1)),
+                lookup(undertest, "coe", 1, WORDS.indexOf("code")));
+    }
+
+    @Test
+    public void testLookupDeadlinePassed() throws Exception {
+        DeletionIndex undertest = new DeletionIndex(WORDS, 1, Long.MAX_VALUE);
+        assertEquals(ImmutableList.of(),
+                undertest.lookup("squid", 1, SIZE, System.nanoTime() - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookupEditDistanceTooLarge() throws Exception {
+        new DeletionIndex(WORDS, 1, Long.MAX_VALUE).lookup("squid", 2, SIZE, NO_DEADLINE);
+    }
+
+    @Test
+    public void testEstimatedBytes() throws Exception {
+        DeletionIndex small = new DeletionIndex(WORDS, 1, Long.MAX_VALUE);
+        DeletionIndex large = new DeletionIndex(WORDS, 2, Long.MAX_VALUE);
+        assertTrue(small.estimatedBytes() > 0);
+        assertTrue(small.size() < large.size());
+        assertTrue(small.estimatedBytes() < large.estimatedBytes());
+        new DeletionIndex(WORDS, 2, large.estimatedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMemoryBudgetExceeded() throws Exception {
+        long bytes = new DeletionIndex(WORDS, 2, Long.MAX_VALUE).estimatedBytes();
+        new DeletionIndex(WORDS, 2, bytes - 1);
+    }
+
+    @Test
+    public void testEditDistance() throws Exception {
+        assertEquals(0, DeletionIndex.editDistance("squid", "squid", 2));
+        assertEquals(1, DeletionIndex.editDistance("squid", "squad", 2));
+        assertEquals(1, DeletionIndex.editDistance("squid", "sqiud", 2));
+        assertEquals(1, DeletionIndex.editDistance("squid", "quid", 2));
+        assertEquals(2, DeletionIndex.editDistance("squid", "qiud", 2));
+        assertEquals(3, DeletionIndex.editDistance("squid", "crab", 2));
+        assertEquals(3, DeletionIndex.editDistance("squid", "", 2));
+    }
+
+    private static DeletionIndex.Match match(String word, int distance) {
+        return new DeletionIndex.Match(WORDS.indexOf(word), distance);
+    }
+
+    private static List<DeletionIndex.Match> lookup(
+            DeletionIndex index, String word, int editDistance, int maxIndex) {
+        return index.lookup(word, editDistance, maxIndex, NO_DEADLINE);
+    }
+}
@@ -0,0 +1,127 @@
+package com.chedbrandh.gibberish.correction;
+
+import com.chedbrandh.gibberish.IndexTranslator;
+import com.chedbrandh.gibberish.PhraseTranslator;
+import com.chedbrandh.gibberish.SeparatorsPhraseConstructor;
+import com.chedbrandh.gibberish.WordProvider;
+import com.chedbrandh.gibberish.WordProviderSequence;
+import com.chedbrandh.gibberish.exceptions.IllegalPhraseException;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PhraseCorrectorTest {
+
+    private static final WordProvider ADJECTIVES = new WordProvider(
+            ImmutableList.of("sad", "mad", "odd", "bad"), "adjectives");
+    private static final WordProvider NOUNS = new WordProvider(
+            ImmutableList.of("squid", "squad", "crab", "cod", "octopus"), "nouns");
+
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("", " ", ""));
+
+    private PhraseTranslator translator;
+    private PhraseCorrector undertest;
+
+    @Before
+    public void before() throws Exception {
+        translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(ADJECTIVES, NOUNS)),
+                new IndexTranslator(ImmutableList.of(2, 2)), SEPARATORS, SEPARATORS);
+        undertest = new PhraseCorrector(translator, 2, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testCorrectExact() throws Exception {
+        PhraseCorrector.Result result = correct("sad squid", 10);
+        assertTrue(result.isComplete());
+        assertEquals(ImmutableList.of("sad squid"), phrases(result));
+        assertEquals(translator.toLong("sad squid"), result.getCandidates().get(0).getValue());
+        assertEquals(0, result.getCandidates().get(0).getDistance());
+    }
+
+    @Test
+    public void testCorrectRanked() throws Exception {
+        PhraseCorrector.Result result = correct("sad sqiud", 10);
+        assertEquals(ImmutableList.of("sad squid", "sad squad"), phrases(result));
+        assertEquals(ImmutableList.of(1, 2), result.getCandidates().stream()
+                .map(PhraseCorrector.Candidate::getDistance).collect(Collectors.toList()));
+        for (PhraseCorrector.Candidate candidate : result.getCandidates()) {
+            assertEquals(translator.toLong(candidate.getPhrase()), candidate.getValue());
+        }
+    }
+
+    @Test
+    public void testCorrectCombinations() throws Exception {
+        PhraseCorrector.Result result = correct("xad crab", 10);
+        assertEquals(ImmutableList.of("bad crab", "mad crab", "sad crab", "odd crab"),
+                phrases(result));
+        assertEquals(ImmutableList.of("bad crab", "mad crab"), phrases(correct("xad crab", 2)));
+        assertEquals(ImmutableList.of("bad cod", "mad cod"), phrases(correct("xad cbd", 2)));
+    }
+
+    @Test
+    public void testCorrectUnreachableWord() throws Exception {
+        // "octopus" is the longest word, which 2 bits can't reach
+        assertEquals(ImmutableList.of(), phrases(correct("sad octopus", 10)));
+        assertEquals(ImmutableList.of(), phrases(correct("sad octopuss", 10)));
+    }
+
+    @Test
+    public void testCorrectNoCandidates() throws Exception {
+        PhraseCorrector.Result result = correct("sad whale", 10);
+        assertTrue(result.isComplete());
+        assertEquals(ImmutableList.of(), result.getCandidates());
+    }
+
+    @Test
+    public void testCorrectTimeBudgetUsedUp() throws Exception {
+        PhraseCorrector.Result result =
+                undertest.correct("xad crab", 10, 0, TimeUnit.NANOSECONDS);
+        assertFalse(result.isComplete());
+    }
+
+    @Test(expected = IllegalPhraseException.class)
+    public void testCorrectIllegalPhrase() throws Exception {
+        correct("sadsquid", 10);
+    }
+
+    @Test
+    public void testEstimatedBytes() throws Exception {
+        long adjectives = new DeletionIndex(ADJECTIVES, 2, Long.MAX_VALUE).estimatedBytes();
+        long nouns = new DeletionIndex(NOUNS, 2, Long.MAX_VALUE).estimatedBytes();
+        assertEquals(adjectives + nouns, undertest.estimatedBytes());
+    }
+
+    @Test
+    public void testSharedWordProvider() throws Exception {
+        PhraseTranslator shared = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(NOUNS, NOUNS)),
+                new IndexTranslator(ImmutableList.of(2, 2)), SEPARATORS, SEPARATORS);
+        long nouns = new DeletionIndex(NOUNS, 2, Long.MAX_VALUE).estimatedBytes();
+        assertEquals(nouns, new PhraseCorrector(shared, 2, nouns).estimatedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMemoryBudgetExceeded() throws Exception {
+        new PhraseCorrector(translator, 2, undertest.estimatedBytes() - 1);
+    }
+
+    private PhraseCorrector.Result correct(String phrase, int maxCandidates)
+            throws IllegalPhraseException {
+        return undertest.correct(phrase, maxCandidates, 1, TimeUnit.MINUTES);
+    }
+
+    private static List<String> phrases(PhraseCorrector.Result result) {
+        return result.getCandidates().stream()
+                .map(PhraseCorrector.Candidate::getPhrase).collect(Collectors.toList());
+    }
+}
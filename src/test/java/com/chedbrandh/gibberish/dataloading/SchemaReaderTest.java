@@ -2,8 +2,17 @@ package com.chedbrandh.gibberish.dataloading;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.chedbrandh.gibberish.BitFieldCodec;
+import com.chedbrandh.gibberish.Collation;
+import com.chedbrandh.gibberish.MaterializedPhraseTable;
 import com.chedbrandh.gibberish.PhraseTranslator;
 import com.chedbrandh.gibberish.exceptions.DuplicateWordException;
+import com.chedbrandh.gibberish.ids.SnowflakeLayout;
+import com.chedbrandh.gibberish.optimization.OptimizerStats;
+import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Direction;
+import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Input;
+import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Output;
 import org.junit.Test;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.ConstructorException;
@@ -16,6 +25,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.regex.Pattern;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -42,6 +52,134 @@ public class SchemaReaderTest {
         assertEquals(3, schemaReader.getTranslators().size());
     }
 
+    @Test
+    public void testGetOptimizationStats() throws Exception {
+        SchemaReader schemaReader = new SchemaReader(getTestSchema());
+        assertEquals(ImmutableSet.of("optimized_translator"),
+                schemaReader.getOptimizationStats().keySet());
+        OptimizerStats<Input, Output, Direction> stats =
+                schemaReader.getOptimizationStats().get("optimized_translator");
+        assertTrue(stats.getEvaluationCount() > 0);
+        assertEquals(schemaReader.getTranslators().get("optimized_translator")
+                .getIndexTranslator().bitDistribution(), stats.getBestInput().bitDistribution());
+    }
+
+    @Test
+    public void testOptimizationRestarts() throws Exception {
+        List<Integer> expected = new SchemaReader(getTestSchema()).getTranslators()
+                .get("optimized_translator").getIndexTranslator().bitDistribution();
+        Schema schema = getTestSchema();
+        schema.translators.get("optimized_translator").optimization_restarts = 10;
+        schema.translators.get("optimized_translator").optimization_seed = 42;
+        SchemaReader schemaReader = new SchemaReader(schema);
+        assertEquals(expected, schemaReader.getTranslators()
+                .get("optimized_translator").getIndexTranslator().bitDistribution());
+        OptimizerStats<Input, Output, Direction> stats =
+                schemaReader.getOptimizationStats().get("optimized_translator");
+        assertEquals(expected, stats.getBestInput().bitDistribution());
+        assertTrue(stats.getEvaluationCount() > new SchemaReader(getTestSchema())
+                .getOptimizationStats().get("optimized_translator").getEvaluationCount());
+    }
+
+    @Test
+    public void testOptimizationBudgets() throws Exception {
+        List<Integer> expected = new SchemaReader(getTestSchema()).getTranslators()
+                .get("optimized_translator").getIndexTranslator().bitDistribution();
+        Schema schema = getTestSchema();
+        schema.translators.get("optimized_translator").optimization_restarts = 10;
+        schema.translators.get("optimized_translator").optimization_parallelism = 2;
+        schema.translators.get("optimized_translator").optimization_time_budget_millis = 60000;
+        schema.translators.get("optimized_translator").optimization_evaluation_budget = 1;
+        SchemaReader schemaReader = new SchemaReader(schema);
+        // the run from the legal starting input uses up the evaluation budget
+        assertEquals(expected, schemaReader.getTranslators()
+                .get("optimized_translator").getIndexTranslator().bitDistribution());
+        assertEquals(new SchemaReader(getTestSchema()).getOptimizationStats()
+                        .get("optimized_translator").getEvaluationCount(),
+                schemaReader.getOptimizationStats()
+                        .get("optimized_translator").getEvaluationCount());
+    }
+
+    @Test
+    public void testLenientDecoders() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").lenient_decoding = true;
+        SchemaReader schemaReader = new SchemaReader(schema);
+        assertEquals(ImmutableSet.of("foo_bar_baz"), schemaReader.getLenientDecoders().keySet());
+        PhraseTranslator translator = schemaReader.getTranslators().get("foo_bar_baz");
+        String phrase = translator.fromLong(21);
+        assertEquals(21, schemaReader.getLenientDecoders().get("foo_bar_baz")
+                .toLong(" " + phrase.toUpperCase().replace(" ", "  ") + "!"));
+    }
+
+    @Test
+    public void testSnowflakeLayouts() throws Exception {
+        Schema schema = getTestSchema();
+        Schema.Snowflake snowflake = new Schema.Snowflake();
+        snowflake.timestamp_bits = 3;
+        snowflake.node_bits = 2;
+        snowflake.epoch_millis = 1000;
+        schema.translators.get("foo_bar_baz").snowflake = snowflake;
+        SchemaReader schemaReader = new SchemaReader(schema);
+        assertEquals(ImmutableSet.of("foo_bar_baz"), schemaReader.getSnowflakeLayouts().keySet());
+        SnowflakeLayout layout = schemaReader.getSnowflakeLayouts().get("foo_bar_baz");
+        assertEquals(5, layout.getNumBits());
+        assertEquals(1000, layout.getEpochMillis());
+        assertEquals(1, layout.getTickMillis());
+    }
+
+    @Test
+    public void testOrderPreserving() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").order_preserving = true;
+        PhraseTranslator translator =
+                new SchemaReader(schema).getTranslators().get("foo_bar_baz");
+        assertTrue(translator.getIndexTranslator().isMostSignificantFirst());
+        String previous = translator.fromLong(0);
+        for (long l = 1; l < 32; l++) {
+            String phrase = translator.fromLong(l);
+            assertTrue(Collation.UTF8.comparator().compare(previous, phrase) < 0);
+            assertEquals(l, translator.toLong(phrase));
+            previous = phrase;
+        }
+    }
+
+    @Test
+    public void testMaterializedTables() throws Exception {
+        Schema schema = getTestSchema();
+        PhraseTranslator translator =
+                new SchemaReader(schema).getTranslators().get("foo_bar_baz");
+        long sizeInBytes = MaterializedPhraseTable.sizeInBytes(translator);
+        schema.translators.get("foo_bar_baz").materialize_max_bytes = sizeInBytes;
+        schema.translators.get("optimized_translator").materialize_max_bytes = 1;
+        SchemaReader schemaReader = new SchemaReader(schema);
+        assertEquals(ImmutableSet.of("foo_bar_baz"), schemaReader.getMaterializedTables().keySet());
+        MaterializedPhraseTable table = schemaReader.getMaterializedTables().get("foo_bar_baz");
+        for (long l = 0; l < 32; l++) {
+            assertEquals(translator.fromLong(l), table.fromLong(l));
+            assertEquals(l, table.toLong(translator.fromLong(l)));
+        }
+    }
+
+    @Test
+    public void testBitFieldCodecs() throws Exception {
+        Schema schema = getTestSchema();
+        Schema.Field shard = new Schema.Field();
+        shard.name = "shard";
+        shard.bits = 2;
+        Schema.Field year = new Schema.Field();
+        year.name = "year";
+        year.bits = 3;
+        year.min = 2020L;
+        schema.translators.get("foo_bar_baz").fields = ImmutableList.of(shard, year);
+        SchemaReader schemaReader = new SchemaReader(schema);
+        assertEquals(ImmutableSet.of("foo_bar_baz"), schemaReader.getBitFieldCodecs().keySet());
+        BitFieldCodec codec = schemaReader.getBitFieldCodecs().get("foo_bar_baz");
+        assertEquals(2027, codec.getLayout().getFields().get(1).getMax());
+        long[] values = new long[] {3, 2025};
+        assertArrayEquals(values, codec.decode(codec.encode(values)));
+    }
+
     @Test(expected = ConstructorException.class)
     public void testConstructorFail() throws Exception {
         new SchemaReader(new ByteArrayInputStream("foo".getBytes()));
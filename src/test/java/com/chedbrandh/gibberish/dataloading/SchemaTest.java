@@ -162,6 +162,122 @@ public class SchemaTest {
         schema.verifySemantics();
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailNegativeOptimizationRestarts() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.values().iterator().next().optimization_restarts = -1;
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailNegativeOptimizationParallelism() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.values().iterator().next().optimization_parallelism = -1;
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailNegativeOptimizationTimeBudget() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.values().iterator().next().optimization_time_budget_millis = -1;
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailNegativeOptimizationEvaluationBudget() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.values().iterator().next().optimization_evaluation_budget = -1;
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailNegativeMaterializeMaxBytes() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.values().iterator().next().materialize_max_bytes = -1;
+        schema.verifySemantics();
+    }
+
+    @Test
+    public void testVerifySemanticsSnowflake() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").snowflake = snowflake(3, 1, 1);
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailSnowflakeBitsSum() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").snowflake = snowflake(3, 1, 2);
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailNegativeSnowflakeBits() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").snowflake = snowflake(6, -1, 0);
+        schema.verifySemantics();
+    }
+
+    @Test
+    public void testVerifySemanticsFields() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").fields = ImmutableList.of(field(2), field(3));
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailFieldsBitsSum() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").fields = ImmutableList.of(field(2), field(2));
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailNonPositiveFieldBits() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").fields = ImmutableList.of(field(5), field(0));
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailMissingFieldName() throws Exception {
+        Schema schema = getTestSchema();
+        Schema.Field field = field(5);
+        field.name = null;
+        schema.translators.get("foo_bar_baz").fields = ImmutableList.of(field);
+        schema.verifySemantics();
+    }
+
+    @Test
+    public void testVerifySemanticsCollation() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").order_preserving = true;
+        schema.translators.get("foo_bar_baz").collation = "UTF16";
+        schema.verifySemantics();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifySemanticsFailUnknownCollation() throws Exception {
+        Schema schema = getTestSchema();
+        schema.translators.get("foo_bar_baz").collation = "latin1";
+        schema.verifySemantics();
+    }
+
+    private static Schema.Field field(int bits) {
+        Schema.Field field = new Schema.Field();
+        field.name = "field" + bits;
+        field.bits = bits;
+        return field;
+    }
+
+    private static Schema.Snowflake snowflake(int timestampBits, int nodeBits, int sequenceBits) {
+        Schema.Snowflake snowflake = new Schema.Snowflake();
+        snowflake.timestamp_bits = timestampBits;
+        snowflake.node_bits = nodeBits;
+        snowflake.sequence_bits = sequenceBits;
+        return snowflake;
+    }
+
     private static Schema getTestSchema() {
         InputStream inputStream = ClassLoader.getSystemResourceAsStream(SCHEMA_RESOURCE_PATH);
         return new Yaml().loadAs(inputStream, Schema.class);
@@ -0,0 +1,100 @@
+package com.chedbrandh.gibberish.dataloading;
+
+import com.chedbrandh.gibberish.WordProvider;
+import com.chedbrandh.gibberish.dataloading.TranslatorPlanner.Plan;
+import com.chedbrandh.gibberish.dataloading.TranslatorPlanner.Slot;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.FileInputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TranslatorPlannerTest {
+
+    private static final String SCHEMA_PATH = "src/test/resources/schema_all_variations.yml";
+
+    private static final WordProvider SHORT = new WordProvider(ImmutableList.of(
+            "a", "b", "c", "d", "e", "f", "g", "h"), "short");
+
+    private static final WordProvider MIXED = new WordProvider(ImmutableList.of(
+            "a", "b", "cde", "fgh", "ijklmn", "opqrst", "abcdef", "ghijkl"), "mixed");
+
+    private static final WordProvider LONG = new WordProvider(ImmutableList.of(
+            "aaaa", "bbbb", "cccc", "dddd"), "long");
+
+    private static final TranslatorPlanner UNDERTEST = new TranslatorPlanner(ImmutableMap.of(
+            "short", SHORT, "mixed", MIXED, "long", LONG));
+
+    @Test
+    public void testPlanRequiredSlots() throws Exception {
+        Plan plan = UNDERTEST.plan(ImmutableList.of(
+                Slot.required("<", "mixed"), Slot.required(" ", "mixed")), ">", 4);
+        assertEquals(ImmutableList.of("mixed", "mixed"), plan.translator.providers);
+        assertEquals(ImmutableList.of("<", " ", ">"), plan.translator.format);
+        assertEquals(ImmutableList.of(2, 2), plan.translator.bit_distribution);
+        assertEquals(4, plan.translator.number_of_bits);
+        assertEquals(3 + 2 + 2, plan.expectedLength, 0.00001);
+    }
+
+    @Test
+    public void testPlanChoosesProvider() throws Exception {
+        Plan plan = UNDERTEST.plan(ImmutableList.of(
+                Slot.required("", "long", "short"), Slot.required(" ", "mixed", "long")), "", 5);
+        assertEquals(ImmutableList.of("short", "mixed"), plan.translator.providers);
+        assertEquals(ImmutableList.of(3, 2), plan.translator.bit_distribution);
+    }
+
+    @Test
+    public void testPlanOptionalSlots() throws Exception {
+        // the optional slot is only used when the required slot can't cover all bits
+        List<Slot> template = ImmutableList.of(
+                Slot.optional("the ", "short"), Slot.required(" and ", "short"));
+        Plan plan = UNDERTEST.plan(template, ".", 3);
+        assertEquals(ImmutableList.of("short"), plan.translator.providers);
+        assertEquals(ImmutableList.of(" and ", "."), plan.translator.format);
+        assertEquals(ImmutableList.of(3), plan.translator.bit_distribution);
+
+        plan = UNDERTEST.plan(template, ".", 4);
+        assertEquals(ImmutableList.of("short", "short"), plan.translator.providers);
+        assertEquals(ImmutableList.of("the ", " and ", "."), plan.translator.format);
+        assertEquals(4, plan.translator.bit_distribution.stream().mapToInt(i -> i).sum());
+    }
+
+    @Test
+    public void testPlanAnyProvider() throws Exception {
+        Plan plan = UNDERTEST.plan(ImmutableList.of(Slot.required("")), "", 3);
+        assertEquals(ImmutableList.of("short"), plan.translator.providers);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlanInsufficientCoverage() throws Exception {
+        UNDERTEST.plan(ImmutableList.of(Slot.required("", "long")), "", 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlanEmptySeparator() throws Exception {
+        UNDERTEST.plan(ImmutableList.of(Slot.required("", "short"), Slot.required("", "short")),
+                "", 3);
+    }
+
+    @Test
+    public void testPlanIsUsableBySchemaReader() throws Exception {
+        Schema schema = new Yaml().loadAs(
+                new FileInputStream(SCHEMA_PATH), Schema.class);
+        SchemaReader schemaReader = new SchemaReader(schema);
+        Plan plan = new TranslatorPlanner(schemaReader.getProviders()).plan(ImmutableList.of(
+                Slot.required("", "letters", "numbers"), Slot.optional("-", "all")), "", 5);
+
+        Map<String, Schema.Translator> translators = Maps.newHashMap(schema.translators);
+        translators.put("planned", plan.translator);
+        schema.translators = translators;
+        assertEquals(5, new SchemaReader(schema).getTranslators().get("planned")
+                .getIndexTranslator().bitCoverage());
+    }
+}
@@ -31,4 +31,12 @@ public class WordIndexOutOfBoundsExceptionTest {
             assertEquals(2, e.getNumBits());
         }
     }
+
+    @Test
+    public void testForIndex() throws Exception {
+        WordIndexOutOfBoundsException e = WordIndexOutOfBoundsException.forIndex(4, "bar", 2);
+        assertEquals(4, e.getIndex());
+        assertEquals("bar", e.getWord());
+        assertEquals(2, e.getNumBits());
+    }
 }
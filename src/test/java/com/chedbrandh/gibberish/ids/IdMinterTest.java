@@ -0,0 +1,235 @@
+package com.chedbrandh.gibberish.ids;
+
+import com.chedbrandh.gibberish.IndexTranslator;
+import com.chedbrandh.gibberish.PhraseTranslator;
+import com.chedbrandh.gibberish.SeparatorsPhraseConstructor;
+import com.chedbrandh.gibberish.WordProvider;
+import com.chedbrandh.gibberish.WordProviderSequence;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IdMinterTest {
+
+    private static final WordProvider PROVIDER = new WordProvider(
+            IntStream.range(0, 1 << 12).mapToObj(i -> "w" + i).collect(Collectors.toList()), "");
+
+    @Test
+    public void testPermutationIsBijective() throws Exception {
+        for (int numBits = 1; numBits <= 12; numBits++) {
+            IdMinter minter = new IdMinter(translator(numBits), 42);
+            Set<Long> values = Sets.newHashSet();
+            for (long l = 0; l < 1L << numBits; l++) {
+                long value = minter.permute(l);
+                assertTrue(value >>> numBits == 0);
+                assertEquals(l, minter.unpermute(value));
+                values.add(value);
+            }
+            assertEquals(1L << numBits, values.size());
+        }
+    }
+
+    @Test
+    public void testWideValues() throws Exception {
+        IdMinter minter = new IdMinter(translator(63), 42);
+        for (long l : ImmutableList.of(0L, 1L, 12345L, Long.MAX_VALUE)) {
+            long value = minter.permute(l);
+            assertTrue(value >= 0);
+            assertEquals(l, minter.unpermute(value));
+        }
+        IdMinter lastMinter = new IdMinter(translator(63), 42, Long.MAX_VALUE, 10);
+        assertEquals(minter.permute(Long.MAX_VALUE), lastMinter.nextValue());
+        try {
+            lastMinter.nextValue();
+            throw new RuntimeException("Did not throw expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("All phrases have been minted.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testKeyChangesPermutation() throws Exception {
+        PhraseTranslator translator = translator(16);
+        IdMinter minter1 = new IdMinter(translator, 1);
+        IdMinter minter2 = new IdMinter(translator, 2);
+        List<Long> values1 = Lists.newArrayList();
+        List<Long> values2 = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            values1.add(minter1.nextValue());
+            values2.add(minter2.nextValue());
+        }
+        assertNotEquals(values1, values2);
+        assertNotEquals(ImmutableList.of(0L, 1L, 2L), values1.subList(0, 3));
+    }
+
+    @Test
+    public void testMintAll() throws Exception {
+        PhraseTranslator translator = translator(5);
+        IdMinter minter = new IdMinter(translator, 7, 0, 3);
+        Set<String> phrases = Sets.newHashSet();
+        for (int i = 0; i < 32; i++) {
+            String phrase = minter.next();
+            phrases.add(phrase);
+            assertEquals(i, minter.sequenceNumber(phrase));
+        }
+        assertEquals(32, phrases.size());
+        try {
+            minter.next();
+            throw new RuntimeException("Did not throw expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("All phrases have been minted.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMintAllFromOtherStripes() throws Exception {
+        PhraseTranslator translator = translator(5);
+        IdMinter minter = new IdMinter(translator, 7, 0, 3);
+        Set<Long> values = Sets.newHashSet();
+        // every other thread takes a block and mints one value of it
+        for (int i = 0; i < 8; i++) {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            values.add(executor.submit(minter::nextValue).get());
+            executor.shutdown();
+        }
+        // the values left in their blocks are minted once the counter runs out
+        while (values.size() < 32) {
+            assertTrue(values.add(minter.nextValue()));
+        }
+        try {
+            minter.nextValue();
+            throw new RuntimeException("Did not throw expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("All phrases have been minted.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStart() throws Exception {
+        PhraseTranslator translator = translator(8);
+        IdMinter minter = new IdMinter(translator, 7, 100, 10);
+        assertEquals(100, minter.sequenceNumber(minter.next()));
+        assertEquals(new IdMinter(translator, 7).permute(101), minter.nextValue());
+    }
+
+    @Test
+    public void testConcurrentMinting() throws Exception {
+        IdMinter minter = new IdMinter(translator(20), 3, 0, 16);
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    assertTrue(values.add(minter.nextValue()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(40000, values.size());
+    }
+
+    @Test
+    public void testRestartFromHighWaterMark() throws Exception {
+        PhraseTranslator translator = translator(16);
+        IdMinter minter = new IdMinter(translator, 5, 0, 64);
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int t = 0; t < 2; t++) {
+            int count = 100 + t * 50;
+            futures.add(executor.submit(() -> {
+                // neither thread uses up its last block
+                for (int i = 0; i < count; i++) {
+                    assertTrue(values.add(minter.nextValue()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        for (long value : values) {
+            assertTrue(minter.unpermute(value) < minter.highWaterMark());
+        }
+
+        IdMinter restarted = new IdMinter(translator, 5, minter.highWaterMark(), 64);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(values.add(restarted.nextValue()));
+        }
+        assertEquals(250 + 1000, values.size());
+    }
+
+    @Test
+    public void testHighWaterMarkWhenExhausted() throws Exception {
+        IdMinter minter = new IdMinter(translator(5), 7, 30, 4);
+        minter.nextValue();
+        assertEquals(32, minter.highWaterMark());
+        minter.nextValue();
+        try {
+            minter.nextValue();
+            throw new RuntimeException("Did not throw expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals(32, minter.highWaterMark());
+        }
+        try {
+            new IdMinter(translator(5), 7, minter.highWaterMark(), 4).nextValue();
+            throw new RuntimeException("Did not throw expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("All phrases have been minted.", e.getMessage());
+        }
+
+        IdMinter wideMinter = new IdMinter(translator(63), 7, Long.MAX_VALUE, 4);
+        wideMinter.nextValue();
+        assertEquals(Long.MIN_VALUE, wideMinter.highWaterMark());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStartOutOfRange() throws Exception {
+        new IdMinter(translator(8), 0, 257, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOutOfRange() throws Exception {
+        new IdMinter(translator(8), 0).permute(256);
+    }
+
+    /**
+     * Create a phrase translator of words of at most 12 bits covering some
+     * number of bits.
+     */
+    private static PhraseTranslator translator(int numBits) throws Exception {
+        List<Integer> bitDistribution = Lists.newArrayList();
+        for (int bits = numBits; bits > 0; bits -= 12) {
+            bitDistribution.add(Math.min(bits, 12));
+        }
+        List<String> separators = Lists.newArrayList("");
+        for (int i = 1; i < bitDistribution.size(); i++) {
+            separators.add("-");
+        }
+        separators.add("");
+        SeparatorsPhraseConstructor phraseConstructor =
+                new SeparatorsPhraseConstructor(separators);
+        return new PhraseTranslator(
+                new WordProviderSequence(Collections.nCopies(bitDistribution.size(), PROVIDER)),
+                new IndexTranslator(bitDistribution), phraseConstructor, phraseConstructor);
+    }
+}
@@ -0,0 +1,146 @@
+package com.chedbrandh.gibberish.ids;
+
+import com.chedbrandh.gibberish.IndexTranslator;
+import com.chedbrandh.gibberish.PhraseTranslator;
+import com.chedbrandh.gibberish.SeparatorsPhraseConstructor;
+import com.chedbrandh.gibberish.WordProvider;
+import com.chedbrandh.gibberish.WordProviderSequence;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SnowflakeGeneratorTest {
+
+    private static final WordProvider PROVIDER = new WordProvider(
+            IntStream.range(0, 1 << 10).mapToObj(i -> "w" + i).collect(Collectors.toList()), "");
+    private static final SeparatorsPhraseConstructor SEPARATORS =
+            new SeparatorsPhraseConstructor(ImmutableList.of("", "-", ""));
+
+    // 12 bits of timestamp, 4 bits of node and 4 bits of sequence
+    private static final SnowflakeLayout LAYOUT = new SnowflakeLayout(12, 4, 4, 5000, 10);
+
+    private PhraseTranslator translator;
+    private AtomicLong clock;
+
+    @Before
+    public void before() throws Exception {
+        translator = new PhraseTranslator(
+                new WordProviderSequence(ImmutableList.of(PROVIDER, PROVIDER)),
+                new IndexTranslator(ImmutableList.of(10, 10)), SEPARATORS, SEPARATORS);
+        clock = new AtomicLong(5000);
+    }
+
+    @Test
+    public void testSequence() throws Exception {
+        SnowflakeGenerator generator = generator(3, 0);
+        for (int i = 0; i < 16; i++) {
+            assertEquals(LAYOUT.toLong(0, 3, i), generator.nextValue());
+        }
+        clock.set(5025);
+        assertEquals(LAYOUT.toLong(2, 3, 0), generator.nextValue());
+    }
+
+    @Test
+    public void testFieldsOfPhrase() throws Exception {
+        clock.set(5123);
+        String phrase = generator(9, 0).next();
+        assertEquals(5120, generator(0, 0).getTimestampMillis(phrase));
+        assertEquals(9, generator(0, 0).getNode(phrase));
+    }
+
+    @Test
+    public void testSequenceRolloverBacksOff() throws Exception {
+        // the clock advances a tick every 20 reads
+        AtomicLong reads = new AtomicLong();
+        SnowflakeGenerator generator = new SnowflakeGenerator(translator, LAYOUT, 1, 0,
+                () -> 5000 + reads.getAndIncrement() / 20 * 10);
+        for (int i = 0; i < 16; i++) {
+            assertEquals(LAYOUT.toLong(0, 1, i), generator.nextValue());
+        }
+        assertEquals(LAYOUT.toLong(1, 1, 0), generator.nextValue());
+    }
+
+    @Test
+    public void testClockRegression() throws Exception {
+        SnowflakeGenerator generator = generator(1, 30);
+        clock.set(5100);
+        assertEquals(LAYOUT.toLong(10, 1, 0), generator.nextValue());
+        // ids keep being generated for the last tick
+        clock.set(5080);
+        assertEquals(LAYOUT.toLong(10, 1, 1), generator.nextValue());
+        clock.set(5060);
+        try {
+            generator.nextValue();
+            throw new RuntimeException("Did not throw expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("Clock moved back 4 ticks, which is more than the tolerated 3 ticks.",
+                    e.getMessage());
+        }
+        clock.set(5110);
+        assertEquals(LAYOUT.toLong(11, 1, 0), generator.nextValue());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTimestampOutOfBounds() throws Exception {
+        clock.set(5000 + 10 * 4096);
+        generator(1, 0).nextValue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBeforeEpoch() throws Exception {
+        clock.set(4999);
+        generator(1, 0).nextValue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNodeOutOfBounds() throws Exception {
+        generator(16, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLayoutBitsMismatch() throws Exception {
+        new SnowflakeGenerator(translator, new SnowflakeLayout(12, 4, 3, 0, 1), 1);
+    }
+
+    @Test
+    public void testConcurrentGeneration() throws Exception {
+        // the clock advances a tick every read, so that sequences roll over rarely
+        AtomicLong reads = new AtomicLong();
+        SnowflakeGenerator generator = new SnowflakeGenerator(translator, LAYOUT, 2, 0,
+                () -> 5000 + reads.getAndIncrement() / 4);
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = Lists.newArrayList();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    assertTrue(values.add(generator.nextValue()));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(4000, values.size());
+    }
+
+    private SnowflakeGenerator generator(long node, long maxClockRegressionMillis) {
+        return new SnowflakeGenerator(
+                translator, LAYOUT, node, maxClockRegressionMillis, clock::get);
+    }
+}
@@ -0,0 +1,56 @@
+package com.chedbrandh.gibberish.ids;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SnowflakeLayoutTest {
+
+    private static final SnowflakeLayout LAYOUT = new SnowflakeLayout(20, 6, 8, 1000, 10);
+
+    @Test
+    public void testToLong() throws Exception {
+        assertEquals(0, LAYOUT.toLong(0, 0, 0));
+        assertEquals(1, LAYOUT.toLong(0, 0, 1));
+        assertEquals(1 << 8, LAYOUT.toLong(0, 1, 0));
+        assertEquals(1 << 14, LAYOUT.toLong(1, 0, 0));
+        assertEquals((1L << 34) - 1, LAYOUT.toLong((1 << 20) - 1, 63, 255));
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        long id = LAYOUT.toLong(12345, 42, 7);
+        assertEquals(12345, LAYOUT.getTick(id));
+        assertEquals(42, LAYOUT.getNode(id));
+        assertEquals(7, LAYOUT.getSequence(id));
+        assertEquals(1000 + 123450, LAYOUT.getTimestampMillis(id));
+    }
+
+    @Test
+    public void testToTick() throws Exception {
+        assertEquals(0, LAYOUT.toTick(1000));
+        assertEquals(0, LAYOUT.toTick(1009));
+        assertEquals(1, LAYOUT.toTick(1010));
+        assertEquals(-1, LAYOUT.toTick(999));
+    }
+
+    @Test
+    public void testFieldOutOfBounds() throws Exception {
+        try {
+            LAYOUT.toLong(0, 64, 0);
+            throw new RuntimeException("Did not throw expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Value 64 of field 'node' does not fit in 6 bits.", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyBits() throws Exception {
+        new SnowflakeLayout(40, 10, 14, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveTick() throws Exception {
+        new SnowflakeLayout(40, 10, 10, 0, 0);
+    }
+}
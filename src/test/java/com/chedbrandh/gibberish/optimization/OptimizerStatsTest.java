@@ -0,0 +1,74 @@
+package com.chedbrandh.gibberish.optimization;
+
+import com.chedbrandh.gibberish.WordProvider;
+import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Direction;
+import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Input;
+import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Output;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class OptimizerStatsTest {
+
+    private static final WordProvider PROVIDER = new WordProvider(ImmutableList.of(
+            "a", "b", "cde", "fgh", "ijklmn", "opqrst", "abcdef", "ghijkl"), "");
+
+    @Test
+    public void testStats() throws Exception {
+        TotalMeanWordLengthProblem problem = new TotalMeanWordLengthProblem(
+                ImmutableList.of(PROVIDER, PROVIDER, PROVIDER), 5);
+        OptimizerStats<Input, Output, Direction> undertest = new OptimizerStats<>();
+        Input min = new ConstrainedIntegerOptimizer<>(problem, undertest).findMin();
+
+        assertEquals(min, undertest.getBestInput());
+        assertEquals(0, problem.function(min).compareTo(undertest.getBestOutput()));
+        // starting input and every legal step is evaluated, illegal steps are not
+        assertTrue(undertest.getEvaluationCount() > undertest.getAcceptedStepCount() + 1);
+        assertTrue(undertest.getEvaluationCount() <=
+                undertest.getAcceptedStepCount() + undertest.getRejectedStepCount() + 1);
+        assertTrue(undertest.getAcceptedStepCount() > 0);
+        assertTrue(undertest.getPassCount() > 1);
+        assertTrue(undertest.getWallTime(TimeUnit.NANOSECONDS) >= 0);
+
+        // starting input first, then strictly improving outputs, ending with min
+        List<OptimizerStats.Improvement<Input, Output>> improvements = undertest.getImprovements();
+        assertEquals(problem.getLegalStartingInput(), improvements.get(0).input);
+        assertEquals(1, improvements.get(0).evaluationCount);
+        for (int i = 1; i < improvements.size(); i++) {
+            assertTrue(improvements.get(i).output.compareTo(improvements.get(i - 1).output) < 0);
+            assertTrue(improvements.get(i).evaluationCount >=
+                    improvements.get(i - 1).evaluationCount);
+        }
+        assertEquals(0, improvements.get(improvements.size() - 1).output
+                .compareTo(undertest.getBestOutput()));
+    }
+
+    @Test
+    public void testStatsFinishWhenOptimizationFails() throws Exception {
+        TotalMeanWordLengthProblem problem = new TotalMeanWordLengthProblem(
+                ImmutableList.of(PROVIDER, PROVIDER, PROVIDER), 5) {
+            @Override
+            public long maxPasses() {
+                return 0;
+            }
+        };
+        OptimizerStats<Input, Output, Direction> undertest = new OptimizerStats<>();
+        try {
+            new ConstrainedIntegerOptimizer<>(problem, undertest).findMin();
+            throw new RuntimeException("Did not throw expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        long wallTime = undertest.getWallTime(TimeUnit.NANOSECONDS);
+        Thread.sleep(2);
+        assertEquals(wallTime, undertest.getWallTime(TimeUnit.NANOSECONDS));
+        assertNotNull(undertest.getBestInput());
+        assertEquals(1, undertest.getPassCount());
+    }
+}
@@ -0,0 +1,148 @@
+package com.chedbrandh.gibberish.optimization;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RandomRestartOptimizerTest {
+
+    private static final TwoValleys PROBLEM = new TwoValleys();
+
+    @Test
+    public void testLocalMin() throws Exception {
+        assertEquals(15, (int) new ConstrainedIntegerOptimizer<>(PROBLEM).findMin());
+    }
+
+    @Test
+    public void testNoRestarts() throws Exception {
+        assertEquals(15, (int) new RandomRestartOptimizer<>(PROBLEM, 0, 0).findMin());
+    }
+
+    @Test
+    public void testFindMin() throws Exception {
+        assertEquals(3, (int) new RandomRestartOptimizer<>(PROBLEM, 20, 0).findMin());
+    }
+
+    @Test
+    public void testReproducible() throws Exception {
+        for (long seed = 0; seed < 20; seed++) {
+            int expected = new RandomRestartOptimizer<>(PROBLEM, 1, seed, 1, 0).findMin();
+            for (int parallelism = 1; parallelism <= 4; parallelism++) {
+                assertEquals(expected, (int) new RandomRestartOptimizer<>(
+                        PROBLEM, 1, seed, parallelism, 0).findMin());
+            }
+        }
+    }
+
+    @Test
+    public void testReproducibleRestarts() throws Exception {
+        for (long seed = 0; seed < 20; seed++) {
+            for (long budget : new long[] {0, 5, 30, 100}) {
+                OptimizerStats<Integer, Integer, Integer> expectedStats = new OptimizerStats<>();
+                int expected = new RandomRestartOptimizer<>(
+                        PROBLEM, 8, seed, 1, 0, budget, expectedStats).findMin();
+                for (int parallelism = 1; parallelism <= 4; parallelism++) {
+                    OptimizerStats<Integer, Integer, Integer> stats = new OptimizerStats<>();
+                    assertEquals(expected, (int) new RandomRestartOptimizer<>(
+                            PROBLEM, 8, seed, parallelism, 0, budget, stats).findMin());
+                    assertEquals(expectedStats.getEvaluationCount(), stats.getEvaluationCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEvaluationBudgetShared() throws Exception {
+        OptimizerStats<Integer, Integer, Integer> singleRun = new OptimizerStats<>();
+        new ConstrainedIntegerOptimizer<>(PROBLEM, singleRun).findMin();
+        OptimizerStats<Integer, Integer, Integer> stats = new OptimizerStats<>();
+        new RandomRestartOptimizer<>(PROBLEM, 20, 0, 4, 0, 30, stats).findMin();
+        assertTrue(stats.getEvaluationCount() <= Math.max(30, singleRun.getEvaluationCount()));
+    }
+
+    @Test
+    public void testNullListener() throws Exception {
+        assertEquals(3, (int) new RandomRestartOptimizer<>(
+                PROBLEM, 20, 0, 4, 0, 0, null).findMin());
+    }
+
+    @Test
+    public void testEvaluationBudget() throws Exception {
+        // the run from the legal starting input uses up the budget
+        assertEquals(15, (int) new RandomRestartOptimizer<>(
+                PROBLEM, 20, 0, 2, 0, 1, new OptimizerStats<>()).findMin());
+    }
+
+    @Test
+    public void testListener() throws Exception {
+        OptimizerStats<Integer, Integer, Integer> singleRun = new OptimizerStats<>();
+        new ConstrainedIntegerOptimizer<>(PROBLEM, singleRun).findMin();
+        OptimizerStats<Integer, Integer, Integer> stats = new OptimizerStats<>();
+        int min = new RandomRestartOptimizer<>(PROBLEM, 20, 0, 4, 0, 0, stats).findMin();
+        assertEquals(min, (int) stats.getBestInput());
+        assertEquals(PROBLEM.function(min), stats.getBestOutput());
+        assertTrue(stats.getEvaluationCount() > singleRun.getEvaluationCount());
+        assertEquals(20, (int) stats.getImprovements().get(0).input);
+        assertEquals(min, (int) Iterables.getLast(stats.getImprovements()).input);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeEvaluationBudget() throws Exception {
+        new RandomRestartOptimizer<>(PROBLEM, 1, 0, 1, 0, -1, new OptimizerStats<>());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRestarts() throws Exception {
+        new RandomRestartOptimizer<>(PROBLEM, -1, 0);
+    }
+
+    /**
+     * Integers from 0 to 20 with a global min at 3, and a local min at 15
+     * which is found when starting from 20.
+     */
+    private static class TwoValleys
+            implements RandomRestartOptimizer.Problem<Integer, Integer, Integer> {
+
+        @Override
+        public Integer function(Integer integer) {
+            return integer < 10 ?
+                    (integer - 3) * (integer - 3) - 10 : (integer - 15) * (integer - 15);
+        }
+
+        @Override
+        public Integer getLegalStartingInput() {
+            return 20;
+        }
+
+        @Override
+        public Integer getRandomLegalInput(Random random) {
+            return random.nextInt(21);
+        }
+
+        @Override
+        public Integer moveOneStep(Integer integer, Integer direction) {
+            return integer + direction;
+        }
+
+        @Override
+        public boolean isIllegalInput(Integer integer) {
+            return integer < 0 || 20 < integer;
+        }
+
+        @Override
+        public Iterator<Integer> getDirections() {
+            return ImmutableList.of(1, -1).iterator();
+        }
+
+        @Override
+        public long maxPasses() {
+            return 999;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.chedbrandh.gibberish.optimization;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.chedbrandh.gibberish.WordProvider;
 import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Direction;
 import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Input;
@@ -9,6 +10,7 @@ import com.chedbrandh.gibberish.optimization.TotalMeanWordLengthProblem.Output;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
@@ -126,6 +128,21 @@ public class TotalMeanWordLengthProblemTest {
         assertEquals(ImmutableList.of(1, 3), problem.getLegalStartingInput().bitDistribution);
     }
 
+    @Test
+    public void testGetRandomLegalInput() throws Exception {
+        List<WordProvider> providers = ImmutableList.of(PROVIDER_1, PROVIDER_3, PROVIDER_2);
+        problem = new TotalMeanWordLengthProblem(providers, 6);
+        Random random = new Random(0);
+        Set<Input> inputs = Sets.newHashSet();
+        for (int i = 0; i < 100; i++) {
+            Input input = problem.getRandomLegalInput(random);
+            assertFalse(problem.isIllegalInput(input));
+            inputs.add(input);
+        }
+        // only (3, 1, 2) and (2, 1, 3) are legal
+        assertEquals(2, inputs.size());
+    }
+
     @Test
     public void testMoveOneStep() throws Exception {
         List<WordProvider> providers = ImmutableList.of(PROVIDER_1, PROVIDER_2);
@@ -141,6 +158,42 @@ public class TotalMeanWordLengthProblemTest {
                 new Input(ImmutableList.of(2, 2)), new Direction(0, 1)).bitDistribution);
     }
 
+    @Test
+    public void testMoveOneStepLegality() throws Exception {
+        List<WordProvider> providers = ImmutableList.of(PROVIDER_1, PROVIDER_3);
+        problem = new TotalMeanWordLengthProblem(providers, 4);
+
+        Input legalInput = new Input(3, 1);
+        assertFalse(problem.isIllegalInput(legalInput));
+
+        Input movedInput = problem.moveOneStep(legalInput, new Direction(1, 0));
+        assertEquals(ImmutableList.of(4, 0), movedInput.bitDistribution());
+        assertTrue(problem.isIllegalInput(movedInput));
+
+        movedInput = problem.moveOneStep(legalInput, new Direction(0, 1));
+        assertEquals(ImmutableList.of(2, 2), movedInput.bitDistribution());
+        assertTrue(problem.isIllegalInput(movedInput));
+
+        assertEquals(ImmutableList.of(3, 1), legalInput.bitDistribution());
+    }
+
+    @Test
+    public void testLegalityDependsOnProblem() throws Exception {
+        List<WordProvider> providers = ImmutableList.of(PROVIDER_1, PROVIDER_2);
+        Input input = new Input(3, 3);
+        assertFalse(new TotalMeanWordLengthProblem(providers, 6).isIllegalInput(input));
+        assertTrue(new TotalMeanWordLengthProblem(providers, 4).isIllegalInput(input));
+        assertFalse(new TotalMeanWordLengthProblem(providers, 6).isIllegalInput(input));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testBitDistributionField() throws Exception {
+        Input input = new Input(ImmutableList.of(2, 1));
+        assertEquals(ImmutableList.of(2, 1), input.bitDistribution);
+        assertEquals(input.bitDistribution(), input.bitDistribution);
+    }
+
     @Test
     public void testIsLegalInput() throws Exception {
         List<WordProvider> providers = ImmutableList.of(PROVIDER_1, PROVIDER_2);
@@ -0,0 +1,40 @@
+package com.chedbrandh.gibberish.tools;
+
+import com.chedbrandh.gibberish.PhraseTranslator;
+import com.chedbrandh.gibberish.dataloading.SchemaReader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+public class PhraseScannerMainTest {
+
+    private static final String SCHEMA = "src/test/resources/schema_scanner.yml";
+
+    @Test
+    public void testRun() throws Exception {
+        PhraseTranslator translator = new SchemaReader(new FileInputStream(SCHEMA))
+                .getTranslators().get("letters_numbers");
+        String phrase = translator.fromLong(42);
+        String text = "found: " + phrase + "\n";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int status = PhraseScannerMain.run(new String[]{SCHEMA, "letters_numbers"},
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out), System.err);
+        assertEquals(0, status);
+        assertEquals("7\t42\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRunUsage() throws Exception {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(2, PhraseScannerMain.run(new String[]{SCHEMA},
+                System.in, System.out, new PrintStream(err)));
+    }
+}